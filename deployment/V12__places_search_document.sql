@@ -0,0 +1,57 @@
+-- V12: documento de búsqueda normalizado para lugares
+--
+-- El modo TEXT normalizaba name || address || description con unaccent/lower/regexp
+-- dos veces por fila (filtro y ORDER BY), por lo que ningún índice podía usarse.
+-- Ahora el texto normalizado y su tsvector se mantienen en columnas propias,
+-- calculadas por trigger, e indexadas con trigram (LIKE '%q%') y GIN (prefijos).
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE places ADD COLUMN IF NOT EXISTS search_document TEXT;
+ALTER TABLE places ADD COLUMN IF NOT EXISTS search_tsv TSVECTOR;
+
+-- Misma normalización que aplica la consulta sobre el texto de entrada
+CREATE OR REPLACE FUNCTION places_normalize_search_text(input TEXT)
+RETURNS TEXT
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT regexp_replace(
+        replace(unaccent(lower(coalesce(input, ''))), chr(160), ' '),
+        '\s+', ' ', 'g'
+    )
+$$;
+
+CREATE OR REPLACE FUNCTION places_refresh_search_document()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    NEW.search_document := places_normalize_search_text(
+        coalesce(NEW.name, '') || ' ' || coalesce(NEW.address, '') || ' ' || coalesce(NEW.description, '')
+    );
+    NEW.search_tsv :=
+        setweight(to_tsvector('simple', places_normalize_search_text(NEW.name)), 'A') ||
+        setweight(to_tsvector('simple', places_normalize_search_text(NEW.address)), 'B') ||
+        setweight(to_tsvector('simple', places_normalize_search_text(NEW.description)), 'C');
+    RETURN NEW;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_places_search_document ON places;
+CREATE TRIGGER trg_places_search_document
+    BEFORE INSERT OR UPDATE OF name, address, description ON places
+    FOR EACH ROW
+    EXECUTE FUNCTION places_refresh_search_document();
+
+-- Backfill de filas existentes (dispara el trigger)
+UPDATE places SET name = name WHERE search_document IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_places_search_document_trgm
+    ON places USING GIN (search_document gin_trgm_ops)
+    WHERE is_active = TRUE;
+
+CREATE INDEX IF NOT EXISTS idx_places_search_tsv
+    ON places USING GIN (search_tsv)
+    WHERE is_active = TRUE;
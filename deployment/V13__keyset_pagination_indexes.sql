@@ -0,0 +1,32 @@
+-- V13: índices para paginación por cursor (created_at, id)
+--
+-- Los listados aceptan ?cursor= y continúan con
+--   WHERE (created_at, id) < (:afterCreatedAt, :afterId) ORDER BY created_at DESC, id DESC
+-- en vez de OFFSET. Cada índice cubre la llave completa para que la página
+-- siguiente sea un index range scan sin importar qué tan profunda sea.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_places_created_id
+    ON places (created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_places_owner_created_id
+    ON places (owner_user_id, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_user_created_id
+    ON reservations (user_email, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_agency_created_id
+    ON reservations (agency_id, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_created_id
+    ON reservations (created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_recipient_created_id
+    ON notifications (recipient_email, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_place_reviews_place_created_id
+    ON place_reviews (place_id, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_place_favorites_user_created_place
+    ON user_place_favorites (user_id, created_at DESC, place_id DESC);
+
+-- reservation_messages ya tiene (reservation_id, created_at ASC, id ASC) desde V6
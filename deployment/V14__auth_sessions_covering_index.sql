@@ -0,0 +1,9 @@
+-- V14: validación de sesión en una sola consulta
+--
+-- AuthSessionStore.find lee email, roles, ip, jti, user_id y el estado de revocación
+-- por token_hash en un solo round-trip (antes: EXISTS por jti + SELECT por token_hash).
+-- El índice incluye todas las columnas leídas para que sea un index-only scan.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_auth_sessions_token_cover
+    ON auth_sessions (token_hash)
+    INCLUDE (expires_at, revoked_at, jti, user_id, email, roles, ip);
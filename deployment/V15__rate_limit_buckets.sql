@@ -0,0 +1,56 @@
+-- V15: buckets de rate limiting compartidos entre réplicas
+--
+-- Cada réplica toma "leases" de varios tokens con rate_limit_acquire y los gasta
+-- localmente, así el límite es global sin un write por request.
+-- La tabla es UNLOGGED: perderla en un crash solo reinicia los contadores.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key  VARCHAR(255) PRIMARY KEY,
+    tokens      DOUBLE PRECISION NOT NULL,
+    refilled_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Para purgar buckets inactivos (ya llenos):
+--   DELETE FROM rate_limit_buckets WHERE refilled_at < NOW() - INTERVAL '1 hour';
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_refilled_at
+    ON rate_limit_buckets (refilled_at);
+
+-- Token bucket con recarga continua (equivalente a refillGreedy de Bucket4j).
+-- Entrega hasta p_requested tokens en una sola llamada, bajo el lock de la fila.
+CREATE OR REPLACE FUNCTION rate_limit_acquire(
+    p_key            TEXT,
+    p_capacity       BIGINT,
+    p_refill         BIGINT,
+    p_window_seconds BIGINT,
+    p_requested      BIGINT
+)
+RETURNS TABLE (granted BIGINT, remaining BIGINT, reset_seconds BIGINT)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_rate    DOUBLE PRECISION := GREATEST(p_refill, 1)::DOUBLE PRECISION / GREATEST(p_window_seconds, 1);
+    v_tokens  DOUBLE PRECISION;
+    v_granted BIGINT;
+BEGIN
+    INSERT INTO rate_limit_buckets AS b (bucket_key, tokens, refilled_at)
+    VALUES (p_key, p_capacity, clock_timestamp())
+    ON CONFLICT (bucket_key) DO UPDATE
+        SET tokens = LEAST(p_capacity,
+                           b.tokens + EXTRACT(EPOCH FROM (clock_timestamp() - b.refilled_at)) * v_rate),
+            refilled_at = clock_timestamp()
+    RETURNING b.tokens INTO v_tokens;
+
+    v_granted := GREATEST(0, LEAST(p_requested, FLOOR(v_tokens)::BIGINT));
+    IF v_granted > 0 THEN
+        UPDATE rate_limit_buckets
+           SET tokens = tokens - v_granted
+         WHERE bucket_key = p_key;
+        v_tokens := v_tokens - v_granted;
+    END IF;
+
+    RETURN QUERY SELECT
+        v_granted,
+        FLOOR(v_tokens)::BIGINT,
+        GREATEST(1, CEIL((1 - LEAST(v_tokens, 1)) / v_rate))::BIGINT;
+END;
+$$;
@@ -0,0 +1,93 @@
+-- V16: rollups diarios para el dashboard de agencias
+--
+-- agency_sales_daily          ventas por (día, agencia, paquete)
+-- agency_place_visits_daily   visitas por (agencia, día, lugar) de los lugares en sus paquetes
+--
+-- refresh_analytics_rollups() los recalcula de forma incremental: solo borra y reinserta
+-- los días desde el último watermark menos un día. El job de la app la invoca cada
+-- turismo.analytics.rollups.refresh-interval; un advisory lock evita corridas en paralelo
+-- entre réplicas. La primera corrida (sin watermark) hace el backfill completo.
+--
+-- Las ventas quedan en el rollup solo hasta el watermark (now() - 1 minuto); las
+-- consultas suman en vivo lo vendido después (rango sobre idx_sales_agency_date, sin
+-- castear sold_at), así el dashboard no pierde frescura.
+-- Las visitas por agencia se leen solo del rollup (desfase <= refresh-interval).
+-- Cambios en tour_package_places aplican desde el día anterior al watermark; para
+-- recalcular todo: DELETE FROM analytics_rollup_state; SELECT refresh_analytics_rollups();
+
+CREATE TABLE IF NOT EXISTS agency_sales_daily (
+    day        DATE   NOT NULL,
+    agency_id  BIGINT NOT NULL,
+    package_id BIGINT NOT NULL,   -- 0 = paquete eliminado
+    sold       BIGINT NOT NULL,
+    revenue    BIGINT NOT NULL,
+    PRIMARY KEY (agency_id, day, package_id)
+);
+
+CREATE TABLE IF NOT EXISTS agency_place_visits_daily (
+    agency_id BIGINT NOT NULL,
+    day       DATE   NOT NULL,
+    place_id  BIGINT NOT NULL,
+    visits    BIGINT NOT NULL,
+    PRIMARY KEY (agency_id, day, place_id)
+);
+
+CREATE TABLE IF NOT EXISTS analytics_rollup_state (
+    name      VARCHAR(50) PRIMARY KEY,
+    watermark TIMESTAMPTZ NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION refresh_analytics_rollups()
+RETURNS TIMESTAMPTZ
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_mark       TIMESTAMPTZ := now() - INTERVAL '1 minute';
+    v_sales_from DATE;
+    v_visit_from DATE;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('refresh_analytics_rollups')) THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT watermark::date - 1 INTO v_sales_from
+      FROM analytics_rollup_state WHERE name = 'sales';
+    v_sales_from := COALESCE(v_sales_from, DATE '1970-01-01');
+
+    DELETE FROM agency_sales_daily WHERE day >= v_sales_from;
+    INSERT INTO agency_sales_daily (day, agency_id, package_id, sold, revenue)
+    SELECT s.sold_at::date,
+           s.agency_id,
+           COALESCE(s.package_id, 0),
+           COALESCE(SUM(s.quantity), 0),
+           COALESCE(SUM(s.total_amount), 0)
+      FROM tour_package_sales s
+     WHERE s.agency_id IS NOT NULL
+       AND s.sold_at >= v_sales_from
+       AND s.sold_at <  v_mark
+     GROUP BY 1, 2, 3;
+
+    SELECT watermark::date - 1 INTO v_visit_from
+      FROM analytics_rollup_state WHERE name = 'place_visits';
+    v_visit_from := COALESCE(v_visit_from, DATE '1970-01-01');
+
+    DELETE FROM agency_place_visits_daily WHERE day >= v_visit_from;
+    INSERT INTO agency_place_visits_daily (agency_id, day, place_id, visits)
+    SELECT ap.agency_id, d.day, d.place_id, SUM(d.visits)
+      FROM place_visit_daily d
+      JOIN (
+            SELECT DISTINCT tp.agency_id, tpp.place_id
+              FROM tour_package_places tpp
+              JOIN tour_packages tp ON tp.id = tpp.package_id
+             WHERE tp.agency_id IS NOT NULL
+           ) ap ON ap.place_id = d.place_id
+     WHERE d.day >= v_visit_from
+     GROUP BY 1, 2, 3;
+
+    INSERT INTO analytics_rollup_state (name, watermark)
+    VALUES ('sales', v_mark), ('place_visits', v_mark)
+    ON CONFLICT (name) DO UPDATE SET watermark = EXCLUDED.watermark;
+
+    RETURN v_mark;
+END;
+$$;
@@ -0,0 +1,34 @@
+-- V17: place_rating_summary pasa de vista a tabla mantenida de forma incremental
+--
+-- La vista re-agregaba place_reviews en cada lectura. Ahora la tabla guarda suma y
+-- conteo por lugar; ReviewRepositoryAdapter.create inserta la reseña y suma en la
+-- misma sentencia, así el resumen nunca queda desfasado de las reseñas.
+-- Leer el resumen de un lugar es un lookup por PK.
+
+DROP VIEW IF EXISTS place_rating_summary;
+
+CREATE TABLE IF NOT EXISTS place_rating_summary (
+    place_id      BIGINT PRIMARY KEY REFERENCES places(id) ON DELETE CASCADE,
+    rating_sum    BIGINT NOT NULL DEFAULT 0,
+    reviews_count BIGINT NOT NULL DEFAULT 0,
+    avg_rating    DOUBLE PRECISION GENERATED ALWAYS AS (
+                      CASE WHEN reviews_count > 0
+                           THEN rating_sum::DOUBLE PRECISION / reviews_count
+                           ELSE 0 END
+                  ) STORED
+);
+
+INSERT INTO place_rating_summary (place_id, rating_sum, reviews_count)
+SELECT place_id, SUM(rating), COUNT(*)
+  FROM place_reviews
+ WHERE place_id IS NOT NULL
+   AND rating IS NOT NULL
+ GROUP BY place_id
+ON CONFLICT (place_id) DO UPDATE
+   SET rating_sum    = EXCLUDED.rating_sum,
+       reviews_count = EXCLUDED.reviews_count;
+
+-- Ranking de mejor calificados (findTopRatedPlaces)
+CREATE INDEX IF NOT EXISTS idx_place_rating_summary_top
+    ON place_rating_summary (avg_rating DESC, reviews_count DESC)
+    WHERE reviews_count > 0;
@@ -0,0 +1,33 @@
+-- V18: outbox de correos
+--
+-- EmailGateway.sendEmail ya no llama a Brevo: inserta aquí, dentro de la transacción
+-- del llamador si la hay, y responde de inmediato. EmailOutboxDispatcher toma lotes con
+-- FOR UPDATE SKIP LOCKED (varias réplicas no se pisan), los envía a Brevo y los marca.
+--
+-- status:  pending -> sent
+--          pending -> dead   (agotó turismo.email.outbox.max-attempts)
+-- locked_until reserva el lote mientras se envía; si la réplica muere, vence y otra lo toma.
+-- next_attempt_at aplica el backoff exponencial entre reintentos.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              BIGSERIAL PRIMARY KEY,
+    recipient       VARCHAR(320) NOT NULL,
+    subject         TEXT         NOT NULL,
+    html_body       TEXT         NOT NULL,
+    status          VARCHAR(10)  NOT NULL DEFAULT 'pending'
+                    CHECK (status IN ('pending', 'sent', 'dead')),
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    locked_until    TIMESTAMPTZ,
+    last_error      TEXT,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    sent_at         TIMESTAMPTZ
+);
+
+-- Solo los pendientes: el índice no crece con el histórico de enviados
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending
+    ON email_outbox (next_attempt_at, id)
+    WHERE status = 'pending';
+
+-- Limpieza sugerida (fuera de la app):
+-- DELETE FROM email_outbox WHERE status = 'sent' AND sent_at < now() - INTERVAL '30 days';
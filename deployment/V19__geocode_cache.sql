@@ -0,0 +1,25 @@
+-- V19: caché persistente de geocodificación y cuota diaria compartida
+--
+-- geocode_cache   resultados completos de LocationIQ por (dirección normalizada, límite).
+--                 Se ignoran las filas más viejas que geocode.cache-ttl-days y el
+--                 siguiente acierto las sobrescribe.
+-- geocode_quota   llamadas a LocationIQ por día (UTC), compartidas entre réplicas; el
+--                 adapter no llama si se alcanzó geocode.daily-quota.
+
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    cache_key  VARCHAR(600) PRIMARY KEY,
+    results    JSONB        NOT NULL,
+    fetched_at TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_geocode_cache_fetched_at
+    ON geocode_cache (fetched_at);
+
+CREATE TABLE IF NOT EXISTS geocode_quota (
+    day  DATE PRIMARY KEY,
+    used INT  NOT NULL
+);
+
+-- Limpieza sugerida (fuera de la app):
+-- DELETE FROM geocode_cache WHERE fetched_at < now() - INTERVAL '30 days';
+-- DELETE FROM geocode_quota WHERE day < current_date - 90;
@@ -0,0 +1,9 @@
+-- V20: búsqueda de usuarios por correo sin distinguir mayúsculas
+--
+-- Todas las consultas de users por correo filtran con lower(email) = lower(:email), que
+-- no puede usar el índice UNIQUE sobre email. Este índice funcional las resuelve, y con
+-- INCLUDE (id, email) la resolución correo -> id (UserIdentityCache) es un index-only scan.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_lower_email
+    ON users (lower(email))
+    INCLUDE (id, email);
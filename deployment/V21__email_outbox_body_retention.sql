@@ -0,0 +1,16 @@
+-- V21: el outbox de correos no guarda cuerpos ya entregados
+--
+-- Los correos de verificación y recuperación llevan el token y el enlace en html_body;
+-- la BD solo debe guardar su hash (users.*_token_hash). El cuerpo se necesita solo mientras
+-- el correo está pendiente: al marcarlo sent o dead se pone en NULL, y
+-- EmailOutboxDispatcher borra las filas terminadas con más de
+-- turismo.email.outbox.retention.
+
+ALTER TABLE email_outbox ALTER COLUMN html_body DROP NOT NULL;
+
+UPDATE email_outbox SET html_body = NULL WHERE status IN ('sent', 'dead') AND html_body IS NOT NULL;
+
+-- Para la purga: solo las filas terminadas, por antigüedad
+CREATE INDEX IF NOT EXISTS idx_email_outbox_finished
+    ON email_outbox (COALESCE(sent_at, created_at), id)
+    WHERE status IN ('sent', 'dead');
@@ -0,0 +1,33 @@
+-- V22: los cambios de roles avisan a las cachés de agencia
+--
+-- Los roles (user_roles) se asignan fuera de la app, así que ninguna escritura de la app
+-- puede enviar el NOTIFY. Este trigger publica 'user:<id>' en el canal de membresías;
+-- AgencyRecipientsCache lo recibe en todas las réplicas y descarta sus entradas (un ADMIN
+-- recibe las notificaciones de todas las agencias). Los borrados en cascada de users
+-- también disparan el trigger.
+--
+-- El canal va como argumento del trigger y debe coincidir con
+-- turismo.agencies.membership-cache.channel; si se cambia, recrear el trigger con el nuevo.
+
+CREATE OR REPLACE FUNCTION notify_user_role_change()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP <> 'DELETE' AND NEW.user_id IS NOT NULL THEN
+        PERFORM pg_notify(TG_ARGV[0], 'user:' || NEW.user_id);
+    END IF;
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.user_id IS DISTINCT FROM NEW.user_id) THEN
+        IF OLD.user_id IS NOT NULL THEN
+            PERFORM pg_notify(TG_ARGV[0], 'user:' || OLD.user_id);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_user_roles_membership_notify ON user_roles;
+CREATE TRIGGER trg_user_roles_membership_notify
+    AFTER INSERT OR UPDATE OR DELETE ON user_roles
+    FOR EACH ROW
+    EXECUTE FUNCTION notify_user_role_change('agency_membership_changes');
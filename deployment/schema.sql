@@ -324,11 +324,14 @@ CREATE INDEX IF NOT EXISTS idx_place_visits_device_place_confirmed_at
     ON place_visits(device_id, place_id, confirmed_at DESC)
     WHERE status = 'confirmed' AND device_id IS NOT NULL;
 
--- 12. Vista para Resumen de Ratings
-CREATE OR REPLACE VIEW place_rating_summary AS
-SELECT 
-    place_id, 
-    AVG(rating)::DOUBLE PRECISION as avg_rating, 
-    COUNT(id)::BIGINT as reviews_count
-FROM place_reviews
-GROUP BY place_id;
+-- 12. Resumen de Ratings (suma y conteo mantenidos al crear reseñas, ver V17)
+CREATE TABLE IF NOT EXISTS place_rating_summary (
+    place_id      BIGINT PRIMARY KEY REFERENCES places(id) ON DELETE CASCADE,
+    rating_sum    BIGINT NOT NULL DEFAULT 0,
+    reviews_count BIGINT NOT NULL DEFAULT 0,
+    avg_rating    DOUBLE PRECISION GENERATED ALWAYS AS (
+                      CASE WHEN reviews_count > 0
+                           THEN rating_sum::DOUBLE PRECISION / reviews_count
+                           ELSE 0 END
+                  ) STORED
+);
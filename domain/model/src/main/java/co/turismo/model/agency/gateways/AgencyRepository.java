@@ -6,12 +6,19 @@ import co.turismo.model.agency.UpdateAgencyRequest;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
+import java.util.List;
+
 public interface AgencyRepository {
     /** Retorna la primera agencia vinculada al email (tabla agency_users). */
     Flux<Agency> findByUserEmail(String email);
     Mono<Agency> findByEmail(String email);
     /** Retorna TODAS las agencias vinculadas al email (tabla agency_users). */
     Flux<Agency> findAllByUserEmail(String email);
+    /**
+     * Ids de las agencias a las que pertenece el email, la más reciente primero; vacía si no
+     * pertenece a ninguna. Pensado para autorizar; puede venir de caché con un desfase acotado.
+     */
+    Mono<List<Long>> findAgencyIdsByUserEmail(String email);
     Mono<Agency> findById(Long id);
     Mono<Agency> create(CreateAgencyRequest request);
     Mono<Agency> update(Long id, UpdateAgencyRequest request);
@@ -0,0 +1,43 @@
+package co.turismo.model.category;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Foto inmutable del catálogo de categorías. {@code version} se deriva del contenido, así
+ * todas las réplicas calculan la misma para los mismos datos y sirve como ETag.
+ */
+public record CategorySnapshot(List<Category> categories, Map<Long, Category> byId, String version) {
+
+    public static CategorySnapshot of(List<Category> categories) {
+        List<Category> copies = categories.stream()
+                .map(category -> category.toBuilder().build())
+                .toList();
+        Map<Long, Category> byId = new LinkedHashMap<>();
+        copies.forEach(category -> byId.put(category.getId(), category));
+        return new CategorySnapshot(copies, Map.copyOf(byId), versionOf(copies));
+    }
+
+    public Category findById(Long id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    private static String versionOf(List<Category> categories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Category category : categories) {
+                String line = category.getId() + "|" + category.getSlug() + "|" + category.getName() + "|"
+                        + category.getCreatedAt() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
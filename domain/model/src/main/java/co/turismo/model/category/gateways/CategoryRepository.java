@@ -1,6 +1,7 @@
 package co.turismo.model.category.gateways;
 
 import co.turismo.model.category.Category;
+import co.turismo.model.category.CategorySnapshot;
 import co.turismo.model.category.CreateCategoryRequest;
 import co.turismo.model.category.UpdateCategoryRequest;
 import reactor.core.publisher.Flux;
@@ -11,6 +12,9 @@ public interface CategoryRepository {
 
     Mono<Category> findById(Long id);
 
+    /** Catálogo completo en memoria; se reconstruye cuando alguna réplica escribe. */
+    Mono<CategorySnapshot> snapshot();
+
     Mono<Category> create(CreateCategoryRequest request);
 
     Mono<Category> update(Long id, UpdateCategoryRequest request);
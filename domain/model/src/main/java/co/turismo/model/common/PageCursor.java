@@ -0,0 +1,44 @@
+package co.turismo.model.common;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Posición de paginación por llave (created_at, id) del último elemento entregado.
+ * La página siguiente empieza estrictamente después de esa fila en el orden del listado.
+ */
+public record PageCursor(Instant createdAt, String id) {
+
+    public PageCursor {
+        if (createdAt == null || id == null || id.isBlank()) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+    }
+
+    public static PageCursor of(OffsetDateTime createdAt, Object id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        return new PageCursor(createdAt.toInstant(), String.valueOf(id));
+    }
+
+    public static PageCursor of(Instant createdAt, Object id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        return new PageCursor(createdAt, String.valueOf(id));
+    }
+
+    public OffsetDateTime createdAtUtc() {
+        return createdAt.atOffset(ZoneOffset.UTC);
+    }
+
+    public Long longId() {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException error) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package co.turismo.model.common.gateways;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Ejecuta un flujo dentro de una transacción de base de datos: todo lo que escriban los
+ * repositorios suscritos dentro de {@code work} se confirma o se revierte junto.
+ */
+public interface TransactionGateway {
+    <T> Mono<T> inTransaction(Mono<T> work);
+}
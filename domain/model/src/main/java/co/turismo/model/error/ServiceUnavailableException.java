@@ -0,0 +1,7 @@
+package co.turismo.model.error;
+
+public class ServiceUnavailableException extends BusinessException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package co.turismo.model.geocode.gateways;
+
+import co.turismo.model.geocode.GeocodeResult;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Caché persistente de geocodificación y cuota diaria del proveedor, compartidas entre
+ * réplicas y reinicios.
+ */
+public interface GeocodeCacheGateway {
+    /** Resultados guardados para la clave si no son más viejos que {@code maxAge}. */
+    Mono<List<GeocodeResult>> find(String key, Duration maxAge);
+
+    Mono<Void> save(String key, List<GeocodeResult> results);
+
+    /** Consume una llamada de la cuota del día; {@code false} si ya se alcanzó {@code dailyQuota}. */
+    Mono<Boolean> tryAcquireQuota(LocalDate day, int dailyQuota);
+}
@@ -0,0 +1,11 @@
+package co.turismo.model.notification;
+
+/**
+ * Correo pendiente en el outbox. {@code attempts} ya incluye el intento en curso.
+ */
+public record OutboxEmail(
+        Long id,
+        EmailMessage message,
+        int attempts
+) {
+}
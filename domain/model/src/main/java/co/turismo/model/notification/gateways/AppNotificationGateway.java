@@ -1,12 +1,20 @@
 package co.turismo.model.notification.gateways;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.notification.AppNotification;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface AppNotificationGateway {
     Mono<AppNotification> save(AppNotification notification);
+
+    /** Guarda todas en una sola escritura por lote y emite las filas creadas. */
+    Flux<AppNotification> saveAll(List<AppNotification> notifications);
+
     Flux<AppNotification> findByRecipientEmail(String recipientEmail, boolean unreadOnly, int limit, int offset);
+    Flux<AppNotification> findByRecipientEmailAfter(String recipientEmail, boolean unreadOnly, PageCursor after, int limit);
     Flux<AppNotification> streamByRecipientEmail(String recipientEmail);
     Mono<AppNotification> markAsRead(String recipientEmail, Long notificationId);
     Mono<Long> markAllAsRead(String recipientEmail);
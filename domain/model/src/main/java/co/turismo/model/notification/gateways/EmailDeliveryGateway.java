@@ -0,0 +1,15 @@
+package co.turismo.model.notification.gateways;
+
+import co.turismo.model.notification.EmailMessage;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Proveedor que entrega los correos. {@link EmailGateway} solo los encola; el despachador
+ * del outbox es el único que llama a este gateway.
+ */
+public interface EmailDeliveryGateway {
+    /** Entrega todos los mensajes en una sola llamada al proveedor; falla completa o nada. */
+    Mono<Void> deliverBatch(List<EmailMessage> messages);
+}
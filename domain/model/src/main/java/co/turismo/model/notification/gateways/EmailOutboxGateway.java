@@ -0,0 +1,28 @@
+package co.turismo.model.notification.gateways;
+
+import co.turismo.model.notification.OutboxEmail;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface EmailOutboxGateway {
+    /**
+     * Toma hasta {@code size} correos listos para enviar y los reserva por {@code lease};
+     * si el proceso muere a mitad del envío, vuelven a estar disponibles al vencer.
+     */
+    Flux<OutboxEmail> claimBatch(int size, Duration lease);
+
+    Mono<Void> markSent(List<Long> ids);
+
+    Mono<Void> reschedule(Long id, Duration delay, String error);
+
+    Mono<Void> markDead(Long id, String error);
+
+    /**
+     * Borra hasta {@code limit} correos enviados o descartados hace más de {@code retention};
+     * emite cuántos borró.
+     */
+    Mono<Long> purgeFinished(Duration retention, int limit);
+}
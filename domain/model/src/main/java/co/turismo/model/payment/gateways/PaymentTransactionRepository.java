@@ -10,8 +10,6 @@ public interface PaymentTransactionRepository {
     Mono<PaymentTransaction> findLatestByReservationId(String reservationId);
     Mono<PaymentTransaction> findReusableWompiTransaction(String reservationId, OffsetDateTime now);
     Mono<PaymentTransaction> findByReference(String reference);
-    Mono<Boolean> existsBlockingWompiTransaction(String reservationId, OffsetDateTime now);
-    Mono<Boolean> existsPaidWompiTransaction(String reservationId);
     Mono<PaymentTransaction> updateProviderResult(
             String reference,
             String providerTransactionId,
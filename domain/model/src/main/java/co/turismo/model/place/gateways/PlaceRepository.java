@@ -1,5 +1,6 @@
 package co.turismo.model.place.gateways;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.place.CreatePlaceRequest;
 import co.turismo.model.place.Place;
 import co.turismo.model.place.UpdatePlaceRequest;
@@ -10,7 +11,9 @@ public interface PlaceRepository {
     Mono<Place> create(CreatePlaceRequest request);
     Flux<Place> findNearby(double lat, double lng, double radiusMeters, Long categoryId, Integer limit, Integer offset);
     Flux<Place> findAllPlace(Integer limit, Integer offset);
+    Flux<Place> findAllPlaceAfter(PageCursor after, int limit);
     Flux<Place> search(String q, Long categoryId, boolean onlyNearby, Double lat, Double lng, Double radiusMeters, int page, int size);
+    Flux<Place> fullTextSearch(String q, Long categoryId, boolean onlyNearby, Double lat, Double lng, Double radiusMeters, int page, int size);
     Mono<Place> patch(long id, UpdatePlaceRequest req);
     Mono<Place> verifyPlace(long id, boolean verified, boolean active, long adminId);
     Mono<Place> setActive(long id, boolean active);
@@ -19,6 +22,7 @@ public interface PlaceRepository {
     Mono<Void>  addOwnerToPlace(String ownerEmailToAdd, long placeId);
     Mono<Void>  removeOwnerFromPlace(String ownerEmailToRemove, long placeId);
     Flux<Place> findPlacesByOwnerEmail(String ownerEmail, Integer limit, Integer offset);
+    Flux<Place> findPlacesByOwnerEmailAfter(String ownerEmail, PageCursor after, int limit);
     Flux<Place> findByIds(Long[] ids, Integer limit, Integer offset);
     Mono<Place> findByPlaces(Long id);
     Mono<Place> deletePalce(Long id);
@@ -1,5 +1,6 @@
 package co.turismo.model.place.strategy;
 
+import co.turismo.model.common.PageCursor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,5 @@ public class PlaceSearchCriteria {
     private Double radiusMeters;   // nullable
     private int page;              // no nullable
     private int size;
+    private PageCursor after;      // nullable; solo modo ALL (paginación por llave)
 }
\ No newline at end of file
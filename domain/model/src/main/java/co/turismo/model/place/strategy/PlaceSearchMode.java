@@ -1,5 +1,5 @@
 package co.turismo.model.place.strategy;
 
 public enum PlaceSearchMode {
-    ALL, TEXT, NEARBY
+    ALL, TEXT, NEARBY, FULLTEXT
 }
@@ -0,0 +1,11 @@
+package co.turismo.model.ratelimit;
+
+/**
+ * Tokens concedidos por el bucket compartido en una sola adquisición.
+ *
+ * @param granted      tokens entregados (0 si el bucket está vacío)
+ * @param remaining    tokens que quedaron en el bucket compartido
+ * @param resetSeconds segundos hasta que vuelva a haber al menos un token
+ */
+public record RateLimitLease(long granted, long remaining, long resetSeconds) {
+}
@@ -0,0 +1,14 @@
+package co.turismo.model.ratelimit.gateways;
+
+import co.turismo.model.ratelimit.RateLimitLease;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface RateLimitLeaseGateway {
+    /**
+     * Toma hasta {@code requested} tokens del bucket {@code key}, compartido entre réplicas.
+     * El bucket se recarga de forma continua a {@code refill} tokens por {@code window}.
+     */
+    Mono<RateLimitLease> acquire(String key, long capacity, long refill, Duration window, long requested);
+}
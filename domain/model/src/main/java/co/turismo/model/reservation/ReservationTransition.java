@@ -0,0 +1,40 @@
+package co.turismo.model.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * Cambio de estado de una reserva hecho por la agencia (o un ADMIN), con todo lo que el
+ * gateway necesita para validarlo y aplicarlo en una sola sentencia.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ReservationTransition {
+    private String reservationId;
+    /** {@code null} para ADMIN: cualquier agencia. */
+    private Long agencyId;
+    private String status;
+    /** Estados actuales desde los que se permite pasar a {@code status}. */
+    private Set<String> allowedFrom;
+    /** Rechazar si hay un pago Wompi pagado o en curso para la reserva. */
+    private boolean checkWompi;
+    private OffsetDateTime now;
+    private String agencyNotes;
+    private String paymentProvider;
+    private String paymentStatus;
+    private OffsetDateTime paidAt;
+    private OffsetDateTime contactedAt;
+    private OffsetDateTime confirmedAt;
+    private OffsetDateTime cancelledAt;
+    /** Mensaje de sistema para el chat; {@code null} si no aplica. */
+    private ReservationMessage statusMessage;
+}
@@ -0,0 +1,15 @@
+package co.turismo.model.reservation;
+
+/**
+ * Resultado de {@code ReservationGateway.transition}. {@code reservation} solo viene cuando
+ * el cambio se aplicó.
+ */
+public record ReservationTransitionResult(Outcome outcome, ReservationDraft reservation) {
+
+    public enum Outcome {
+        APPLIED,
+        INVALID_TRANSITION,
+        WOMPI_PAID,
+        WOMPI_IN_PROGRESS
+    }
+}
@@ -1,6 +1,9 @@
 package co.turismo.model.reservation.gateways;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.reservation.ReservationDraft;
+import co.turismo.model.reservation.ReservationTransition;
+import co.turismo.model.reservation.ReservationTransitionResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -11,24 +14,21 @@ public interface ReservationGateway {
     Mono<ReservationDraft> updateUserReservationWithinGrace(String reservationId, String userEmail, ReservationDraft reservation, OffsetDateTime editableUntil);
     Mono<Boolean> deleteUserReservationWithinGrace(String reservationId, String userEmail, OffsetDateTime editableUntil);
     Flux<ReservationDraft> findByUserEmail(String userEmail, int limit, int offset);
+    Flux<ReservationDraft> findByUserEmailAfter(String userEmail, PageCursor after, int limit);
     Mono<ReservationDraft> findByIdForUser(String reservationId, String userEmail);
     Flux<ReservationDraft> findAllForAdmin(String status, int limit, int offset);
+    Flux<ReservationDraft> findAllForAdminAfter(String status, PageCursor after, int limit);
     Mono<ReservationDraft> findByIdForAdmin(String reservationId);
     Flux<ReservationDraft> findByAgencyId(Long agencyId, String status, int limit, int offset);
+    Flux<ReservationDraft> findByAgencyIdAfter(Long agencyId, String status, PageCursor after, int limit);
     Mono<ReservationDraft> findByIdForAgency(String reservationId, Long agencyId);
     Mono<ReservationDraft> markContactedByAgencyReply(String reservationId, Long agencyId);
-    Mono<ReservationDraft> updateAgencyStatus(
-            String reservationId,
-            Long agencyId,
-            String status,
-            String agencyNotes,
-            String paymentProvider,
-            String paymentStatus,
-            OffsetDateTime paidAt,
-            OffsetDateTime contactedAt,
-            OffsetDateTime confirmedAt,
-            OffsetDateTime cancelledAt
-    );
+    /**
+     * Aplica el cambio de estado en una sola sentencia: bloquea la fila, valida el estado
+     * actual y la competencia con Wompi, actualiza la reserva y deja el mensaje de sistema.
+     * Vacío si la reserva no existe (o no es de la agencia).
+     */
+    Mono<ReservationTransitionResult> transition(ReservationTransition transition);
     Mono<ReservationDraft> markWompiCheckoutCreated(String reservationId, String userEmail);
     Mono<ReservationDraft> applyWompiPaymentResult(
             String reservationId,
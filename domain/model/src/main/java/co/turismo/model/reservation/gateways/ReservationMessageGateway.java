@@ -1,5 +1,6 @@
 package co.turismo.model.reservation.gateways;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.reservation.ReservationMessage;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -7,4 +8,5 @@ import reactor.core.publisher.Mono;
 public interface ReservationMessageGateway {
     Mono<ReservationMessage> save(ReservationMessage message);
     Flux<ReservationMessage> findByReservationId(String reservationId, int limit, int offset);
+    Flux<ReservationMessage> findByReservationIdAfter(String reservationId, PageCursor after, int limit);
 }
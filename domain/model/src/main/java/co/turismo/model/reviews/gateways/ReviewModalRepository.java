@@ -1,5 +1,6 @@
 package co.turismo.model.reviews.gateways;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.reviews.PlaceRatingSummary;
 import co.turismo.model.reviews.Review;
 import co.turismo.model.reviews.TopRatedPlace;
@@ -9,6 +10,7 @@ import reactor.core.publisher.Mono;
 public interface ReviewModalRepository {
     Flux<Review> findByPlaceId(Long placeId);
     Flux<Review> findByPlaceIdPaginated(Long placeId, int limit, int offset);
+    Flux<Review> findByPlaceIdAfter(Long placeId, PageCursor after, int limit);
     Mono<Review> create(Review review);
     Mono<PlaceRatingSummary> ratingSummary(Long placeId);
     Flux<TopRatedPlace> findTopRatedPlaces(int limit);
@@ -1,6 +1,8 @@
 package co.turismo.model.security.gateways;
 
+import reactor.core.publisher.Mono;
+
 public interface PasswordHasher {
-    String hash(String rawPassword);
-    boolean matches(String rawPassword, String hash);
+    Mono<String> hash(String rawPassword);
+    Mono<Boolean> matches(String rawPassword, String hash);
 }
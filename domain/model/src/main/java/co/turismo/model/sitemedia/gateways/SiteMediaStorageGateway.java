@@ -8,6 +8,11 @@ import org.reactivestreams.Publisher;
 import co.turismo.model.sitemedia.SiteMediaAccess;
 
 public interface SiteMediaStorageGateway {
+    /**
+     * Sube el contenido y devuelve la clave guardada. Con {@code contentLength < 0} la
+     * longitud es desconocida: se sube por partes a medida que llega el contenido, y un
+     * error en el stream aborta la subida sin dejar el objeto.
+     */
     Mono<String> upload(String objectKey, String contentType, Publisher<ByteBuffer> content, long contentLength);
     Mono<Void> delete(String objectKey);
     Mono<SiteMediaAccess> presignedGet(String objectKey, Duration duration);
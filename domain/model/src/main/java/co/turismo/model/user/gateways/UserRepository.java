@@ -7,6 +7,8 @@ import co.turismo.model.user.RecoveryTokenStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface UserRepository {
     Mono<User> findByEmail(String email);
     Flux<String> findRoleNamesByEmail(String email);
@@ -16,6 +18,12 @@ public interface UserRepository {
     Flux<User> findByAgencyId(Long agencyId);
     Flux<User> findByRoleName(String roleName);
 
+    /**
+     * Correos a notificar por eventos de una agencia: sus usuarios más los ADMIN, sin repetir.
+     * Puede venir de caché con un desfase acotado.
+     */
+    Mono<List<String>> findAgencyNotificationRecipients(Long agencyId);
+
     // existentes
     Mono<Void> registerOtpFail(String email);
     Mono<Void> registerSuccessfulLogin(String email);
@@ -0,0 +1,7 @@
+package co.turismo.model.visits;
+
+/**
+ * Resultado de {@code VisitGateway#checkin}: la visita pendiente creada, o {@code null}
+ * cuando {@code outcome} no es {@link VisitOutcome#ok}.
+ */
+public record VisitCheckin(VisitOutcome outcome, PlaceVisit visit) {}
@@ -0,0 +1,7 @@
+package co.turismo.model.visits;
+
+/**
+ * Resultado de {@code VisitGateway#confirm}: la visita confirmada y el resumen del lugar,
+ * ambos {@code null} cuando {@code outcome} no es {@link VisitOutcome#ok}.
+ */
+public record VisitConfirmation(VisitOutcome outcome, PlaceVisit visit, PlaceBriefUC place) {}
@@ -0,0 +1,15 @@
+package co.turismo.model.visits;
+
+/**
+ * Resultado de las operaciones compuestas de check-in/confirmación. El motivo del
+ * rechazo lo decide la misma sentencia que escribe, así el caso de uso no necesita
+ * consultas previas para validar.
+ */
+public enum VisitOutcome {
+    ok,
+    duplicate,        // ya hay visita confirmada en las últimas 24 horas
+    out_of_range,     // fuera del radio permitido (o el lugar no existe)
+    already_managed,  // la visita ya no está pendiente
+    min_stay,         // no se cumplió la permanencia mínima
+    already_today     // ya hay visita confirmada hoy en ese lugar
+}
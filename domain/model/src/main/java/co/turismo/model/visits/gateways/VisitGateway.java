@@ -1,10 +1,13 @@
 package co.turismo.model.visits.gateways;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.visits.PlaceBriefUC;
 import co.turismo.model.visits.PlaceNearby;
 import co.turismo.model.visits.PlaceVisit;
 import co.turismo.model.visits.TopPlace;
 import co.turismo.model.visits.UserFavoritePlace;
+import co.turismo.model.visits.VisitCheckin;
+import co.turismo.model.visits.VisitConfirmation;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -24,6 +27,21 @@ public interface VisitGateway {
 
     Mono<Void> upsertDaily(Long placeId);
 
+    /**
+     * Regla de 24h + radio + inserción de la visita pendiente en una sola sentencia.
+     */
+    Mono<VisitCheckin> checkin(Long placeId, Long userId, String deviceId,
+                               double lat, double lng, int radius,
+                               Integer accuracyM, String metaJson);
+
+    /**
+     * Valida estado, permanencia, radio y regla diaria; confirma, suma en
+     * {@code place_visit_daily} y devuelve el resumen del lugar en una sola sentencia.
+     * Vacío si la visita no existe.
+     */
+    Mono<VisitConfirmation> confirm(Long visitId, double lat, double lng, Integer accuracyM,
+                                    int radius, int minStaySeconds);
+
     Flux<TopPlace> topPlaces(LocalDate from, LocalDate to, int limit);
     Flux<TopPlace> topPlacesByAgency(Long agencyId, LocalDate from, LocalDate to, int limit);
     Flux<TopPlace> topPlacesByUser(Long userId, int limit);
@@ -36,4 +54,5 @@ public interface VisitGateway {
     Mono<Void> addFavorite(Long userId, Long placeId);
     Mono<Void> removeFavorite(Long userId, Long placeId);
     Flux<UserFavoritePlace> listFavoritesByUser(Long userId, int limit, int offset);
+    Flux<UserFavoritePlace> listFavoritesByUserAfter(Long userId, PageCursor after, int limit);
 }
@@ -2,6 +2,7 @@ package co.turismo.usecase.authenticate;
  
 import co.turismo.model.authenticationsession.gateways.TotpSecretRepository;
 import co.turismo.model.common.AppUrlConfig;
+import co.turismo.model.common.gateways.TransactionGateway;
 import co.turismo.model.notification.EmailMessage;
 import co.turismo.model.notification.gateways.EmailGateway;
 import co.turismo.model.security.gateways.PasswordHasher;
@@ -34,6 +35,7 @@ public class AccountRecoveryUseCase {
     private final AppUrlConfig appUrlConfig;
     private final PasswordHasher passwordHasher;
     private final UserVerificationGateway userVerificationGateway;
+    private final TransactionGateway transactionGateway;
  
     public Mono<Void> sendVerificationEmail(String emailRaw) {
         return userVerificationGateway.sendVerificationEmail(emailRaw).then();
@@ -63,7 +65,8 @@ public class AccountRecoveryUseCase {
         if (email == null || email.isBlank()) {
             return Mono.error(new IllegalArgumentException("Email requerido"));
         }
-        return createRecoveryToken(email)
+        // El token y el correo que lo lleva se confirman juntos
+        return transactionGateway.inTransaction(createRecoveryToken(email)
                 .flatMap(token -> {
                     String link = buildRecoveryLink(token);
                     LOG.log(Level.INFO, "Sending recovery email to {0}", email);
@@ -73,7 +76,7 @@ public class AccountRecoveryUseCase {
                             buildRecoveryHtml(token, link)
                     ));
                 })
-                .then();
+                .then());
     }
  
     public Mono<String> createRecoveryToken(String emailRaw) {
@@ -141,7 +144,8 @@ public class AccountRecoveryUseCase {
                         new Object[]{status.email(), status.expiresAt(), status.attempts(), status.maxAttempts()}
                 ))
                 .flatMap(status -> validateRecoveryToken(status)
-                        .then(userRepository.updatePasswordHash(status.email(), passwordHasher.hash(newPassword)))
+                        .then(passwordHasher.hash(newPassword)
+                                .flatMap(hash -> userRepository.updatePasswordHash(status.email(), hash)))
                         .then(totpSecretRepository.resetTotp(status.email()))
                         .then(userRepository.clearRecoveryCode(status.email()))
                 );
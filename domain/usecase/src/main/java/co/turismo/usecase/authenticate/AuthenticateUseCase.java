@@ -40,8 +40,9 @@ public class AuthenticateUseCase {
                 .switchIfEmpty(Mono.error(new RuntimeException("Usuario inexistente o bloqueado")))
                 .then(userRepository.getPasswordHash(email))
                 .switchIfEmpty(Mono.error(new RuntimeException("Password no configurado")))
-                .flatMap(hash -> {
-                    if (!passwordHasher.matches(password, hash)) {
+                .flatMap(hash -> passwordHasher.matches(password, hash))
+                .flatMap(matches -> {
+                    if (!matches) {
                         return userRepository.registerOtpFail(email)
                                 .then(Mono.error(new RuntimeException("Credenciales invalidas")));
                     }
@@ -140,8 +141,9 @@ public class AuthenticateUseCase {
                 .switchIfEmpty(Mono.error(new RuntimeException("Usuario inexistente o bloqueado")))
                 .then(userRepository.getPasswordHash(email))
                 .switchIfEmpty(Mono.error(new RuntimeException("Password no configurado")))
-                .flatMap(hash -> {
-                    if (!passwordHasher.matches(password, hash)) {
+                .flatMap(hash -> passwordHasher.matches(password, hash))
+                .flatMap(matches -> {
+                    if (!matches) {
                         return userRepository.registerOtpFail(email)
                                 .then(Mono.error(new RuntimeException("Credenciales inválidas")));
                     }
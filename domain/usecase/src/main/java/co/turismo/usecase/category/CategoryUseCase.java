@@ -1,6 +1,7 @@
 package co.turismo.usecase.category;
 
 import co.turismo.model.category.Category;
+import co.turismo.model.category.CategorySnapshot;
 import co.turismo.model.category.CreateCategoryRequest;
 import co.turismo.model.category.UpdateCategoryRequest;
 import co.turismo.model.category.gateways.CategoryRepository;
@@ -21,6 +22,10 @@ public class CategoryUseCase {
         return categoryRepository.findById(id);
     }
 
+    public Mono<CategorySnapshot> snapshot() {
+        return categoryRepository.snapshot();
+    }
+
     public Mono<Category> create(CreateCategoryRequest request) {
         return categoryRepository.create(request);
     }
@@ -1,5 +1,6 @@
 package co.turismo.usecase.notification;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.error.NotFoundException;
 import co.turismo.model.notification.AppNotification;
 import co.turismo.model.notification.gateways.AppNotificationGateway;
@@ -20,6 +21,17 @@ public class AppNotificationUseCase {
                 offset);
     }
 
+    public Flux<AppNotification> findMineAfter(String recipientEmail, boolean unreadOnly, PageCursor after, int limit) {
+        if (after == null) {
+            return findMine(recipientEmail, unreadOnly, limit, 0);
+        }
+        return appNotificationGateway.findByRecipientEmailAfter(
+                requireText(recipientEmail, "Usuario autenticado requerido"),
+                unreadOnly,
+                after,
+                limit);
+    }
+
     public Flux<AppNotification> streamMine(String recipientEmail) {
         return appNotificationGateway.streamByRecipientEmail(requireText(recipientEmail, "Usuario autenticado requerido"));
     }
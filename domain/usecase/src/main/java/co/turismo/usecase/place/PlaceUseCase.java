@@ -1,5 +1,6 @@
 package co.turismo.usecase.place;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.error.NotFoundException;
 import co.turismo.model.place.CreatePlaceRequest;
 import co.turismo.model.place.Place;
@@ -44,6 +45,13 @@ public class PlaceUseCase {
         return placeRepository.findPlacesByOwnerEmail(ownerEmail, Limit, Offset);
     }
 
+    public Flux<Place> findMineAfter(String ownerEmail, PageCursor after, int limit) {
+        if (after == null) {
+            return findMine(ownerEmail, limit, 0);
+        }
+        return placeRepository.findPlacesByOwnerEmailAfter(ownerEmail, after, limit);
+    }
+
     public Mono<Place> patch(long id, UpdatePlaceRequest req) {
         return placeRepository.patch(id, req);
     }
@@ -1,7 +1,7 @@
 package co.turismo.usecase.reservation;
 
-import co.turismo.model.agency.Agency;
 import co.turismo.model.agency.gateways.AgencyRepository;
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.error.ConflictException;
 import co.turismo.model.error.NotFoundException;
 import co.turismo.model.notification.AppNotification;
@@ -39,16 +39,40 @@ public class ReservationMessageUseCase {
     private final AppNotificationGateway appNotificationGateway;
 
     public Flux<ReservationMessage> findForCustomer(String userEmail, String reservationId, int limit, int offset) {
+        return findForCustomer(userEmail, reservationId, null, limit, offset);
+    }
+
+    public Flux<ReservationMessage> findForCustomerAfter(String userEmail, String reservationId, PageCursor after, int limit) {
+        return findForCustomer(userEmail, reservationId, after, limit, 0);
+    }
+
+    private Flux<ReservationMessage> findForCustomer(
+            String userEmail,
+            String reservationId,
+            PageCursor after,
+            int limit,
+            int offset
+    ) {
         return reservationGateway.findByIdForUser(requireText(reservationId, "reservationId requerido"), requireText(userEmail, "Usuario autenticado requerido"))
                 .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")))
-                .flatMapMany(reservation -> reservationMessageGateway.findByReservationId(reservationId, limit, offset));
+                .flatMapMany(reservation -> findMessages(reservationId, after, limit, offset));
     }
 
     public Flux<ReservationMessage> findForAgency(String agencyUserEmail, String reservationId, int limit, int offset) {
+        return findForAgency(agencyUserEmail, reservationId, null, limit, offset);
+    }
+
+    private Flux<ReservationMessage> findForAgency(
+            String agencyUserEmail,
+            String reservationId,
+            PageCursor after,
+            int limit,
+            int offset
+    ) {
         return resolveAgencyId(agencyUserEmail)
                 .flatMap(agencyId -> reservationGateway.findByIdForAgency(requireText(reservationId, "reservationId requerido"), agencyId)
                         .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada"))))
-                .flatMapMany(reservation -> reservationMessageGateway.findByReservationId(reservationId, limit, offset));
+                .flatMapMany(reservation -> findMessages(reservationId, after, limit, offset));
     }
 
     public Flux<ReservationMessage> findForAgency(
@@ -57,13 +81,34 @@ public class ReservationMessageUseCase {
             String reservationId,
             int limit,
             int offset
+    ) {
+        return findForAgency(agencyUserEmail, admin, reservationId, null, limit, offset);
+    }
+
+    public Flux<ReservationMessage> findForAgencyAfter(
+            String agencyUserEmail,
+            boolean admin,
+            String reservationId,
+            PageCursor after,
+            int limit
+    ) {
+        return findForAgency(agencyUserEmail, admin, reservationId, after, limit, 0);
+    }
+
+    private Flux<ReservationMessage> findForAgency(
+            String agencyUserEmail,
+            boolean admin,
+            String reservationId,
+            PageCursor after,
+            int limit,
+            int offset
     ) {
         if (admin) {
             return reservationGateway.findByIdForAdmin(requireText(reservationId, "reservationId requerido"))
                     .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")))
-                    .flatMapMany(reservation -> reservationMessageGateway.findByReservationId(reservationId, limit, offset));
+                    .flatMapMany(reservation -> findMessages(reservationId, after, limit, offset));
         }
-        return findForAgency(agencyUserEmail, reservationId, limit, offset);
+        return findForAgency(agencyUserEmail, reservationId, after, limit, offset);
     }
 
     public Flux<ReservationMessage> findForAgency(
@@ -73,13 +118,42 @@ public class ReservationMessageUseCase {
             String reservationId,
             int limit,
             int offset
+    ) {
+        return findForAgency(agencyUserEmail, agencyId, admin, reservationId, null, limit, offset);
+    }
+
+    public Flux<ReservationMessage> findForAgencyAfter(
+            String agencyUserEmail,
+            Long agencyId,
+            boolean admin,
+            String reservationId,
+            PageCursor after,
+            int limit
+    ) {
+        return findForAgency(agencyUserEmail, agencyId, admin, reservationId, after, limit, 0);
+    }
+
+    private Flux<ReservationMessage> findForAgency(
+            String agencyUserEmail,
+            Long agencyId,
+            boolean admin,
+            String reservationId,
+            PageCursor after,
+            int limit,
+            int offset
     ) {
         return ensureAgencyAccess(agencyUserEmail, agencyId, admin)
                 .flatMap(allowedAgencyId -> reservationGateway.findByIdForAgency(
                                 requireText(reservationId, "reservationId requerido"),
                                 allowedAgencyId)
                         .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada"))))
-                .flatMapMany(reservation -> reservationMessageGateway.findByReservationId(reservationId, limit, offset));
+                .flatMapMany(reservation -> findMessages(reservationId, after, limit, offset));
+    }
+
+    private Flux<ReservationMessage> findMessages(String reservationId, PageCursor after, int limit, int offset) {
+        return after == null
+                ? reservationMessageGateway.findByReservationId(reservationId, limit, offset)
+                : reservationMessageGateway.findByReservationIdAfter(reservationId, after, limit);
     }
 
     public Mono<ReservationMessage> sendFromCustomer(String userEmail, String reservationId, String body) {
@@ -201,18 +275,17 @@ public class ReservationMessageUseCase {
             return Mono.empty();
         }
 
-        return Flux.concat(
-                        userRepository.findByAgencyId(agencyId),
-                        userRepository.findByRoleName("ADMIN"))
-                .map(user -> user.getEmail())
-                .filter(email -> email != null && !email.isBlank())
-                .distinct(String::toLowerCase)
-                .flatMap(email -> notifyOne(
-                        email,
-                        "Nuevo mensaje de cliente",
-                        "El cliente respondió la solicitud " + reservation.getId(),
-                        reservation))
-                .then();
+        String title = "Nuevo mensaje de cliente";
+        String message = "El cliente respondió la solicitud " + reservation.getId();
+        return userRepository.findAgencyNotificationRecipients(agencyId)
+                .flatMapMany(emails -> appNotificationGateway.saveAll(emails.stream()
+                        .map(email -> messageNotification(email, title, message, reservation))
+                        .toList()))
+                .then()
+                .onErrorResume(error -> {
+                    LOG.log(Level.WARNING, "No se pudo crear notificación de mensaje", error);
+                    return Mono.empty();
+                });
     }
 
     private Mono<Void> notifyOne(String recipientEmail, String title, String message, ReservationDraft reservation) {
@@ -220,15 +293,7 @@ public class ReservationMessageUseCase {
             return Mono.empty();
         }
 
-        return appNotificationGateway.save(AppNotification.builder()
-                        .recipientEmail(recipientEmail)
-                        .type(NOTIFICATION_RESERVATION_MESSAGE)
-                        .title(title)
-                        .message(message)
-                        .reservationId(reservation.getId())
-                        .agencyId(reservation.getAgencyId())
-                        .read(false)
-                        .build())
+        return appNotificationGateway.save(messageNotification(recipientEmail, title, message, reservation))
                 .then()
                 .onErrorResume(error -> {
                     LOG.log(Level.WARNING, "No se pudo crear notificación de mensaje", error);
@@ -236,10 +301,23 @@ public class ReservationMessageUseCase {
                 });
     }
 
+    private static AppNotification messageNotification(String recipientEmail, String title, String message,
+                                                       ReservationDraft reservation) {
+        return AppNotification.builder()
+                .recipientEmail(recipientEmail)
+                .type(NOTIFICATION_RESERVATION_MESSAGE)
+                .title(title)
+                .message(message)
+                .reservationId(reservation.getId())
+                .agencyId(reservation.getAgencyId())
+                .read(false)
+                .build();
+    }
+
     private Mono<Long> resolveAgencyId(String agencyUserEmail) {
-        return agencyRepository.findByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
-                .next()
-                .map(agency -> agency.getId())
+        return agencyRepository.findAgencyIdsByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
+                .filter(ids -> !ids.isEmpty())
+                .map(ids -> ids.get(0))
                 .switchIfEmpty(Mono.error(new NotFoundException("Agencia no encontrada para el usuario autenticado")));
     }
 
@@ -250,10 +328,9 @@ public class ReservationMessageUseCase {
         if (admin) {
             return Mono.just(agencyId);
         }
-        return agencyRepository.findAllByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
-                .filter(agency -> agencyId.equals(agency.getId()))
-                .next()
-                .map(Agency::getId)
+        return agencyRepository.findAgencyIdsByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
+                .filter(ids -> ids.contains(agencyId))
+                .map(ids -> agencyId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Agencia no encontrada para el usuario autenticado")));
     }
 
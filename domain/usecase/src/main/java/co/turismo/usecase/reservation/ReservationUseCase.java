@@ -1,24 +1,23 @@
 package co.turismo.usecase.reservation;
 
-import co.turismo.model.agency.Agency;
 import co.turismo.model.agency.gateways.AgencyRepository;
+import co.turismo.model.common.PageCursor;
+import co.turismo.model.common.gateways.TransactionGateway;
 import co.turismo.model.error.ConflictException;
 import co.turismo.model.error.NotFoundException;
 import co.turismo.model.notification.EmailMessage;
 import co.turismo.model.notification.AppNotification;
 import co.turismo.model.notification.gateways.AppNotificationGateway;
 import co.turismo.model.notification.gateways.EmailGateway;
-import co.turismo.model.payment.gateways.PaymentTransactionRepository;
 import co.turismo.model.reservation.ContactPreference;
 import co.turismo.model.reservation.ReservationDraft;
 import co.turismo.model.reservation.ReservationRequestDetails;
 import co.turismo.model.reservation.ReservationStatusChange;
 import co.turismo.model.reservation.ReservationMessage;
+import co.turismo.model.reservation.ReservationTransition;
 import co.turismo.model.reservation.gateways.ReservationGateway;
-import co.turismo.model.reservation.gateways.ReservationMessageGateway;
 import co.turismo.model.tourpackage.TourPackage;
 import co.turismo.model.tourpackage.gateways.TourPackageRepository;
-import co.turismo.model.user.User;
 import co.turismo.model.user.gateways.UserRepository;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
@@ -31,6 +30,7 @@ import java.time.Duration;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,8 +67,7 @@ public class ReservationUseCase {
     private final UserRepository userRepository;
     private final EmailGateway emailGateway;
     private final AppNotificationGateway appNotificationGateway;
-    private final ReservationMessageGateway reservationMessageGateway;
-    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final TransactionGateway transactionGateway;
 
     public Mono<ReservationDraft> createRequest(ReservationRequestDetails details) {
         return validateCreate(details)
@@ -76,9 +75,15 @@ public class ReservationUseCase {
                 .switchIfEmpty(Mono.error(new NotFoundException("Paquete turístico no encontrado")))
                 .flatMap(tourPackage -> validatePackage(tourPackage).thenReturn(tourPackage))
                 .map(tourPackage -> buildReservation(details, tourPackage))
-                .flatMap(reservationGateway::createPendingReservation)
-                .flatMap(reservation -> sendCreatedEmailIfEmailPreference(reservation)
-                        .then(notifyAgencyReservationCreated(reservation))
+                .flatMap(draft -> shouldSendCreatedEmail(draft)
+                        // La reserva y su correo (fila de email_outbox) se confirman juntos
+                        .flatMap(sendEmail -> transactionGateway.inTransaction(
+                                reservationGateway.createPendingReservation(draft)
+                                        .flatMap(reservation -> sendEmail
+                                                ? emailGateway.sendEmail(buildReservationCreatedEmail(reservation))
+                                                        .thenReturn(reservation)
+                                                : Mono.just(reservation)))))
+                .flatMap(reservation -> notifyAgencyReservationCreated(reservation)
                         .thenReturn(reservation));
     }
 
@@ -113,6 +118,13 @@ public class ReservationUseCase {
         return reservationGateway.findByUserEmail(requireText(userEmail, "Usuario autenticado requerido"), limit, offset);
     }
 
+    public Flux<ReservationDraft> findMineAfter(String userEmail, PageCursor after, int limit) {
+        if (after == null) {
+            return findMine(userEmail, limit, 0);
+        }
+        return reservationGateway.findByUserEmailAfter(requireText(userEmail, "Usuario autenticado requerido"), after, limit);
+    }
+
     public Mono<ReservationDraft> findMineById(String userEmail, String reservationId) {
         return reservationGateway.findByIdForUser(
                         requireText(reservationId, "reservationId requerido"),
@@ -138,6 +150,23 @@ public class ReservationUseCase {
         return findForMyAgency(agencyUserEmail, status, limit, offset);
     }
 
+    public Flux<ReservationDraft> findForMyAgencyAfter(
+            String agencyUserEmail,
+            boolean admin,
+            String status,
+            PageCursor after,
+            int limit
+    ) {
+        if (after == null) {
+            return findForMyAgency(agencyUserEmail, admin, status, limit, 0);
+        }
+        if (admin) {
+            return reservationGateway.findAllForAdminAfter(normalizeStatus(status), after, limit);
+        }
+        return resolveAgencyId(agencyUserEmail)
+                .flatMapMany(agencyId -> reservationGateway.findByAgencyIdAfter(agencyId, normalizeStatus(status), after, limit));
+    }
+
     public Flux<ReservationDraft> findForAgency(
             String agencyUserEmail,
             Long agencyId,
@@ -154,6 +183,25 @@ public class ReservationUseCase {
                         offset));
     }
 
+    public Flux<ReservationDraft> findForAgencyAfter(
+            String agencyUserEmail,
+            Long agencyId,
+            boolean admin,
+            String status,
+            PageCursor after,
+            int limit
+    ) {
+        if (after == null) {
+            return findForAgency(agencyUserEmail, agencyId, admin, status, limit, 0);
+        }
+        return ensureAgencyAccess(agencyUserEmail, agencyId, admin)
+                .flatMapMany(allowedAgencyId -> reservationGateway.findByAgencyIdAfter(
+                        allowedAgencyId,
+                        normalizeStatus(status),
+                        after,
+                        limit));
+    }
+
     public Mono<ReservationDraft> findForMyAgencyById(String agencyUserEmail, String reservationId) {
         return resolveAgencyId(agencyUserEmail)
                 .flatMap(agencyId -> reservationGateway.findByIdForAgency(
@@ -190,16 +238,7 @@ public class ReservationUseCase {
         }
 
         return resolveAgencyId(change.getAgencyUserEmail())
-                .flatMap(agencyId -> reservationGateway.findByIdForAgency(
-                                requireText(change.getReservationId(), "reservationId requerido"),
-                                agencyId)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")))
-                        .flatMap(current -> validateTransition(current.getStatus(), nextStatus)
-                                .then(validateNoWompiCompetition(current.getId(), nextStatus))
-                                .then(Mono.defer(() -> updateStatus(change, agencyId, nextStatus)))
-                                .flatMap(updated -> appendStatusMessage(updated, nextStatus, change.getNotes())
-                                        .then(notifyStatusChanged(updated))
-                                        .thenReturn(updated))));
+                .flatMap(agencyId -> transition(change, agencyId, nextStatus));
     }
 
     public Mono<ReservationDraft> updateAgencyStatus(ReservationStatusChange change, boolean admin) {
@@ -212,14 +251,7 @@ public class ReservationUseCase {
             return Mono.error(new ConflictException("Estado de reserva inválido"));
         }
 
-        return reservationGateway.findByIdForAdmin(requireText(change.getReservationId(), "reservationId requerido"))
-                .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")))
-                .flatMap(current -> validateTransition(current.getStatus(), nextStatus)
-                        .then(validateNoWompiCompetition(current.getId(), nextStatus))
-                        .then(Mono.defer(() -> updateStatus(change, current.getAgencyId(), nextStatus)))
-                        .flatMap(updated -> appendStatusMessage(updated, nextStatus, change.getNotes())
-                                .then(notifyStatusChanged(updated))
-                                .thenReturn(updated)));
+        return transition(change, null, nextStatus);
     }
 
     public Mono<ReservationDraft> updateAgencyStatusForAgency(
@@ -233,16 +265,7 @@ public class ReservationUseCase {
         }
 
         return ensureAgencyAccess(change.getAgencyUserEmail(), agencyId, admin)
-                .flatMap(allowedAgencyId -> reservationGateway.findByIdForAgency(
-                                requireText(change.getReservationId(), "reservationId requerido"),
-                                allowedAgencyId)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")))
-                        .flatMap(current -> validateTransition(current.getStatus(), nextStatus)
-                                .then(validateNoWompiCompetition(current.getId(), nextStatus))
-                                .then(Mono.defer(() -> updateStatus(change, allowedAgencyId, nextStatus)))
-                                .flatMap(updated -> appendStatusMessage(updated, nextStatus, change.getNotes())
-                                        .then(notifyStatusChanged(updated))
-                                        .thenReturn(updated))));
+                .flatMap(allowedAgencyId -> transition(change, allowedAgencyId, nextStatus));
     }
 
     private Mono<Void> validateCreate(ReservationRequestDetails details) {
@@ -385,9 +408,9 @@ public class ReservationUseCase {
     }
 
     private Mono<Long> resolveAgencyId(String agencyUserEmail) {
-        return agencyRepository.findByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
-                .next()
-                .map(agency -> agency.getId())
+        return agencyRepository.findAgencyIdsByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
+                .filter(ids -> !ids.isEmpty())
+                .map(ids -> ids.get(0))
                 .switchIfEmpty(Mono.error(new NotFoundException("Agencia no encontrada para el usuario autenticado")));
     }
 
@@ -398,21 +421,12 @@ public class ReservationUseCase {
         if (admin) {
             return Mono.just(agencyId);
         }
-        return agencyRepository.findAllByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
-                .filter(agency -> agencyId.equals(agency.getId()))
-                .next()
-                .map(Agency::getId)
+        return agencyRepository.findAgencyIdsByUserEmail(requireText(agencyUserEmail, "Usuario autenticado requerido"))
+                .filter(ids -> ids.contains(agencyId))
+                .map(ids -> agencyId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Agencia no encontrada para el usuario autenticado")));
     }
 
-    private Mono<Void> validateTransition(String currentStatus, String nextStatus) {
-        String normalizedCurrent = normalizeStatus(currentStatus);
-        if (!ALLOWED_TRANSITIONS.getOrDefault(normalizedCurrent, Set.of()).contains(nextStatus)) {
-            return Mono.error(new ConflictException("Transición de estado no permitida"));
-        }
-        return Mono.empty();
-    }
-
     private Mono<Void> validateCustomerEditable(ReservationDraft reservation) {
         if (!STATUS_REQUESTED.equals(normalizeStatus(reservation.getStatus()))) {
             return Mono.error(new ConflictException("La solicitud ya no se puede editar ni eliminar"));
@@ -424,64 +438,60 @@ public class ReservationUseCase {
         return Mono.empty();
     }
 
-    private Mono<Void> validateNoWompiCompetition(String reservationId, String nextStatus) {
-        if (!STATUS_CONFIRMED.equals(nextStatus)) {
-            return Mono.empty();
-        }
-        return paymentTransactionRepository.existsPaidWompiTransaction(reservationId)
-                .flatMap(paid -> Boolean.TRUE.equals(paid)
-                        ? Mono.error(new ConflictException("La reserva ya fue pagada por Wompi"))
-                        : paymentTransactionRepository.existsBlockingWompiTransaction(reservationId, OffsetDateTime.now()))
-                .flatMap(blocking -> Boolean.TRUE.equals(blocking)
-                        ? Mono.error(new ConflictException("Existe un pago Wompi en proceso para esta reserva"))
-                        : Mono.empty());
-    }
-
     private OffsetDateTime editableUntil(ReservationDraft reservation) {
         return reservation.getCreatedAt().plus(CUSTOMER_EDIT_WINDOW);
     }
 
-    private Mono<ReservationDraft> updateStatus(ReservationStatusChange change, Long agencyId, String nextStatus) {
+    /**
+     * Valida y aplica el cambio en una sola sentencia del gateway; {@code agencyId} nulo
+     * (ADMIN) acepta la reserva de cualquier agencia. La notificación sale del resultado.
+     */
+    private Mono<ReservationDraft> transition(ReservationStatusChange change, Long agencyId, String nextStatus) {
+        String reservationId = requireText(change.getReservationId(), "reservationId requerido");
         OffsetDateTime now = OffsetDateTime.now();
-        OffsetDateTime contactedAt = STATUS_CONTACTED.equals(nextStatus) ? now : null;
-        OffsetDateTime confirmedAt = STATUS_CONFIRMED.equals(nextStatus) ? now : null;
-        OffsetDateTime cancelledAt = STATUS_CANCELLED.equals(nextStatus) ? now : null;
-        OffsetDateTime paidAt = STATUS_CONFIRMED.equals(nextStatus) ? now : null;
-        String paymentStatus = STATUS_CONFIRMED.equals(nextStatus) ? PAYMENT_VERIFIED_BY_AGENCY : null;
-
-        return reservationGateway.updateAgencyStatus(
-                        change.getReservationId(),
-                        agencyId,
-                        nextStatus,
-                        normalizeOptional(change.getNotes()),
-                        STATUS_CONFIRMED.equals(nextStatus) ? PROVIDER_AGENCY_MANAGED : null,
-                        paymentStatus,
-                        paidAt,
-                        contactedAt,
-                        confirmedAt,
-                        cancelledAt)
-                .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")));
-    }
-
-    private Mono<Void> appendStatusMessage(ReservationDraft reservation, String status, String notes) {
-        String body = buildStatusMessage(status, notes);
-        if (body == null) {
-            return Mono.empty();
-        }
-
-        return reservationMessageGateway.save(ReservationMessage.builder()
-                        .reservationId(reservation.getId())
+        boolean confirmed = STATUS_CONFIRMED.equals(nextStatus);
+        String statusMessage = buildStatusMessage(nextStatus, change.getNotes());
+
+        ReservationTransition transition = ReservationTransition.builder()
+                .reservationId(reservationId)
+                .agencyId(agencyId)
+                .status(nextStatus)
+                .allowedFrom(allowedFrom(nextStatus))
+                .checkWompi(confirmed)
+                .now(now)
+                .agencyNotes(normalizeOptional(change.getNotes()))
+                .paymentProvider(confirmed ? PROVIDER_AGENCY_MANAGED : null)
+                .paymentStatus(confirmed ? PAYMENT_VERIFIED_BY_AGENCY : null)
+                .paidAt(confirmed ? now : null)
+                .contactedAt(STATUS_CONTACTED.equals(nextStatus) ? now : null)
+                .confirmedAt(confirmed ? now : null)
+                .cancelledAt(STATUS_CANCELLED.equals(nextStatus) ? now : null)
+                .statusMessage(statusMessage == null ? null : ReservationMessage.builder()
+                        .reservationId(reservationId)
                         .senderEmail(SYSTEM_SENDER_EMAIL)
                         .senderType(SENDER_SYSTEM)
-                        .body(body)
+                        .body(statusMessage)
                         .build())
-                .then()
-                .onErrorResume(error -> {
-                    LOG.log(Level.WARNING, "No se pudo agregar mensaje de estado al chat", error);
-                    return Mono.empty();
+                .build();
+
+        return reservationGateway.transition(transition)
+                .switchIfEmpty(Mono.error(new NotFoundException("Reserva no encontrada")))
+                .flatMap(result -> switch (result.outcome()) {
+                    case APPLIED -> notifyStatusChanged(result.reservation()).thenReturn(result.reservation());
+                    case INVALID_TRANSITION -> Mono.error(new ConflictException("Transición de estado no permitida"));
+                    case WOMPI_PAID -> Mono.error(new ConflictException("La reserva ya fue pagada por Wompi"));
+                    case WOMPI_IN_PROGRESS -> Mono.error(
+                            new ConflictException("Existe un pago Wompi en proceso para esta reserva"));
                 });
     }
 
+    private static Set<String> allowedFrom(String nextStatus) {
+        return ALLOWED_TRANSITIONS.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(nextStatus))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
     private String buildStatusMessage(String status, String notes) {
         String normalizedStatus = normalizeStatus(status);
         String base = switch (normalizedStatus) {
@@ -531,21 +541,18 @@ public class ReservationUseCase {
             return Mono.empty();
         }
 
-        return Flux.concat(
-                        userRepository.findByAgencyId(agencyId),
-                        userRepository.findByRoleName("ADMIN"))
-                .map(User::getEmail)
-                .filter(email -> email != null && !email.isBlank())
-                .distinct(String::toLowerCase)
-                .flatMap(email -> appNotificationGateway.save(AppNotification.builder()
-                        .recipientEmail(email)
-                        .type(NOTIFICATION_RESERVATION_REQUEST_CREATED)
-                        .title("Nueva solicitud de reserva")
-                        .message("Un cliente creó una solicitud de reserva")
-                        .reservationId(reservation.getId())
-                        .agencyId(agencyId)
-                        .read(false)
-                        .build()))
+        return userRepository.findAgencyNotificationRecipients(agencyId)
+                .flatMapMany(emails -> appNotificationGateway.saveAll(emails.stream()
+                        .map(email -> AppNotification.builder()
+                                .recipientEmail(email)
+                                .type(NOTIFICATION_RESERVATION_REQUEST_CREATED)
+                                .title("Nueva solicitud de reserva")
+                                .message("Un cliente creó una solicitud de reserva")
+                                .reservationId(reservation.getId())
+                                .agencyId(agencyId)
+                                .read(false)
+                                .build())
+                        .toList()))
                 .then()
                 .onErrorResume(error -> {
                     LOG.log(Level.WARNING, "No se pudo crear notificación de nueva solicitud", error);
@@ -553,27 +560,22 @@ public class ReservationUseCase {
                 });
     }
 
-    private Mono<Void> sendCreatedEmailIfEmailPreference(ReservationDraft reservation) {
+    private Mono<Boolean> shouldSendCreatedEmail(ReservationDraft reservation) {
         if (!ContactPreference.EMAIL.name().equals(reservation.getContactPreference())) {
-            return Mono.empty();
+            return Mono.just(false);
         }
         String userEmail = normalizeOptional(reservation.getUserEmail());
         if (userEmail == null) {
-            return Mono.empty();
+            return Mono.just(false);
         }
 
+        // Se consulta antes de abrir la transacción: un error aquí no debe abortarla
         return userRepository.isEmailVerified(userEmail)
+                .map(Boolean.TRUE::equals)
                 .defaultIfEmpty(false)
                 .onErrorResume(error -> {
                     LOG.log(Level.WARNING, "No se pudo validar el correo para notificar la reserva", error);
                     return Mono.just(false);
-                })
-                .flatMap(verified -> Boolean.TRUE.equals(verified)
-                        ? emailGateway.sendEmail(buildReservationCreatedEmail(reservation))
-                        : Mono.empty())
-                .onErrorResume(error -> {
-                    LOG.log(Level.WARNING, "No se pudo enviar el correo de solicitud de reserva creada", error);
-                    return Mono.empty();
                 });
     }
 
@@ -1,5 +1,6 @@
 package co.turismo.usecase.reviews;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.reviews.PlaceRatingSummary;
 import co.turismo.model.reviews.Review;
 import co.turismo.model.reviews.TopRatedPlace;
@@ -45,6 +46,13 @@ public class ReviewsUseCase {
         return reviewRepository.findByPlaceIdPaginated(placeId, limit, offset);
     }
 
+    public Flux<Review> listAfter(Long placeId, PageCursor after, int limit) {
+        if (after == null) {
+            return listPaginated(placeId, limit, 0);
+        }
+        return reviewRepository.findByPlaceIdAfter(placeId, after, limit);
+    }
+
     public Mono<PlaceRatingSummary> summary(Long placeId) {
         return reviewRepository.ratingSummary(placeId);
     }
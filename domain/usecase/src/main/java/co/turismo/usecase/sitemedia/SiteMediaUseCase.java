@@ -19,16 +19,24 @@ import javax.imageio.ImageIO;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
@@ -59,10 +67,9 @@ public class SiteMediaUseCase {
                 .then(mediaRepository.findBySiteId(siteId).count()
                         .filter(count -> count < properties.maxFilesPerSite())
                         .switchIfEmpty(Mono.error(new IllegalArgumentException("Se alcanzó el límite de archivos del sitio"))))
-                .then(collect(upload.getContent(), limitFor(category), upload.getDeclaredSize()))
-                .publishOn(Schedulers.boundedElastic())
-                .flatMap(bytes -> normalize(category, upload.getFilename(), upload.getContentType(), bytes))
-                .flatMap(media -> storeAndPersist(siteId, media));
+                .then(Mono.defer(() -> category.equals("images")
+                        ? uploadImage(siteId, upload)
+                        : uploadStreamed(siteId, category, upload)));
     }
 
     public Flux<SiteMedia> findBySite(Long siteId) {
@@ -129,93 +136,155 @@ public class SiteMediaUseCase {
         return Mono.empty();
     }
 
-    private Mono<byte[]> collect(Flux<ByteBuffer> content, long maxBytes, Long declaredSize) {
-        return content
+    /**
+     * Las imágenes se decodifican completas para redimensionarlas, así que se vuelcan a un
+     * archivo temporal (no al heap) y se leen desde ahí. Lo que se sube es el JPEG ya
+     * normalizado, mucho más chico que el original.
+     */
+    private Mono<SiteMedia> uploadImage(Long siteId, SiteMediaUpload upload) {
+        String safeName = sanitize(upload.getFilename());
+        return Mono.using(
+                        () -> Files.createTempFile("site-media-", ".upload"),
+                        file -> spool(upload.getContent(), file, properties.maxImageBytes())
+                                .then(Mono.fromCallable(() -> normalizeImage(file))),
+                        SiteMediaUseCase::deleteQuietly)
+                .subscribeOn(Schedulers.boundedElastic())
                 .publishOn(Schedulers.boundedElastic())
-                .reduce(new ByteArrayOutputStream(), (out, buffer) -> {
-                    ByteBuffer copy = buffer.slice();
-                    if ((long) out.size() + copy.remaining() > maxBytes) {
-                        throw new IllegalArgumentException("El archivo supera el límite configurado");
-                    }
-                    byte[] chunk = new byte[copy.remaining()];
-                    copy.get(chunk);
-                    out.writeBytes(chunk);
-                    return out;
-                })
-                .flatMap(out -> {
-                    if (out.size() == 0 || (declaredSize != null && declaredSize == 0)) {
-                        return Mono.error(new IllegalArgumentException("El archivo está vacío"));
-                    }
-                    return Mono.just(out.toByteArray());
+                .flatMap(encoded -> {
+                    NormalizedMedia media = new NormalizedMedia("image/jpeg", ".jpg",
+                            encoded.width(), encoded.height(), "images", safeName);
+                    byte[] bytes = encoded.bytes();
+                    return storageGateway.upload(objectKey(siteId, media), media.contentType(),
+                                    Flux.just(ByteBuffer.wrap(bytes)), bytes.length)
+                            .flatMap(storedKey -> persist(siteId, storedKey, media, bytes.length, sha256(bytes)));
+                });
+    }
+
+    /**
+     * Videos y modelos GLB no se transforman: pasan directo al almacenamiento mientras se
+     * cuentan los bytes, se calcula el checksum y se valida la cabecera. El almacenamiento
+     * solo se invoca cuando la cabecera ya es válida; un error posterior (límite excedido,
+     * longitud GLB inconsistente) corta el stream y el adaptador aborta la subida.
+     */
+    private Mono<SiteMedia> uploadStreamed(Long siteId, String category, SiteMediaUpload upload) {
+        String type = normalizeType(upload.getContentType());
+        String safeName = sanitize(upload.getFilename());
+        NormalizedMedia media = category.equals("models-3d")
+                ? new NormalizedMedia(MODEL_TYPE, ".glb", null, null, category, safeName)
+                : new NormalizedMedia(type, extensionForVideo(type, safeName), null, null, category, safeName);
+        String key = objectKey(siteId, media);
+        StreamInspector inspector = new StreamInspector(category, type, limitFor(category));
+        return upload.getContent()
+                .concatMapIterable(inspector::accept)
+                .concatWith(Flux.defer(inspector::finish))
+                .switchOnFirst((first, content) -> first.hasValue()
+                        ? storageGateway.upload(key, media.contentType(), content, -1L).flux()
+                        : content.cast(String.class))
+                .next()
+                .flatMap(storedKey -> inspector.isComplete()
+                        ? persist(siteId, storedKey, media, inspector.size(), inspector.checksum())
+                        : compensate(storedKey, new IllegalStateException("La subida terminó antes de leer todo el archivo")));
+    }
+
+    private Mono<SiteMedia> persist(Long siteId, String storedKey, NormalizedMedia media, long size, String checksum) {
+        SiteMedia value = SiteMedia.builder()
+                .siteId(siteId)
+                .category(media.categoryDirectory())
+                .objectKey(storedKey)
+                .contentType(media.contentType())
+                .originalFilename(media.originalFilename())
+                .sizeBytes(size)
+                .width(media.width())
+                .height(media.height())
+                .checksum(checksum)
+                .createdAt(OffsetDateTime.now())
+                .build();
+        return mediaRepository.save(value)
+                .onErrorResume(error -> compensate(storedKey, error));
+    }
+
+    private Mono<SiteMedia> compensate(String storedKey, Throwable error) {
+        return storageGateway.delete(storedKey)
+                .onErrorResume(compensationError -> {
+                    LOG.severe("No se pudo compensar objeto multimedia key=" + storedKey);
+                    return Mono.empty();
                 })
-                .subscribeOn(Schedulers.boundedElastic());
+                .then(Mono.error(error));
     }
 
-    private Mono<NormalizedMedia> normalize(String category, String filename, String contentType, byte[] bytes) {
-        return Mono.fromCallable(() -> {
-            String type = normalizeType(contentType);
-            String safeName = sanitize(filename);
-            if (category.equals("images")) {
-                BufferedImage source = ImageIO.read(new ByteArrayInputStream(bytes));
-                if (source == null) {
-                    throw new IllegalArgumentException("La imagen no es válida");
-                }
-                int width = Math.min(source.getWidth(), properties.maxImageWidth());
-                int height = Math.min(source.getHeight(), properties.maxImageHeight());
-                double scale = Math.min((double) width / source.getWidth(), (double) height / source.getHeight());
-                if (scale >= 1d) {
-                    width = source.getWidth();
-                    height = source.getHeight();
-                } else {
-                    width = Math.max(1, (int) Math.round(source.getWidth() * scale));
-                    height = Math.max(1, (int) Math.round(source.getHeight() * scale));
-                }
-                BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-                Graphics2D graphics = output.createGraphics();
-                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                graphics.drawImage(source, 0, 0, width, height, null);
-                graphics.dispose();
-                ByteArrayOutputStream encoded = new ByteArrayOutputStream();
-                if (!ImageIO.write(output, "jpg", encoded)) {
-                    throw new IllegalArgumentException("No se pudo normalizar la imagen");
-                }
-                return new NormalizedMedia(encoded.toByteArray(), "image/jpeg", ".jpg", width, height, category, safeName);
-            }
-            if (category.equals("models-3d")) {
-                validateGlb(bytes);
-                return new NormalizedMedia(bytes, MODEL_TYPE, ".glb", null, null, category, safeName);
-            }
-            validateVideo(bytes, type);
-            return new NormalizedMedia(bytes, type, extensionForVideo(type, safeName), null, null, category, safeName);
-        }).subscribeOn(Schedulers.boundedElastic());
+    private String objectKey(Long siteId, NormalizedMedia media) {
+        String safeName = media.originalFilename().replaceFirst("\\.[^.]+$", "");
+        return properties.keyPrefix() + "/" + siteId + "/" + media.categoryDirectory() + "/"
+                + UUID.randomUUID() + "-" + safeName + media.extension();
     }
 
-    private Mono<SiteMedia> storeAndPersist(Long siteId, NormalizedMedia media) {
-        String safeName = sanitize(media.originalFilename()).replaceFirst("\\.[^.]+$", "");
-        String key = properties.keyPrefix() + "/" + siteId + "/" + media.categoryDirectory + "/"
-                + UUID.randomUUID() + "-" + safeName + media.extension;
-        return storageGateway.upload(key, media.contentType, Flux.just(ByteBuffer.wrap(media.bytes)), media.bytes.length)
-                .flatMap(storedKey -> {
-                    SiteMedia value = SiteMedia.builder()
-                            .siteId(siteId)
-                            .category(media.categoryDirectory)
-                            .objectKey(storedKey)
-                            .contentType(media.contentType)
-                            .originalFilename(media.originalFilename)
-                            .sizeBytes((long) media.bytes.length)
-                            .width(media.width)
-                            .height(media.height)
-                            .checksum(sha256(media.bytes))
-                            .createdAt(OffsetDateTime.now())
-                            .build();
-                    return mediaRepository.save(value)
-                            .onErrorResume(error -> storageGateway.delete(storedKey)
-                                    .onErrorResume(compensationError -> {
-                                        LOG.severe("No se pudo compensar objeto multimedia key=" + storedKey);
-                                        return Mono.empty();
-                                    })
-                                    .then(Mono.error(error)));
-                });
+    private static Mono<Void> spool(Flux<ByteBuffer> content, Path file, long maxBytes) {
+        return Mono.using(
+                () -> FileChannel.open(file, StandardOpenOption.WRITE),
+                channel -> content
+                        .publishOn(Schedulers.boundedElastic())
+                        .reduce(0L, (written, buffer) -> {
+                            ByteBuffer chunk = buffer.slice();
+                            if (written + chunk.remaining() > maxBytes) {
+                                throw new IllegalArgumentException("El archivo supera el límite configurado");
+                            }
+                            long total = written + chunk.remaining();
+                            try {
+                                while (chunk.hasRemaining()) {
+                                    channel.write(chunk);
+                                }
+                            } catch (IOException error) {
+                                throw new UncheckedIOException(error);
+                            }
+                            return total;
+                        })
+                        .flatMap(written -> written == 0
+                                ? Mono.<Void>error(new IllegalArgumentException("El archivo está vacío"))
+                                : Mono.<Void>empty()),
+                SiteMediaUseCase::closeQuietly);
+    }
+
+    private EncodedImage normalizeImage(Path file) throws IOException {
+        BufferedImage source = ImageIO.read(file.toFile());
+        if (source == null) {
+            throw new IllegalArgumentException("La imagen no es válida");
+        }
+        int width = Math.min(source.getWidth(), properties.maxImageWidth());
+        int height = Math.min(source.getHeight(), properties.maxImageHeight());
+        double scale = Math.min((double) width / source.getWidth(), (double) height / source.getHeight());
+        if (scale >= 1d) {
+            width = source.getWidth();
+            height = source.getHeight();
+        } else {
+            width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        }
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = output.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        if (!ImageIO.write(output, "jpg", encoded)) {
+            throw new IllegalArgumentException("No se pudo normalizar la imagen");
+        }
+        return new EncodedImage(encoded.toByteArray(), width, height);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException error) {
+            LOG.warning("No se pudo borrar el temporal " + file);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException error) {
+            LOG.warning("No se pudo cerrar el temporal de carga");
+        }
     }
 
     private long limitFor(String category) {
@@ -272,41 +341,126 @@ public class SiteMediaUseCase {
         return ".mp4";
     }
 
-    private static void validateVideo(byte[] bytes, String type) {
-        if (bytes.length < 12) throw new IllegalArgumentException("El video está incompleto");
+    private static void validateVideo(ByteBuffer header, String type) {
         boolean valid = switch (type) {
-            case "video/mp4", "video/quicktime" -> new String(bytes, 4, 4, StandardCharsets.US_ASCII).equals("ftyp");
-            case "video/webm" -> (bytes[0] & 0xff) == 0x1a && (bytes[1] & 0xff) == 0x45 && (bytes[2] & 0xff) == 0xdf && (bytes[3] & 0xff) == 0xa3;
+            case "video/mp4", "video/quicktime" -> StandardCharsets.US_ASCII.decode(header.slice(4, 4)).toString().equals("ftyp");
+            case "video/webm" -> (header.get(0) & 0xff) == 0x1a && (header.get(1) & 0xff) == 0x45 && (header.get(2) & 0xff) == 0xdf && (header.get(3) & 0xff) == 0xa3;
             default -> false;
         };
         if (!valid) throw new IllegalArgumentException("El contenido no coincide con el tipo de video");
     }
 
-    private static void validateGlb(byte[] bytes) {
-        if (bytes.length < 12) throw new IllegalArgumentException("El modelo GLB está incompleto");
-        ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
-        if (header.getInt() != 0x46546c67 || header.getInt() != 2) {
+    /** Devuelve la longitud total que declara la cabecera GLB. */
+    private static long validateGlb(ByteBuffer header) {
+        ByteBuffer view = header.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (view.getInt(0) != 0x46546c67 || view.getInt(4) != 2) {
             throw new IllegalArgumentException("El modelo GLB no es válido");
         }
-        long declaredLength = Integer.toUnsignedLong(header.getInt());
-        if (declaredLength < 12 || declaredLength > bytes.length) {
+        long declaredLength = Integer.toUnsignedLong(view.getInt(8));
+        if (declaredLength < 12) {
             throw new IllegalArgumentException("La longitud declarada del GLB no es válida");
         }
+        return declaredLength;
     }
 
     private static String sha256(byte[] bytes) {
+        MessageDigest digest = newSha256();
+        return HexFormat.of().formatHex(digest.digest(bytes));
+    }
+
+    private static MessageDigest newSha256() {
         try {
-            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
-            StringBuilder value = new StringBuilder(digest.length * 2);
-            for (byte item : digest) value.append(String.format("%02x", item));
-            return value.toString();
-        } catch (Exception error) {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException error) {
             throw new IllegalStateException("No se pudo calcular checksum", error);
         }
     }
 
+    /**
+     * Revisa el contenido a medida que pasa: cuenta bytes contra el límite, actualiza el
+     * SHA-256 y retiene solo los primeros fragmentos hasta juntar los 12 bytes de cabecera.
+     * Los fragmentos se entregan como vistas; nunca se copia el archivo.
+     */
+    private static final class StreamInspector {
+        private static final int HEADER_BYTES = 12;
+
+        private final String category;
+        private final String type;
+        private final long maxBytes;
+        private final MessageDigest digest = newSha256();
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        private final List<ByteBuffer> held = new ArrayList<>();
+        private long size;
+        private long declaredLength;
+        private boolean headerValidated;
+        private volatile boolean complete;
+
+        private StreamInspector(String category, String type, long maxBytes) {
+            this.category = category;
+            this.type = type;
+            this.maxBytes = maxBytes;
+        }
+
+        List<ByteBuffer> accept(ByteBuffer buffer) {
+            ByteBuffer chunk = buffer.slice();
+            size += chunk.remaining();
+            if (size > maxBytes) {
+                throw new IllegalArgumentException("El archivo supera el límite configurado");
+            }
+            digest.update(chunk.duplicate());
+            if (headerValidated) {
+                return List.of(chunk);
+            }
+            ByteBuffer view = chunk.duplicate();
+            while (header.hasRemaining() && view.hasRemaining()) {
+                header.put(view.get());
+            }
+            held.add(chunk);
+            if (header.hasRemaining()) {
+                return List.of();
+            }
+            header.flip();
+            if (category.equals("models-3d")) {
+                declaredLength = validateGlb(header);
+            } else {
+                validateVideo(header, type);
+            }
+            headerValidated = true;
+            List<ByteBuffer> ready = List.copyOf(held);
+            held.clear();
+            return ready;
+        }
+
+        Flux<ByteBuffer> finish() {
+            if (size == 0) {
+                return Flux.error(new IllegalArgumentException("El archivo está vacío"));
+            }
+            if (!headerValidated) {
+                return Flux.error(new IllegalArgumentException(category.equals("models-3d")
+                        ? "El modelo GLB está incompleto"
+                        : "El video está incompleto"));
+            }
+            if (declaredLength > size) {
+                return Flux.error(new IllegalArgumentException("La longitud declarada del GLB no es válida"));
+            }
+            complete = true;
+            return Flux.empty();
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        long size() {
+            return size;
+        }
+
+        String checksum() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
     private record NormalizedMedia(
-            byte[] bytes,
             String contentType,
             String extension,
             Integer width,
@@ -314,4 +468,6 @@ public class SiteMediaUseCase {
             String categoryDirectory,
             String originalFilename
     ) {}
+
+    private record EncodedImage(byte[] bytes, int width, int height) {}
 }
@@ -37,8 +37,8 @@ public class UserUseCase {
     }
  
     private Mono<Void> updatePasswordIfPresent(String email, String password) {
-        String hash = passwordHasher.hash(password);
-        return userRepository.updatePasswordHash(email, hash);
+        return passwordHasher.hash(password)
+                .flatMap(hash -> userRepository.updatePasswordHash(email, hash));
     }
  
     public Mono<User> updateMyProfile(String email, UpdateUserProfileRequest patch) {
@@ -64,8 +64,8 @@ public class UserUseCase {
     }
  
     public Mono<Boolean> setPassword(String email, String newPassword) {
-        String hash = passwordHasher.hash(newPassword);
-        return userRepository.updatePasswordHash(email, hash)
+        return passwordHasher.hash(newPassword)
+                .flatMap(hash -> userRepository.updatePasswordHash(email, hash))
                 .thenReturn(true);
     }
  
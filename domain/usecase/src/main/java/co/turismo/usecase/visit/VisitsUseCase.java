@@ -1,18 +1,17 @@
 package co.turismo.usecase.visit;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.userIdentityPort.UserIdentityPort;
 import co.turismo.model.userIdentityPort.UserSummary;
 import co.turismo.model.visits.PlaceBriefUC;
 import co.turismo.model.visits.PlaceNearby;
 import co.turismo.model.visits.TopPlace;
 import co.turismo.model.visits.UserFavoritePlace;
-import co.turismo.model.visits.VisitStatus;
 import co.turismo.model.visits.gateways.VisitGateway;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 
@@ -48,22 +47,18 @@ public class VisitsUseCase {
                                 .map(UserSummary::id)
                 );
 
-        // 2) Regla 24h por usuario/sitio, luego validación de distancia y pending
+        // 2) Regla 24h, radio e inserción de la visita pendiente en una sola sentencia
         return userIdMono.flatMap(userId ->
-                gateway.existsConfirmedInLast24Hours(cmd.placeId(), userId, cmd.deviceId())
-                        .flatMap(already -> {
-                            if (Boolean.TRUE.equals(already)) {
-                                return Mono.error(new IllegalStateException(
-                                        "Ya registraste visita en este sitio en las últimas 24 horas"));
-                            }
-                            return gateway.computeDistanceIfWithin(cmd.placeId(), cmd.lat(), cmd.lng(), RADIUS_M)
-                                    .switchIfEmpty(Mono.error(new IllegalStateException("Fuera del radio permitido")))
-                                    .flatMap(distance -> gateway.insertPending(
-                                                    cmd.placeId(), userId, cmd.deviceId(),
-                                                    distance, cmd.accuracyM(),
-                                                    cmd.metaJson() != null ? cmd.metaJson() : "{}"
-                                            )
-                                            .map(v -> new CheckinRes(v.getId(), v.getStatus().name(), MIN_STAY_SECONDS, distance)));
+                gateway.checkin(cmd.placeId(), userId, cmd.deviceId(),
+                                cmd.lat(), cmd.lng(), RADIUS_M,
+                                cmd.accuracyM(), cmd.metaJson() != null ? cmd.metaJson() : "{}")
+                        .flatMap(result -> switch (result.outcome()) {
+                            case ok -> Mono.just(new CheckinRes(
+                                    result.visit().getId(), result.visit().getStatus().name(),
+                                    MIN_STAY_SECONDS, result.visit().getDistanceM()));
+                            case duplicate -> Mono.error(new IllegalStateException(
+                                    "Ya registraste visita en este sitio en las últimas 24 horas"));
+                            default -> Mono.error(new IllegalStateException("Fuera del radio permitido"));
                         })
         );
     }
@@ -72,33 +67,18 @@ public class VisitsUseCase {
     public record ConfirmCmd(Long visitId, double lat, double lng, Integer accuracyM) {}
     public record ConfirmRes(String status, Instant confirmedAt, PlaceBriefUC place) {}
 
+    // Validación, confirmación, conteo diario y resumen del lugar en una sola sentencia
     public Mono<ConfirmRes> confirm(ConfirmCmd cmd) {
-        return gateway.findById(cmd.visitId())
+        return gateway.confirm(cmd.visitId(), cmd.lat(), cmd.lng(), cmd.accuracyM(), RADIUS_M, MIN_STAY_SECONDS)
                 .switchIfEmpty(Mono.error(new IllegalStateException("Visita no encontrada")))
-                .flatMap(v -> {
-                    if (v.getStatus() != VisitStatus.pending) {
-                        return Mono.error(new IllegalStateException("Visita ya gestionada"));
-                    }
-                    if (v.getStartedAt() == null ||
-                            Duration.between(v.getStartedAt(), Instant.now()).getSeconds() < MIN_STAY_SECONDS) {
-                        return Mono.error(new IllegalStateException("Aún no cumples permanencia mínima"));
-                    }
-
-                    return gateway.computeDistanceIfWithin(v.getPlaceId(), cmd.lat(), cmd.lng(), RADIUS_M)
-                            .switchIfEmpty(Mono.error(new IllegalStateException("Ya no estás cerca del sitio")))
-                            // Usa userId si existe; si no, deviceId
-                            .flatMap(d -> gateway.existsConfirmedToday(v.getPlaceId(), v.getUserId(), v.getDeviceId())
-                                    .flatMap(already -> {
-                                        if (Boolean.TRUE.equals(already)) {
-                                            return Mono.error(new IllegalStateException("Ya registraste visita hoy"));
-                                        }
-                                        return gateway.confirmVisit(cmd.visitId(), cmd.lat(), cmd.lng(), cmd.accuracyM(), null)
-                                                .flatMap(ok -> gateway.getPlaceBrief(v.getPlaceId())
-                                                        .flatMap(pb -> gateway.upsertDaily(v.getPlaceId()).thenReturn(
-                                                                new ConfirmRes(ok.getStatus().name(), ok.getConfirmedAt(), pb)
-                                                        )));
-                                    })
-                            );
+                .flatMap(result -> switch (result.outcome()) {
+                    case ok -> Mono.just(new ConfirmRes(
+                            result.visit().getStatus().name(), result.visit().getConfirmedAt(), result.place()));
+                    case already_managed -> Mono.error(new IllegalStateException("Visita ya gestionada"));
+                    case min_stay -> Mono.error(new IllegalStateException("Aún no cumples permanencia mínima"));
+                    case out_of_range -> Mono.error(new IllegalStateException("Ya no estás cerca del sitio"));
+                    case already_today -> Mono.error(new IllegalStateException("Ya registraste visita hoy"));
+                    default -> Mono.error(new IllegalStateException("Visita ya gestionada"));
                 });
     }
 
@@ -141,4 +121,13 @@ public class VisitsUseCase {
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Usuario no encontrado con email: " + email)))
                 .flatMapMany(user -> gateway.listFavoritesByUser(user.id(), limit, offset));
     }
+
+    public Flux<UserFavoritePlace> myFavoritesAfter(String email, PageCursor after, int limit) {
+        if (after == null) {
+            return myFavorites(email, limit, 0);
+        }
+        return userIdentityPortGateway.getUserIdForEmail(email)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Usuario no encontrado con email: " + email)))
+                .flatMapMany(user -> gateway.listFavoritesByUserAfter(user.id(), after, limit));
+    }
 }
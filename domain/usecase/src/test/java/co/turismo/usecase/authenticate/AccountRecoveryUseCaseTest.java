@@ -2,6 +2,7 @@ package co.turismo.usecase.authenticate;
 
 import co.turismo.model.authenticationsession.gateways.TotpSecretRepository;
 import co.turismo.model.common.AppUrlConfig;
+import co.turismo.model.common.gateways.TransactionGateway;
 import co.turismo.model.notification.EmailMessage;
 import co.turismo.model.notification.gateways.EmailGateway;
 import co.turismo.model.security.gateways.PasswordHasher;
@@ -16,8 +17,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import co.turismo.model.user.EmailVerificationResult;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -31,6 +35,8 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class AccountRecoveryUseCaseTest {
 
+    private static final String IN_TRANSACTION = "inTransaction";
+
     @Mock
     private UserRepository userRepository;
     @Mock
@@ -52,7 +58,8 @@ class AccountRecoveryUseCaseTest {
                 emailGateway,
                 new AppUrlConfig("http://localhost:8082", "https://frontend.turismo.com"),
                 passwordHasher,
-                userVerificationGateway
+                userVerificationGateway,
+                new ContextTransactionGateway()
         );
     }
 
@@ -97,6 +104,29 @@ class AccountRecoveryUseCaseTest {
         assertTrue(mailCaptor.getValue().htmlBody().contains("/recover-account?token="));
     }
 
+    @Test
+    void requestRecoveryCodeShouldStoreTheTokenAndEnqueueTheEmailInOneTransaction() {
+        List<String> writesInTransaction = new CopyOnWriteArrayList<>();
+        when(userRepository.saveRecoveryCode(eq("ana@example.com"), anyString(), any()))
+                .thenReturn(Mono.deferContextual(ctx -> {
+                    if (ctx.hasKey(IN_TRANSACTION)) {
+                        writesInTransaction.add("token");
+                    }
+                    return Mono.just(true);
+                }));
+        when(emailGateway.sendEmail(any(EmailMessage.class))).thenReturn(Mono.deferContextual(ctx -> {
+            if (ctx.hasKey(IN_TRANSACTION)) {
+                writesInTransaction.add("email");
+            }
+            return Mono.empty();
+        }));
+
+        StepVerifier.create(useCase.requestRecoveryCode("ana@example.com"))
+                .verifyComplete();
+
+        assertEquals(List.of("token", "email"), writesInTransaction);
+    }
+
     @Test
     void confirmRecoveryCodeShouldUpdatePasswordResetTotpAndClearCode() {
         RecoveryTokenStatus tokenStatus = new RecoveryTokenStatus(
@@ -107,7 +137,7 @@ class AccountRecoveryUseCaseTest {
         );
 
         when(userRepository.getRecoveryStatusByTokenHash(anyString())).thenReturn(Mono.just(tokenStatus));
-        when(passwordHasher.hash("Password123")).thenReturn("HASHED");
+        when(passwordHasher.hash("Password123")).thenReturn(Mono.just("HASHED"));
         when(userRepository.updatePasswordHash("ana@example.com", "HASHED")).thenReturn(Mono.empty());
         when(totpSecretRepository.resetTotp("ana@example.com")).thenReturn(Mono.empty());
         when(userRepository.clearRecoveryCode("ana@example.com")).thenReturn(Mono.empty());
@@ -262,8 +292,7 @@ class AccountRecoveryUseCaseTest {
         );
 
         when(userRepository.getRecoveryStatusByTokenHash(anyString())).thenReturn(Mono.just(tokenStatus));
-        when(passwordHasher.hash("Password123")).thenReturn("HASHED");
-        when(userRepository.updatePasswordHash("ana@example.com", "HASHED")).thenReturn(Mono.empty());
+        when(passwordHasher.hash("Password123")).thenReturn(Mono.just("HASHED"));
         when(totpSecretRepository.resetTotp("ana@example.com")).thenReturn(Mono.empty());
         when(userRepository.clearRecoveryCode("ana@example.com")).thenReturn(Mono.empty());
 
@@ -282,8 +311,7 @@ class AccountRecoveryUseCaseTest {
         );
 
         when(userRepository.getRecoveryStatusByTokenHash(anyString())).thenReturn(Mono.just(tokenStatus));
-        when(passwordHasher.hash("Password123")).thenReturn("HASHED");
-        when(userRepository.updatePasswordHash("ana@example.com", "HASHED")).thenReturn(Mono.empty());
+        when(passwordHasher.hash("Password123")).thenReturn(Mono.just("HASHED"));
         when(totpSecretRepository.resetTotp("ana@example.com")).thenReturn(Mono.empty());
         when(userRepository.clearRecoveryCode("ana@example.com")).thenReturn(Mono.empty());
 
@@ -321,8 +349,7 @@ class AccountRecoveryUseCaseTest {
         );
 
         when(userRepository.getRecoveryStatusByTokenHash(anyString())).thenReturn(Mono.just(tokenStatus));
-        when(passwordHasher.hash("Password123")).thenReturn("HASHED");
-        when(userRepository.updatePasswordHash("ana@example.com", "HASHED")).thenReturn(Mono.empty());
+        when(passwordHasher.hash("Password123")).thenReturn(Mono.just("HASHED"));
         when(totpSecretRepository.resetTotp("ana@example.com")).thenReturn(Mono.empty());
         when(userRepository.clearRecoveryCode("ana@example.com")).thenReturn(Mono.empty());
 
@@ -330,4 +357,12 @@ class AccountRecoveryUseCaseTest {
                 .expectErrorMatches(e -> e.getMessage().contains("Token expirado"))
                 .verify();
     }
+
+    // Marca en el contexto de Reactor lo que se suscribe dentro de la transacción
+    private static final class ContextTransactionGateway implements TransactionGateway {
+        @Override
+        public <T> Mono<T> inTransaction(Mono<T> work) {
+            return work.contextWrite(Context.of(IN_TRANSACTION, true));
+        }
+    }
 }
@@ -59,7 +59,7 @@ class AuthenticateUseCaseTest {
     void setupTotpShouldGenerateSecretWhenCredentialsAreValid() {
         when(userRepository.isActiveByEmail("ana@example.com")).thenReturn(Mono.just(true));
         when(userRepository.getPasswordHash("ana@example.com")).thenReturn(Mono.just("HASH"));
-        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(true);
+        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(Mono.just(true));
         when(totpSecretRepository.isTotpEnabledByEmail("ana@example.com")).thenReturn(Mono.just(false));
         when(totpSecretRepository.saveSecretDraft("ana@example.com", "BASE32SECRET")).thenReturn(Mono.empty());
 
@@ -78,7 +78,7 @@ class AuthenticateUseCaseTest {
     void setupTotpShouldRegisterOtpFailWhenPasswordIsInvalid() {
         when(userRepository.isActiveByEmail("ana@example.com")).thenReturn(Mono.just(true));
         when(userRepository.getPasswordHash("ana@example.com")).thenReturn(Mono.just("HASH"));
-        when(passwordHasher.matches("wrong-pass", "HASH")).thenReturn(false);
+        when(passwordHasher.matches("wrong-pass", "HASH")).thenReturn(Mono.just(false));
         when(userRepository.registerOtpFail("ana@example.com")).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.setupTotp("ana@example.com", "wrong-pass"))
@@ -92,7 +92,7 @@ class AuthenticateUseCaseTest {
     void authenticatePasswordShouldFallbackToVisitorRoleWhenUserHasNoRoles() {
         when(userRepository.isActiveByEmail("ana@example.com")).thenReturn(Mono.just(true));
         when(userRepository.getPasswordHash("ana@example.com")).thenReturn(Mono.just("HASH"));
-        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(true);
+        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(Mono.just(true));
         when(userRepository.registerSuccessfulLogin("ana@example.com")).thenReturn(Mono.empty());
         when(userRepository.findRoleNamesByEmail("ana@example.com")).thenReturn(Flux.empty());
         when(authenticationRepository.generateToken(eq("ana@example.com"), anySet(), eq("10.0.0.1")))
@@ -156,7 +156,7 @@ class AuthenticateUseCaseTest {
     void setupTotpShouldFailWhenTotpAlreadyEnabled() {
         when(userRepository.isActiveByEmail("ana@example.com")).thenReturn(Mono.just(true));
         when(userRepository.getPasswordHash("ana@example.com")).thenReturn(Mono.just("HASH"));
-        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(true);
+        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(Mono.just(true));
         when(totpSecretRepository.isTotpEnabledByEmail("ana@example.com")).thenReturn(Mono.just(true));
 
         StepVerifier.create(useCase.setupTotp("ana@example.com", "Pass123"))
@@ -328,7 +328,7 @@ class AuthenticateUseCaseTest {
     void authenticatePasswordShouldFailAndRegisterOtpFailWhenPasswordIsWrong() {
         when(userRepository.isActiveByEmail("ana@example.com")).thenReturn(Mono.just(true));
         when(userRepository.getPasswordHash("ana@example.com")).thenReturn(Mono.just("HASH"));
-        when(passwordHasher.matches("wrong", "HASH")).thenReturn(false);
+        when(passwordHasher.matches("wrong", "HASH")).thenReturn(Mono.just(false));
         when(userRepository.registerOtpFail("ana@example.com")).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.authenticatePassword("ana@example.com", "wrong", "10.0.0.1"))
@@ -342,7 +342,7 @@ class AuthenticateUseCaseTest {
     void authenticatePasswordShouldReturnTokenWithRolesWhenCredentialsAreValid() {
         when(userRepository.isActiveByEmail("ana@example.com")).thenReturn(Mono.just(true));
         when(userRepository.getPasswordHash("ana@example.com")).thenReturn(Mono.just("HASH"));
-        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(true);
+        when(passwordHasher.matches("Pass123", "HASH")).thenReturn(Mono.just(true));
         when(userRepository.registerSuccessfulLogin("ana@example.com")).thenReturn(Mono.empty());
         when(userRepository.findRoleNamesByEmail("ana@example.com")).thenReturn(Flux.just("ROLE_ADMIN"));
         when(authenticationRepository.generateToken(eq("ana@example.com"), anySet(), eq("10.0.0.1")))
@@ -1,6 +1,7 @@
 package co.turismo.usecase.category;
 
 import co.turismo.model.category.Category;
+import co.turismo.model.category.CategorySnapshot;
 import co.turismo.model.category.CreateCategoryRequest;
 import co.turismo.model.category.UpdateCategoryRequest;
 import co.turismo.model.category.gateways.CategoryRepository;
@@ -13,6 +14,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +53,16 @@ class CategoryUseCaseTest {
 
     }
 
+    @Test
+    void snapshotShouldDelegateToRepository() {
+        CategorySnapshot snapshot = CategorySnapshot.of(List.of(Category.builder().id(1L).name("Parques").build()));
+        when(categoryRepository.snapshot()).thenReturn(Mono.just(snapshot));
+
+        StepVerifier.create(useCase.snapshot())
+                .expectNext(snapshot)
+                .verifyComplete();
+    }
+
     @Test
     void createShouldDelegateToRepository() {
         CreateCategoryRequest request = CreateCategoryRequest.builder().name("Aventura").build();
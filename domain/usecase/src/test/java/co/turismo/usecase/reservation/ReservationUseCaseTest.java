@@ -1,19 +1,21 @@
 package co.turismo.usecase.reservation;
 
-import co.turismo.model.agency.Agency;
 import co.turismo.model.agency.gateways.AgencyRepository;
+import co.turismo.model.common.PageCursor;
+import co.turismo.model.common.gateways.TransactionGateway;
 import co.turismo.model.error.ConflictException;
 import co.turismo.model.error.NotFoundException;
+import co.turismo.model.notification.AppNotification;
 import co.turismo.model.notification.EmailMessage;
 import co.turismo.model.notification.gateways.AppNotificationGateway;
 import co.turismo.model.notification.gateways.EmailGateway;
-import co.turismo.model.payment.gateways.PaymentTransactionRepository;
 import co.turismo.model.reservation.ReservationDraft;
 import co.turismo.model.reservation.ReservationMessage;
 import co.turismo.model.reservation.ReservationRequestDetails;
 import co.turismo.model.reservation.ReservationStatusChange;
+import co.turismo.model.reservation.ReservationTransition;
+import co.turismo.model.reservation.ReservationTransitionResult;
 import co.turismo.model.reservation.gateways.ReservationGateway;
-import co.turismo.model.reservation.gateways.ReservationMessageGateway;
 import co.turismo.model.tourpackage.TourPackage;
 import co.turismo.model.tourpackage.gateways.TourPackageRepository;
 import co.turismo.model.user.gateways.UserRepository;
@@ -26,18 +28,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -45,6 +53,8 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class ReservationUseCaseTest {
 
+    private static final String IN_TRANSACTION = "inTransaction";
+
     @Mock
     private ReservationGateway reservationGateway;
     @Mock
@@ -57,10 +67,6 @@ class ReservationUseCaseTest {
     private EmailGateway emailGateway;
     @Mock
     private AppNotificationGateway appNotificationGateway;
-    @Mock
-    private ReservationMessageGateway reservationMessageGateway;
-    @Mock
-    private PaymentTransactionRepository paymentTransactionRepository;
 
     private ReservationUseCase useCase;
 
@@ -73,16 +79,13 @@ class ReservationUseCaseTest {
                 userRepository,
                 emailGateway,
                 appNotificationGateway,
-                reservationMessageGateway,
-                paymentTransactionRepository
+                new ContextTransactionGateway()
         );
         lenient().when(userRepository.isEmailVerified("user@example.com")).thenReturn(Mono.just(false));
-        lenient().when(userRepository.findByAgencyId(2L)).thenReturn(Flux.empty());
-        lenient().when(userRepository.findByRoleName("ADMIN")).thenReturn(Flux.empty());
+        lenient().when(userRepository.findAgencyNotificationRecipients(2L)).thenReturn(Mono.just(List.of()));
         lenient().when(appNotificationGateway.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        lenient().when(reservationMessageGateway.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        lenient().when(paymentTransactionRepository.existsPaidWompiTransaction(any())).thenReturn(Mono.just(false));
-        lenient().when(paymentTransactionRepository.existsBlockingWompiTransaction(any(), any())).thenReturn(Mono.just(false));
+        lenient().when(appNotificationGateway.saveAll(any())).thenAnswer(invocation ->
+                Flux.fromIterable(invocation.<List<AppNotification>>getArgument(0)));
     }
 
     @Test
@@ -116,6 +119,26 @@ class ReservationUseCaseTest {
         assertEquals("user@example.com", captor.getValue().getUserEmail());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void createRequestShouldNotifyAgencyRecipientsInOneBatch() {
+        ArgumentCaptor<List<AppNotification>> captor = ArgumentCaptor.forClass(List.class);
+
+        when(tourPackageRepository.findById(6L)).thenReturn(Mono.just(activePackage()));
+        when(reservationGateway.createPendingReservation(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(userRepository.findAgencyNotificationRecipients(2L))
+                .thenReturn(Mono.just(List.of("agencia@example.com", "admin@example.com")));
+
+        StepVerifier.create(useCase.createRequest(validDetails()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(appNotificationGateway).saveAll(captor.capture());
+        assertEquals(List.of("agencia@example.com", "admin@example.com"),
+                captor.getValue().stream().map(AppNotification::getRecipientEmail).toList());
+        assertTrue(captor.getValue().stream().allMatch(n -> Long.valueOf(2L).equals(n.getAgencyId())));
+    }
+
     @Test
     void createRequestShouldSendEmailWhenUserEmailIsVerified() {
         ArgumentCaptor<EmailMessage> emailCaptor = ArgumentCaptor.forClass(EmailMessage.class);
@@ -139,6 +162,50 @@ class ReservationUseCaseTest {
         assertTrue(email.htmlBody().contains("requested"));
     }
 
+    @Test
+    void createRequestShouldEnqueueTheEmailInTheSameTransactionAsTheReservation() {
+        List<String> writesInTransaction = new CopyOnWriteArrayList<>();
+
+        when(tourPackageRepository.findById(6L)).thenReturn(Mono.just(activePackage()));
+        when(reservationGateway.createPendingReservation(any())).thenAnswer(invocation -> Mono.deferContextual(ctx -> {
+            if (ctx.hasKey(IN_TRANSACTION)) {
+                writesInTransaction.add("reservation");
+            }
+            return Mono.just(invocation.<ReservationDraft>getArgument(0));
+        }));
+        when(userRepository.isEmailVerified("user@example.com")).thenReturn(Mono.just(true));
+        when(emailGateway.sendEmail(any(EmailMessage.class))).thenReturn(Mono.deferContextual(ctx -> {
+            if (ctx.hasKey(IN_TRANSACTION)) {
+                writesInTransaction.add("email");
+            }
+            return Mono.empty();
+        }));
+
+        StepVerifier.create(useCase.createRequest(validDetails().toBuilder()
+                        .contactPreference("EMAIL")
+                        .build()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(List.of("reservation", "email"), writesInTransaction);
+    }
+
+    @Test
+    void createRequestShouldFailWhenTheEmailCannotBeEnqueued() {
+        when(tourPackageRepository.findById(6L)).thenReturn(Mono.just(activePackage()));
+        when(reservationGateway.createPendingReservation(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(userRepository.isEmailVerified("user@example.com")).thenReturn(Mono.just(true));
+        when(emailGateway.sendEmail(any(EmailMessage.class))).thenReturn(Mono.error(new IllegalStateException("outbox")));
+
+        StepVerifier.create(useCase.createRequest(validDetails().toBuilder()
+                        .contactPreference("EMAIL")
+                        .build()))
+                .expectErrorMessage("outbox")
+                .verify();
+
+        verify(appNotificationGateway, never()).saveAll(any());
+    }
+
     @Test
     void createRequestShouldSkipEmailWhenUserEmailIsNotVerified() {
         when(tourPackageRepository.findById(6L)).thenReturn(Mono.just(activePackage()));
@@ -291,6 +358,40 @@ class ReservationUseCaseTest {
         verify(reservationGateway).findByUserEmail("user@example.com", 20, 40);
     }
 
+    @Test
+    void findMineAfterShouldUseKeysetWhenCursorIsPresent() {
+        ReservationDraft reservation = reservation("requested");
+        PageCursor after = new PageCursor(Instant.parse("2026-05-01T10:00:00Z"), "reserva-9");
+        when(reservationGateway.findByUserEmailAfter("user@example.com", after, 20)).thenReturn(Flux.just(reservation));
+
+        StepVerifier.create(useCase.findMineAfter("user@example.com", after, 20))
+                .expectNext(reservation)
+                .verifyComplete();
+    }
+
+    @Test
+    void findMineAfterWithoutCursorShouldReturnFirstPage() {
+        ReservationDraft reservation = reservation("requested");
+        when(reservationGateway.findByUserEmail("user@example.com", 20, 0)).thenReturn(Flux.just(reservation));
+
+        StepVerifier.create(useCase.findMineAfter("user@example.com", null, 20))
+                .expectNext(reservation)
+                .verifyComplete();
+    }
+
+    @Test
+    void agencyListAfterShouldUseKeysetForAdmin() {
+        ReservationDraft reservation = reservation("requested");
+        PageCursor after = new PageCursor(Instant.parse("2026-05-01T10:00:00Z"), "reserva-9");
+        when(reservationGateway.findAllForAdminAfter("requested", after, 10)).thenReturn(Flux.just(reservation));
+
+        StepVerifier.create(useCase.findForMyAgencyAfter("admin@example.com", true, "REQUESTED", after, 10))
+                .expectNext(reservation)
+                .verifyComplete();
+
+        verifyNoInteractions(agencyRepository);
+    }
+
     @Test
     void findMineByIdShouldReturnNotFoundForOtherUsersReservations() {
         when(reservationGateway.findByIdForUser("reserva-1", "user@example.com")).thenReturn(Mono.empty());
@@ -303,8 +404,8 @@ class ReservationUseCaseTest {
     @Test
     void agencyListShouldResolveAgencyFromAuthenticatedUserAndFilterByStatus() {
         ReservationDraft reservation = reservation("requested");
-        when(agencyRepository.findByUserEmail("agency@example.com"))
-                .thenReturn(Flux.just(Agency.builder().id(2L).build()));
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
         when(reservationGateway.findByAgencyId(2L, "requested", 10, 20)).thenReturn(Flux.just(reservation));
 
         StepVerifier.create(useCase.findForMyAgency("agency@example.com", "REQUESTED", 10, 20))
@@ -314,10 +415,44 @@ class ReservationUseCaseTest {
         verify(reservationGateway).findByAgencyId(2L, "requested", 10, 20);
     }
 
+    @Test
+    void agencyListByIdShouldAllowAnyAgencyOfTheUser() {
+        ReservationDraft reservation = reservation("requested");
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L, 5L)));
+        when(reservationGateway.findByAgencyId(5L, "requested", 10, 0)).thenReturn(Flux.just(reservation));
+
+        StepVerifier.create(useCase.findForAgency("agency@example.com", 5L, false, "requested", 10, 0))
+                .expectNext(reservation)
+                .verifyComplete();
+    }
+
+    @Test
+    void agencyListByIdShouldRejectAgenciesTheUserDoesNotBelongTo() {
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
+
+        StepVerifier.create(useCase.findForAgency("agency@example.com", 9L, false, "requested", 10, 0))
+                .expectError(NotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(reservationGateway);
+    }
+
+    @Test
+    void agencyListShouldFailWhenUserHasNoAgency() {
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(useCase.findForMyAgency("agency@example.com", "requested", 10, 0))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
     @Test
     void agencyFindByIdShouldReturnNotFoundForOtherAgencyReservations() {
-        when(agencyRepository.findByUserEmail("agency@example.com"))
-                .thenReturn(Flux.just(Agency.builder().id(2L).build()));
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
         when(reservationGateway.findByIdForAgency("reserva-1", 2L)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.findForMyAgencyById("agency@example.com", "reserva-1"))
@@ -327,23 +462,10 @@ class ReservationUseCaseTest {
 
     @Test
     void validStatusTransitionShouldUpdateReservation() {
-        ReservationDraft current = reservation("contacted");
         ReservationDraft updated = reservation("awaiting_payment");
-        when(agencyRepository.findByUserEmail("agency@example.com"))
-                .thenReturn(Flux.just(Agency.builder().id(2L).build()));
-        when(reservationGateway.findByIdForAgency("reserva-1", 2L)).thenReturn(Mono.just(current));
-        when(reservationGateway.updateAgencyStatus(
-                eq("reserva-1"),
-                eq(2L),
-                eq("awaiting_payment"),
-                eq("Instrucciones enviadas"),
-                eq(null),
-                eq(null),
-                eq(null),
-                eq(null),
-                eq(null),
-                eq(null)
-        )).thenReturn(Mono.just(updated));
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
+        when(reservationGateway.transition(any())).thenReturn(Mono.just(applied(updated)));
 
         StepVerifier.create(useCase.updateAgencyStatus(ReservationStatusChange.builder()
                         .reservationId("reserva-1")
@@ -354,20 +476,34 @@ class ReservationUseCaseTest {
                 .assertNext(result -> assertEquals("awaiting_payment", result.getStatus()))
                 .verifyComplete();
 
-        ArgumentCaptor<ReservationMessage> messageCaptor = ArgumentCaptor.forClass(ReservationMessage.class);
-        verify(reservationMessageGateway).save(messageCaptor.capture());
-        assertEquals("reserva-1", messageCaptor.getValue().getReservationId());
-        assertEquals("SYSTEM", messageCaptor.getValue().getSenderType());
-        assertTrue(messageCaptor.getValue().getBody().contains("esperando pago"));
-        assertTrue(messageCaptor.getValue().getBody().contains("Instrucciones enviadas"));
+        ReservationTransition transition = capturedTransition();
+        assertEquals("reserva-1", transition.getReservationId());
+        assertEquals(2L, transition.getAgencyId());
+        assertEquals("awaiting_payment", transition.getStatus());
+        assertEquals(Set.of("contacted"), transition.getAllowedFrom());
+        assertEquals("Instrucciones enviadas", transition.getAgencyNotes());
+        assertFalse(transition.isCheckWompi());
+        assertNull(transition.getPaymentProvider());
+        assertNull(transition.getPaidAt());
+
+        ReservationMessage message = transition.getStatusMessage();
+        assertEquals("reserva-1", message.getReservationId());
+        assertEquals("SYSTEM", message.getSenderType());
+        assertTrue(message.getBody().contains("esperando pago"));
+        assertTrue(message.getBody().contains("Instrucciones enviadas"));
+
+        ArgumentCaptor<AppNotification> notificationCaptor = ArgumentCaptor.forClass(AppNotification.class);
+        verify(appNotificationGateway).save(notificationCaptor.capture());
+        assertEquals("user@example.com", notificationCaptor.getValue().getRecipientEmail());
+        assertEquals("RESERVATION_STATUS_CHANGED", notificationCaptor.getValue().getType());
     }
 
     @Test
     void requestedReservationShouldNotBeManuallyMarkedAsContacted() {
-        ReservationDraft current = reservation("requested");
-        when(agencyRepository.findByUserEmail("agency@example.com"))
-                .thenReturn(Flux.just(Agency.builder().id(2L).build()));
-        when(reservationGateway.findByIdForAgency("reserva-1", 2L)).thenReturn(Mono.just(current));
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
+        when(reservationGateway.transition(any())).thenReturn(Mono.just(
+                new ReservationTransitionResult(ReservationTransitionResult.Outcome.INVALID_TRANSITION, null)));
 
         StepVerifier.create(useCase.updateAgencyStatus(ReservationStatusChange.builder()
                         .reservationId("reserva-1")
@@ -377,32 +513,22 @@ class ReservationUseCaseTest {
                         .build()))
                 .expectError(ConflictException.class)
                 .verify();
+
+        assertTrue(capturedTransition().getAllowedFrom().isEmpty());
+        verifyNoInteractions(appNotificationGateway);
     }
 
     @Test
     void confirmedStatusShouldVerifyAgencyManagedPaymentWithoutFakePaymentId() {
-        ReservationDraft current = reservation("awaiting_payment");
         ReservationDraft updated = reservation("confirmed").toBuilder()
                 .paymentStatus("verified_by_agency")
                 .paymentProvider("agency_managed")
                 .paymentId(null)
                 .paidAt(OffsetDateTime.now())
                 .build();
-        when(agencyRepository.findByUserEmail("agency@example.com"))
-                .thenReturn(Flux.just(Agency.builder().id(2L).build()));
-        when(reservationGateway.findByIdForAgency("reserva-1", 2L)).thenReturn(Mono.just(current));
-        when(reservationGateway.updateAgencyStatus(
-                eq("reserva-1"),
-                eq(2L),
-                eq("confirmed"),
-                eq(null),
-                eq("agency_managed"),
-                eq("verified_by_agency"),
-                any(OffsetDateTime.class),
-                eq(null),
-                any(OffsetDateTime.class),
-                eq(null)
-        )).thenReturn(Mono.just(updated));
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
+        when(reservationGateway.transition(any())).thenReturn(Mono.just(applied(updated)));
 
         StepVerifier.create(useCase.updateAgencyStatus(ReservationStatusChange.builder()
                         .reservationId("reserva-1")
@@ -415,6 +541,58 @@ class ReservationUseCaseTest {
                     assertNotNull(result.getPaidAt());
                 })
                 .verifyComplete();
+
+        ReservationTransition transition = capturedTransition();
+        assertEquals(Set.of("awaiting_payment"), transition.getAllowedFrom());
+        assertTrue(transition.isCheckWompi());
+        assertEquals("agency_managed", transition.getPaymentProvider());
+        assertEquals("verified_by_agency", transition.getPaymentStatus());
+        assertNotNull(transition.getPaidAt());
+        assertNotNull(transition.getConfirmedAt());
+        assertNull(transition.getAgencyNotes());
+    }
+
+    @Test
+    void confirmingShouldFailWhenWompiPaymentCompetes() {
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
+        when(reservationGateway.transition(any()))
+                .thenReturn(Mono.just(new ReservationTransitionResult(ReservationTransitionResult.Outcome.WOMPI_PAID, null)))
+                .thenReturn(Mono.just(new ReservationTransitionResult(ReservationTransitionResult.Outcome.WOMPI_IN_PROGRESS, null)));
+        ReservationStatusChange change = ReservationStatusChange.builder()
+                .reservationId("reserva-1")
+                .agencyUserEmail("agency@example.com")
+                .status("confirmed")
+                .build();
+
+        StepVerifier.create(useCase.updateAgencyStatus(change))
+                .expectErrorMatches(error -> error instanceof ConflictException
+                        && error.getMessage().contains("pagada por Wompi"))
+                .verify();
+        StepVerifier.create(useCase.updateAgencyStatus(change))
+                .expectErrorMatches(error -> error instanceof ConflictException
+                        && error.getMessage().contains("en proceso"))
+                .verify();
+
+        verifyNoInteractions(appNotificationGateway);
+    }
+
+    @Test
+    void adminTransitionShouldNotRestrictAgencyAndMissingReservationShouldBeNotFound() {
+        when(reservationGateway.transition(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.updateAgencyStatus(ReservationStatusChange.builder()
+                        .reservationId("reserva-x")
+                        .agencyUserEmail("admin@example.com")
+                        .status("rejected")
+                        .build(), true))
+                .expectError(NotFoundException.class)
+                .verify();
+
+        ReservationTransition transition = capturedTransition();
+        assertNull(transition.getAgencyId());
+        assertEquals(Set.of("requested", "contacted", "awaiting_payment"), transition.getAllowedFrom());
+        verifyNoInteractions(agencyRepository);
     }
 
     @Test
@@ -443,9 +621,10 @@ class ReservationUseCaseTest {
                 .expectNext(pendingPayment)
                 .verifyComplete();
 
-        when(agencyRepository.findByUserEmail("agency@example.com"))
-                .thenReturn(Flux.just(Agency.builder().id(2L).build()));
-        when(reservationGateway.findByIdForAgency("reserva-1", 2L)).thenReturn(Mono.just(reservation("rejected")));
+        when(agencyRepository.findAgencyIdsByUserEmail("agency@example.com"))
+                .thenReturn(Mono.just(List.of(2L)));
+        when(reservationGateway.transition(any())).thenReturn(Mono.just(
+                new ReservationTransitionResult(ReservationTransitionResult.Outcome.INVALID_TRANSITION, null)));
 
         StepVerifier.create(useCase.updateAgencyStatus(ReservationStatusChange.builder()
                         .reservationId("reserva-1")
@@ -456,6 +635,16 @@ class ReservationUseCaseTest {
                 .verify();
     }
 
+    private ReservationTransition capturedTransition() {
+        ArgumentCaptor<ReservationTransition> captor = ArgumentCaptor.forClass(ReservationTransition.class);
+        verify(reservationGateway).transition(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ReservationTransitionResult applied(ReservationDraft reservation) {
+        return new ReservationTransitionResult(ReservationTransitionResult.Outcome.APPLIED, reservation);
+    }
+
     private ReservationRequestDetails validDetails() {
         return ReservationRequestDetails.builder()
                 .tourPackageId(6L)
@@ -523,4 +712,12 @@ class ReservationUseCaseTest {
                 .paymentStatus("pending")
                 .build();
     }
+
+    // Marca en el contexto de Reactor lo que se suscribe dentro de la transacción
+    private static final class ContextTransactionGateway implements TransactionGateway {
+        @Override
+        public <T> Mono<T> inTransaction(Mono<T> work) {
+            return work.contextWrite(Context.of(IN_TRANSACTION, true));
+        }
+    }
 }
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -23,6 +24,8 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -30,6 +33,7 @@ import java.util.logging.Handler;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -65,7 +69,8 @@ class SiteMediaUseCaseTest {
                 .thenReturn(Mono.just(Place.builder().id(123L).ownerUserId(7L).build()));
         lenient().when(mediaRepository.findBySiteId(123L)).thenReturn(Flux.empty());
         lenient().when(storageGateway.upload(any(), any(), any(), anyLong()))
-                .thenAnswer(invocation -> Mono.just((String) invocation.getArgument(0)));
+                .thenAnswer(invocation -> Flux.from((Publisher<ByteBuffer>) invocation.getArgument(2))
+                        .then(Mono.just((String) invocation.getArgument(0))));
         lenient().when(mediaRepository.save(any()))
                 .thenAnswer(invocation -> Mono.just((SiteMedia) invocation.getArgument(0)));
     }
@@ -172,6 +177,45 @@ class SiteMediaUseCaseTest {
                 .verify();
     }
 
+    @Test
+    void streamsVideoWithUnknownLengthAndComputesSizeAndChecksum() throws Exception {
+        byte[] bytes = mp4Bytes();
+        SiteMediaUpload chunked = SiteMediaUpload.builder()
+                .filename("movie.mp4")
+                .contentType("video/mp4")
+                .declaredSize(null)
+                .content(Flux.just(ByteBuffer.wrap(bytes, 0, 5), ByteBuffer.wrap(bytes, 5, 11)))
+                .build();
+
+        StepVerifier.create(useCase.upload("owner@example.com", Set.of("OWNER"), 123L, "videos", chunked))
+                .assertNext(media -> {
+                    assertEquals(16L, media.getSizeBytes());
+                    assertEquals(sha256(bytes), media.getChecksum());
+                })
+                .verifyComplete();
+        verify(storageGateway).upload(any(), eq("video/mp4"), any(), eq(-1L));
+    }
+
+    @Test
+    void abortsStreamWhenSizeOrGlbLengthIsInvalidAfterTheHeader() {
+        SiteMediaUpload oversized = SiteMediaUpload.builder()
+                .filename("movie.mp4")
+                .contentType("video/mp4")
+                .declaredSize(null)
+                .content(Flux.just(ByteBuffer.wrap(mp4Bytes()), ByteBuffer.allocate(2_000_000)))
+                .build();
+        StepVerifier.create(useCase.upload("owner@example.com", Set.of("OWNER"), 123L, "videos", oversized))
+                .expectErrorMessage("El archivo supera el límite configurado")
+                .verify();
+
+        ByteBuffer truncated = ByteBuffer.allocate(12).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        truncated.putInt(0x46546c67).putInt(2).putInt(64);
+        StepVerifier.create(upload("models-3d", "model.glb", "model/gltf-binary", truncated.array()))
+                .expectErrorMessage("La longitud declarada del GLB no es válida")
+                .verify();
+        verify(mediaRepository, never()).save(any());
+    }
+
     @Test
     void imageProcessingAndStorageSubscriptionUseBoundedElasticAndPropagateErrors() throws Exception {
         AtomicReference<String> uploadThread = new AtomicReference<>();
@@ -247,6 +291,10 @@ class SiteMediaUseCaseTest {
         return bytes;
     }
 
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
     private static byte[] glbBytes() {
         ByteBuffer buffer = ByteBuffer.allocate(12).order(java.nio.ByteOrder.LITTLE_ENDIAN);
         buffer.putInt(0x46546c67).putInt(2).putInt(12);
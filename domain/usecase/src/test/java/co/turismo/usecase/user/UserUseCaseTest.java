@@ -56,7 +56,7 @@ class UserUseCaseTest {
         User saved = User.builder().id(1L).email("ana@example.com").fullName("Ana").build();
 
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(saved));
-        when(passwordHasher.hash("Password123")).thenReturn("HASH");
+        when(passwordHasher.hash("Password123")).thenReturn(Mono.just("HASH"));
         when(userRepository.updatePasswordHash("ana@example.com", "HASH")).thenReturn(Mono.empty());
         when(userVerificationGateway.sendVerificationEmail("ana@example.com"))
                 .thenReturn(Mono.just(new EmailVerificationResult(EmailVerificationResult.VerificationStatus.SENT)));
@@ -105,7 +105,7 @@ class UserUseCaseTest {
 
     @Test
     void setPasswordShouldReturnTrueAfterUpdatingHash() {
-        when(passwordHasher.hash("Password123")).thenReturn("HASH");
+        when(passwordHasher.hash("Password123")).thenReturn(Mono.just("HASH"));
         when(userRepository.updatePasswordHash("ana@example.com", "HASH")).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.setPassword("ana@example.com", "Password123"))
@@ -4,6 +4,9 @@ import co.turismo.model.userIdentityPort.UserIdentityPort;
 import co.turismo.model.userIdentityPort.UserSummary;
 import co.turismo.model.visits.PlaceBriefUC;
 import co.turismo.model.visits.PlaceVisit;
+import co.turismo.model.visits.VisitCheckin;
+import co.turismo.model.visits.VisitConfirmation;
+import co.turismo.model.visits.VisitOutcome;
 import co.turismo.model.visits.VisitStatus;
 import co.turismo.model.visits.gateways.VisitGateway;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,7 +22,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -58,13 +61,13 @@ class VisitsUseCaseTest {
         PlaceVisit pending = PlaceVisit.builder()
                 .id(55L)
                 .status(VisitStatus.pending)
+                .distanceM(30)
                 .build();
 
         when(userIdentityPort.getUserIdForEmail("ana@example.com"))
                 .thenReturn(Mono.just(new UserSummary(9L, "ana@example.com")));
-        when(gateway.existsConfirmedInLast24Hours(1L, 9L, "device-1")).thenReturn(Mono.just(false));
-        when(gateway.computeDistanceIfWithin(1L, 2.0, 3.0, 80)).thenReturn(Mono.just(30));
-        when(gateway.insertPending(1L, 9L, "device-1", 30, 20, "{}")).thenReturn(Mono.just(pending));
+        when(gateway.checkin(1L, 9L, "device-1", 2.0, 3.0, 80, 20, "{}"))
+                .thenReturn(Mono.just(new VisitCheckin(VisitOutcome.ok, pending)));
 
         StepVerifier.create(useCase.checkin(cmd))
                 .assertNext(res -> {
@@ -84,7 +87,8 @@ class VisitsUseCaseTest {
 
         when(userIdentityPort.getUserIdForEmail("ana@example.com"))
                 .thenReturn(Mono.just(new UserSummary(9L, "ana@example.com")));
-        when(gateway.existsConfirmedInLast24Hours(1L, 9L, "device-1")).thenReturn(Mono.just(true));
+        when(gateway.checkin(1L, 9L, "device-1", 2.0, 3.0, 80, 20, "{}"))
+                .thenReturn(Mono.just(new VisitCheckin(VisitOutcome.duplicate, null)));
 
         StepVerifier.create(useCase.checkin(cmd))
                 .expectErrorMatches(error -> error.getMessage().contains("últimas 24 horas"))
@@ -92,34 +96,59 @@ class VisitsUseCaseTest {
     }
 
     @Test
-    void confirmShouldFailWhenVisitIsAlreadyManaged() {
-        PlaceVisit visit = PlaceVisit.builder()
-                .id(5L)
-                .placeId(1L)
-                .status(VisitStatus.confirmed)
-                .startedAt(Instant.now().minusSeconds(500))
-                .build();
+    void checkinShouldFailWhenOutOfRange() {
+        VisitsUseCase.CheckinCmd cmd = new VisitsUseCase.CheckinCmd(
+                1L, 2.0, 3.0, 20, "device-1", null, "ana@example.com"
+        );
 
-        when(gateway.findById(5L)).thenReturn(Mono.just(visit));
+        when(userIdentityPort.getUserIdForEmail("ana@example.com"))
+                .thenReturn(Mono.just(new UserSummary(9L, "ana@example.com")));
+        when(gateway.checkin(1L, 9L, "device-1", 2.0, 3.0, 80, 20, "{}"))
+                .thenReturn(Mono.just(new VisitCheckin(VisitOutcome.out_of_range, null)));
+
+        StepVerifier.create(useCase.checkin(cmd))
+                .expectErrorMatches(error -> error.getMessage().contains("radio"))
+                .verify();
+    }
+
+    @Test
+    void confirmShouldFailWhenVisitIsAlreadyManaged() {
+        when(gateway.confirm(5L, 2.0, 3.0, 20, 80, 180))
+                .thenReturn(Mono.just(new VisitConfirmation(VisitOutcome.already_managed, null, null)));
 
         StepVerifier.create(useCase.confirm(new VisitsUseCase.ConfirmCmd(5L, 2.0, 3.0, 20)))
                 .expectErrorMatches(error -> error.getMessage().contains("gestionada"))
                 .verify();
     }
 
+    @Test
+    void confirmShouldFailWhenMinimumStayIsNotMet() {
+        when(gateway.confirm(5L, 2.0, 3.0, 20, 80, 180))
+                .thenReturn(Mono.just(new VisitConfirmation(VisitOutcome.min_stay, null, null)));
+
+        StepVerifier.create(useCase.confirm(new VisitsUseCase.ConfirmCmd(5L, 2.0, 3.0, 20)))
+                .expectErrorMatches(error -> error.getMessage().contains("permanencia"))
+                .verify();
+    }
+
+    @Test
+    void confirmShouldFailWhenVisitDoesNotExist() {
+        when(gateway.confirm(5L, 2.0, 3.0, 20, 80, 180)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.confirm(new VisitsUseCase.ConfirmCmd(5L, 2.0, 3.0, 20)))
+                .expectErrorMatches(error -> error.getMessage().contains("no encontrada"))
+                .verify();
+    }
+
     @Test
     void confirmShouldCompleteSuccessfullyWhenBusinessRulesPass() {
-        PlaceVisit pending = PlaceVisit.builder()
+        PlaceVisit confirmed = PlaceVisit.builder()
                 .id(5L)
                 .placeId(1L)
                 .userId(9L)
                 .deviceId("device-1")
-                .status(VisitStatus.pending)
-                .startedAt(Instant.now().minusSeconds(300))
-                .build();
-
-        PlaceVisit confirmed = pending.toBuilder()
                 .status(VisitStatus.confirmed)
+                .startedAt(Instant.now().minusSeconds(300))
                 .confirmedAt(Instant.now())
                 .build();
 
@@ -127,12 +156,8 @@ class VisitsUseCaseTest {
                 1L, "Parque", "Calle 1", "Desc", 10, 2.0, 3.0, List.of("img")
         );
 
-        when(gateway.findById(5L)).thenReturn(Mono.just(pending));
-        when(gateway.computeDistanceIfWithin(1L, 2.0, 3.0, 80)).thenReturn(Mono.just(20));
-        when(gateway.existsConfirmedToday(1L, 9L, "device-1")).thenReturn(Mono.just(false));
-        when(gateway.confirmVisit(5L, 2.0, 3.0, 20, null)).thenReturn(Mono.just(confirmed));
-        when(gateway.getPlaceBrief(1L)).thenReturn(Mono.just(brief));
-        when(gateway.upsertDaily(1L)).thenReturn(Mono.empty());
+        when(gateway.confirm(5L, 2.0, 3.0, 20, 80, 180))
+                .thenReturn(Mono.just(new VisitConfirmation(VisitOutcome.ok, confirmed, brief)));
 
         StepVerifier.create(useCase.confirm(new VisitsUseCase.ConfirmCmd(5L, 2.0, 3.0, 20)))
                 .assertNext(res -> {
@@ -141,6 +166,6 @@ class VisitsUseCaseTest {
                 })
                 .verifyComplete();
 
-        verify(gateway).upsertDaily(1L);
+        verify(gateway, never()).findById(any());
     }
 }
@@ -0,0 +1,67 @@
+package co.turismo.authenticate.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por request de emitir y validar JWT. {@code parseWithFreshParser} reproduce el
+ * comportamiento anterior (llave y parser nuevos en cada llamada) como línea base.
+ * Correr con {@code -prof gc} para ver también las asignaciones por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtProvider provider;
+    private String token;
+    private Instant expiration;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtProvider(SECRET, "turismo-app", 4);
+        expiration = provider.nextExpiration();
+        token = provider.generate("ana@example.com", Set.of("visitor"), UUID.randomUUID().toString(), expiration);
+    }
+
+    @Benchmark
+    public String generate() {
+        return provider.generate("ana@example.com", Set.of("visitor"), "jti-benchmark", expiration);
+    }
+
+    @Benchmark
+    public Claims parseStrict() {
+        return provider.parseStrict(token);
+    }
+
+    @Benchmark
+    public Claims parseWithFreshParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -1,6 +1,7 @@
 package co.turismo.authenticate;
 
 import co.turismo.authenticate.dto.SessionSnapshot;
+import co.turismo.authenticate.utils.AuthSessionCache;
 import co.turismo.authenticate.utils.AuthSessionStore;
 import co.turismo.authenticate.utils.JwtProvider;
 import co.turismo.model.authenticationsession.gateways.AuthenticationSessionRepository;
@@ -24,6 +25,7 @@ public class AuthenticateGateway implements AuthenticationSessionRepository {
 
     private final JwtProvider jwt;
     private final AuthSessionStore sessions;
+    private final AuthSessionCache sessionCache;
     private final UserRepository userRepository;
 
     @Value("${security.session.bind-ip:false}")           private boolean bindIp;
@@ -44,12 +46,10 @@ public class AuthenticateGateway implements AuthenticationSessionRepository {
     @Override
     public Mono<Boolean> validateToken(String token, String ip) {
         return Mono.fromCallable(() -> jwt.parseStrict(token))
-                .flatMap(claims -> sessions.isRevoked(claims.getId())
-                        .flatMap(revoked -> revoked
-                                ? Mono.just(false)
-                                : sessions.load(token)
-                                .map(session -> isIpValid(session.ip(), ip))
-                                .defaultIfEmpty(false)))
+                .flatMap(claims -> sessionCache.get(token, claims.getId(),
+                        () -> sessions.validate(token, claims.getId())))
+                .map(session -> isIpValid(session.ip(), ip))
+                .defaultIfEmpty(false)
                 .onErrorReturn(false);
     }
 
@@ -61,30 +61,30 @@ public class AuthenticateGateway implements AuthenticationSessionRepository {
 
         if (Instant.now().isAfter(graceLimit)) {
             return sessions.revokeByToken(oldToken)
+                    .then(sessionCache.invalidateToken(oldToken))
                     .then(Mono.error(new IllegalStateException("Token fuera de ventana de gracia")));
         }
 
-        return sessions.isRevoked(oldClaims.getId())
-                .flatMap(revoked -> revoked
-                        ? Mono.error(new IllegalStateException("Token revocado"))
-                        : sessions.load(oldToken)
-                        .switchIfEmpty(Mono.error(new IllegalStateException("Sesión no encontrada")))
-                        .flatMap(session -> {
-                            if (!isIpValid(session.ip(), ip))
-                                return Mono.error(new SecurityException("IP no coincide"));
-
-                            Instant newExpiry = jwt.nextExpiration();
-                            String newJti = UUID.randomUUID().toString();
-                            String newToken = jwt.generate(session.email(), session.roles(), newJti, newExpiry);
-                            Duration graceTtl = Duration.between(Instant.now(), graceLimit);
-
-                            return userRepository.findByEmail(session.email())
-                                    .flatMap(user -> sessions.save(newToken, user.getId(), session,
-                                            newJti, newExpiry, Duration.ofMinutes(graceMins)))
-                                    .then(sessions.revokeByJti(oldClaims.getId(), graceTtl))
-                                    .then(sessions.revokeByToken(oldToken))
-                                    .thenReturn(newToken);
-                        }));
+        return sessions.find(oldToken, oldClaims.getId())
+                .switchIfEmpty(Mono.error(new IllegalStateException("Sesión no encontrada")))
+                .flatMap(stored -> {
+                    if (stored.revoked())
+                        return Mono.error(new IllegalStateException("Token revocado"));
+
+                    SessionSnapshot session = stored.session();
+                    if (!isIpValid(session.ip(), ip))
+                        return Mono.error(new SecurityException("IP no coincide"));
+
+                    Instant newExpiry = jwt.nextExpiration();
+                    String newJti = UUID.randomUUID().toString();
+                    String newToken = jwt.generate(session.email(), session.roles(), newJti, newExpiry);
+
+                    return sessions.rotate(oldToken, oldClaims.getId(), newToken, stored.userId(), session,
+                                    newJti, newExpiry, Duration.ofMinutes(graceMins))
+                            .then(sessionCache.invalidateJti(oldClaims.getId()))
+                            .then(sessionCache.invalidateToken(oldToken))
+                            .thenReturn(newToken);
+                });
     }
 
     @Override
@@ -94,9 +94,11 @@ public class AuthenticateGateway implements AuthenticationSessionRepository {
                     Duration ttl = Duration.between(Instant.now(),
                             claims.getExpiration().toInstant().plus(Duration.ofMinutes(graceMins)));
                     return sessions.revokeByJti(claims.getId(), ttl)
-                            .then(sessions.revokeByToken(token));
+                            .then(sessions.revokeByToken(token))
+                            .then(sessionCache.invalidateJti(claims.getId()));
                 })
-                .onErrorResume(e -> sessions.revokeByToken(token));
+                .onErrorResume(e -> sessions.revokeByToken(token))
+                .then(sessionCache.invalidateToken(token));
     }
 
     private boolean isIpValid(String sessionIp, String requestIp) {
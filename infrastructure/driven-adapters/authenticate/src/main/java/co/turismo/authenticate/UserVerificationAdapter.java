@@ -1,6 +1,7 @@
 package co.turismo.authenticate;
  
 import co.turismo.model.common.AppUrlConfig;
+import co.turismo.model.common.gateways.TransactionGateway;
 import co.turismo.model.notification.EmailMessage;
 import co.turismo.model.notification.gateways.EmailGateway;
 import co.turismo.model.user.EmailVerificationResult;
@@ -30,6 +31,7 @@ public class UserVerificationAdapter implements UserVerificationGateway {
     private final UserRepository userRepository;
     private final EmailGateway emailGateway;
     private final AppUrlConfig appUrlConfig;
+    private final TransactionGateway transactionGateway;
  
     @Override
     public Mono<EmailVerificationResult> sendVerificationEmail(String emailRaw) {
@@ -52,12 +54,13 @@ public class UserVerificationAdapter implements UserVerificationGateway {
  
                     LOG.log(Level.INFO, "Generando token de verificación para {0}", email);
  
-                    return userRepository.saveEmailVerificationToken(email, tokenHash, expiresAt)
-                            .then(emailGateway.sendEmail(new EmailMessage(
-                                    email,
-                                    "Verifica tu correo - Turismo App",
-                                    buildVerificationHtml(link, token)
-                            )))
+                    // El token y el correo que lo lleva se confirman juntos
+                    return transactionGateway.inTransaction(userRepository.saveEmailVerificationToken(email, tokenHash, expiresAt)
+                                    .then(emailGateway.sendEmail(new EmailMessage(
+                                            email,
+                                            "Verifica tu correo - Turismo App",
+                                            buildVerificationHtml(link, token)
+                                    ))))
                             .thenReturn(new EmailVerificationResult(EmailVerificationResult.VerificationStatus.SENT));
                 });
     }
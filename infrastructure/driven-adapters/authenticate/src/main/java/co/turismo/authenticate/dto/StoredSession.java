@@ -0,0 +1,6 @@
+package co.turismo.authenticate.dto;
+
+/**
+ * Fila de {@code auth_sessions} leída en una sola consulta: sesión, dueño y estado de revocación.
+ */
+public record StoredSession(Long userId, SessionSnapshot session, boolean revoked) {}
@@ -0,0 +1,146 @@
+package co.turismo.authenticate.utils;
+
+import co.turismo.authenticate.dto.SessionSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché local y acotada de sesiones válidas, por fingerprint del token. Evita las
+ * consultas a {@code auth_sessions} en cada request autenticado; la firma y la
+ * expiración del JWT se siguen verificando siempre.
+ * <p>
+ * Solo se guardan sesiones activas. Las revocaciones la invalidan de forma explícita
+ * y, si hay canal configurado, se propagan a las demás réplicas por LISTEN/NOTIFY;
+ * el TTL acota cuánto puede vivir una entrada si se pierde una notificación.
+ * <p>
+ * {@code keysByJti} permite revocar por jti sin recorrer la caché; se limpia desde el
+ * removal listener, que corre en el mismo hilo para no pisar un índice recién escrito.
+ */
+@Slf4j
+@Component
+public class AuthSessionCache implements DisposableBean {
+
+    private static final String TOKEN_PREFIX = "token:";
+    private static final String JTI_PREFIX = "jti:";
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final Map<String, String> keysByJti = new ConcurrentHashMap<>();
+    private final AuthSessionRevocationChannel channel;
+
+    /** Revocaciones vistas; una sesión leída antes de la última no se guarda. */
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile Disposable listener;
+
+    public AuthSessionCache(
+            @Value("${security.session.cache.enabled:true}") boolean enabled,
+            @Value("${security.session.cache.ttl:30s}") Duration ttl,
+            @Value("${security.session.cache.max-size:10000}") long maxSize,
+            AuthSessionRevocationChannel channel) {
+        this.enabled = enabled;
+        this.channel = channel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)
+                .<String, Entry>removalListener((key, entry, cause) -> {
+                    if (key != null && entry != null && entry.jti() != null) {
+                        keysByJti.remove(entry.jti(), key);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Retorna la sesión en caché o la carga con {@code loader}. Un loader vacío
+     * (sesión revocada o inexistente) no se cachea.
+     */
+    public Mono<SessionSnapshot> get(String token, String jti, Supplier<Mono<SessionSnapshot>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = AuthSessionStore.fingerprint(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.session());
+        }
+        long generation = invalidations.get();
+        return loader.get()
+                .doOnNext(session -> {
+                    if (invalidations.get() == generation) {
+                        cache.put(key, new Entry(jti, session));
+                        if (jti != null) {
+                            keysByJti.put(jti, key);
+                        }
+                    }
+                });
+    }
+
+    public Mono<Void> invalidateToken(String token) {
+        String key = AuthSessionStore.fingerprint(token);
+        evictToken(key);
+        return channel.publish(TOKEN_PREFIX + key);
+    }
+
+    public Mono<Void> invalidateJti(String jti) {
+        if (jti == null || jti.isBlank()) {
+            return Mono.empty();
+        }
+        evictJti(jti);
+        return channel.publish(JTI_PREFIX + jti);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void listenRevocations() {
+        if (enabled && channel.isEnabled()) {
+            listener = channel.listen(this::onRevocation);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private void onRevocation(String payload) {
+        if (payload.startsWith(TOKEN_PREFIX)) {
+            evictToken(payload.substring(TOKEN_PREFIX.length()));
+        } else if (payload.startsWith(JTI_PREFIX)) {
+            evictJti(payload.substring(JTI_PREFIX.length()));
+        } else {
+            log.warn("Notificación de revocación desconocida: {}", payload);
+        }
+    }
+
+    private void evictToken(String fingerprint) {
+        invalidations.incrementAndGet();
+        cache.invalidate(fingerprint);
+    }
+
+    private void evictJti(String jti) {
+        invalidations.incrementAndGet();
+        String key = keysByJti.remove(jti);
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    private record Entry(String jti, SessionSnapshot session) {}
+}
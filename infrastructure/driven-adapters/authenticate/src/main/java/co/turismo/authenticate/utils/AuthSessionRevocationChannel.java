@@ -0,0 +1,105 @@
+package co.turismo.authenticate.utils;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Canal Postgres LISTEN/NOTIFY para avisar a las demás réplicas que una sesión fue
+ * revocada. Deshabilitado si {@code security.session.cache.revocation-channel} está vacío.
+ * <p>
+ * El payload nunca lleva el token: solo {@code token:<fingerprint>} o {@code jti:<id>}.
+ */
+@Slf4j
+@Component
+public class AuthSessionRevocationChannel {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final DatabaseClient databaseClient;
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+
+    public AuthSessionRevocationChannel(
+            DatabaseClient databaseClient,
+            ConnectionFactory connectionFactory,
+            @Value("${security.session.cache.revocation-channel:auth_session_revocations}") String channel) {
+        this.databaseClient = databaseClient;
+        this.connectionFactory = connectionFactory;
+        this.channel = channel == null ? "" : channel.trim().toLowerCase();
+        if (!this.channel.isEmpty() && !CHANNEL_NAME.matcher(this.channel).matches()) {
+            throw new IllegalArgumentException("Nombre de canal de revocación inválido: " + channel);
+        }
+    }
+
+    public boolean isEnabled() {
+        return !channel.isEmpty();
+    }
+
+    public Mono<Void> publish(String payload) {
+        if (!isEnabled()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", channel)
+                .bind("payload", payload)
+                .fetch()
+                .rowsUpdated()
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("No se pudo notificar revocación de sesión: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Mantiene una conexión dedicada escuchando el canal y reconecta con backoff si se cae.
+     */
+    public Disposable listen(Consumer<String> onRevocation) {
+        return Flux.usingWhen(
+                        Mono.from(connectionFactory.create()),
+                        connection -> {
+                            PostgresqlConnection pg = unwrap(connection);
+                            return pg.createStatement("LISTEN " + channel)
+                                    .execute()
+                                    .flatMap(PostgresqlResult::getRowsUpdated)
+                                    .thenMany(pg.getNotifications());
+                        },
+                        Connection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Reconectando canal de revocación {}: {}",
+                                channel, signal.failure().getMessage())))
+                .subscribe(notification -> {
+                    String payload = notification.getParameter();
+                    if (payload != null) {
+                        onRevocation.accept(payload);
+                    }
+                });
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection pg) {
+            return pg;
+        }
+        throw new IllegalStateException("LISTEN/NOTIFY requiere una conexión r2dbc-postgresql");
+    }
+}
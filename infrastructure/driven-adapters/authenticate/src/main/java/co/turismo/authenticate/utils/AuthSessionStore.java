@@ -1,6 +1,7 @@
 package co.turismo.authenticate.utils;
 
 import co.turismo.authenticate.dto.SessionSnapshot;
+import co.turismo.authenticate.dto.StoredSession;
 import io.r2dbc.spi.Row;
 import lombok.RequiredArgsConstructor;
 import org.springframework.r2dbc.core.DatabaseClient;
@@ -61,24 +62,91 @@ public class AuthSessionStore {
         return spec.fetch().rowsUpdated().then();
     }
 
-    public Mono<SessionSnapshot> load(String token) {
+    /**
+     * Lee la sesión del token en un solo round-trip (index-only scan sobre
+     * {@code idx_auth_sessions_token_cover}). Una sesión cuyo jti no coincide con el
+     * del JWT se reporta como revocada. Vacío si no existe o ya expiró.
+     */
+    public Mono<StoredSession> find(String token, String jti) {
         return databaseClient.sql("""
-                SELECT email, roles, ip
+                SELECT user_id, email, roles, ip, jti, revoked_at IS NOT NULL AS revoked
                   FROM auth_sessions
                  WHERE token_hash = :tokenHash
                    AND expires_at > NOW()
-                   AND revoked_at IS NULL
-                 LIMIT 1
                 """)
                 .bind("tokenHash", fingerprint(token))
-                .map((row, metadata) -> new SessionSnapshot(
-                        row.get("email", String.class),
-                        readRoles(row),
-                        row.get("ip", String.class)
-                ))
+                .map((row, metadata) -> {
+                    String storedJti = row.get("jti", String.class);
+                    boolean revoked = Boolean.TRUE.equals(row.get("revoked", Boolean.class))
+                            || (!isBlank(jti) && !jti.equals(storedJti));
+                    return new StoredSession(
+                            row.get("user_id", Long.class),
+                            new SessionSnapshot(
+                                    row.get("email", String.class),
+                                    readRoles(row),
+                                    row.get("ip", String.class)),
+                            revoked);
+                })
                 .one();
     }
 
+    /**
+     * Sesión activa del token (no revocada ni expirada) en una sola consulta.
+     */
+    public Mono<SessionSnapshot> validate(String token, String jti) {
+        return find(token, jti)
+                .filter(stored -> !stored.revoked())
+                .map(StoredSession::session);
+    }
+
+    /**
+     * Refresh en un solo statement: revoca la sesión anterior (por token y por jti)
+     * y guarda la nueva.
+     */
+    public Mono<Void> rotate(String oldToken, String oldJti, String newToken, Long userId,
+                             SessionSnapshot session, String newJti, Instant expiration, Duration gracePeriod) {
+        OffsetDateTime expiresAt = OffsetDateTime.ofInstant(
+                expiration.plus(positiveTtl(gracePeriod)),
+                ZoneOffset.UTC
+        );
+        String[] roles = normalizeRoles(session.roles()).toArray(String[]::new);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                WITH revoked AS (
+                    UPDATE auth_sessions
+                       SET revoked_at = COALESCE(revoked_at, NOW())
+                     WHERE token_hash = :oldTokenHash
+                        OR jti = :oldJti
+                )
+                INSERT INTO auth_sessions (
+                    token_hash, user_id, email, roles, ip, jti, expires_at, revoked_at
+                )
+                VALUES (
+                    :tokenHash, :userId, :email, :roles, :ip, :jti, :expiresAt, NULL
+                )
+                ON CONFLICT (token_hash) DO UPDATE SET
+                    user_id = EXCLUDED.user_id,
+                    email = EXCLUDED.email,
+                    roles = EXCLUDED.roles,
+                    ip = EXCLUDED.ip,
+                    jti = EXCLUDED.jti,
+                    expires_at = EXCLUDED.expires_at,
+                    revoked_at = NULL
+                """)
+                .bind("oldTokenHash", fingerprint(oldToken))
+                .bind("tokenHash", fingerprint(newToken))
+                .bind("userId", userId)
+                .bind("email", normalize(session.email()))
+                .bind("roles", roles)
+                .bind("jti", newJti)
+                .bind("expiresAt", expiresAt);
+
+        spec = bindNullable(spec, "oldJti", isBlank(oldJti) ? null : oldJti, String.class);
+        spec = bindNullable(spec, "ip", session.ip(), String.class);
+
+        return spec.fetch().rowsUpdated().then();
+    }
+
     public Mono<Void> revokeByToken(String token) {
         return databaseClient.sql("""
                 UPDATE auth_sessions
@@ -106,24 +174,6 @@ public class AuthSessionStore {
                 .then();
     }
 
-    public Mono<Boolean> isRevoked(String jti) {
-        if (isBlank(jti)) {
-            return Mono.just(false);
-        }
-        return databaseClient.sql("""
-                SELECT EXISTS (
-                    SELECT 1
-                      FROM auth_sessions
-                     WHERE jti = :jti
-                       AND revoked_at IS NOT NULL
-                ) AS revoked
-                """)
-                .bind("jti", jti)
-                .map((row, metadata) -> Boolean.TRUE.equals(row.get("revoked", Boolean.class)))
-                .one()
-                .defaultIfEmpty(false);
-    }
-
     private DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
                                                            String name,
                                                            Object value,
@@ -158,7 +208,7 @@ public class AuthSessionStore {
                 .collect(Collectors.toSet());
     }
 
-    private String fingerprint(String token) {
+    static String fingerprint(String token) {
         try {
             byte[] hash = MessageDigest.getInstance("SHA-256")
                     .digest(token.getBytes(StandardCharsets.UTF_8));
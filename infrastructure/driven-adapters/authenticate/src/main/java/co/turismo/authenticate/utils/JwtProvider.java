@@ -2,6 +2,7 @@ package co.turismo.authenticate.utils;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,12 +14,26 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 
+/**
+ * Emite y valida los JWT de sesión. La llave HMAC y el parser se construyen una sola
+ * vez: ambos son inmutables y thread-safe, así que se comparten entre requests.
+ */
 @Component
 public class JwtProvider {
 
-    @Value("${security.jwt.secret}")       private String secret;
-    @Value("${security.jwt.issuer:turismo-app}") private String issuer;
-    @Value("${security.jwt.ttl-hours:4}") private long ttlHours;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final String issuer;
+    private final long ttlHours;
+
+    public JwtProvider(@Value("${security.jwt.secret}") String secret,
+                       @Value("${security.jwt.issuer:turismo-app}") String issuer,
+                       @Value("${security.jwt.ttl-hours:4}") long ttlHours) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.issuer = issuer;
+        this.ttlHours = ttlHours;
+    }
 
     public String generate(String email, Set<String> roles, String jti, Instant expiration) {
         return Jwts.builder()
@@ -28,13 +43,12 @@ public class JwtProvider {
                 .claim("roles", List.copyOf(roles))
                 .issuedAt(Date.from(Instant.now()))
                 .expiration(Date.from(expiration))
-                .signWith(signingKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public Claims parseStrict(String token) {
-        return Jwts.parser().verifyWith(signingKey()).build()
-                .parseSignedClaims(token).getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /** Permite tokens expirados — útil sólo para refresh dentro de la ventana de gracia. */
@@ -49,8 +63,4 @@ public class JwtProvider {
     public Instant nextExpiration() {
         return Instant.now().plus(Duration.ofHours(ttlHours));
     }
-
-    private SecretKey signingKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
 }
\ No newline at end of file
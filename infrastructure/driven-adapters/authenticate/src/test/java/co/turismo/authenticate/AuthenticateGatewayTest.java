@@ -1,6 +1,9 @@
 package co.turismo.authenticate;
 
 import co.turismo.authenticate.dto.SessionSnapshot;
+import co.turismo.authenticate.dto.StoredSession;
+import co.turismo.authenticate.utils.AuthSessionCache;
+import co.turismo.authenticate.utils.AuthSessionRevocationChannel;
 import co.turismo.authenticate.utils.AuthSessionStore;
 import co.turismo.authenticate.utils.JwtProvider;
 import co.turismo.model.user.User;
@@ -24,7 +27,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class AuthenticateGatewayTest {
@@ -39,7 +44,9 @@ class AuthenticateGatewayTest {
         jwt = mock(JwtProvider.class);
         sessions = mock(AuthSessionStore.class);
         userRepository = mock(UserRepository.class);
-        gateway = new AuthenticateGateway(jwt, sessions, userRepository);
+        AuthSessionCache sessionCache = new AuthSessionCache(true, Duration.ofMinutes(1), 100,
+                new AuthSessionRevocationChannel(null, null, ""));
+        gateway = new AuthenticateGateway(jwt, sessions, sessionCache, userRepository);
         ReflectionTestUtils.setField(gateway, "graceMins", 15L);
         ReflectionTestUtils.setField(gateway, "bindIp", false);
     }
@@ -72,8 +79,7 @@ class AuthenticateGatewayTest {
         Claims claims = mock(Claims.class);
         when(claims.getId()).thenReturn("jti-1");
         when(jwt.parseStrict("jwt-token")).thenReturn(claims);
-        when(sessions.isRevoked("jti-1")).thenReturn(Mono.just(false));
-        when(sessions.load("jwt-token"))
+        when(sessions.validate("jwt-token", "jti-1"))
                 .thenReturn(Mono.just(new SessionSnapshot("ana@example.com", Set.of("visitor"), null)));
 
         StepVerifier.create(gateway.validateToken("jwt-token", "10.0.0.1"))
@@ -81,6 +87,43 @@ class AuthenticateGatewayTest {
                 .verifyComplete();
     }
 
+    @Test
+    void validateTokenShouldServeRepeatedRequestsFromSessionCache() {
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(jwt.parseStrict("jwt-token")).thenReturn(claims);
+        when(sessions.validate("jwt-token", "jti-1"))
+                .thenReturn(Mono.just(new SessionSnapshot("ana@example.com", Set.of("visitor"), null)));
+
+        StepVerifier.create(gateway.validateToken("jwt-token", null)
+                        .then(gateway.validateToken("jwt-token", null)))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(sessions, times(1)).validate("jwt-token", "jti-1");
+    }
+
+    @Test
+    void revokeTokenShouldInvalidateCachedSession() {
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(Date.from(Instant.now().plus(Duration.ofHours(1))));
+        when(jwt.parseStrict("jwt-token")).thenReturn(claims);
+        when(jwt.parseAllowExpired("jwt-token")).thenReturn(claims);
+        when(sessions.validate("jwt-token", "jti-1"))
+                .thenReturn(Mono.just(new SessionSnapshot("ana@example.com", Set.of("visitor"), null)), Mono.empty());
+        when(sessions.revokeByJti(eq("jti-1"), any(Duration.class))).thenReturn(Mono.empty());
+        when(sessions.revokeByToken("jwt-token")).thenReturn(Mono.empty());
+
+        StepVerifier.create(gateway.validateToken("jwt-token", null)
+                        .then(gateway.revokeToken("jwt-token"))
+                        .then(gateway.validateToken("jwt-token", null)))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(sessions, times(2)).validate("jwt-token", "jti-1");
+    }
+
     @Test
     void refreshTokenShouldCreateNewSessionAndRevokeOldToken() {
         Instant oldExpiration = Instant.now().plus(Duration.ofMinutes(5));
@@ -92,22 +135,32 @@ class AuthenticateGatewayTest {
         when(jwt.nextExpiration()).thenReturn(newExpiration);
         when(jwt.generate(eq("ana@example.com"), eq(Set.of("visitor")), anyString(), eq(newExpiration)))
                 .thenReturn("new-token");
-        when(sessions.isRevoked("old-jti")).thenReturn(Mono.just(false));
-        when(sessions.load("old-token"))
-                .thenReturn(Mono.just(new SessionSnapshot("ana@example.com", Set.of("visitor"), null)));
-        when(userRepository.findByEmail("ana@example.com"))
-                .thenReturn(Mono.just(User.builder().id(10L).email("ana@example.com").build()));
-        when(sessions.save(eq("new-token"), eq(10L), any(SessionSnapshot.class), anyString(),
-                eq(newExpiration), eq(Duration.ofMinutes(15)))).thenReturn(Mono.empty());
-        when(sessions.revokeByJti(eq("old-jti"), any(Duration.class))).thenReturn(Mono.empty());
-        when(sessions.revokeByToken("old-token")).thenReturn(Mono.empty());
+        when(sessions.find("old-token", "old-jti"))
+                .thenReturn(Mono.just(new StoredSession(10L, new SessionSnapshot("ana@example.com", Set.of("visitor"), null), false)));
+        when(sessions.rotate(eq("old-token"), eq("old-jti"), eq("new-token"), eq(10L), any(SessionSnapshot.class),
+                anyString(), eq(newExpiration), eq(Duration.ofMinutes(15)))).thenReturn(Mono.empty());
 
         StepVerifier.create(gateway.refreshToken("old-token", "10.0.0.1"))
                 .expectNext("new-token")
                 .verifyComplete();
 
-        verify(sessions).revokeByJti(eq("old-jti"), any(Duration.class));
-        verify(sessions).revokeByToken("old-token");
+        verify(sessions).rotate(eq("old-token"), eq("old-jti"), eq("new-token"), eq(10L), any(SessionSnapshot.class),
+                anyString(), eq(newExpiration), eq(Duration.ofMinutes(15)));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void refreshTokenShouldRejectRevokedSession() {
+        Claims oldClaims = mock(Claims.class);
+        when(oldClaims.getId()).thenReturn("old-jti");
+        when(oldClaims.getExpiration()).thenReturn(Date.from(Instant.now().plus(Duration.ofMinutes(5))));
+        when(jwt.parseAllowExpired("old-token")).thenReturn(oldClaims);
+        when(sessions.find("old-token", "old-jti"))
+                .thenReturn(Mono.just(new StoredSession(10L, new SessionSnapshot("ana@example.com", Set.of("visitor"), null), true)));
+
+        StepVerifier.create(gateway.refreshToken("old-token", "10.0.0.1"))
+                .expectErrorMessage("Token revocado")
+                .verify();
     }
 
     @Test
@@ -0,0 +1,71 @@
+package co.turismo.authenticate.utils;
+
+import co.turismo.authenticate.dto.SessionSnapshot;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthSessionCacheTest {
+
+    private final AuthSessionCache cache = new AuthSessionCache(true, Duration.ofMinutes(1), 100,
+            new AuthSessionRevocationChannel(null, null, ""));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SessionSnapshot session = new SessionSnapshot("ana@example.com", Set.of("visitor"), null);
+
+    private Supplier<Mono<SessionSnapshot>> loader() {
+        return () -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return session;
+        });
+    }
+
+    private void get(String token, String jti) {
+        StepVerifier.create(cache.get(token, jti, loader()))
+                .expectNext(session)
+                .verifyComplete();
+    }
+
+    @Test
+    void jtiRevocationShouldEvictOnlyThatSession() {
+        get("token-1", "jti-1");
+        get("token-2", "jti-2");
+
+        StepVerifier.create(cache.invalidateJti("jti-1")).verifyComplete();
+        get("token-1", "jti-1");
+        get("token-2", "jti-2");
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void sessionCachedAgainAfterRevocationShouldBeRevocableByJti() {
+        get("token-1", "jti-1");
+        StepVerifier.create(cache.invalidateJti("jti-1")).verifyComplete();
+        get("token-1", "jti-1");
+
+        StepVerifier.create(cache.invalidateJti("jti-1")).verifyComplete();
+        get("token-1", "jti-1");
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void tokenRevocationShouldAlsoDropTheJtiIndex() {
+        get("token-1", "jti-1");
+        StepVerifier.create(cache.invalidateToken("token-1")).verifyComplete();
+        get("token-1", "jti-1");
+        get("token-1", "jti-1");
+
+        StepVerifier.create(cache.invalidateJti("jti-1")).verifyComplete();
+        get("token-1", "jti-1");
+
+        assertEquals(3, loads.get());
+    }
+}
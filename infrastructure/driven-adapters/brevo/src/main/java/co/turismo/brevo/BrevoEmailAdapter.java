@@ -1,7 +1,8 @@
 package co.turismo.brevo;
 
 import co.turismo.model.notification.EmailMessage;
-import co.turismo.model.notification.gateways.EmailGateway;
+import co.turismo.model.notification.gateways.EmailDeliveryGateway;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -9,23 +10,34 @@ import reactor.core.publisher.Mono;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Entrega de correos vía Brevo. Solo la usa el despachador del outbox; varios mensajes
+ * viajan en una sola llamada usando {@code messageVersions}. Una llamada que no termina en
+ * {@code brevo.timeout} falla con {@link TimeoutException} y el lote se reintenta, en vez
+ * de retener las filas hasta que venza el lease del outbox.
+ */
 @Component
-public class BrevoEmailAdapter implements EmailGateway {
+public class BrevoEmailAdapter implements EmailDeliveryGateway {
 
     private static final Logger LOG = LoggerFactory.getLogger(BrevoEmailAdapter.class);
     private final WebClient webClient;
     private final String senderName;
     private final String senderEmail;
+    private final Duration timeout;
 
     public BrevoEmailAdapter(WebClient.Builder builder,
                              @Value("${brevo.base-url}") String baseUrl,
                              @Value("${brevo.api-key}") String apiKey,
                              @Value("${brevo.sender.name}") String senderName,
-                             @Value("${brevo.sender.email}") String senderEmail) { // Inyectamos el email
+                             @Value("${brevo.sender.email}") String senderEmail, // Inyectamos el email
+                             @Value("${brevo.timeout:30s}") Duration timeout) {
         this.senderName = senderName;
         this.senderEmail = senderEmail;
+        this.timeout = timeout;
         this.webClient = builder.baseUrl(baseUrl)
                 .defaultHeader("api-key", apiKey)
                 .defaultHeader("Content-Type", "application/json") // Recomendado para Brevo
@@ -33,15 +45,22 @@ public class BrevoEmailAdapter implements EmailGateway {
     }
 
     @Override
-    public Mono<Void> sendEmail(EmailMessage message) {
-        BrevoEmailRequest body = new BrevoEmailRequest(
-                new Sender(senderName, senderEmail),
-                List.of(new Recipient(message.to())),
-                message.subject(),
-                message.htmlBody()
-        );
+    public Mono<Void> deliverBatch(List<EmailMessage> messages) {
+        if (messages.isEmpty()) {
+            return Mono.empty();
+        }
+        EmailMessage first = messages.get(0);
+        Sender sender = new Sender(senderName, senderEmail);
+        // Un solo mensaje va en el formato simple; varios, como versiones de la misma llamada
+        BrevoEmailRequest body = messages.size() == 1
+                ? new BrevoEmailRequest(sender, List.of(new Recipient(first.to())),
+                        first.subject(), first.htmlBody(), null)
+                : new BrevoEmailRequest(sender, null, first.subject(), first.htmlBody(),
+                        messages.stream()
+                                .map(m -> new MessageVersion(List.of(new Recipient(m.to())), m.subject(), m.htmlBody()))
+                                .toList());
 
-        LOG.info("Enviando email desde {} hacia {}", senderEmail, message.to());
+        LOG.info("Enviando {} email(s) desde {}", messages.size(), senderEmail);
 
         return webClient.post()
                 .uri("/smtp/email")
@@ -49,18 +68,25 @@ public class BrevoEmailAdapter implements EmailGateway {
                 .retrieve()
                 .onStatus(status -> status.isError(), response ->
                         response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
                                 .flatMap(errorBody -> {
                                     LOG.error("Error de Brevo: status={} body={}", response.statusCode(), errorBody);
-                                    return Mono.error(new IllegalStateException("Brevo error: " + errorBody));
+                                    return Mono.error(new IllegalStateException(
+                                            "Brevo error " + response.statusCode().value() + ": " + errorBody));
                                 })
                 )
                 .bodyToMono(String.class)
-                .doOnSuccess(res -> LOG.info("Email enviado exitosamente a {}", message.to()))
-                .doOnError(e -> LOG.error("Error de conectividad con Brevo", e))
+                .timeout(timeout, Mono.error(() -> new TimeoutException("Brevo no respondió en " + timeout)))
+                .doOnSuccess(res -> LOG.info("{} email(s) enviados exitosamente", messages.size()))
+                .doOnError(e -> LOG.warn("Error enviando a Brevo: {}", e.toString()))
                 .then();
     }
 
     private record Sender(String name, String email) {}
     private record Recipient(String email) {}
-    private record BrevoEmailRequest(Sender sender, List<Recipient> to, String subject, String htmlContent) {}
-}
\ No newline at end of file
+    private record MessageVersion(List<Recipient> to, String subject, String htmlContent) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record BrevoEmailRequest(Sender sender, List<Recipient> to, String subject, String htmlContent,
+                                     List<MessageVersion> messageVersions) {}
+}
@@ -0,0 +1,115 @@
+package co.turismo.brevo;
+
+import co.turismo.model.notification.EmailMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BrevoEmailAdapterTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(201);
+    private final AtomicLong delayMillis = new AtomicLong();
+    private HttpServer server;
+    private BrevoEmailAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/smtp/email", exchange -> {
+            requests.add(JSON.readTree(exchange.getRequestBody()));
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"messageId\":\"x\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status.get(), response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        adapter = adapter(Duration.ofSeconds(5));
+    }
+
+    private BrevoEmailAdapter adapter(Duration timeout) {
+        return new BrevoEmailAdapter(WebClient.builder(),
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                "test-key", "Turismo", "no-reply@turismo.co", timeout);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void singleMessageShouldUseSimplePayload() {
+        StepVerifier.create(adapter.deliverBatch(List.of(new EmailMessage("a@x.co", "Hola", "<p>1</p>"))))
+                .verifyComplete();
+
+        JsonNode body = requests.get(0);
+        assertEquals("a@x.co", body.at("/to/0/email").asText());
+        assertEquals("Hola", body.get("subject").asText());
+        assertFalse(body.has("messageVersions"));
+    }
+
+    @Test
+    void severalMessagesShouldTravelInOneCall() {
+        StepVerifier.create(adapter.deliverBatch(List.of(
+                        new EmailMessage("a@x.co", "Uno", "<p>1</p>"),
+                        new EmailMessage("b@x.co", "Dos", "<p>2</p>"))))
+                .verifyComplete();
+
+        assertEquals(1, requests.size());
+        JsonNode versions = requests.get(0).get("messageVersions");
+        assertEquals(2, versions.size());
+        assertEquals("b@x.co", versions.at("/1/to/0/email").asText());
+        assertEquals("Dos", versions.at("/1/subject").asText());
+        assertEquals("<p>2</p>", versions.at("/1/htmlContent").asText());
+        assertFalse(requests.get(0).has("to"));
+    }
+
+    @Test
+    void errorStatusShouldFailTheBatch() {
+        status.set(503);
+
+        StepVerifier.create(adapter.deliverBatch(List.of(new EmailMessage("a@x.co", "Hola", "<p>1</p>"))))
+                .expectErrorSatisfies(e -> assertTrue(e.getMessage().contains("503")))
+                .verify();
+    }
+
+    @Test
+    void slowResponseShouldFailWithTimeout() {
+        delayMillis.set(1000);
+
+        StepVerifier.create(adapter(Duration.ofMillis(200))
+                        .deliverBatch(List.of(new EmailMessage("a@x.co", "Hola", "<p>1</p>"))))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+}
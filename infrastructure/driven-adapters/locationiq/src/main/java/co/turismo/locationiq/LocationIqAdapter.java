@@ -1,55 +1,147 @@
 package co.turismo.locationiq;
 
+import co.turismo.model.error.ServiceUnavailableException;
 import co.turismo.model.geocode.GeocodeResult;
+import co.turismo.model.geocode.gateways.GeocodeCacheGateway;
 import co.turismo.model.geocode.gateways.GeocodingGateway;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.text.Normalizer;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Geocodificación con LocationIQ detrás de dos niveles de caché:
+ * <ol>
+ *   <li>{@link AsyncCache} en memoria por (dirección normalizada, límite) con la lista
+ *   completa de resultados. Las peticiones concurrentes a la misma clave comparten la
+ *   misma carga en vuelo, así que solo una llega a la BD o a LocationIQ.</li>
+ *   <li>{@code geocode_cache} en Postgres, válido {@code geocode.cache-ttl-days}, que
+ *   sobrevive reinicios y se comparte entre réplicas.</li>
+ * </ol>
+ * Cada llamada real a LocationIQ consume {@code geocode.daily-quota} (contada en BD por día
+ * UTC); agotada, se responde {@link ServiceUnavailableException} sin llamar. Los errores no
+ * se cachean. Métricas: {@code geocode.requests{source=memory|database|provider}} y
+ * {@code geocode.quota.rejected}.
+ */
+@Slf4j
 @Repository
 public class LocationIqAdapter implements GeocodingGateway {
 
+    private static final int MEMORY_MAX_ENTRIES = 1_000;
+    private static final Duration MEMORY_TTL = Duration.ofHours(6);
+    static final String QUOTA_EXCEEDED_MESSAGE = "Cuota diaria de geocodificación agotada, intenta más tarde";
+
     private final WebClient locationIqWebClient;
+    private final GeocodeCacheGateway persistentCache;
+    private final String token;
+    private final int dailyQuota;
+    private final Duration persistentTtl;
 
-    @Value("${locationiq.key}")
-    private String token;
+    private final AsyncCache<String, List<GeocodeResult>> cache;
 
-    private final Cache<String, GeocodeResult> cache =
-            Caffeine.newBuilder().maximumSize(1_000).expireAfterWrite(Duration.ofHours(6)).build();
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter providerCalls;
+    private final Counter quotaRejected;
 
-    public LocationIqAdapter(@Qualifier("locationIqWebClient") WebClient locationIqWebClient) {
+    public LocationIqAdapter(@Qualifier("locationIqWebClient") WebClient locationIqWebClient,
+                             GeocodeCacheGateway persistentCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${locationiq.key}") String token,
+                             @Value("${geocode.daily-quota:100}") int dailyQuota,
+                             @Value("${geocode.cache-ttl-days:30}") long cacheTtlDays) {
         this.locationIqWebClient = locationIqWebClient;
+        this.persistentCache = persistentCache;
+        this.token = token;
+        this.dailyQuota = dailyQuota;
+        this.persistentTtl = Duration.ofDays(Math.max(1, cacheTtlDays));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MEMORY_MAX_ENTRIES)
+                .expireAfterWrite(MEMORY_TTL.compareTo(persistentTtl) < 0 ? MEMORY_TTL : persistentTtl)
+                .buildAsync();
+        this.memoryHits = meterRegistry.counter("geocode.requests", "source", "memory");
+        this.databaseHits = meterRegistry.counter("geocode.requests", "source", "database");
+        this.providerCalls = meterRegistry.counter("geocode.requests", "source", "provider");
+        this.quotaRejected = meterRegistry.counter("geocode.quota.rejected");
     }
 
     @Override
     public Mono<List<GeocodeResult>> forward(String rawAddress, int limit) {
         final String q = normalize(rawAddress);
-        final String cacheKey = q + ":" + limit;
-
-        // Verificar caché primero
-        GeocodeResult cached = cache.getIfPresent(cacheKey);
-        if (cached != null) {
-            List<GeocodeResult> cachedList = new java.util.ArrayList<>();
-            cachedList.add(cached);
-            return Mono.just(cachedList);
+        if (q.isEmpty()) {
+            return Mono.just(List.of());
         }
+        final int clampedLimit = Math.max(1, Math.min(limit, 100));
+        final String cacheKey = q.toLowerCase(Locale.ROOT) + ":" + clampedLimit;
+
+        return Mono.defer(() -> {
+            AtomicBoolean loaded = new AtomicBoolean();
+            var future = cache.get(cacheKey, (key, executor) -> {
+                loaded.set(true);
+                return load(key, q, clampedLimit).toFuture();
+            });
+            if (!loaded.get()) {
+                memoryHits.increment();
+            }
+            // Otro suscriptor que cancele no debe cancelar la carga compartida
+            return Mono.fromFuture(future, true);
+        });
+    }
+
+    private Mono<List<GeocodeResult>> load(String cacheKey, String q, int limit) {
+        return persistentCache.find(cacheKey, persistentTtl)
+                .doOnNext(results -> databaseHits.increment())
+                .onErrorResume(e -> {
+                    log.warn("No se pudo leer geocode_cache, se consulta LocationIQ: {}", e.toString());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> fetchFromProvider(cacheKey, q, limit)))
+                .map(List::copyOf);
+    }
 
+    private Mono<List<GeocodeResult>> fetchFromProvider(String cacheKey, String q, int limit) {
+        return persistentCache.tryAcquireQuota(LocalDate.now(ZoneOffset.UTC), dailyQuota)
+                .flatMap(acquired -> {
+                    if (!acquired) {
+                        quotaRejected.increment();
+                        return Mono.error(new ServiceUnavailableException(QUOTA_EXCEEDED_MESSAGE));
+                    }
+                    providerCalls.increment();
+                    return search(q, limit);
+                })
+                .flatMap(results -> persistentCache.save(cacheKey, results)
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo guardar en geocode_cache: {}", e.toString());
+                            return Mono.empty();
+                        })
+                        .thenReturn(results));
+    }
+
+    private Mono<List<GeocodeResult>> search(String q, int limit) {
         return locationIqWebClient.get()
                 .uri(uri -> uri.path("/search")
                         .queryParam("key", token)
                         .queryParam("format", "json")
-                        .queryParam("limit", Math.max(1, Math.min(limit, 100)))
+                        .queryParam("limit", limit)
                         .queryParam("q", q)
                         // Opcional: sesgar a Colombia
                         .queryParam("countrycodes", "co")
@@ -57,9 +149,11 @@ public class LocationIqAdapter implements GeocodingGateway {
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                // LocationIQ responde 404 cuando no encuentra nada; se cachea como lista vacía
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(List.of()))
+                .defaultIfEmpty(List.of())
                 .map(list -> {
-                    if (list == null || list.isEmpty()) return new java.util.ArrayList<GeocodeResult>();
-                    List<GeocodeResult> results = new java.util.ArrayList<>();
+                    List<GeocodeResult> results = new ArrayList<>();
                     for (Map<String, Object> f : list) {
                         double lat = Double.parseDouble(String.valueOf(f.get("lat")));
                         double lon = Double.parseDouble(String.valueOf(f.get("lon")));
@@ -67,12 +161,6 @@ public class LocationIqAdapter implements GeocodingGateway {
                         results.add(new GeocodeResult(lat, lon, "POINT (" + lon + " " + lat + ")", display));
                     }
                     return results;
-                })
-                .doOnNext((List<GeocodeResult> results) -> {
-                    // Guardar en caché el primer resultado si existe
-                    if (!results.isEmpty()) {
-                        cache.put(cacheKey, results.get(0));
-                    }
                 });
     }
 
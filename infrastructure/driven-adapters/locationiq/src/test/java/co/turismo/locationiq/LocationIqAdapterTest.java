@@ -0,0 +1,162 @@
+package co.turismo.locationiq;
+
+import co.turismo.model.error.ServiceUnavailableException;
+import co.turismo.model.geocode.GeocodeResult;
+import co.turismo.model.geocode.gateways.GeocodeCacheGateway;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocationIqAdapterTest {
+
+    private static final String TWO_RESULTS = """
+            [{"lat":"2.93","lon":"-75.28","display_name":"Neiva, Huila"},
+             {"lat":"2.19","lon":"-75.63","display_name":"La Plata, Huila"}]
+            """;
+
+    /** Caché persistente en memoria con cuota contada igual que en BD. */
+    private static final class InMemoryGeocodeCache implements GeocodeCacheGateway {
+        final Map<String, List<GeocodeResult>> entries = new ConcurrentHashMap<>();
+        final AtomicInteger used = new AtomicInteger();
+
+        @Override
+        public Mono<List<GeocodeResult>> find(String key, Duration maxAge) {
+            return Mono.justOrEmpty(entries.get(key));
+        }
+
+        @Override
+        public Mono<Void> save(String key, List<GeocodeResult> results) {
+            return Mono.fromRunnable(() -> entries.put(key, results));
+        }
+
+        @Override
+        public Mono<Boolean> tryAcquireQuota(LocalDate day, int dailyQuota) {
+            return Mono.fromSupplier(() -> used.incrementAndGet() <= dailyQuota);
+        }
+    }
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final InMemoryGeocodeCache persistent = new InMemoryGeocodeCache();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/search", exchange -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = TWO_RESULTS.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private LocationIqAdapter adapter(int dailyQuota) {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+        return new LocationIqAdapter(client, persistent, registry, "test", dailyQuota, 30);
+    }
+
+    private double count(String source) {
+        return registry.counter("geocode.requests", "source", source).count();
+    }
+
+    @Test
+    void concurrentIdenticalMissesShouldShareOneUpstreamCall() {
+        LocationIqAdapter adapter = adapter(100);
+
+        Mono<List<List<GeocodeResult>>> all = Flux.range(0, 5)
+                .flatMap(i -> adapter.forward(i % 2 == 0 ? "Neiva, Huila" : "neiva  huila", 5))
+                .collectList();
+
+        StepVerifier.create(all)
+                .then(release::countDown)
+                .assertNext(results -> results.forEach(r -> assertEquals(2, r.size())))
+                .verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, persistent.used.get());
+        assertEquals(1.0, count("provider"));
+        assertEquals(4.0, count("memory"));
+    }
+
+    @Test
+    void memoryHitShouldReturnTheFullList() {
+        release.countDown();
+        LocationIqAdapter adapter = adapter(100);
+
+        StepVerifier.create(adapter.forward("Neiva", 5)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(adapter.forward("Neiva", 5))
+                .assertNext(results -> assertEquals(2, results.size()))
+                .verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void persistedEntryShouldSurviveARestart() {
+        release.countDown();
+        StepVerifier.create(adapter(100).forward("Neiva", 5)).expectNextCount(1).verifyComplete();
+
+        LocationIqAdapter restarted = adapter(100);
+        StepVerifier.create(restarted.forward("Neiva", 5))
+                .assertNext(results -> assertEquals(2, results.size()))
+                .verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, count("database"));
+    }
+
+    @Test
+    void exhaustedQuotaShouldFailWithoutCallingUpstream() {
+        release.countDown();
+        LocationIqAdapter adapter = adapter(1);
+        StepVerifier.create(adapter.forward("Neiva", 5)).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(adapter.forward("Pitalito", 5))
+                .expectError(ServiceUnavailableException.class)
+                .verify();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, registry.counter("geocode.quota.rejected").count());
+    }
+}
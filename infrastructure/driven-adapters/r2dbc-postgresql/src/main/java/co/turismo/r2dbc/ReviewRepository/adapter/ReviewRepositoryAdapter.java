@@ -1,10 +1,12 @@
 package co.turismo.r2dbc.ReviewRepository.adapter;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.reviews.PlaceRatingSummary;
 import co.turismo.model.reviews.Review;
 import co.turismo.model.reviews.TopRatedPlace;
 import co.turismo.model.reviews.gateways.ReviewModalRepository;
 import co.turismo.r2dbc.ReviewRepository.entity.ReviewData;
+import co.turismo.r2dbc.ReviewRepository.ranking.TopRatedPlacesCache;
 import co.turismo.r2dbc.ReviewRepository.repository.ReviewAdapterRepository;
 import co.turismo.r2dbc.helper.ReactiveAdapterOperations;
 import org.reactivecommons.utils.ObjectMapper;
@@ -20,11 +22,15 @@ public class ReviewRepositoryAdapter
 
     private static final int MAX_LIMIT = 50;
 
+    private final TopRatedPlacesCache topRatedCache;
+
     public ReviewRepositoryAdapter(
             ReviewAdapterRepository repository,
-            ObjectMapper mapper
+            ObjectMapper mapper,
+            TopRatedPlacesCache topRatedCache
     ) {
         super(repository, mapper, ReviewRepositoryAdapter::toDomain);
+        this.topRatedCache = topRatedCache;
     }
 
     private static Review toDomain(ReviewData data) {
@@ -55,16 +61,42 @@ public class ReviewRepositoryAdapter
                 .map(this::toEntity);
     }
 
+    @Override
+    public Flux<Review> findByPlaceIdAfter(Long placeId, PageCursor after, int limit) {
+        int boundedLimit = Math.min(MAX_LIMIT, Math.max(1, limit));
+
+        return repository.findByPlaceIdAfter(placeId, after.createdAtUtc(), after.longId(), boundedLimit)
+                .map(this::toEntity);
+    }
+
     @Override
     public Mono<Review> create(Review review) {
-        return save(review);
+        return repository.insertWithSummary(
+                        review.getPlaceId(),
+                        review.getUserId(),
+                        review.getDeviceId(),
+                        review.getRating(),
+                        review.getComment(),
+                        review.isVerified()
+                )
+                .doOnNext(r -> topRatedCache.onRatingChanged(r.getPlaceId(), r.getAvgRating(), r.getReviewsCount()))
+                .map(r -> Review.builder()
+                        .id(r.getId())
+                        .placeId(r.getPlaceId())
+                        .userId(r.getUserId())
+                        .deviceId(r.getDeviceId())
+                        .rating(r.getRating() == null ? 0 : r.getRating())
+                        .comment(r.getComment())
+                        .createdAt(r.getCreatedAt())
+                        .isVerified(Boolean.TRUE.equals(r.getIsVerified()))
+                        .build());
     }
 
     @Override
     public Flux<TopRatedPlace> findTopRatedPlaces(int limit) {
         int boundedLimit = Math.min(MAX_LIMIT, Math.max(1, limit));
 
-        return repository.findTopRatedPlaces(boundedLimit)
+        return topRatedCache.top(boundedLimit, n -> repository.findTopRatedPlaces(n)
                 .map(p -> TopRatedPlace.builder()
                         .id(p.getId())
                         .name(p.getName())
@@ -72,7 +104,7 @@ public class ReviewRepositoryAdapter
                         .avgRating(p.getAvgRating())
                         .reviewsCount(p.getReviewsCount())
                         .build()
-                );
+                ));
     }
 
     @Override
@@ -0,0 +1,16 @@
+package co.turismo.r2dbc.ReviewRepository.entity.view;
+
+import java.time.OffsetDateTime;
+
+public interface CreatedReviewProjection {
+    Long getId();
+    Long getPlaceId();
+    Long getUserId();
+    String getDeviceId();
+    Short getRating();
+    String getComment();
+    OffsetDateTime getCreatedAt();
+    Boolean getIsVerified();
+    Double getAvgRating();
+    Long getReviewsCount();
+}
@@ -0,0 +1,126 @@
+package co.turismo.r2dbc.ReviewRepository.ranking;
+
+import co.turismo.model.reviews.TopRatedPlace;
+import co.turismo.r2dbc.helper.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Top-K en memoria de los lugares mejor calificados. Se carga una vez con los
+ * {@code capacity} primeros de {@code place_rating_summary} y las reseñas creadas en esta
+ * réplica lo actualizan en el sitio; solo se recarga cuando un lugar de fuera podría
+ * entrar al ranking o cuando vence el TTL (que acota el desfase frente a otras réplicas).
+ */
+@Component
+public class TopRatedPlacesCache {
+
+    static final Comparator<TopRatedPlace> RANKING = Comparator
+            .comparing(TopRatedPlace::getAvgRating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TopRatedPlace::getReviewsCount, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long ttlNanos;
+
+    private final SingleFlight<List<TopRatedPlace>> loads = new SingleFlight<>();
+    private volatile Snapshot snapshot;
+
+    public TopRatedPlacesCache(
+            @Value("${turismo.reviews.top-rated-cache.enabled:true}") boolean enabled,
+            @Value("${turismo.reviews.top-rated-cache.capacity:50}") int capacity,
+            @Value("${turismo.reviews.top-rated-cache.ttl:1m}") Duration ttl) {
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Primeros {@code limit} del ranking. {@code loader} recibe cuántos traer de la BD;
+     * se usa directo si el caché está apagado o si piden más de lo que guarda.
+     */
+    public Flux<TopRatedPlace> top(int limit, IntFunction<Flux<TopRatedPlace>> loader) {
+        if (!enabled || limit > capacity) {
+            return loader.apply(limit);
+        }
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() < ttlNanos) {
+            return Flux.fromIterable(current.places()).take(limit);
+        }
+        return loads.load(
+                        () -> loader.apply(capacity).collectList(),
+                        places -> snapshot = new Snapshot(List.copyOf(places), System.nanoTime()))
+                .flatMapIterable(places -> places)
+                .take(limit);
+    }
+
+    /**
+     * Aplica el nuevo promedio de un lugar tras crear una reseña. Si el lugar ya está en
+     * el top se reubica; si podría desplazar a alguien sin estar cargado, se invalida.
+     */
+    public void onRatingChanged(Long placeId, Double avgRating, Long reviewsCount) {
+        loads.mutate(() -> apply(placeId, avgRating, reviewsCount));
+    }
+
+    private void apply(Long placeId, Double avgRating, Long reviewsCount) {
+        Snapshot current = snapshot;
+        if (current == null || placeId == null) {
+            return;
+        }
+        List<TopRatedPlace> places = current.places();
+        boolean full = places.size() >= capacity;
+        int index = indexOf(places, placeId);
+
+        if (index < 0) {
+            TopRatedPlace candidate = TopRatedPlace.builder()
+                    .id(placeId).avgRating(avgRating).reviewsCount(reviewsCount).build();
+            if (!full || RANKING.compare(candidate, places.get(places.size() - 1)) < 0) {
+                invalidate();
+            }
+            return;
+        }
+
+        TopRatedPlace previous = places.get(index);
+        TopRatedPlace updated = TopRatedPlace.builder()
+                .id(previous.getId())
+                .name(previous.getName())
+                .description(previous.getDescription())
+                .avgRating(avgRating)
+                .reviewsCount(reviewsCount)
+                .build();
+        List<TopRatedPlace> next = new ArrayList<>(places);
+        next.set(index, updated);
+        next.sort(RANKING);
+        // Si quedó último tras bajar, alguno de fuera del top podría superarlo
+        if (full && next.get(next.size() - 1) == updated && RANKING.compare(updated, previous) > 0) {
+            invalidate();
+            return;
+        }
+        snapshot = new Snapshot(List.copyOf(next), current.loadedAt());
+    }
+
+    public void invalidate() {
+        loads.mutate(() -> {
+            loads.invalidate();
+            snapshot = null;
+        });
+    }
+
+    private static int indexOf(List<TopRatedPlace> places, Long placeId) {
+        for (int i = 0; i < places.size(); i++) {
+            if (Objects.equals(places.get(i).getId(), placeId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Snapshot(List<TopRatedPlace> places, long loadedAt) {}
+}
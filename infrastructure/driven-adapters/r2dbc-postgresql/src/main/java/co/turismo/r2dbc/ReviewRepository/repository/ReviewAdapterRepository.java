@@ -1,5 +1,6 @@
 package co.turismo.r2dbc.ReviewRepository.repository;
 
+import co.turismo.r2dbc.ReviewRepository.entity.view.CreatedReviewProjection;
 import co.turismo.r2dbc.ReviewRepository.entity.view.PlaceRatingProjection;
 import co.turismo.r2dbc.ReviewRepository.entity.ReviewData;
 import co.turismo.r2dbc.ReviewRepository.entity.view.TopRatedPlaceProjection;
@@ -9,6 +10,8 @@ import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.OffsetDateTime;
+
 public interface ReviewAdapterRepository extends
         ReactiveCrudRepository<ReviewData, Long>,
         ReactiveQueryByExampleExecutor<ReviewData> {
@@ -27,7 +30,7 @@ public interface ReviewAdapterRepository extends
             is_verified
         FROM place_reviews
         WHERE place_id = :placeId
-        ORDER BY created_at DESC
+        ORDER BY created_at DESC, id DESC
         LIMIT :limit
         OFFSET :offset
     """)
@@ -37,6 +40,72 @@ public interface ReviewAdapterRepository extends
             int offset
     );
 
+    @Query("""
+        SELECT
+            id,
+            place_id,
+            user_id,
+            device_id,
+            rating,
+            comment,
+            created_at,
+            is_verified
+        FROM place_reviews
+        WHERE place_id = :placeId
+          AND (created_at, id) < (:afterCreatedAt, :afterId)
+        ORDER BY created_at DESC, id DESC
+        LIMIT :limit
+    """)
+    Flux<ReviewData> findByPlaceIdAfter(
+            Long placeId,
+            OffsetDateTime afterCreatedAt,
+            Long afterId,
+            int limit
+    );
+
+    /**
+     * Inserta la reseña y suma en place_rating_summary en la misma sentencia.
+     * Devuelve la reseña con el resumen ya actualizado del lugar.
+     */
+    @Query("""
+        WITH ins AS (
+            INSERT INTO place_reviews (place_id, user_id, device_id, rating, comment, is_verified)
+            VALUES (:placeId, :userId, :deviceId, :rating, :comment, :isVerified)
+            RETURNING id, place_id, user_id, device_id, rating, comment, created_at, is_verified
+        ),
+        summary AS (
+            INSERT INTO place_rating_summary AS prs (place_id, rating_sum, reviews_count)
+            SELECT place_id, rating, 1
+            FROM ins
+            WHERE place_id IS NOT NULL
+            ON CONFLICT (place_id) DO UPDATE
+               SET rating_sum    = prs.rating_sum + EXCLUDED.rating_sum,
+                   reviews_count = prs.reviews_count + 1
+            RETURNING place_id, avg_rating, reviews_count
+        )
+        SELECT
+            i.id AS id,
+            i.place_id AS placeId,
+            i.user_id AS userId,
+            i.device_id AS deviceId,
+            i.rating AS rating,
+            i.comment AS comment,
+            i.created_at AS createdAt,
+            i.is_verified AS isVerified,
+            s.avg_rating AS avgRating,
+            s.reviews_count AS reviewsCount
+        FROM ins i
+        LEFT JOIN summary s ON s.place_id = i.place_id
+    """)
+    Mono<CreatedReviewProjection> insertWithSummary(
+            Long placeId,
+            Long userId,
+            String deviceId,
+            Short rating,
+            String comment,
+            Boolean isVerified
+    );
+
     @Query("""
         SELECT
             p.id AS id,
@@ -3,20 +3,32 @@ package co.turismo.r2dbc.agency.adapter;
 import co.turismo.model.agency.Agency;
 import co.turismo.model.agency.CreateAgencyRequest;
 import co.turismo.model.agency.gateways.AgencyRepository;
+import co.turismo.r2dbc.agency.cache.AgencyMembershipCache;
 import co.turismo.r2dbc.agency.entity.AgencyData;
 import co.turismo.r2dbc.agency.repository.AgencyAdapterRepository;
 import co.turismo.r2dbc.helper.ReactiveAdapterOperations;
+import co.turismo.r2dbc.usersRepository.cache.AgencyRecipientsCache;
 import org.reactivecommons.utils.ObjectMapper;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Repository
 public class AgencyRepositoryAdapter extends ReactiveAdapterOperations<Agency, AgencyData, Long, AgencyAdapterRepository>
         implements AgencyRepository {
 
-    protected AgencyRepositoryAdapter(AgencyAdapterRepository repository, ObjectMapper mapper) {
+    private final AgencyRecipientsCache agencyRecipientsCache;
+    private final AgencyMembershipCache membershipCache;
+
+    protected AgencyRepositoryAdapter(AgencyAdapterRepository repository, ObjectMapper mapper,
+                                      AgencyRecipientsCache agencyRecipientsCache,
+                                      AgencyMembershipCache membershipCache) {
         super(repository, mapper, data -> mapper.map(data, Agency.class));
+        this.agencyRecipientsCache = agencyRecipientsCache;
+        this.membershipCache = membershipCache;
     }
 
     @Override
@@ -37,6 +49,15 @@ public class AgencyRepositoryAdapter extends ReactiveAdapterOperations<Agency, A
                 .map(this::toEntity);
     }
 
+    @Override
+    public Mono<List<Long>> findAgencyIdsByUserEmail(String email) {
+        return membershipCache.get(email, normalized -> repository.findMembershipByUserEmail(normalized)
+                        .map(row -> new AgencyMembershipCache.Membership(row.userId(),
+                                row.agencyIds() == null ? List.of() : Arrays.asList(row.agencyIds()))))
+                .map(AgencyMembershipCache.Membership::agencyIds)
+                .defaultIfEmpty(List.of());
+    }
+
     @Override
     public Mono<Agency> create(CreateAgencyRequest request) {
         return repository.insertAgency(
@@ -52,17 +73,30 @@ public class AgencyRepositoryAdapter extends ReactiveAdapterOperations<Agency, A
 
     @Override
     public Mono<Void> addUserToAgency(Long agencyId, Long userId) {
-        return repository.addUserToAgency(agencyId, userId);
+        return repository.addUserToAgency(agencyId, userId, membershipCache.channel())
+                .doOnSuccess(v -> {
+                    agencyRecipientsCache.invalidate(agencyId);
+                    membershipCache.invalidateUser(userId);
+                });
     }
 
     @Override
     public Mono<Void> updateAgencyUser(Long agencyId, Long oldUserId, Long newUserId) {
-        return repository.updateAgencyUser(agencyId, oldUserId, newUserId);
+        return repository.updateAgencyUser(agencyId, oldUserId, newUserId, membershipCache.channel())
+                .doOnSuccess(v -> {
+                    agencyRecipientsCache.invalidate(agencyId);
+                    membershipCache.invalidateUser(oldUserId);
+                    membershipCache.invalidateUser(newUserId);
+                });
     }
 
     @Override
     public Mono<Void> removeUserFromAgency(Long agencyId, Long userId) {
-        return repository.deleteUserFromAgency(agencyId, userId);
+        return repository.deleteUserFromAgency(agencyId, userId, membershipCache.channel())
+                .doOnSuccess(v -> {
+                    agencyRecipientsCache.invalidate(agencyId);
+                    membershipCache.invalidateUser(userId);
+                });
     }
 
     @Override
@@ -99,6 +133,10 @@ public class AgencyRepositoryAdapter extends ReactiveAdapterOperations<Agency, A
 
     @Override
     public Mono<Void> delete(Long id) {
-        return repository.deleteAgency(id);
+        return repository.deleteAgency(id, membershipCache.channel())
+                .doOnSuccess(v -> {
+                    agencyRecipientsCache.invalidate(id);
+                    membershipCache.invalidateAgency(id);
+                });
     }
 }
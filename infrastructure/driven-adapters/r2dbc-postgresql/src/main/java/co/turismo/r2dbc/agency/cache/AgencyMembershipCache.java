@@ -0,0 +1,127 @@
+package co.turismo.r2dbc.agency.cache;
+
+import co.turismo.r2dbc.helper.Emails;
+import co.turismo.r2dbc.helper.GenerationalAsyncCache;
+import co.turismo.r2dbc.helper.PostgresChannels;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Agencias a las que pertenece cada usuario, por correo normalizado. Es la primera consulta
+ * de cada petición del lado de la agencia (bandeja de reservas, chat), que el personal
+ * consulta en polling; con esto el join agencies/agency_users/users se hace una vez por
+ * usuario cada {@code turismo.agencies.membership-cache.ttl}.
+ * <p>
+ * Como autoriza el acceso, quitar a alguien de una agencia debe verse en todas las réplicas:
+ * las escrituras en {@code agency_users}, el borrado de agencias y los cambios de correo
+ * envían {@code user:<id>} o {@code agency:<id>} por el canal
+ * {@code turismo.agencies.membership-cache.channel} (el NOTIFY va en la misma sentencia) y
+ * cada réplica descarta las entradas afectadas y las cargas en curso. El TTL es el respaldo
+ * por si se pierde un NOTIFY mientras el canal reconecta. Los correos sin usuario y los
+ * errores no se guardan.
+ */
+@Slf4j
+@Component
+public class AgencyMembershipCache implements DisposableBean {
+
+    private static final String USER_PREFIX = "user:";
+    private static final String AGENCY_PREFIX = "agency:";
+
+    /** Usuario y sus agencias; {@code agencyIds} vacía si no pertenece a ninguna. */
+    public record Membership(Long userId, List<Long> agencyIds) {
+        public Membership {
+            agencyIds = List.copyOf(agencyIds);
+        }
+    }
+
+    private final GenerationalAsyncCache<String, Membership> cache;
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+    private volatile Disposable listener;
+
+    @Autowired
+    public AgencyMembershipCache(
+            ConnectionFactory connectionFactory,
+            @Value("${turismo.agencies.membership-cache.channel:agency_membership_changes}") String channel,
+            @Value("${turismo.agencies.membership-cache.ttl:1m}") Duration ttl,
+            @Value("${turismo.agencies.membership-cache.max-size:10000}") long maxSize) {
+        this.connectionFactory = connectionFactory;
+        this.channel = PostgresChannels.channelName(channel, "membresías de agencia");
+        this.cache = new GenerationalAsyncCache<>(ttl, maxSize);
+    }
+
+    AgencyMembershipCache(Duration ttl, long maxSize) {
+        this(null, "", ttl, maxSize);
+    }
+
+    /** Canal al que las escrituras envían el NOTIFY; vacío si está deshabilitado. */
+    public String channel() {
+        return channel;
+    }
+
+    /** El loader recibe el correo ya normalizado; vacío si no existe el usuario. */
+    public Mono<Membership> get(String email, Function<String, Mono<Membership>> loader) {
+        String key = Emails.normalize(email);
+        if (key == null) {
+            return Mono.empty();
+        }
+        return cache.get(key, loader);
+    }
+
+    public void invalidateUser(Long userId) {
+        if (userId != null) {
+            cache.invalidateIf(m -> userId.equals(m.userId()));
+        }
+    }
+
+    public void invalidateAgency(Long agencyId) {
+        if (agencyId != null) {
+            cache.invalidateIf(m -> m.agencyIds().contains(agencyId));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (channel.isEmpty() || listener != null) {
+            return;
+        }
+        listener = PostgresChannels.listen(connectionFactory, channel)
+                .subscribe(this::onChange);
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    void onChange(String payload) {
+        try {
+            if (payload.startsWith(USER_PREFIX)) {
+                invalidateUser(Long.valueOf(payload.substring(USER_PREFIX.length())));
+                return;
+            }
+            if (payload.startsWith(AGENCY_PREFIX)) {
+                invalidateAgency(Long.valueOf(payload.substring(AGENCY_PREFIX.length())));
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // cae al aviso de abajo
+        }
+        log.warn("Notificación de membresía desconocida: {}", payload);
+    }
+}
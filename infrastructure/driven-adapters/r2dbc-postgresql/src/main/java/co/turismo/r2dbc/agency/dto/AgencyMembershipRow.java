@@ -0,0 +1,9 @@
+package co.turismo.r2dbc.agency.dto;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+/** Usuario y las agencias a las que pertenece (la más reciente primero). */
+public record AgencyMembershipRow(
+        @Column("user_id") Long userId,
+        @Column("agency_ids") Long[] agencyIds
+) {}
@@ -1,5 +1,6 @@
 package co.turismo.r2dbc.agency.repository;
 
+import co.turismo.r2dbc.agency.dto.AgencyMembershipRow;
 import co.turismo.r2dbc.agency.entity.AgencyData;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -55,6 +56,19 @@ public interface AgencyAdapterRepository extends ReactiveCrudRepository<AgencyDa
     """)
     reactor.core.publisher.Flux<AgencyData> findAllByUserEmail(@Param("email") String email);
 
+    @Query("""
+        SELECT u.id AS user_id,
+               COALESCE(array_agg(a.id ORDER BY a.created_at DESC, a.id DESC)
+                            FILTER (WHERE a.id IS NOT NULL), '{}') AS agency_ids
+        FROM users u
+        LEFT JOIN agency_users au ON au.user_id = u.id
+        LEFT JOIN agencies a ON a.id = au.agency_id
+        WHERE lower(u.email) = lower(:email)
+        GROUP BY u.id
+        LIMIT 1
+    """)
+    Mono<AgencyMembershipRow> findMembershipByUserEmail(@Param("email") String email);
+
     @Query("""
         INSERT INTO agencies (
             name,
@@ -85,25 +99,55 @@ public interface AgencyAdapterRepository extends ReactiveCrudRepository<AgencyDa
             @Param("logoUrl") String logoUrl
     );
 
+    /**
+     * Las escrituras de membresía llevan el NOTIFY al canal de membresías en la misma
+     * sentencia; {@code channel} vacío lo omite.
+     */
     @Query("""
-        INSERT INTO agency_users (agency_id, user_id, created_at)
-        VALUES (:agencyId, :userId, NOW())
-        ON CONFLICT (agency_id, user_id) DO NOTHING
+        WITH ins AS (
+            INSERT INTO agency_users (agency_id, user_id, created_at)
+            VALUES (:agencyId, :userId, NOW())
+            ON CONFLICT (agency_id, user_id) DO NOTHING
+            RETURNING user_id
+        )
+        SELECT pg_notify(:channel, 'user:' || ins.user_id)
+        FROM ins
+        WHERE :channel <> ''
     """)
-    Mono<Void> addUserToAgency(@Param("agencyId") Long agencyId, @Param("userId") Long userId);
+    Mono<Void> addUserToAgency(@Param("agencyId") Long agencyId,
+                               @Param("userId") Long userId,
+                               @Param("channel") String channel);
 
     @Query("""
-        UPDATE agency_users
-           SET user_id = :newUserId
-         WHERE agency_id = :agencyId AND user_id = :oldUserId
+        WITH upd AS (
+            UPDATE agency_users
+               SET user_id = :newUserId
+             WHERE agency_id = :agencyId AND user_id = :oldUserId
+            RETURNING agency_id
+        )
+        SELECT pg_notify(:channel, 'user:' || u.id)
+        FROM upd
+        CROSS JOIN (VALUES (CAST(:oldUserId AS BIGINT)), (CAST(:newUserId AS BIGINT))) AS u(id)
+        WHERE :channel <> ''
     """)
-    Mono<Void> updateAgencyUser(@Param("agencyId") Long agencyId, @Param("oldUserId") Long oldUserId, @Param("newUserId") Long newUserId);
+    Mono<Void> updateAgencyUser(@Param("agencyId") Long agencyId,
+                                @Param("oldUserId") Long oldUserId,
+                                @Param("newUserId") Long newUserId,
+                                @Param("channel") String channel);
 
     @Query("""
-        DELETE FROM agency_users
-         WHERE agency_id = :agencyId AND user_id = :userId
+        WITH del AS (
+            DELETE FROM agency_users
+             WHERE agency_id = :agencyId AND user_id = :userId
+            RETURNING user_id
+        )
+        SELECT pg_notify(:channel, 'user:' || del.user_id)
+        FROM del
+        WHERE :channel <> ''
     """)
-    Mono<Void> deleteUserFromAgency(@Param("agencyId") Long agencyId, @Param("userId") Long userId);
+    Mono<Void> deleteUserFromAgency(@Param("agencyId") Long agencyId,
+                                    @Param("userId") Long userId,
+                                    @Param("channel") String channel);
 
     @Query("""
         SELECT id,
@@ -176,7 +220,13 @@ public interface AgencyAdapterRepository extends ReactiveCrudRepository<AgencyDa
     );
 
     @Query("""
-        DELETE FROM agencies WHERE id = :id
+        WITH del AS (
+            DELETE FROM agencies WHERE id = :id
+            RETURNING id
+        )
+        SELECT pg_notify(:channel, 'agency:' || del.id)
+        FROM del
+        WHERE :channel <> ''
     """)
-    Mono<Void> deleteAgency(@Param("id") Long id);
+    Mono<Void> deleteAgency(@Param("id") Long id, @Param("channel") String channel);
 }
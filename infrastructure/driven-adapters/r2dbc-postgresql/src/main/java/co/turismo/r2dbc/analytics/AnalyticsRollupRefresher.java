@@ -0,0 +1,75 @@
+package co.turismo.r2dbc.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Job que mantiene al día los rollups del dashboard de agencias
+ * ({@code agency_sales_daily}, {@code agency_place_visits_daily}) invocando
+ * {@code refresh_analytics_rollups()} cada {@code refresh-interval}. El recálculo es
+ * incremental y la función se salta la corrida si otra réplica ya la está ejecutando.
+ * Ver {@code V16__analytics_rollups.sql}.
+ */
+@Slf4j
+@Component
+public class AnalyticsRollupRefresher implements DisposableBean {
+
+    private final DatabaseClient db;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+
+    private volatile Disposable ticker;
+
+    public AnalyticsRollupRefresher(
+            DatabaseClient db,
+            @Value("${turismo.analytics.rollups.enabled:true}") boolean enabled,
+            @Value("${turismo.analytics.rollups.refresh-interval:5m}") Duration refreshInterval) {
+        this.db = db;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /** Ejecuta una corrida; vacío si otra réplica la tenía tomada. */
+    public Mono<OffsetDateTime> refresh() {
+        return db.sql("SELECT refresh_analytics_rollups() AS watermark")
+                .map((row, metadata) -> Optional.ofNullable(row.get("watermark", OffsetDateTime.class)))
+                .one()
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || ticker != null) {
+            return;
+        }
+        ticker = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(t -> refresh()
+                        .doOnNext(mark -> log.debug("Rollups de analítica al día hasta {}", mark))
+                        .onErrorResume(e -> {
+                            log.warn("No se pudieron refrescar los rollups de analítica: {}", e.toString());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = ticker;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+}
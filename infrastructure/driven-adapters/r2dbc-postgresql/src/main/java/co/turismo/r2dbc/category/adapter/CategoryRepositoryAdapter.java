@@ -1,11 +1,13 @@
 package co.turismo.r2dbc.category.adapter;
 
 import co.turismo.model.category.Category;
+import co.turismo.model.category.CategorySnapshot;
 import co.turismo.model.category.CreateCategoryRequest;
 import co.turismo.model.category.UpdateCategoryRequest;
 import co.turismo.model.category.gateways.CategoryRepository;
 import co.turismo.r2dbc.category.entity.CategoryData;
 import co.turismo.r2dbc.category.repository.CategoryAdapterRepository;
+import co.turismo.r2dbc.category.snapshot.CategorySnapshotCache;
 import co.turismo.r2dbc.helper.ReactiveAdapterOperations;
 import org.reactivecommons.utils.ObjectMapper;
 import org.springframework.stereotype.Repository;
@@ -17,29 +19,38 @@ public class CategoryRepositoryAdapter
         extends ReactiveAdapterOperations<Category, CategoryData, Long, CategoryAdapterRepository>
         implements CategoryRepository {
 
-    protected CategoryRepositoryAdapter(CategoryAdapterRepository repository, ObjectMapper mapper) {
+    private final CategorySnapshotCache snapshotCache;
+
+    protected CategoryRepositoryAdapter(CategoryAdapterRepository repository, ObjectMapper mapper,
+                                        CategorySnapshotCache snapshotCache) {
         super(repository, mapper, data -> mapper.map(data, Category.class));
+        this.snapshotCache = snapshotCache;
     }
 
     @Override
     public Flux<Category> findAll() {
-        return repository.findAllProjected()
-                .map(this::toEntity);
+        return snapshot().flatMapIterable(CategorySnapshot::categories);
     }
 
     @Override
     public Mono<Category> findById(Long id) {
-        return repository.findByIdProjected(id)
-                .map(this::toEntity);
+        return snapshot().flatMap(snapshot -> Mono.justOrEmpty(snapshot.findById(id)));
+    }
+
+    @Override
+    public Mono<CategorySnapshot> snapshot() {
+        return snapshotCache.get(() -> repository.findAllProjected().map(this::toEntity));
     }
 
     @Override
     public Mono<Category> create(CreateCategoryRequest request) {
         return repository.insertCategory(
                         request.getSlug(),
-                        request.getName()
+                        request.getName(),
+                        snapshotCache.channel()
                 )
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(category -> snapshotCache.invalidate());
     }
 
     @Override
@@ -47,8 +58,10 @@ public class CategoryRepositoryAdapter
         return repository.updateCategory(
                         id,
                         request.getSlug(),
-                        request.getName()
+                        request.getName(),
+                        snapshotCache.channel()
                 )
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(category -> snapshotCache.invalidate());
     }
 }
@@ -26,34 +26,51 @@ public interface CategoryAdapterRepository extends ReactiveCrudRepository<Catego
     """)
     Mono<CategoryData> findByIdProjected(@Param("id") Long id);
 
+    /** El NOTIFY al canal del catálogo va en la misma sentencia; {@code channel} vacío lo omite. */
     @Query("""
-        INSERT INTO categories (
-            slug,
-            name,
-            created_at
+        WITH ins AS (
+            INSERT INTO categories (
+                slug,
+                name,
+                created_at
+            )
+            VALUES (
+                :slug,
+                :name,
+                NOW()
+            )
+            RETURNING id, slug, name, created_at
         )
-        VALUES (
-            :slug,
-            :name,
-            NOW()
-        )
-        RETURNING id, slug, name, created_at
+        SELECT ins.id, ins.slug, ins.name, ins.created_at
+        FROM ins
+        LEFT JOIN LATERAL (
+            SELECT pg_notify(:channel, ins.id::text) WHERE :channel <> ''
+        ) n ON TRUE
     """)
     Mono<CategoryData> insertCategory(
             @Param("slug") String slug,
-            @Param("name") String name
+            @Param("name") String name,
+            @Param("channel") String channel
     );
 
     @Query("""
-        UPDATE categories
-        SET slug = COALESCE(:slug, slug),
-            name = COALESCE(:name, name)
-        WHERE id = :id
-        RETURNING id, slug, name, created_at
+        WITH upd AS (
+            UPDATE categories
+            SET slug = COALESCE(:slug, slug),
+                name = COALESCE(:name, name)
+            WHERE id = :id
+            RETURNING id, slug, name, created_at
+        )
+        SELECT upd.id, upd.slug, upd.name, upd.created_at
+        FROM upd
+        LEFT JOIN LATERAL (
+            SELECT pg_notify(:channel, upd.id::text) WHERE :channel <> ''
+        ) n ON TRUE
     """)
     Mono<CategoryData> updateCategory(
             @Param("id") Long id,
             @Param("slug") String slug,
-            @Param("name") String name
+            @Param("name") String name,
+            @Param("channel") String channel
     );
 }
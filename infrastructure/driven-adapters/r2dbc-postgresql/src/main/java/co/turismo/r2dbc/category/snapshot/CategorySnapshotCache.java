@@ -0,0 +1,99 @@
+package co.turismo.r2dbc.category.snapshot;
+
+import co.turismo.model.category.Category;
+import co.turismo.model.category.CategorySnapshot;
+import co.turismo.r2dbc.helper.PostgresChannels;
+import co.turismo.r2dbc.helper.SingleFlight;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Catálogo de categorías en memoria. Se carga completo una vez y se sirve desde la
+ * {@link CategorySnapshot} hasta que una escritura lo invalida: las de esta réplica lo
+ * hacen directo y las de otras llegan por el canal {@code turismo.categories.snapshot.channel}
+ * (el NOTIFY va en el mismo INSERT/UPDATE). {@code max-age} es el respaldo por si se pierde
+ * un NOTIFY mientras el canal reconecta.
+ */
+@Slf4j
+@Component
+public class CategorySnapshotCache implements DisposableBean {
+
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+    private final long maxAgeNanos;
+
+    private final SingleFlight<CategorySnapshot> loads = new SingleFlight<>();
+    private volatile Entry entry;
+    private volatile Disposable listener;
+
+    @Autowired
+    public CategorySnapshotCache(
+            ConnectionFactory connectionFactory,
+            @Value("${turismo.categories.snapshot.channel:category_changes}") String channel,
+            @Value("${turismo.categories.snapshot.max-age:10m}") Duration maxAge) {
+        this.connectionFactory = connectionFactory;
+        this.channel = PostgresChannels.channelName(channel, "categorías");
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    CategorySnapshotCache(Duration maxAge) {
+        this(null, "", maxAge);
+    }
+
+    /** Canal al que las escrituras envían el NOTIFY; vacío si está deshabilitado. */
+    public String channel() {
+        return channel;
+    }
+
+    public Mono<CategorySnapshot> get(Supplier<Flux<Category>> loader) {
+        Entry current = entry;
+        if (current != null && System.nanoTime() - current.loadedAt() < maxAgeNanos) {
+            return Mono.just(current.snapshot());
+        }
+        return loads.load(
+                () -> loader.get().collectList().map(CategorySnapshot::of),
+                snapshot -> entry = new Entry(snapshot, System.nanoTime()));
+    }
+
+    public void invalidate() {
+        loads.mutate(() -> {
+            // Una carga en curso pudo leer antes de la escritura; no se guarda ni se reutiliza
+            loads.invalidate();
+            entry = null;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (channel.isEmpty() || listener != null) {
+            return;
+        }
+        listener = PostgresChannels.listen(connectionFactory, channel)
+                .subscribe(payload -> {
+                    log.debug("Categoría {} modificada, se invalida el catálogo en memoria", payload);
+                    invalidate();
+                });
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private record Entry(CategorySnapshot snapshot, long loadedAt) {}
+}
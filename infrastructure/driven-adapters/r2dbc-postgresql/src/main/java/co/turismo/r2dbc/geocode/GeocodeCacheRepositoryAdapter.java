@@ -0,0 +1,90 @@
+package co.turismo.r2dbc.geocode;
+
+import co.turismo.model.geocode.GeocodeResult;
+import co.turismo.model.geocode.gateways.GeocodeCacheGateway;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Tablas {@code geocode_cache} y {@code geocode_quota}; ver {@code V19__geocode_cache.sql}. */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class GeocodeCacheRepositoryAdapter implements GeocodeCacheGateway {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<List<GeocodeResult>> RESULTS = new TypeReference<>() {};
+
+    private static final String FIND_SQL = """
+        SELECT results::text AS results
+          FROM geocode_cache
+         WHERE cache_key = :key
+           AND fetched_at > now() - make_interval(secs => :maxAgeSeconds)
+    """;
+
+    private static final String SAVE_SQL = """
+        INSERT INTO geocode_cache (cache_key, results, fetched_at)
+        VALUES (:key, CAST(:results AS jsonb), now())
+        ON CONFLICT (cache_key) DO UPDATE
+          SET results = EXCLUDED.results, fetched_at = EXCLUDED.fetched_at
+    """;
+
+    /** Solo devuelve fila si la cuota aún tenía espacio. */
+    private static final String ACQUIRE_QUOTA_SQL = """
+        INSERT INTO geocode_quota (day, used)
+        VALUES (:day, 1)
+        ON CONFLICT (day) DO UPDATE
+          SET used = geocode_quota.used + 1
+          WHERE geocode_quota.used < :quota
+        RETURNING used
+    """;
+
+    private final DatabaseClient db;
+
+    @Override
+    public Mono<List<GeocodeResult>> find(String key, Duration maxAge) {
+        return db.sql(FIND_SQL)
+                .bind("key", key)
+                .bind("maxAgeSeconds", (double) maxAge.toSeconds())
+                .map((row, metadata) -> row.get("results", String.class))
+                .one()
+                .flatMap(json -> {
+                    try {
+                        return Mono.just(JSON.readValue(json, RESULTS));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Entrada inválida en geocode_cache ({}), se ignora: {}", key, e.getMessage());
+                        return Mono.empty();
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Void> save(String key, List<GeocodeResult> results) {
+        return Mono.fromCallable(() -> JSON.writeValueAsString(results))
+                .flatMap(json -> db.sql(SAVE_SQL)
+                        .bind("key", key)
+                        .bind("results", json)
+                        .then());
+    }
+
+    @Override
+    public Mono<Boolean> tryAcquireQuota(LocalDate day, int dailyQuota) {
+        // <= 0 = sin límite, pero se sigue contando el uso
+        return db.sql(ACQUIRE_QUOTA_SQL)
+                .bind("day", day)
+                .bind("quota", dailyQuota > 0 ? dailyQuota : Integer.MAX_VALUE)
+                .map((row, metadata) -> row.get("used", Integer.class))
+                .one()
+                .map(used -> true)
+                .defaultIfEmpty(false);
+    }
+}
@@ -0,0 +1,18 @@
+package co.turismo.r2dbc.helper;
+
+import java.util.Locale;
+
+/** Normalización de correos usada como clave de búsqueda y de caché. */
+public final class Emails {
+
+    private Emails() {}
+
+    /** Correo sin espacios y en minúsculas; {@code null} si viene nulo o vacío. */
+    public static String normalize(String email) {
+        if (email == null) {
+            return null;
+        }
+        String trimmed = email.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
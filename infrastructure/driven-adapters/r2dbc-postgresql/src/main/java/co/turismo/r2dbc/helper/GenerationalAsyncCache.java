@@ -0,0 +1,66 @@
+package co.turismo.r2dbc.helper;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caché asíncrona por clave: las consultas concurrentes de una clave comparten la carga,
+ * y los vacíos y errores no se guardan.
+ * <p>
+ * Las invalidaciones por valor ({@link #invalidateIf}) no pueden evaluar una carga que
+ * aún no terminó, así que además de quitar las entradas que coinciden descartan las
+ * cargas en curso y avanzan una generación: si una de esas cargas termina después, su
+ * valor se quita en vez de quedar hasta el TTL.
+ */
+public final class GenerationalAsyncCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public GenerationalAsyncCache(Duration ttl, long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(Math.max(1, maxSize))
+                .buildAsync();
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> Mono.fromFuture(
+                cache.get(key, (k, executor) -> load(k, loader)),
+                true));
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        cache.synchronous().invalidate(key);
+    }
+
+    public void invalidateIf(Predicate<V> matches) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(future -> {
+            if (!future.isDone()) {
+                return true;
+            }
+            V value = future.isCompletedExceptionally() ? null : future.join();
+            return value != null && matches.test(value);
+        });
+    }
+
+    private CompletableFuture<V> load(K key, Function<K, Mono<V>> loader) {
+        long started = generation.get();
+        CompletableFuture<V> future = loader.apply(key).toFuture();
+        future.whenComplete((value, error) -> {
+            if (value != null && generation.get() != started) {
+                cache.asMap().remove(key, future);
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,67 @@
+package co.turismo.r2dbc.helper;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/** Utilidades para canales Postgres LISTEN/NOTIFY. */
+@Slf4j
+public final class PostgresChannels {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private PostgresChannels() {}
+
+    /**
+     * Normaliza y valida un nombre de canal configurable. Vacío = canal deshabilitado.
+     */
+    public static String channelName(String configured, String description) {
+        String channel = configured == null ? "" : configured.trim().toLowerCase();
+        if (!channel.isEmpty() && !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Nombre de canal de " + description + " inválido: " + configured);
+        }
+        return channel;
+    }
+
+    /**
+     * Payloads recibidos en el canal, sobre una conexión dedicada que reconecta con backoff
+     * si se cae. Lo publicado mientras no hay conexión no se reenvía.
+     */
+    public static Flux<String> listen(ConnectionFactory connectionFactory, String channel) {
+        return Flux.usingWhen(
+                        Mono.from(connectionFactory.create()),
+                        connection -> {
+                            PostgresqlConnection pg = unwrap(connection);
+                            return pg.createStatement("LISTEN " + channel)
+                                    .execute()
+                                    .flatMap(PostgresqlResult::getRowsUpdated)
+                                    .thenMany(pg.getNotifications());
+                        },
+                        Connection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Reconectando canal {}: {}",
+                                channel, signal.failure().getMessage())))
+                .map(notification -> notification.getParameter() == null ? "" : notification.getParameter());
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection pg) {
+            return pg;
+        }
+        throw new IllegalStateException("LISTEN/NOTIFY requiere una conexión r2dbc-postgresql");
+    }
+}
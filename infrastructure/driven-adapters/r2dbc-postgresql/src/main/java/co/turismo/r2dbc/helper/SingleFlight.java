@@ -0,0 +1,58 @@
+package co.turismo.r2dbc.helper;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carga compartida de un valor que se guarda en memoria. Las lecturas concurrentes
+ * esperan la misma carga, y cada invalidación avanza una generación: una carga que
+ * empezó antes pudo leer datos previos a la escritura, así que ya no se guarda ni se
+ * entrega a lecturas nuevas.
+ * <p>
+ * Las cargas, las invalidaciones y {@link #mutate(Runnable)} usan el mismo lock, para
+ * que quien guarda el valor pueda modificarlo en sitio sin pisarse con una carga.
+ */
+public final class SingleFlight<T> {
+
+    private long generation;
+    private Mono<T> inFlight;
+
+    /**
+     * Devuelve la carga en curso o inicia una con {@code loader}. {@code store} recibe el
+     * valor solo si no hubo invalidación desde que empezó la carga.
+     */
+    public synchronized Mono<T> load(Supplier<Mono<T>> loader, Consumer<T> store) {
+        if (inFlight == null) {
+            long expected = generation;
+            inFlight = Mono.defer(loader)
+                    .doOnNext(value -> storeIfCurrent(expected, value, store))
+                    .doFinally(signal -> clearInFlight(expected))
+                    .cache();
+        }
+        return inFlight;
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        inFlight = null;
+    }
+
+    /** Corre {@code action} con el lock de las cargas; puede llamar a {@link #invalidate()}. */
+    public synchronized void mutate(Runnable action) {
+        action.run();
+    }
+
+    private synchronized void storeIfCurrent(long expected, T value, Consumer<T> store) {
+        if (generation == expected) {
+            store.accept(value);
+        }
+    }
+
+    private synchronized void clearInFlight(long expected) {
+        if (generation == expected) {
+            inFlight = null;
+        }
+    }
+}
@@ -1,75 +1,221 @@
 package co.turismo.r2dbc.notification;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.notification.AppNotification;
 import co.turismo.model.notification.gateways.AppNotificationGateway;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.r2dbc.spi.Row;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Repository
-@RequiredArgsConstructor
-public class AppNotificationRepositoryAdapter implements AppNotificationGateway {
+public class AppNotificationRepositoryAdapter implements AppNotificationGateway, DisposableBean {
+
+    private static final String INSERT_SQL = """
+                INSERT INTO notifications (
+                    recipient_email,
+                    type,
+                    title,
+                    message,
+                    reservation_id,
+                    agency_id,
+                    read,
+                    created_at
+                )
+                VALUES (
+                    :recipientEmail,
+                    :type,
+                    :title,
+                    :message,
+                    :reservationId,
+                    :agencyId,
+                    COALESCE(:read, FALSE),
+                    NOW()
+                )
+                RETURNING id, recipient_email, type, title, message, reservation_id, agency_id, read, created_at
+            """;
+
+    /**
+     * Varias notificaciones en un solo INSERT a partir de arreglos paralelos ({@code unnest}),
+     * en lugar de un round-trip por destinatario.
+     */
+    private static final String INSERT_BATCH_SQL = """
+                INSERT INTO notifications (
+                    recipient_email,
+                    type,
+                    title,
+                    message,
+                    reservation_id,
+                    agency_id,
+                    read,
+                    created_at
+                )
+                SELECT t.recipient_email, t.type, t.title, t.message, t.reservation_id, t.agency_id, t.read, NOW()
+                FROM unnest(
+                    :recipientEmails::varchar[],
+                    :types::varchar[],
+                    :titles::varchar[],
+                    :messages::text[],
+                    :reservationIds::varchar[],
+                    :agencyIds::bigint[],
+                    :reads::boolean[]
+                ) AS t(recipient_email, type, title, message, reservation_id, agency_id, read)
+                RETURNING id, recipient_email, type, title, message, reservation_id, agency_id, read, created_at
+            """;
+
+    private static final String INSERT_AND_NOTIFY_SQL = withNotify(INSERT_SQL);
+    private static final String INSERT_BATCH_AND_NOTIFY_SQL = withNotify(INSERT_BATCH_SQL);
+
+    /** Filas por sentencia en {@link #saveAll}; acota el tamaño de los arreglos enlazados. */
+    private static final int BATCH_SIZE = 500;
+
+    /** Elementos que se guardan por suscriptor lento antes de descartar los más viejos. */
+    private static final int STREAM_BUFFER_SIZE = 256;
 
     private final DatabaseClient db;
-    private final Map<String, Sinks.Many<AppNotification>> streams = new ConcurrentHashMap<>();
+    private final NotificationFanoutChannel fanoutChannel;
+    private final Map<String, RecipientStream> streams = new ConcurrentHashMap<>();
+    private volatile Disposable listener;
+
+    public AppNotificationRepositoryAdapter(DatabaseClient db,
+                                            NotificationFanoutChannel fanoutChannel,
+                                            MeterRegistry meterRegistry) {
+        this.db = db;
+        this.fanoutChannel = fanoutChannel;
+        Gauge.builder("notifications.stream.sinks", streams, Map::size)
+                .description("Destinatarios con al menos un stream SSE abierto en este nodo")
+                .register(meterRegistry);
+        Gauge.builder("notifications.stream.subscribers", streams,
+                        map -> map.values().stream().mapToInt(stream -> stream.subscribers().get()).sum())
+                .description("Streams SSE de notificaciones abiertos en este nodo")
+                .register(meterRegistry);
+    }
 
     @Override
     public Mono<AppNotification> save(AppNotification notification) {
-        return db.sql("""
-                    INSERT INTO notifications (
-                        recipient_email,
-                        type,
-                        title,
-                        message,
-                        reservation_id,
-                        agency_id,
-                        read,
-                        created_at
-                    )
-                    VALUES (
-                        :recipientEmail,
-                        :type,
-                        :title,
-                        :message,
-                        :reservationId,
-                        :agencyId,
-                        COALESCE(:read, FALSE),
-                        NOW()
-                    )
-                    RETURNING id, recipient_email, type, title, message, reservation_id, agency_id, read, created_at
-                """)
+        boolean fanout = fanoutChannel.isEnabled();
+        DatabaseClient.GenericExecuteSpec spec = db.sql(fanout ? INSERT_AND_NOTIFY_SQL : INSERT_SQL)
                 .bind("recipientEmail", notification.getRecipientEmail())
                 .bind("type", notification.getType())
                 .bind("title", notification.getTitle())
                 .bind("message", notification.getMessage())
                 .bind("read", Boolean.TRUE.equals(notification.getRead()))
                 .bind("reservationId", notification.getReservationId())
-                .bind("agencyId", notification.getAgencyId())
+                .bind("agencyId", notification.getAgencyId());
+        if (fanout) {
+            spec = spec.bind("channel", fanoutChannel.channel())
+                    .bind("maxPayload", NotificationFanoutChannel.MAX_PAYLOAD_BYTES);
+        }
+        Mono<AppNotification> saved = spec
+                .map((row, metadata) -> toNotification(row))
+                .one();
+        // Con fan-out la entrega a los streams (incluidos los de este nodo) llega por LISTEN
+        return fanout ? saved : saved.doOnNext(this::emit);
+    }
+
+    @Override
+    public Flux<AppNotification> saveAll(List<AppNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(notifications)
+                .buffer(BATCH_SIZE)
+                .concatMap(this::insertBatch);
+    }
+
+    private Flux<AppNotification> insertBatch(List<AppNotification> batch) {
+        int size = batch.size();
+        String[] recipientEmails = new String[size];
+        String[] types = new String[size];
+        String[] titles = new String[size];
+        String[] messages = new String[size];
+        String[] reservationIds = new String[size];
+        Long[] agencyIds = new Long[size];
+        Boolean[] reads = new Boolean[size];
+        for (int i = 0; i < size; i++) {
+            AppNotification n = batch.get(i);
+            recipientEmails[i] = n.getRecipientEmail();
+            types[i] = n.getType();
+            titles[i] = n.getTitle();
+            messages[i] = n.getMessage();
+            reservationIds[i] = n.getReservationId();
+            agencyIds[i] = n.getAgencyId();
+            reads[i] = Boolean.TRUE.equals(n.getRead());
+        }
+        boolean fanout = fanoutChannel.isEnabled();
+        DatabaseClient.GenericExecuteSpec spec = db.sql(fanout ? INSERT_BATCH_AND_NOTIFY_SQL : INSERT_BATCH_SQL)
+                .bind("recipientEmails", recipientEmails)
+                .bind("types", types)
+                .bind("titles", titles)
+                .bind("messages", messages)
+                .bind("reservationIds", reservationIds)
+                .bind("agencyIds", agencyIds)
+                .bind("reads", reads);
+        if (fanout) {
+            spec = spec.bind("channel", fanoutChannel.channel())
+                    .bind("maxPayload", NotificationFanoutChannel.MAX_PAYLOAD_BYTES);
+        }
+        Flux<AppNotification> saved = spec
                 .map((row, metadata) -> toNotification(row))
-                .one()
-                .doOnNext(this::emit);
+                .all();
+        return fanout ? saved : saved.doOnNext(this::emit);
     }
 
     @Override
     public Flux<AppNotification> findByRecipientEmail(String recipientEmail, boolean unreadOnly, int limit, int offset) {
+        return findByRecipientEmail(recipientEmail, unreadOnly, null, limit, offset);
+    }
+
+    @Override
+    public Flux<AppNotification> findByRecipientEmailAfter(
+            String recipientEmail,
+            boolean unreadOnly,
+            PageCursor after,
+            int limit
+    ) {
+        return findByRecipientEmail(recipientEmail, unreadOnly, after, limit, 0);
+    }
+
+    private Flux<AppNotification> findByRecipientEmail(
+            String recipientEmail,
+            boolean unreadOnly,
+            PageCursor after,
+            int limit,
+            int offset
+    ) {
         String sql = """
                     SELECT id, recipient_email, type, title, message, reservation_id, agency_id, read, created_at
                     FROM notifications
                     WHERE recipient_email = :recipientEmail
                       AND (:unreadOnly = FALSE OR read = FALSE)
+                """ + (after == null ? "" : "  AND (created_at, id) < (:afterCreatedAt, :afterId)\n") + """
                     ORDER BY created_at DESC, id DESC
                     LIMIT :limit OFFSET :offset
                 """;
 
-        return db.sql(sql)
+        DatabaseClient.GenericExecuteSpec spec = db.sql(sql);
+        if (after != null) {
+            spec = spec.bind("afterCreatedAt", after.createdAtUtc())
+                    .bind("afterId", after.longId());
+        }
+        return spec
                 .bind("recipientEmail", recipientEmail)
                 .bind("unreadOnly", unreadOnly)
                 .bind("limit", limit)
@@ -78,9 +224,75 @@ public class AppNotificationRepositoryAdapter implements AppNotificationGateway
                 .all();
     }
 
+    /**
+     * Cada suscriptor tiene su propio buffer acotado: un cliente lento pierde sus
+     * notificaciones más viejas en vez de frenar la emisión a los demás.
+     * <p>
+     * El sink del destinatario se crea con el primer suscriptor y se elimina cuando se
+     * cancela el último; altas y bajas pasan por {@code compute} para que un suscriptor
+     * nuevo nunca quede colgado de un sink ya retirado.
+     */
     @Override
     public Flux<AppNotification> streamByRecipientEmail(String recipientEmail) {
-        return sinkFor(recipientEmail).asFlux();
+        return Flux.defer(() -> {
+            RecipientStream stream = streams.compute(recipientEmail, (key, current) -> {
+                RecipientStream next = current != null ? current : new RecipientStream();
+                next.subscribers().incrementAndGet();
+                return next;
+            });
+            return stream.sink().asFlux()
+                    .onBackpressureBuffer(STREAM_BUFFER_SIZE,
+                            dropped -> log.debug("Stream de {} lento, se descarta notificación {}",
+                                    recipientEmail, dropped.getId()),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> release(recipientEmail, stream));
+        });
+    }
+
+    private void release(String recipientEmail, RecipientStream stream) {
+        streams.computeIfPresent(recipientEmail, (key, current) ->
+                current == stream && current.subscribers().decrementAndGet() <= 0 ? null : current);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFanout() {
+        if (fanoutChannel.isEnabled() && listener == null) {
+            listener = fanoutChannel.listen(this::onFanout);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private void onFanout(NotificationFanoutChannel.Message message) {
+        if (!streams.containsKey(message.recipientEmail())) {
+            return;
+        }
+        if (message.notification() != null) {
+            emit(message.notification());
+            return;
+        }
+        findById(message.id(), message.recipientEmail())
+                .subscribe(this::emit, e -> log.warn("No se pudo releer notificación {}: {}",
+                        message.id(), e.getMessage()));
+    }
+
+    private Mono<AppNotification> findById(Long id, String recipientEmail) {
+        return db.sql("""
+                    SELECT id, recipient_email, type, title, message, reservation_id, agency_id, read, created_at
+                    FROM notifications
+                    WHERE id = :id
+                      AND recipient_email = :recipientEmail
+                """)
+                .bind("id", id)
+                .bind("recipientEmail", recipientEmail)
+                .map((row, metadata) -> toNotification(row))
+                .one();
     }
 
     @Override
@@ -111,14 +323,58 @@ public class AppNotificationRepositoryAdapter implements AppNotificationGateway
                 .rowsUpdated();
     }
 
+    /** Solo entrega si el destinatario tiene un stream abierto en este nodo. */
     private void emit(AppNotification notification) {
-        sinkFor(notification.getRecipientEmail()).tryEmitNext(notification);
+        RecipientStream stream = streams.get(notification.getRecipientEmail());
+        if (stream == null) {
+            return;
+        }
+        // El listener y las relecturas pueden emitir desde hilos distintos
+        synchronized (stream) {
+            stream.sink().tryEmitNext(notification);
+        }
+    }
+
+    private record RecipientStream(Sinks.Many<AppNotification> sink, AtomicInteger subscribers) {
+        RecipientStream() {
+            this(Sinks.many().multicast().directBestEffort(), new AtomicInteger());
+        }
     }
 
-    private Sinks.Many<AppNotification> sinkFor(String recipientEmail) {
-        return streams.computeIfAbsent(
-                recipientEmail,
-                key -> Sinks.many().multicast().directBestEffort());
+    /**
+     * El INSERT dado más el NOTIFY por fila al canal de fan-out; NOTIFY se entrega al hacer commit.
+     * Si la notificación completa no cabe en el payload se envían solo id y destinatario.
+     */
+    private static String withNotify(String insertSql) {
+        return """
+                WITH ins AS (
+                """ + insertSql + """
+                ),
+                payload AS (
+                    SELECT ins.*,
+                           json_build_object(
+                               'id', ins.id,
+                               'recipientEmail', ins.recipient_email,
+                               'type', ins.type,
+                               'title', ins.title,
+                               'message', ins.message,
+                               'reservationId', ins.reservation_id,
+                               'agencyId', ins.agency_id,
+                               'read', ins.read,
+                               'createdAt', ins.created_at
+                           )::text AS full_payload
+                    FROM ins
+                )
+                SELECT p.id, p.recipient_email, p.type, p.title, p.message,
+                       p.reservation_id, p.agency_id, p.read, p.created_at
+                FROM payload p,
+                     LATERAL (
+                         SELECT pg_notify(:channel, CASE
+                             WHEN octet_length(p.full_payload) <= :maxPayload THEN p.full_payload
+                             ELSE json_build_object('id', p.id, 'recipientEmail', p.recipient_email)::text
+                         END)
+                     ) n
+            """;
     }
 
     private AppNotification toNotification(Row row) {
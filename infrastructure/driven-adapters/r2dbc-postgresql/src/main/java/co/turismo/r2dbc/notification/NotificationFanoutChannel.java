@@ -0,0 +1,109 @@
+package co.turismo.r2dbc.notification;
+
+import co.turismo.model.notification.AppNotification;
+import co.turismo.r2dbc.helper.PostgresChannels;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+import java.time.OffsetDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Canal Postgres LISTEN/NOTIFY que reparte las notificaciones guardadas a todas las
+ * réplicas, para que un stream SSE abierto en cualquier nodo reciba lo que se guardó
+ * en otro. Deshabilitado si {@code turismo.notifications.fanout.channel} está vacío.
+ * <p>
+ * El NOTIFY se emite dentro del mismo INSERT (ver {@code AppNotificationRepositoryAdapter}),
+ * así solo se entrega lo que hizo commit. El payload lleva la notificación completa; si
+ * supera el límite de NOTIFY solo lleva id y destinatario y el receptor la relee.
+ */
+@Slf4j
+@Component
+public class NotificationFanoutChannel {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** Por debajo de los 8000 bytes que admite NOTIFY. */
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+
+    public NotificationFanoutChannel(
+            ConnectionFactory connectionFactory,
+            @Value("${turismo.notifications.fanout.channel:app_notifications}") String channel) {
+        this.connectionFactory = connectionFactory;
+        this.channel = PostgresChannels.channelName(channel, "notificaciones");
+    }
+
+    public boolean isEnabled() {
+        return !channel.isEmpty();
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    /**
+     * Mantiene una conexión dedicada escuchando el canal y reconecta con backoff si se cae.
+     * Lo publicado mientras no hay conexión no se reenvía; el cliente lo ve al paginar.
+     */
+    public Disposable listen(Consumer<Message> onMessage) {
+        return PostgresChannels.listen(connectionFactory, channel)
+                .subscribe(payload -> {
+                    Message message = parse(payload);
+                    if (message != null) {
+                        onMessage.accept(message);
+                    }
+                });
+    }
+
+    /**
+     * Notificación recibida por el canal. {@code notification} es {@code null} cuando el
+     * payload solo traía id y destinatario.
+     */
+    public record Message(Long id, String recipientEmail, AppNotification notification) {}
+
+    static Message parse(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            JsonNode node = JSON.readTree(payload);
+            Long id = node.path("id").isNumber() ? node.get("id").asLong() : null;
+            String recipient = text(node, "recipientEmail");
+            if (id == null || recipient == null) {
+                return null;
+            }
+            if (!node.has("createdAt")) {
+                return new Message(id, recipient, null);
+            }
+            String createdAt = text(node, "createdAt");
+            AppNotification notification = AppNotification.builder()
+                    .id(id)
+                    .recipientEmail(recipient)
+                    .type(text(node, "type"))
+                    .title(text(node, "title"))
+                    .message(text(node, "message"))
+                    .reservationId(text(node, "reservationId"))
+                    .agencyId(node.path("agencyId").isNumber() ? node.get("agencyId").asLong() : null)
+                    .read(node.path("read").asBoolean(false))
+                    .createdAt(createdAt != null ? OffsetDateTime.parse(createdAt) : null)
+                    .build();
+            return new Message(id, recipient, notification);
+        } catch (Exception e) {
+            log.warn("Payload de notificación inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
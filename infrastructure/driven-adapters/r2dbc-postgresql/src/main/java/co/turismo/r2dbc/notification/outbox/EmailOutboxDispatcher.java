@@ -0,0 +1,194 @@
+package co.turismo.r2dbc.notification.outbox;
+
+import co.turismo.model.notification.EmailMessage;
+import co.turismo.model.notification.OutboxEmail;
+import co.turismo.model.notification.gateways.EmailDeliveryGateway;
+import co.turismo.model.notification.gateways.EmailOutboxGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Job que vacía {@code email_outbox}. Cada {@code poll-interval} toma hasta
+ * {@code batch-size} correos, los agrupa de a {@code chunk-size} por llamada a Brevo y
+ * mantiene como máximo {@code concurrency} llamadas en vuelo. Si el lote venía lleno
+ * sigue drenando sin esperar al siguiente tick.
+ * <p>
+ * Un fallo reprograma el correo con backoff exponencial ({@code base-backoff} · 2^(n-1),
+ * tope {@code max-backoff}) hasta {@code max-attempts}, y ahí queda en {@code dead}. Los
+ * reintentos se envían de a uno para que un destinatario inválido no tumbe a los demás
+ * del lote. Cada llamada al proveedor se corta a la mitad de {@code lease} y cuenta como
+ * intento fallido, así un envío colgado no deja que otra réplica retome el lote mientras
+ * sigue en vuelo. La entrega es al-menos-una-vez: si la réplica muere tras enviar y antes
+ * de marcar, el correo se reenvía cuando vence {@code lease}.
+ * <p>
+ * Cada {@code purge-interval} borra, en tandas, las filas enviadas o descartadas con más
+ * de {@code retention}; su cuerpo ya se vació al marcarlas.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher implements DisposableBean {
+
+    static final int PURGE_BATCH = 1000;
+
+    private final EmailOutboxGateway outbox;
+    private final EmailDeliveryGateway delivery;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration deliveryTimeout;
+    private final Duration retention;
+    private final Duration purgeInterval;
+
+    private volatile Disposable ticker;
+    private volatile Disposable purger;
+
+    @Autowired
+    public EmailOutboxDispatcher(
+            EmailOutboxGateway outbox,
+            EmailDeliveryGateway delivery,
+            @Value("${turismo.email.outbox.enabled:true}") boolean enabled,
+            @Value("${turismo.email.outbox.poll-interval:2s}") Duration pollInterval,
+            @Value("${turismo.email.outbox.batch-size:200}") int batchSize,
+            @Value("${turismo.email.outbox.chunk-size:50}") int chunkSize,
+            @Value("${turismo.email.outbox.concurrency:4}") int concurrency,
+            @Value("${turismo.email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${turismo.email.outbox.base-backoff:30s}") Duration baseBackoff,
+            @Value("${turismo.email.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${turismo.email.outbox.lease:5m}") Duration lease,
+            @Value("${turismo.email.outbox.retention:7d}") Duration retention,
+            @Value("${turismo.email.outbox.purge-interval:1h}") Duration purgeInterval) {
+        this.outbox = outbox;
+        this.delivery = delivery;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = Math.max(1, batchSize);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.deliveryTimeout = lease.dividedBy(2);
+        this.retention = retention;
+        this.purgeInterval = purgeInterval;
+    }
+
+    /** Procesa un lote; emite cuántos correos tomó (enviados o reprogramados). */
+    public Mono<Integer> dispatchOnce() {
+        return outbox.claimBatch(batchSize, lease)
+                .collectList()
+                .flatMap(claimed -> {
+                    if (claimed.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    List<OutboxEmail> fresh = claimed.stream().filter(e -> e.attempts() <= 1).toList();
+                    List<OutboxEmail> retries = claimed.stream().filter(e -> e.attempts() > 1).toList();
+                    return Flux.concat(
+                                    Flux.fromIterable(fresh).buffer(chunkSize),
+                                    Flux.fromIterable(retries).map(List::of))
+                            .flatMap(this::deliver, concurrency)
+                            .then(Mono.just(claimed.size()));
+                });
+    }
+
+    /** Drena mientras los lotes vengan llenos. */
+    public Mono<Void> drain() {
+        return dispatchOnce()
+                .expand(taken -> taken >= batchSize ? dispatchOnce() : Mono.empty())
+                .then();
+    }
+
+    /** Borra en tandas las filas terminadas fuera de la retención; emite cuántas borró. */
+    public Mono<Long> purge() {
+        return outbox.purgeFinished(retention, PURGE_BATCH)
+                .expand(deleted -> deleted >= PURGE_BATCH ? outbox.purgeFinished(retention, PURGE_BATCH) : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || ticker != null) {
+            return;
+        }
+        ticker = Flux.interval(pollInterval)
+                .onBackpressureDrop()
+                .concatMap(t -> drain()
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo procesar el outbox de correos: {}", e.toString());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+        purger = Flux.interval(purgeInterval)
+                .onBackpressureDrop()
+                .concatMap(t -> purge()
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo purgar el outbox de correos: {}", e.toString());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        for (Disposable current : new Disposable[]{ticker, purger}) {
+            if (current != null) {
+                current.dispose();
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = baseBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private Mono<Void> deliver(List<OutboxEmail> chunk) {
+        List<EmailMessage> messages = chunk.stream().map(OutboxEmail::message).toList();
+        List<Long> ids = chunk.stream().map(OutboxEmail::id).toList();
+        return delivery.deliverBatch(messages)
+                .timeout(deliveryTimeout, Mono.error(() -> new TimeoutException(
+                        "El proveedor no respondió en " + deliveryTimeout)))
+                .thenReturn(true)
+                .onErrorResume(e -> Flux.fromIterable(chunk)
+                        .concatMap(email -> fail(email, e))
+                        .then(Mono.just(false)))
+                .flatMap(sent -> sent ? outbox.markSent(ids) : Mono.<Void>empty())
+                // Sin marcar, las filas vuelven a estar disponibles al vencer el lease
+                .onErrorResume(e -> {
+                    log.warn("No se pudo actualizar el outbox para los correos {}: {}", ids, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> fail(OutboxEmail email, Throwable error) {
+        String reason = error.getMessage() != null ? error.getMessage() : error.toString();
+        if (email.attempts() >= maxAttempts) {
+            log.error("Correo {} a {} descartado tras {} intentos: {}",
+                    email.id(), email.message().to(), email.attempts(), reason);
+            return outbox.markDead(email.id(), reason);
+        }
+        Duration delay = backoff(email.attempts());
+        log.warn("Correo {} a {} falló (intento {}), se reintenta en {}: {}",
+                email.id(), email.message().to(), email.attempts(), delay, reason);
+        return outbox.reschedule(email.id(), delay, reason);
+    }
+}
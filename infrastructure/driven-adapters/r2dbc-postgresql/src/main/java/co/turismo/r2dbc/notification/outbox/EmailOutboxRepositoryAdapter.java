@@ -0,0 +1,151 @@
+package co.turismo.r2dbc.notification.outbox;
+
+import co.turismo.model.notification.EmailMessage;
+import co.turismo.model.notification.OutboxEmail;
+import co.turismo.model.notification.gateways.EmailGateway;
+import co.turismo.model.notification.gateways.EmailOutboxGateway;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link EmailGateway} respaldado por la tabla {@code email_outbox}: {@code sendEmail} solo
+ * inserta la fila, con la conexión de la transacción del llamador si hay una activa, y
+ * {@link EmailOutboxDispatcher} la entrega después. Ver {@code V18__email_outbox.sql}.
+ * <p>
+ * El cuerpo puede llevar tokens de verificación o recuperación, así que se borra al marcar
+ * el correo como enviado o descartado (V21) y las filas terminadas se purgan después.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxRepositoryAdapter implements EmailGateway, EmailOutboxGateway {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ENQUEUE_SQL = """
+        INSERT INTO email_outbox (recipient, subject, html_body)
+        VALUES (:recipient, :subject, :htmlBody)
+    """;
+
+    private static final String CLAIM_SQL = """
+        UPDATE email_outbox o
+           SET locked_until = now() + make_interval(secs => :leaseSeconds),
+               attempts = o.attempts + 1
+         WHERE o.id IN (
+                SELECT id
+                  FROM email_outbox
+                 WHERE status = 'pending'
+                   AND next_attempt_at <= now()
+                   AND (locked_until IS NULL OR locked_until < now())
+                 ORDER BY next_attempt_at, id
+                 LIMIT :size
+                 FOR UPDATE SKIP LOCKED
+               )
+        RETURNING o.id, o.recipient, o.subject, o.html_body, o.attempts
+    """;
+
+    private static final String MARK_SENT_SQL = """
+        UPDATE email_outbox
+           SET status = 'sent', sent_at = now(), locked_until = NULL, last_error = NULL,
+               html_body = NULL
+         WHERE id = ANY(:ids)
+    """;
+
+    private static final String RESCHEDULE_SQL = """
+        UPDATE email_outbox
+           SET next_attempt_at = now() + make_interval(secs => :delaySeconds),
+               locked_until = NULL,
+               last_error = :error
+         WHERE id = :id
+    """;
+
+    private static final String MARK_DEAD_SQL = """
+        UPDATE email_outbox
+           SET status = 'dead', locked_until = NULL, last_error = :error, html_body = NULL
+         WHERE id = :id
+    """;
+
+    private static final String PURGE_SQL = """
+        DELETE FROM email_outbox
+         WHERE id IN (
+                SELECT id
+                  FROM email_outbox
+                 WHERE status IN ('sent', 'dead')
+                   AND COALESCE(sent_at, created_at) < now() - make_interval(secs => :retentionSeconds)
+                 ORDER BY COALESCE(sent_at, created_at), id
+                 LIMIT :limit
+               )
+    """;
+
+    private final DatabaseClient db;
+
+    @Override
+    public Mono<Void> sendEmail(EmailMessage message) {
+        return db.sql(ENQUEUE_SQL)
+                .bind("recipient", message.to())
+                .bind("subject", message.subject())
+                .bind("htmlBody", message.htmlBody())
+                .then();
+    }
+
+    @Override
+    public Flux<OutboxEmail> claimBatch(int size, Duration lease) {
+        return db.sql(CLAIM_SQL)
+                .bind("leaseSeconds", (double) lease.toSeconds())
+                .bind("size", size)
+                .map((row, metadata) -> new OutboxEmail(
+                        row.get("id", Long.class),
+                        new EmailMessage(
+                                row.get("recipient", String.class),
+                                row.get("subject", String.class),
+                                row.get("html_body", String.class)),
+                        row.get("attempts", Integer.class)))
+                .all();
+    }
+
+    @Override
+    public Mono<Void> markSent(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return db.sql(MARK_SENT_SQL)
+                .bind("ids", ids.toArray(Long[]::new))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> reschedule(Long id, Duration delay, String error) {
+        return db.sql(RESCHEDULE_SQL)
+                .bind("id", id)
+                .bind("delaySeconds", (double) delay.toSeconds())
+                .bind("error", truncate(error))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> markDead(Long id, String error) {
+        return db.sql(MARK_DEAD_SQL)
+                .bind("id", id)
+                .bind("error", truncate(error))
+                .then();
+    }
+
+    @Override
+    public Mono<Long> purgeFinished(Duration retention, int limit) {
+        return db.sql(PURGE_SQL)
+                .bind("retentionSeconds", (double) retention.toSeconds())
+                .bind("limit", limit)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String truncate(String error) {
+        String value = error == null ? "desconocido" : error;
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,7 +1,6 @@
 package co.turismo.r2dbc.payment;
 
 import co.turismo.model.payment.PaymentProvider;
-import co.turismo.model.payment.PaymentStatus;
 import co.turismo.model.payment.PaymentTransaction;
 import co.turismo.model.payment.gateways.PaymentTransactionRepository;
 import io.r2dbc.spi.Row;
@@ -116,43 +115,6 @@ public class PaymentTransactionRepositoryAdapter implements PaymentTransactionRe
                 .one();
     }
 
-    @Override
-    public Mono<Boolean> existsBlockingWompiTransaction(String reservationId, OffsetDateTime now) {
-        return db.sql("""
-                SELECT EXISTS (
-                    SELECT 1
-                    FROM payment_transactions
-                    WHERE reservation_id = :reservationId
-                      AND provider = :provider
-                      AND status IN ('checkout_created', 'processing')
-                      AND (expires_at IS NULL OR expires_at > :now)
-                ) AS exists
-                """)
-                .bind("reservationId", reservationId)
-                .bind("provider", PaymentProvider.WOMPI)
-                .bind("now", now)
-                .map((row, metadata) -> Boolean.TRUE.equals(row.get("exists", Boolean.class)))
-                .one();
-    }
-
-    @Override
-    public Mono<Boolean> existsPaidWompiTransaction(String reservationId) {
-        return db.sql("""
-                SELECT EXISTS (
-                    SELECT 1
-                    FROM payment_transactions
-                    WHERE reservation_id = :reservationId
-                      AND provider = :provider
-                      AND status = :status
-                ) AS exists
-                """)
-                .bind("reservationId", reservationId)
-                .bind("provider", PaymentProvider.WOMPI)
-                .bind("status", PaymentStatus.PAID)
-                .map((row, metadata) -> Boolean.TRUE.equals(row.get("exists", Boolean.class)))
-                .one();
-    }
-
     @Override
     public Mono<PaymentTransaction> updateProviderResult(
             String reference,
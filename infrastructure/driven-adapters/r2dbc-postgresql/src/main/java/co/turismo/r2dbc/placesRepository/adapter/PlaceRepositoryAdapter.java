@@ -1,12 +1,14 @@
 package co.turismo.r2dbc.placesRepository.adapter;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.place.CreatePlaceRequest;
 import co.turismo.model.place.Place;
 import co.turismo.model.place.UpdatePlaceRequest;
 import co.turismo.model.place.gateways.PlaceRepository;
-import co.turismo.model.user.gateways.UserRepository;
+import co.turismo.model.userIdentityPort.UserIdentityPort;
 import co.turismo.r2dbc.helper.ReactiveAdapterOperations;
 import co.turismo.r2dbc.placesRepository.entity.PlaceData;
+import co.turismo.r2dbc.placesRepository.index.PlaceGeoIndex;
 import co.turismo.r2dbc.placesRepository.repository.PlaceAdapterRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivecommons.utils.ObjectMapper;
@@ -20,28 +22,31 @@ import reactor.core.publisher.Mono;
 public class PlaceRepositoryAdapter extends ReactiveAdapterOperations<Place, PlaceData, Long, PlaceAdapterRepository>
         implements PlaceRepository {
 
-    private final UserRepository userRepository;
+    private final UserIdentityPort userIdentityPort;
+    private final PlaceGeoIndex geoIndex;
 
     protected PlaceRepositoryAdapter(
             PlaceAdapterRepository repository,
             ObjectMapper mapper,
-            UserRepository userRepository
+            UserIdentityPort userIdentityPort,
+            PlaceGeoIndex geoIndex
     ) {
         super(repository, mapper, data -> mapper.map(data, Place.class));
-        this.userRepository = userRepository;
+        this.userIdentityPort = userIdentityPort;
+        this.geoIndex = geoIndex;
     }
 
 
     @Override
     public Mono<Place> create(CreatePlaceRequest request) {
-        return userRepository.findByEmail(request.getOwnerEmail())
+        return userIdentityPort.getUserIdForEmail(request.getOwnerEmail())
                 .switchIfEmpty(Mono.error(new RuntimeException("Owner no encontrado: " + request.getOwnerEmail())))
                 .flatMap(user -> {
-                    if (user.getId() == null) {
+                    if (user.id() == null) {
                         return Mono.error(new RuntimeException("Owner encontrado pero con id NULL (revisa mapping de UserRepository)"));
                     }
                     return repository.insertPlace(
-                            user.getId(),
+                            user.id(),
                             request.getName(),
                             request.getDescription(),
                             request.getCategoryId(),
@@ -55,13 +60,20 @@ public class PlaceRepositoryAdapter extends ReactiveAdapterOperations<Place, Pla
                             request.getServices() == null ? new String[0] : request.getServices()
                     );
                 })
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(geoIndex::upsert);
     }
 
     @Override
     public Flux<Place> findNearby(double lat, double lng, double radiusMeters, Long categoryId, Integer limit, Integer offset) {
-        return repository.findNearby(lat, lng, radiusMeters, categoryId,  limit != null ? limit : 10,
-                        offset != null ? offset : 0)
+        int effectiveLimit = limit != null ? limit : 10;
+        int effectiveOffset = offset != null ? offset : 0;
+        if (geoIndex.isEnabled()) {
+            return geoIndex.ensureLoaded(() -> repository.findAllActive().map(this::toEntity))
+                    .thenMany(Flux.defer(() -> Flux.fromIterable(
+                            geoIndex.findNearby(lat, lng, radiusMeters, categoryId, effectiveLimit, effectiveOffset))));
+        }
+        return repository.findNearby(lat, lng, radiusMeters, categoryId, effectiveLimit, effectiveOffset)
                 .map(this::toEntity);
     }
 
@@ -73,6 +85,12 @@ public class PlaceRepositoryAdapter extends ReactiveAdapterOperations<Place, Pla
         ).map(this::toEntity);
     }
 
+    @Override
+    public Flux<Place> findAllPlaceAfter(PageCursor after, int limit) {
+        return repository.findAllAfter(after.createdAtUtc(), after.longId(), Math.max(1, limit))
+                .map(this::toEntity);
+    }
+
     @Override
     public Flux<Place> search(String q, Long categoryId, boolean onlyNearby,
                               Double lat, Double lng, Double radiusMeters, int page, int size) {
@@ -82,6 +100,15 @@ public class PlaceRepositoryAdapter extends ReactiveAdapterOperations<Place, Pla
                 .map(this::toEntity);
     }
 
+    @Override
+    public Flux<Place> fullTextSearch(String q, Long categoryId, boolean onlyNearby,
+                                      Double lat, Double lng, Double radiusMeters, int page, int size) {
+        int limit  = Math.max(1, size);
+        int offset = Math.max(0, page) * limit;
+        return repository.fullTextSearch(q, categoryId, onlyNearby, lat, lng, radiusMeters, limit, offset)
+                .map(this::toEntity);
+    }
+
     @Override
     public Mono<Place> patch(long id, UpdatePlaceRequest req) {
         return repository.patchPlace(
@@ -99,42 +126,59 @@ public class PlaceRepositoryAdapter extends ReactiveAdapterOperations<Place, Pla
                         req.getServices()
                 )
                 .switchIfEmpty(Mono.error(new IllegalStateException("Lugar no encontrado")))
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(geoIndex::upsert);
     }
 
     @Override
     public Mono<Place> verifyPlace(long id, boolean verified, boolean active, long adminId) {
         return repository.verifyPlace(id, verified, active, adminId)
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(geoIndex::upsert);
     }
 
     @Override
     public Mono<Place> setActive(long id, boolean active) {
         return repository.setActive(id, active)
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(geoIndex::upsert);
     }
 
     @Override
     public Mono<Place> setActiveIfOwner(String ownerEmail, long placeId, boolean active) {
-        return userRepository.findByEmail(ownerEmail)
+        return userIdentityPort.getUserIdForEmail(ownerEmail)
                 .switchIfEmpty(Mono.error(new RuntimeException("Owner no encontrado")))
-                .flatMap(owner -> repository.setActiveIfOwner(placeId, active, owner.getId()))
+                .flatMap(owner -> repository.setActiveIfOwner(placeId, active, owner.id()))
                 .switchIfEmpty(Mono.error(new RuntimeException("No autorizado para este lugar")))
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(geoIndex::upsert);
     }
 
     @Override
     public Flux<Place> findPlacesByOwnerEmail(String ownerEmail, Integer limit, Integer offset) {
-        return userRepository.findByEmail(ownerEmail)
+        return userIdentityPort.getUserIdForEmail(ownerEmail)
                 .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
                 .flatMapMany(u -> repository.findByOwnerId(
-                        u.getId(),
+                        u.id(),
                         limit != null ? limit : 10,
                         offset != null ? offset : 0
                 ))
                 .map(this::toEntity);
     }
 
+    @Override
+    public Flux<Place> findPlacesByOwnerEmailAfter(String ownerEmail, PageCursor after, int limit) {
+        return userIdentityPort.getUserIdForEmail(ownerEmail)
+                .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
+                .flatMapMany(u -> repository.findByOwnerIdAfter(
+                        u.id(),
+                        after.createdAtUtc(),
+                        after.longId(),
+                        Math.max(1, limit)
+                ))
+                .map(this::toEntity);
+    }
+
     @Override
     public Flux<Place> findByIds(Long[] ids, Integer limit, Integer offset) {
         // Proteger contra null o array vacío — evita NullPointerException en Mono.just()
@@ -168,6 +212,7 @@ public class PlaceRepositoryAdapter extends ReactiveAdapterOperations<Place, Pla
     public Mono<Place> deletePalce(Long id) {
         return findById(id)
                 .switchIfEmpty(Mono.error(new RuntimeException("Palce no encontrado")))
-                .flatMap(place ->  deleteById(id).thenReturn(place));
+                .flatMap(place ->  deleteById(id).thenReturn(place))
+                .doOnNext(place -> geoIndex.remove(place.getId()));
     }
 }
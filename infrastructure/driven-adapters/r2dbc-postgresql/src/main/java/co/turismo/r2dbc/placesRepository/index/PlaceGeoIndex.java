@@ -0,0 +1,247 @@
+package co.turismo.r2dbc.placesRepository.index;
+
+import co.turismo.model.place.Place;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Índice geoespacial en memoria (grilla de celdas lat/lng agrupadas por categoría)
+ * con los lugares activos. Responde búsquedas NEARBY sin consultar PostGIS.
+ * <p>
+ * Se carga completo de forma perezosa y se recarga cada {@code refresh-interval}
+ * para recoger cambios hechos por otras réplicas; los cambios locales se aplican
+ * de forma incremental desde {@code PlaceRepositoryAdapter}.
+ */
+@Slf4j
+@Component
+public class PlaceGeoIndex {
+
+    /** Mismo radio que usa ST_DistanceSphere, para conservar el orden de resultados. */
+    static final double EARTH_RADIUS_METERS = 6_370_986.0;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final long NO_CATEGORY = Long.MIN_VALUE;
+    private static final int MAX_CELLS_PER_QUERY = 400;
+
+    private final boolean enabled;
+    private final double cellSizeDegrees;
+    private final Duration refreshInterval;
+
+    private volatile Grid grid;
+    private volatile boolean loading;
+    private final Map<Long, Optional<Place>> writesDuringLoad = new ConcurrentHashMap<>();
+    private volatile Mono<Void> ready;
+
+    public PlaceGeoIndex(
+            @Value("${turismo.places.nearby-index.enabled:false}") boolean enabled,
+            @Value("${turismo.places.nearby-index.cell-size-degrees:0.05}") double cellSizeDegrees,
+            @Value("${turismo.places.nearby-index.refresh-interval:5m}") Duration refreshInterval) {
+        this.enabled = enabled;
+        this.cellSizeDegrees = cellSizeDegrees > 0 ? cellSizeDegrees : 0.05;
+        this.refreshInterval = refreshInterval;
+        this.grid = new Grid(this.cellSizeDegrees);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Garantiza que el índice esté cargado. El loader solo se invoca en la primera
+     * llamada y cuando vence el intervalo de refresco; si falla, el siguiente
+     * llamado reintenta.
+     */
+    public Mono<Void> ensureLoaded(Supplier<Flux<Place>> loader) {
+        Mono<Void> current = ready;
+        if (current == null) {
+            synchronized (this) {
+                if (ready == null) {
+                    ready = Mono.defer(() -> load(loader.get()))
+                            .cache(v -> refreshInterval, e -> Duration.ZERO, () -> refreshInterval);
+                }
+                current = ready;
+            }
+        }
+        return current;
+    }
+
+    private Mono<Void> load(Flux<Place> rows) {
+        beginLoad();
+        return rows.collectList()
+                .doOnNext(this::replaceAll)
+                .doOnError(e -> {
+                    loading = false;
+                    writesDuringLoad.clear();
+                    log.warn("No se pudo cargar el índice geoespacial de lugares: {}", e.getMessage());
+                })
+                .then();
+    }
+
+    synchronized void beginLoad() {
+        loading = true;
+        writesDuringLoad.clear();
+    }
+
+    synchronized void replaceAll(List<Place> rows) {
+        Grid next = new Grid(cellSizeDegrees);
+        rows.forEach(next::put);
+        // Las escrituras concurrentes con la carga ganan sobre la foto leída de la BD
+        writesDuringLoad.forEach((id, place) -> {
+            next.remove(id);
+            place.ifPresent(next::put);
+        });
+        writesDuringLoad.clear();
+        loading = false;
+        grid = next;
+        log.debug("Índice geoespacial de lugares cargado con {} lugares activos", next.size());
+    }
+
+    public synchronized void upsert(Place place) {
+        if (!enabled || place == null || place.getId() == null) return;
+        grid.remove(place.getId());
+        boolean indexable = Boolean.TRUE.equals(place.getIsActive())
+                && place.getLat() != null && place.getLng() != null;
+        if (indexable) {
+            grid.put(place);
+        }
+        if (loading) {
+            writesDuringLoad.put(place.getId(), indexable ? Optional.of(place) : Optional.empty());
+        }
+    }
+
+    public synchronized void remove(Long placeId) {
+        if (!enabled || placeId == null) return;
+        grid.remove(placeId);
+        if (loading) {
+            writesDuringLoad.put(placeId, Optional.empty());
+        }
+    }
+
+    /**
+     * Equivalente en memoria de {@code PlaceAdapterRepository.findNearby}: filtra por
+     * radio y categoría y ordena por distancia ascendente.
+     */
+    public List<Place> findNearby(double lat, double lng, double radiusMeters, Long categoryId, int limit, int offset) {
+        Grid snapshot = grid;
+        List<Place> matches = new ArrayList<>();
+        for (Place place : snapshot.candidates(lat, lng, radiusMeters, categoryId)) {
+            double distance = distanceMeters(lat, lng, place.getLat(), place.getLng());
+            if (distance <= radiusMeters) {
+                matches.add(place.toBuilder().distanceMeters(distance).build());
+            }
+        }
+        return matches.stream()
+                .sorted(Comparator.comparingDouble(Place::getDistanceMeters))
+                .skip(Math.max(0, offset))
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    int size() {
+        return grid.size();
+    }
+
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /** Grilla mutable: categoría -> celda -> lugares; lecturas sin bloqueo. */
+    private static final class Grid {
+        private final double cellSize;
+        private final Map<Long, Place> byId = new ConcurrentHashMap<>();
+        private final Map<Long, Map<Long, Set<Place>>> byCategory = new ConcurrentHashMap<>();
+
+        Grid(double cellSize) {
+            this.cellSize = cellSize;
+        }
+
+        void put(Place place) {
+            byId.put(place.getId(), place);
+            byCategory.computeIfAbsent(categoryKey(place.getCategoryId()), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(cellKey(cell(place.getLat()), cell(place.getLng())),
+                            k -> ConcurrentHashMap.newKeySet())
+                    .add(place);
+        }
+
+        void remove(Long id) {
+            Place previous = byId.remove(id);
+            if (previous == null) return;
+            Map<Long, Set<Place>> cells = byCategory.get(categoryKey(previous.getCategoryId()));
+            if (cells == null) return;
+            long key = cellKey(cell(previous.getLat()), cell(previous.getLng()));
+            Set<Place> bucket = cells.get(key);
+            if (bucket != null) {
+                bucket.remove(previous);
+                if (bucket.isEmpty()) cells.remove(key, bucket);
+            }
+        }
+
+        int size() {
+            return byId.size();
+        }
+
+        List<Place> candidates(double lat, double lng, double radiusMeters, Long categoryId) {
+            List<Map<Long, Set<Place>>> buckets = new ArrayList<>();
+            if (categoryId != null) {
+                Map<Long, Set<Place>> cells = byCategory.get(categoryId);
+                if (cells != null) buckets.add(cells);
+            } else {
+                buckets.addAll(byCategory.values());
+            }
+
+            double latDelta = radiusMeters / METERS_PER_DEGREE;
+            double cosLat = Math.max(0.01, Math.cos(Math.toRadians(lat)));
+            double lngDelta = Math.min(180.0, radiusMeters / (METERS_PER_DEGREE * cosLat));
+            int minLat = cell(lat - latDelta);
+            int maxLat = cell(lat + latDelta);
+            int minLng = cell(lng - lngDelta);
+            int maxLng = cell(lng + lngDelta);
+            long cellCount = (long) (maxLat - minLat + 1) * (maxLng - minLng + 1);
+
+            List<Place> out = new ArrayList<>();
+            for (Map<Long, Set<Place>> cells : buckets) {
+                if (cellCount > MAX_CELLS_PER_QUERY || cellCount > cells.size()) {
+                    // Radio muy grande frente a la grilla: es más barato recorrer las celdas ocupadas
+                    cells.values().forEach(out::addAll);
+                    continue;
+                }
+                for (int i = minLat; i <= maxLat; i++) {
+                    for (int j = minLng; j <= maxLng; j++) {
+                        Set<Place> bucket = cells.get(cellKey(i, j));
+                        if (bucket != null) out.addAll(bucket);
+                    }
+                }
+            }
+            return out;
+        }
+
+        private int cell(double degrees) {
+            return (int) Math.floor(degrees / cellSize);
+        }
+
+        private static long cellKey(int latCell, int lngCell) {
+            return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+        }
+
+        private static long categoryKey(Long categoryId) {
+            return categoryId != null ? categoryId : NO_CATEGORY;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.OffsetDateTime;
+
 public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData, Long>,
     ReactiveQueryByExampleExecutor<PlaceData> {
 
@@ -85,6 +87,7 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
       @Param("limit") int limit,
       @Param("offset") int offset);
 
+  // ACTIVOS (carga del índice geoespacial en memoria)
   @Query("""
           SELECT
               p.id,
@@ -101,7 +104,28 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
               p.is_active,
               p.created_at
           FROM places p
-          ORDER BY p.created_at DESC
+          WHERE p.is_active = TRUE
+            AND p.geom IS NOT NULL
+      """)
+  Flux<PlaceData> findAllActive();
+
+  @Query("""
+          SELECT
+              p.id,
+              p.owner_user_id,
+              p.name, p.description,
+              p.category_id,
+              ST_Y(p.geom) AS lat,
+              ST_X(p.geom) AS lng,
+              p.address, p.phone, p.website,
+              p.image_urls,
+              p.model_3d_urls,
+              p.services,
+              p.is_verified,
+              p.is_active,
+              p.created_at
+          FROM places p
+          ORDER BY p.created_at DESC, p.id DESC
           LIMIT :limit
           OFFSET :offset
       """)
@@ -109,6 +133,32 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
       @Param("limit") int limit,
       @Param("offset") int offset);
 
+  // Paginación por llave (created_at, id): evita recorrer y descartar OFFSET filas
+  @Query("""
+          SELECT
+              p.id,
+              p.owner_user_id,
+              p.name, p.description,
+              p.category_id,
+              ST_Y(p.geom) AS lat,
+              ST_X(p.geom) AS lng,
+              p.address, p.phone, p.website,
+              p.image_urls,
+              p.model_3d_urls,
+              p.services,
+              p.is_verified,
+              p.is_active,
+              p.created_at
+          FROM places p
+          WHERE (p.created_at, p.id) < (:afterCreatedAt, :afterId)
+          ORDER BY p.created_at DESC, p.id DESC
+          LIMIT :limit
+      """)
+  Flux<PlaceData> findAllAfter(
+      @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+      @Param("afterId") Long afterId,
+      @Param("limit") int limit);
+
   @Query("""
           WITH inp AS (
             SELECT NULLIF(
@@ -134,11 +184,7 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
             AND (CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId)
             AND (
               (SELECT qnorm FROM inp) IS NULL
-              OR
-              regexp_replace(
-                replace(unaccent(lower(coalesce(p.name,'') || ' ' || coalesce(p.address,'') || ' ' || coalesce(p.description,''))), chr(160), ' '),
-                '\\s+', ' ', 'g'
-              ) LIKE '%' || (SELECT qnorm FROM inp) || '%'
+              OR p.search_document LIKE '%' || (SELECT qnorm FROM inp) || '%'
             )
             AND (
               :onlyNearby = FALSE
@@ -156,16 +202,7 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
               WHEN :onlyNearby = TRUE AND CAST(:lat AS FLOAT8) IS NOT NULL AND CAST(:lng AS FLOAT8) IS NOT NULL
                 THEN ST_DistanceSphere(p.geom, ST_SetSRID(ST_MakePoint(CAST(:lng AS FLOAT8), CAST(:lat AS FLOAT8)), 4326))
             END ASC NULLS LAST,
-            NULLIF(
-              position(
-                (SELECT qnorm FROM inp) IN
-                regexp_replace(
-                  replace(unaccent(lower(coalesce(p.name,'') || ' ' || coalesce(p.address,'') || ' ' || coalesce(p.description,''))), chr(160), ' '),
-                  '\\s+', ' ', 'g'
-                )
-              ),
-              0
-            ) ASC NULLS LAST,
+            NULLIF(position((SELECT qnorm FROM inp) IN p.search_document), 0) ASC NULLS LAST,
             p.created_at DESC
           LIMIT :limit
           OFFSET :offset
@@ -180,6 +217,74 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
       @Param("limit") int limit,
       @Param("offset") int offset);
 
+  // FULLTEXT: prefijos sin tildes sobre search_tsv + coincidencia parcial sobre search_document
+  @Query("""
+          WITH inp AS (
+            SELECT NULLIF(trim(places_normalize_search_text(:q)), '') AS qnorm
+          ),
+          qry AS (
+            SELECT
+              inp.qnorm,
+              (
+                SELECT to_tsquery('simple', string_agg(tok || ':*', ' & '))
+                FROM regexp_split_to_table(
+                  trim(regexp_replace(coalesce(inp.qnorm, ''), '[^a-z0-9]+', ' ', 'g')),
+                  ' '
+                ) AS tok
+                WHERE tok <> ''
+              ) AS tsq
+            FROM inp
+          )
+          SELECT
+            p.id, p.owner_user_id, p.name, p.description, p.category_id,
+            ST_Y(p.geom) AS lat, ST_X(p.geom) AS lng,
+            p.address, p.phone, p.website, p.image_urls, p.model_3d_urls, p.services, p.is_verified, p.is_active, p.created_at,
+            CASE
+              WHEN CAST(:lat AS FLOAT8) IS NOT NULL AND CAST(:lng AS FLOAT8) IS NOT NULL
+              THEN ST_DistanceSphere(p.geom, ST_SetSRID(ST_MakePoint(CAST(:lng AS FLOAT8), CAST(:lat AS FLOAT8)), 4326))
+              ELSE NULL
+            END AS distance_meters
+          FROM places p
+          CROSS JOIN qry
+          WHERE p.is_active = TRUE
+            AND (CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId)
+            AND (
+              qry.qnorm IS NULL
+              OR (qry.tsq IS NOT NULL AND p.search_tsv @@ qry.tsq)
+              OR p.search_document LIKE '%' || qry.qnorm || '%'
+            )
+            AND (
+              :onlyNearby = FALSE
+              OR (
+                CAST(:lat AS FLOAT8) IS NOT NULL AND CAST(:lng AS FLOAT8) IS NOT NULL AND CAST(:radiusMeters AS FLOAT8) IS NOT NULL
+                AND ST_DWithin(
+                  p.geom::geography,
+                  ST_SetSRID(ST_MakePoint(CAST(:lng AS FLOAT8), CAST(:lat AS FLOAT8)), 4326)::geography,
+                  CAST(:radiusMeters AS FLOAT8)
+                )
+              )
+            )
+          ORDER BY
+            CASE
+              WHEN :onlyNearby = TRUE AND CAST(:lat AS FLOAT8) IS NOT NULL AND CAST(:lng AS FLOAT8) IS NOT NULL
+                THEN ST_DistanceSphere(p.geom, ST_SetSRID(ST_MakePoint(CAST(:lng AS FLOAT8), CAST(:lat AS FLOAT8)), 4326))
+            END ASC NULLS LAST,
+            CASE WHEN qry.tsq IS NOT NULL THEN ts_rank(p.search_tsv, qry.tsq) END DESC NULLS LAST,
+            NULLIF(position(qry.qnorm IN p.search_document), 0) ASC NULLS LAST,
+            p.created_at DESC
+          LIMIT :limit
+          OFFSET :offset
+      """)
+  Flux<PlaceData> fullTextSearch(
+      @Param("q") String q,
+      @Param("categoryId") Long categoryId,
+      @Param("onlyNearby") boolean onlyNearby,
+      @Param("lat") Double lat,
+      @Param("lng") Double lng,
+      @Param("radiusMeters") Double radiusMeters,
+      @Param("limit") int limit,
+      @Param("offset") int offset);
+
   // PATCH (actualización parcial)
   @Query("""
           UPDATE places SET
@@ -360,7 +465,7 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
               p.created_at
           FROM places p
           WHERE p.owner_user_id = :ownerId
-          ORDER BY p.created_at DESC
+          ORDER BY p.created_at DESC, p.id DESC
           LIMIT :limit                -- Cantidad de registros por página
           OFFSET :offset;
       """)
@@ -369,6 +474,33 @@ public interface PlaceAdapterRepository extends ReactiveCrudRepository<PlaceData
       @Param("limit") int limit,
       @Param("offset") int offset);
 
+  @Query("""
+          SELECT
+              p.id,
+              p.owner_user_id,
+              p.name, p.description,
+              p.category_id,
+              ST_Y(p.geom) AS lat,
+              ST_X(p.geom) AS lng,
+              p.address, p.phone, p.website,
+              p.image_urls,
+              p.model_3d_urls,
+              p.services,
+              p.is_verified,
+              p.is_active,
+              p.created_at
+          FROM places p
+          WHERE p.owner_user_id = :ownerId
+            AND (p.created_at, p.id) < (:afterCreatedAt, :afterId)
+          ORDER BY p.created_at DESC, p.id DESC
+          LIMIT :limit
+      """)
+  Flux<PlaceData> findByOwnerIdAfter(
+      @Param("ownerId") Long ownerId,
+      @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+      @Param("afterId") Long afterId,
+      @Param("limit") int limit);
+
   @Query("""
           SELECT
               p.id,
@@ -23,6 +23,9 @@ public class AllPlacesStrategy implements PlaceSearchStrategy {
     @Override
     public Flux<Place> execute(PlaceSearchCriteria c) {
         int limit = (c.getSize() > 0) ? c.getSize() : 10;
+        if (c.getAfter() != null) {
+            return placeRepository.findAllPlaceAfter(c.getAfter(), limit);
+        }
         int offset = (c.getPage() > 0) ? (c.getPage() * limit) : 0;
         return placeRepository.findAllPlace(limit, offset);
     }
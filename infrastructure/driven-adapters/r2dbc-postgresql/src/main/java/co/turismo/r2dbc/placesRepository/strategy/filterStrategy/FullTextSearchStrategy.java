@@ -0,0 +1,37 @@
+package co.turismo.r2dbc.placesRepository.strategy.filterStrategy;
+
+import co.turismo.model.place.Place;
+import co.turismo.model.place.gateways.PlaceRepository;
+import co.turismo.model.place.strategy.PlaceSearchCriteria;
+import co.turismo.model.place.strategy.PlaceSearchMode;
+import co.turismo.model.place.strategy.PlaceSearchStrategy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+@Component
+public class FullTextSearchStrategy implements PlaceSearchStrategy {
+    private final PlaceRepository placeRepository;
+
+    public FullTextSearchStrategy(PlaceRepository placeRepository) {
+        this.placeRepository = placeRepository;
+    }
+
+    @Override
+    public PlaceSearchMode mode() {
+        return PlaceSearchMode.FULLTEXT;
+    }
+
+
+    @Override
+    public Flux<Place> execute(PlaceSearchCriteria c) {
+        return placeRepository.fullTextSearch(
+                c.getQ(),
+                c.getCategoryId(),
+                c.isOnlyNearby(),
+                c.getLat(),
+                c.getLng(),
+                c.getRadiusMeters(),
+                c.getPage(),
+                c.getSize());
+    }
+}
@@ -0,0 +1,97 @@
+package co.turismo.r2dbc.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Job que borra de {@code rate_limit_buckets} los buckets sin uso hace más de {@code idle}.
+ * Hay un bucket por llave (ruta + IP), así que sin purga la tabla y su índice crecen sin
+ * límite. Un bucket inactivo más que su ventana ya está lleno: borrarlo equivale a que
+ * {@code rate_limit_acquire} lo recree con la capacidad completa. Un acquire concurrente
+ * actualiza {@code refilled_at} bajo el lock de la fila y el DELETE lo salta.
+ * Ver {@code V15__rate_limit_buckets.sql}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "turismo.rate-limiter", name = "store", havingValue = "shared")
+public class RateLimitBucketPurger implements DisposableBean {
+
+    static final int PURGE_BATCH = 1000;
+
+    private static final String PURGE_SQL = """
+        DELETE FROM rate_limit_buckets
+         WHERE bucket_key IN (
+                SELECT bucket_key
+                  FROM rate_limit_buckets
+                 WHERE refilled_at < now() - make_interval(secs => :idleSeconds)
+                 ORDER BY refilled_at
+                 LIMIT :limit
+               )
+           AND refilled_at < now() - make_interval(secs => :idleSeconds)
+    """;
+
+    private final DatabaseClient db;
+    private final Duration idle;
+    private final Duration purgeInterval;
+
+    private volatile Disposable ticker;
+
+    public RateLimitBucketPurger(
+            DatabaseClient db,
+            @Value("${turismo.rate-limiter.purge.idle:1h}") Duration idle,
+            @Value("${turismo.rate-limiter.purge.interval:10m}") Duration purgeInterval) {
+        this.db = db;
+        this.idle = idle;
+        this.purgeInterval = purgeInterval;
+    }
+
+    /** Borra en tandas los buckets inactivos; emite cuántos borró. */
+    public Mono<Long> purge() {
+        return purgeBatch()
+                .expand(deleted -> deleted >= PURGE_BATCH ? purgeBatch() : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> purgeBatch() {
+        return db.sql(PURGE_SQL)
+                .bind("idleSeconds", (double) idle.toSeconds())
+                .bind("limit", PURGE_BATCH)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Flux.interval(purgeInterval)
+                .onBackpressureDrop()
+                .concatMap(t -> purge()
+                        .doOnNext(deleted -> log.debug("Buckets de rate limit purgados: {}", deleted))
+                        .onErrorResume(e -> {
+                            log.warn("No se pudieron purgar los buckets de rate limit: {}", e.toString());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = ticker;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package co.turismo.r2dbc.ratelimit;
+
+import co.turismo.model.ratelimit.RateLimitLease;
+import co.turismo.model.ratelimit.gateways.RateLimitLeaseGateway;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Repository
+@RequiredArgsConstructor
+public class RateLimitLeaseRepositoryAdapter implements RateLimitLeaseGateway {
+
+    private final DatabaseClient db;
+
+    @Override
+    public Mono<RateLimitLease> acquire(String key, long capacity, long refill, Duration window, long requested) {
+        return db.sql("""
+                    SELECT granted, remaining, reset_seconds
+                      FROM rate_limit_acquire(:key, :capacity, :refill, :windowSeconds, :requested)
+                """)
+                .bind("key", key)
+                .bind("capacity", capacity)
+                .bind("refill", refill)
+                .bind("windowSeconds", Math.max(1, window.toSeconds()))
+                .bind("requested", requested)
+                .map((row, metadata) -> new RateLimitLease(
+                        longValue(row.get("granted", Long.class)),
+                        longValue(row.get("remaining", Long.class)),
+                        longValue(row.get("reset_seconds", Long.class))
+                ))
+                .one();
+    }
+
+    private static long longValue(Long value) {
+        return value == null ? 0L : value;
+    }
+}
@@ -1,5 +1,6 @@
 package co.turismo.r2dbc.reservation;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.reservation.ReservationMessage;
 import co.turismo.model.reservation.gateways.ReservationMessageGateway;
 import io.r2dbc.spi.Row;
@@ -67,6 +68,25 @@ public class ReservationMessageRepositoryAdapter implements ReservationMessageGa
                 .all();
     }
 
+    @Override
+    public Flux<ReservationMessage> findByReservationIdAfter(String reservationId, PageCursor after, int limit) {
+        // El chat se lee en orden cronológico: la página siguiente son los mensajes posteriores al cursor
+        return db.sql("""
+                    SELECT id, reservation_id, sender_email, sender_type, system_event_key, body, created_at
+                    FROM reservation_messages
+                    WHERE reservation_id = :reservationId
+                      AND (created_at, id) > (:afterCreatedAt, :afterId)
+                    ORDER BY created_at ASC, id ASC
+                    LIMIT :limit
+                """)
+                .bind("reservationId", reservationId)
+                .bind("afterCreatedAt", after.createdAtUtc())
+                .bind("afterId", after.longId())
+                .bind("limit", limit)
+                .map((row, metadata) -> toMessage(row))
+                .all();
+    }
+
     private ReservationMessage toMessage(Row row) {
         return ReservationMessage.builder()
                 .id(row.get("id", Long.class))
@@ -1,6 +1,12 @@
 package co.turismo.r2dbc.reservation;
 
+import co.turismo.model.common.PageCursor;
+import co.turismo.model.payment.PaymentProvider;
+import co.turismo.model.payment.PaymentStatus;
 import co.turismo.model.reservation.ReservationDraft;
+import co.turismo.model.reservation.ReservationMessage;
+import co.turismo.model.reservation.ReservationTransition;
+import co.turismo.model.reservation.ReservationTransitionResult;
 import co.turismo.model.reservation.gateways.ReservationGateway;
 import io.r2dbc.spi.Row;
 import lombok.RequiredArgsConstructor;
@@ -54,6 +60,135 @@ public class ReservationRepositoryAdapter implements ReservationGateway {
             LEFT JOIN reservation_details d ON d.reservation_id = r.id
             """;
 
+    /**
+     * Cambio de estado en una sola sentencia. {@code current} bloquea la fila (FOR UPDATE),
+     * así dos cambios concurrentes se serializan y el segundo se valida contra el estado que
+     * dejó el primero. {@code verdict} decide en el mismo orden que antes (estado, Wompi
+     * pagado, Wompi en curso); solo con APPLIED se actualiza la reserva, se hace upsert de
+     * los detalles y se inserta el mensaje de sistema. Sin fila: no existe o no es de la agencia.
+     */
+    private static final String TRANSITION_SQL = """
+            WITH current_reservation AS (
+                SELECT r.id, lower(trim(r.status)) AS status
+                FROM reservations r
+                WHERE r.id = :reservationId
+                  AND (CAST(:agencyId AS BIGINT) IS NULL OR r.agency_id = CAST(:agencyId AS BIGINT))
+                FOR UPDATE
+            ),
+            verdict AS (
+                SELECT c.id,
+                       CASE
+                           WHEN NOT COALESCE(c.status = ANY(CAST(:allowedFrom AS TEXT[])), FALSE) THEN 'INVALID_TRANSITION'
+                           WHEN :checkWompi AND EXISTS (
+                               SELECT 1
+                               FROM payment_transactions p
+                               WHERE p.reservation_id = c.id
+                                 AND p.provider = :wompiProvider
+                                 AND p.status = :wompiPaid
+                           ) THEN 'WOMPI_PAID'
+                           WHEN :checkWompi AND EXISTS (
+                               SELECT 1
+                               FROM payment_transactions p
+                               WHERE p.reservation_id = c.id
+                                 AND p.provider = :wompiProvider
+                                 AND p.status IN ('checkout_created', 'processing')
+                                 AND (p.expires_at IS NULL OR p.expires_at > :now)
+                           ) THEN 'WOMPI_IN_PROGRESS'
+                           ELSE 'APPLIED'
+                       END AS outcome
+                FROM current_reservation c
+            ),
+            updated AS (
+                UPDATE reservations r
+                SET status = :status,
+                    updated_at = NOW()
+                FROM verdict v
+                WHERE r.id = v.id
+                  AND v.outcome = 'APPLIED'
+                RETURNING r.id, r.user_email, r.tour_package_id, r.agency_id, r.package_title,
+                          r.total_amount, r.currency, r.start_date, r.end_date, r.status,
+                          r.created_at, r.updated_at
+            ),
+            details AS (
+                INSERT INTO reservation_details (
+                    reservation_id,
+                    agency_notes,
+                    payment_provider,
+                    payment_status,
+                    paid_at,
+                    contacted_at,
+                    confirmed_at,
+                    cancelled_at,
+                    created_at,
+                    updated_at
+                )
+                SELECT
+                    id,
+                    :agencyNotes,
+                    :paymentProvider,
+                    :paymentStatus,
+                    :paidAt,
+                    :contactedAt,
+                    :confirmedAt,
+                    :cancelledAt,
+                    NOW(),
+                    NOW()
+                FROM updated
+                ON CONFLICT (reservation_id) DO UPDATE
+                SET agency_notes = COALESCE(EXCLUDED.agency_notes, reservation_details.agency_notes),
+                    payment_provider = COALESCE(EXCLUDED.payment_provider, reservation_details.payment_provider),
+                    payment_status = COALESCE(EXCLUDED.payment_status, reservation_details.payment_status),
+                    paid_at = COALESCE(EXCLUDED.paid_at, reservation_details.paid_at),
+                    contacted_at = COALESCE(EXCLUDED.contacted_at, reservation_details.contacted_at),
+                    confirmed_at = COALESCE(EXCLUDED.confirmed_at, reservation_details.confirmed_at),
+                    cancelled_at = COALESCE(EXCLUDED.cancelled_at, reservation_details.cancelled_at),
+                    updated_at = NOW()
+                RETURNING reservation_id, travelers, customer_phone, contact_preference, customer_message,
+                          consent_accepted, consent_version, consent_accepted_at, payment_provider,
+                          payment_status, payment_id, paid_at, agency_notes, contacted_at,
+                          confirmed_at, cancelled_at
+            ),
+            status_message AS (
+                INSERT INTO reservation_messages (reservation_id, sender_email, sender_type, body, created_at)
+                SELECT id, :messageSenderEmail, :messageSenderType, CAST(:messageBody AS TEXT), NOW()
+                FROM updated
+                WHERE CAST(:messageBody AS TEXT) IS NOT NULL
+                RETURNING id
+            )
+            SELECT
+                v.outcome,
+                u.id,
+                u.user_email,
+                u.tour_package_id,
+                u.agency_id,
+                u.package_title,
+                u.total_amount,
+                u.currency,
+                u.start_date,
+                u.end_date,
+                u.status,
+                u.created_at,
+                u.updated_at,
+                d.travelers,
+                d.customer_phone,
+                d.contact_preference,
+                d.customer_message,
+                d.consent_accepted,
+                d.consent_version,
+                d.consent_accepted_at,
+                d.payment_provider,
+                d.payment_status,
+                d.payment_id,
+                d.paid_at,
+                d.agency_notes,
+                d.contacted_at,
+                d.confirmed_at,
+                d.cancelled_at
+            FROM verdict v
+            LEFT JOIN updated u ON u.id = v.id
+            LEFT JOIN details d ON d.reservation_id = u.id
+            """;
+
     private final DatabaseClient db;
 
     @Override
@@ -204,12 +339,23 @@ public class ReservationRepositoryAdapter implements ReservationGateway {
 
     @Override
     public Flux<ReservationDraft> findByUserEmail(String userEmail, int limit, int offset) {
-        return db.sql(RESERVATION_SELECT + """
+        return findByUserEmail(userEmail, null, limit, offset);
+    }
+
+    @Override
+    public Flux<ReservationDraft> findByUserEmailAfter(String userEmail, PageCursor after, int limit) {
+        return findByUserEmail(userEmail, after, limit, 0);
+    }
+
+    private Flux<ReservationDraft> findByUserEmail(String userEmail, PageCursor after, int limit, int offset) {
+        String sql = RESERVATION_SELECT + """
                     WHERE r.user_email = :userEmail
-                    ORDER BY r.created_at DESC
+                """ + keysetClause(after) + """
+                    ORDER BY r.created_at DESC, r.id DESC
                     LIMIT :limit OFFSET :offset
-                """)
-                .bind("userEmail", userEmail)
+                """;
+
+        return bindKeyset(db.sql(sql).bind("userEmail", userEmail), after)
                 .bind("limit", limit)
                 .bind("offset", offset)
                 .map((row, metadata) -> toReservation(row))
@@ -230,14 +376,24 @@ public class ReservationRepositoryAdapter implements ReservationGateway {
 
     @Override
     public Flux<ReservationDraft> findAllForAdmin(String status, int limit, int offset) {
+        return findAllForAdmin(status, null, limit, offset);
+    }
+
+    @Override
+    public Flux<ReservationDraft> findAllForAdminAfter(String status, PageCursor after, int limit) {
+        return findAllForAdmin(status, after, limit, 0);
+    }
+
+    private Flux<ReservationDraft> findAllForAdmin(String status, PageCursor after, int limit, int offset) {
         String sql = RESERVATION_SELECT + """
                     WHERE r.created_at <= NOW() - INTERVAL '2 minutes'
                       AND (:status IS NULL OR r.status = :status)
-                    ORDER BY r.created_at DESC
+                """ + keysetClause(after) + """
+                    ORDER BY r.created_at DESC, r.id DESC
                     LIMIT :limit OFFSET :offset
                 """;
 
-        return bindNullable(db.sql(sql), "status", status, String.class)
+        return bindNullable(bindKeyset(db.sql(sql), after), "status", status, String.class)
                 .bind("limit", limit)
                 .bind("offset", offset)
                 .map((row, metadata) -> toReservation(row))
@@ -257,15 +413,25 @@ public class ReservationRepositoryAdapter implements ReservationGateway {
 
     @Override
     public Flux<ReservationDraft> findByAgencyId(Long agencyId, String status, int limit, int offset) {
+        return findByAgencyId(agencyId, status, null, limit, offset);
+    }
+
+    @Override
+    public Flux<ReservationDraft> findByAgencyIdAfter(Long agencyId, String status, PageCursor after, int limit) {
+        return findByAgencyId(agencyId, status, after, limit, 0);
+    }
+
+    private Flux<ReservationDraft> findByAgencyId(Long agencyId, String status, PageCursor after, int limit, int offset) {
         String sql = RESERVATION_SELECT + """
                     WHERE r.agency_id = :agencyId
                       AND r.created_at <= NOW() - INTERVAL '2 minutes'
                       AND (:status IS NULL OR r.status = :status)
-                    ORDER BY r.created_at DESC
+                """ + keysetClause(after) + """
+                    ORDER BY r.created_at DESC, r.id DESC
                     LIMIT :limit OFFSET :offset
                 """;
 
-        return bindNullable(db.sql(sql).bind("agencyId", agencyId), "status", status, String.class)
+        return bindNullable(bindKeyset(db.sql(sql).bind("agencyId", agencyId), after), "status", status, String.class)
                 .bind("limit", limit)
                 .bind("offset", offset)
                 .map((row, metadata) -> toReservation(row))
@@ -332,85 +498,42 @@ public class ReservationRepositoryAdapter implements ReservationGateway {
     }
 
     @Override
-    public Mono<ReservationDraft> updateAgencyStatus(
-            String reservationId,
-            Long agencyId,
-            String status,
-            String agencyNotes,
-            String paymentProvider,
-            String paymentStatus,
-            OffsetDateTime paidAt,
-            OffsetDateTime contactedAt,
-            OffsetDateTime confirmedAt,
-            OffsetDateTime cancelledAt
-    ) {
-        String sql = """
-            WITH updated AS (
-                UPDATE reservations
-                SET status = :status,
-                    updated_at = NOW()
-                WHERE id = :reservationId
-                  AND agency_id = :agencyId
-                RETURNING id
-            )
-            INSERT INTO reservation_details (
-                reservation_id,
-                agency_notes,
-                payment_provider,
-                payment_status,
-                paid_at,
-                contacted_at,
-                confirmed_at,
-                cancelled_at,
-                created_at,
-                updated_at
-            )
-            SELECT
-                id,
-                :agencyNotes,
-                :paymentProvider,
-                :paymentStatus,
-                :paidAt,
-                :contactedAt,
-                :confirmedAt,
-                :cancelledAt,
-                NOW(),
-                NOW()
-            FROM updated
-            ON CONFLICT (reservation_id) DO UPDATE
-            SET agency_notes = COALESCE(EXCLUDED.agency_notes, reservation_details.agency_notes),
-                payment_provider = COALESCE(EXCLUDED.payment_provider, reservation_details.payment_provider),
-                payment_status = COALESCE(EXCLUDED.payment_status, reservation_details.payment_status),
-                paid_at = COALESCE(EXCLUDED.paid_at, reservation_details.paid_at),
-                contacted_at = COALESCE(EXCLUDED.contacted_at, reservation_details.contacted_at),
-                confirmed_at = COALESCE(EXCLUDED.confirmed_at, reservation_details.confirmed_at),
-                cancelled_at = COALESCE(EXCLUDED.cancelled_at, reservation_details.cancelled_at),
-                updated_at = NOW()
-            """;
-
-        DatabaseClient.GenericExecuteSpec spec = db.sql(sql)
-                .bind("reservationId", reservationId)
-                .bind("agencyId", agencyId)
-                .bind("status", status);
-
-        spec = bindNullable(spec, "agencyNotes", agencyNotes, String.class);
-        spec = bindNullable(spec, "paymentProvider", paymentProvider, String.class);
-        spec = bindNullable(spec, "paymentStatus", paymentStatus, String.class);
-        spec = bindNullable(spec, "paidAt", paidAt, OffsetDateTime.class);
-        spec = bindNullable(spec, "contactedAt", contactedAt, OffsetDateTime.class);
-        spec = bindNullable(spec, "confirmedAt", confirmedAt, OffsetDateTime.class);
-        spec = bindNullable(spec, "cancelledAt", cancelledAt, OffsetDateTime.class);
-
-        return spec.fetch()
-                .rowsUpdated()
-                .doOnNext(rows -> LOG.info(
-                        "Estado de reserva actualizado. reservationId={} agencyId={} status={} rowsUpdated={}",
-                        reservationId,
-                        agencyId,
-                        status,
-                        rows))
-                .filter(rows -> rows > 0)
-                .flatMap(rows -> findByIdForAgency(reservationId, agencyId));
+    public Mono<ReservationTransitionResult> transition(ReservationTransition transition) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(TRANSITION_SQL)
+                .bind("reservationId", transition.getReservationId())
+                .bind("status", transition.getStatus())
+                .bind("allowedFrom", transition.getAllowedFrom().toArray(new String[0]))
+                .bind("checkWompi", transition.isCheckWompi())
+                .bind("wompiProvider", PaymentProvider.WOMPI)
+                .bind("wompiPaid", PaymentStatus.PAID)
+                .bind("now", transition.getNow());
+
+        ReservationMessage message = transition.getStatusMessage();
+        spec = bindNullable(spec, "agencyId", transition.getAgencyId(), Long.class);
+        spec = bindNullable(spec, "agencyNotes", transition.getAgencyNotes(), String.class);
+        spec = bindNullable(spec, "paymentProvider", transition.getPaymentProvider(), String.class);
+        spec = bindNullable(spec, "paymentStatus", transition.getPaymentStatus(), String.class);
+        spec = bindNullable(spec, "paidAt", transition.getPaidAt(), OffsetDateTime.class);
+        spec = bindNullable(spec, "contactedAt", transition.getContactedAt(), OffsetDateTime.class);
+        spec = bindNullable(spec, "confirmedAt", transition.getConfirmedAt(), OffsetDateTime.class);
+        spec = bindNullable(spec, "cancelledAt", transition.getCancelledAt(), OffsetDateTime.class);
+        spec = bindNullable(spec, "messageSenderEmail", message == null ? null : message.getSenderEmail(), String.class);
+        spec = bindNullable(spec, "messageSenderType", message == null ? null : message.getSenderType(), String.class);
+        spec = bindNullable(spec, "messageBody", message == null ? null : message.getBody(), String.class);
+
+        return spec.map((row, metadata) -> {
+                    ReservationTransitionResult.Outcome outcome =
+                            ReservationTransitionResult.Outcome.valueOf(row.get("outcome", String.class));
+                    return new ReservationTransitionResult(outcome,
+                            outcome == ReservationTransitionResult.Outcome.APPLIED ? toReservation(row) : null);
+                })
+                .one()
+                .doOnNext(result -> LOG.info(
+                        "Cambio de estado de reserva. reservationId={} agencyId={} status={} outcome={}",
+                        transition.getReservationId(),
+                        transition.getAgencyId(),
+                        transition.getStatus(),
+                        result.outcome()));
     }
 
     @Override
@@ -560,4 +683,17 @@ public class ReservationRepositoryAdapter implements ReservationGateway {
                 ? spec.bindNull(name, type)
                 : spec.bind(name, value);
     }
+
+    // Paginación por llave: la fila siguiente a (created_at, id) en orden descendente
+    private static String keysetClause(PageCursor after) {
+        return after == null
+                ? ""
+                : "  AND (r.created_at, r.id) < (:afterCreatedAt, :afterId)\n";
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindKeyset(DatabaseClient.GenericExecuteSpec spec, PageCursor after) {
+        return after == null
+                ? spec
+                : spec.bind("afterCreatedAt", after.createdAtUtc()).bind("afterId", after.id());
+    }
 }
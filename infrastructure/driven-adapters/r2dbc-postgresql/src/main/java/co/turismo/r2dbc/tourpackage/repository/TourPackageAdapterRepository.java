@@ -212,15 +212,29 @@ public interface TourPackageAdapterRepository extends ReactiveCrudRepository<Tou
                                                 @Param("offset") int offset);
 
     @Query("""
+                WITH agg AS (
+                    SELECT r.package_id, r.sold, r.revenue
+                    FROM agency_sales_daily r
+                    WHERE r.agency_id = :agencyId
+                      AND r.day BETWEEN :from AND :to
+                    UNION ALL
+                    SELECT s.package_id, s.quantity, s.total_amount
+                    FROM tour_package_sales s
+                    WHERE s.agency_id = :agencyId
+                      AND s.sold_at >= COALESCE(
+                            (SELECT watermark FROM analytics_rollup_state WHERE name = 'sales'),
+                            '-infinity'::timestamptz)
+                      AND s.sold_at >= :from
+                      AND s.sold_at <  :to + 1
+                )
                 SELECT
                     p.id AS package_id,
                     p.title AS title,
-                    COALESCE(SUM(s.quantity), 0)::int AS sold,
-                    COALESCE(SUM(s.total_amount), 0)::bigint AS revenue
-                FROM tour_package_sales s
-                JOIN tour_packages p ON p.id = s.package_id
+                    COALESCE(SUM(a.sold), 0)::int AS sold,
+                    COALESCE(SUM(a.revenue), 0)::bigint AS revenue
+                FROM agg a
+                JOIN tour_packages p ON p.id = a.package_id
                 WHERE p.agency_id = :agencyId
-                  AND s.sold_at::date BETWEEN :from AND :to
                 GROUP BY p.id, p.title
                 ORDER BY sold DESC
                 LIMIT :limit
@@ -231,12 +245,25 @@ public interface TourPackageAdapterRepository extends ReactiveCrudRepository<Tou
             @Param("limit") int limit);
 
     @Query("""
+                WITH agg AS (
+                    SELECT r.sold, r.revenue
+                    FROM agency_sales_daily r
+                    WHERE r.agency_id = :agencyId
+                      AND r.day BETWEEN :from AND :to
+                    UNION ALL
+                    SELECT s.quantity, s.total_amount
+                    FROM tour_package_sales s
+                    WHERE s.agency_id = :agencyId
+                      AND s.sold_at >= COALESCE(
+                            (SELECT watermark FROM analytics_rollup_state WHERE name = 'sales'),
+                            '-infinity'::timestamptz)
+                      AND s.sold_at >= :from
+                      AND s.sold_at <  :to + 1
+                )
                 SELECT
-                    COALESCE(SUM(s.quantity), 0)::bigint AS total_sold,
-                    COALESCE(SUM(s.total_amount), 0)::bigint AS total_revenue
-                FROM tour_package_sales s
-                WHERE s.agency_id = :agencyId
-                  AND s.sold_at::date BETWEEN :from AND :to
+                    COALESCE(SUM(a.sold), 0)::bigint AS total_sold,
+                    COALESCE(SUM(a.revenue), 0)::bigint AS total_revenue
+                FROM agg a
             """)
     Mono<TourPackageSalesSummaryRow> salesSummaryByAgency(@Param("agencyId") Long agencyId,
             @Param("from") LocalDate from,
@@ -0,0 +1,28 @@
+package co.turismo.r2dbc.transaction;
+
+import co.turismo.model.common.gateways.TransactionGateway;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link TransactionGateway} sobre el pool de Postgres. {@code DatabaseClient} y los
+ * repositorios toman la conexión ligada al contexto de Reactor, así que las escrituras
+ * de {@code work} (incluido el encolado en {@code email_outbox}) van en la misma transacción.
+ */
+@Component
+public class R2dbcTransactionAdapter implements TransactionGateway {
+
+    private final TransactionalOperator operator;
+
+    public R2dbcTransactionAdapter(ConnectionFactory connectionFactory) {
+        this.operator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> work) {
+        return operator.transactional(work);
+    }
+}
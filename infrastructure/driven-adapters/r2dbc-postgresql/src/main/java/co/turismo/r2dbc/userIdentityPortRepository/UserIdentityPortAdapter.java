@@ -3,31 +3,42 @@ package co.turismo.r2dbc.userIdentityPortRepository;
 import co.turismo.model.user.gateways.UserRepository;
 import co.turismo.model.userIdentityPort.UserIdentityPort;
 import co.turismo.model.userIdentityPort.UserSummary;
+import co.turismo.r2dbc.helper.Emails;
+import co.turismo.r2dbc.usersRepository.cache.UserIdentityCache;
+import co.turismo.r2dbc.usersRepository.repository.UserAdapterRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
 @Repository
 public class UserIdentityPortAdapter implements UserIdentityPort {
     private final UserRepository userRepository;
+    private final UserAdapterRepository userAdapterRepository;
+    private final UserIdentityCache identityCache;
 
-    public UserIdentityPortAdapter(UserRepository userRepository) {
+    public UserIdentityPortAdapter(UserRepository userRepository,
+                                   UserAdapterRepository userAdapterRepository,
+                                   UserIdentityCache identityCache) {
         this.userRepository = userRepository;
+        this.userAdapterRepository = userAdapterRepository;
+        this.identityCache = identityCache;
     }
 
 
     @Override
     public Mono<UserSummary> getUserIdForEmail(String email) {
-        return userRepository.findByEmail(normalize(email))
-                .map(u -> new UserSummary(u.getId(), u.getEmail()));
+        return identityCache.get(email, normalized -> userAdapterRepository.findIdentityByEmail(normalized)
+                        .map(row -> new UserSummary(row.id(), row.email())))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Email no encotrado")));
     }
 
     @Override
     public Mono<Boolean> isActiveEmail(String email) {
-        return userRepository.isActiveByEmail(normalize(email))
+        // Sin caché: el bloqueo por intentos fallidos debe verse al instante
+        String normalized = Emails.normalize(email);
+        if (normalized == null) {
+            return Mono.just(false);
+        }
+        return userRepository.isActiveByEmail(normalized)
                 .defaultIfEmpty(false);
     }
-
-    private static String normalize(String e) {
-        return e == null ? null : e.trim().toLowerCase();
-    }
 }
@@ -6,10 +6,13 @@ import co.turismo.model.user.RecoveryTokenStatus;
 import co.turismo.model.user.UpdateUserProfileRequest;
 import co.turismo.model.user.User;
 import co.turismo.model.user.gateways.UserRepository;
+import co.turismo.r2dbc.agency.cache.AgencyMembershipCache;
 import co.turismo.r2dbc.helper.ReactiveAdapterOperations;
 import co.turismo.r2dbc.usersRepository.dto.RecoveryStatusRow;
 import co.turismo.r2dbc.usersRepository.dto.RecoveryTokenStatusRow;
 import co.turismo.r2dbc.usersRepository.entity.UserData;
+import co.turismo.r2dbc.usersRepository.cache.AgencyRecipientsCache;
+import co.turismo.r2dbc.usersRepository.cache.UserIdentityCache;
 import co.turismo.r2dbc.usersRepository.repository.UserAdapterRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +23,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Repository
 public class UserRepositoryAdapter
@@ -28,8 +32,18 @@ public class UserRepositoryAdapter
 
     private static final Logger LOG = LoggerFactory.getLogger(UserRepositoryAdapter.class);
 
-    public UserRepositoryAdapter(UserAdapterRepository repository, ObjectMapper mapper) {
+    private final AgencyRecipientsCache agencyRecipientsCache;
+    private final UserIdentityCache identityCache;
+    private final AgencyMembershipCache membershipCache;
+
+    public UserRepositoryAdapter(UserAdapterRepository repository, ObjectMapper mapper,
+                                 AgencyRecipientsCache agencyRecipientsCache,
+                                 UserIdentityCache identityCache,
+                                 AgencyMembershipCache membershipCache) {
         super(repository, mapper, d -> mapper.map(d, User.class));
+        this.agencyRecipientsCache = agencyRecipientsCache;
+        this.identityCache = identityCache;
+        this.membershipCache = membershipCache;
     }
 
     @Override
@@ -81,7 +95,23 @@ public class UserRepositoryAdapter
     @Override
     public Mono<User> save(User user) {
         return repository.save(toData(user))
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .flatMap(saved -> {
+                    // Un save con id puede traer otro correo
+                    if (user.getId() == null) {
+                        return Mono.just(saved);
+                    }
+                    identityCache.invalidateUser(saved.getId());
+                    membershipCache.invalidateUser(saved.getId());
+                    return repository.notifyChannel(identityCache.channel(), saved.getId().toString())
+                            .then(repository.notifyChannel(membershipCache.channel(), "user:" + saved.getId()))
+                            .onErrorResume(e -> {
+                                LOG.warn("No se pudo notificar el cambio de identidad userId={}: {}",
+                                        saved.getId(), e.getMessage());
+                                return Mono.empty();
+                            })
+                            .thenReturn(saved);
+                });
     }
 
     @Override
@@ -96,6 +126,12 @@ public class UserRepositoryAdapter
                 .map(this::toEntity);
     }
 
+    @Override
+    public Mono<List<String>> findAgencyNotificationRecipients(Long agencyId) {
+        return agencyRecipientsCache.get(agencyId,
+                id -> repository.findAgencyNotificationRecipients(id).collectList());
+    }
+
     @Override
     public Mono<Void> registerOtpFail(String email){ return repository.registerOtpFail(email); }
     @Override
@@ -118,10 +154,15 @@ public class UserRepositoryAdapter
 
     @Override
     public Mono<User> updateEmailById(Long userId, String newEmail) {
-        return repository.updateEmailById(userId, newEmail)
+        return repository.updateEmailById(userId, newEmail, identityCache.channel(), membershipCache.channel())
                 .onErrorResume(DuplicateKeyException.class,
                         e -> Mono.error(new IllegalArgumentException("El correo ya está en uso")))
-                .map(this::toEntity);
+                .map(this::toEntity)
+                .doOnNext(updated -> {
+                    identityCache.invalidateUser(userId);
+                    identityCache.invalidate(newEmail);
+                    membershipCache.invalidateUser(userId);
+                });
     }
 
 
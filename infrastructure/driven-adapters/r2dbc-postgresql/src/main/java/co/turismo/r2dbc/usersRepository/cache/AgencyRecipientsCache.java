@@ -0,0 +1,104 @@
+package co.turismo.r2dbc.usersRepository.cache;
+
+import co.turismo.r2dbc.helper.GenerationalAsyncCache;
+import co.turismo.r2dbc.helper.PostgresChannels;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Destinatarios de las notificaciones de cada agencia (sus usuarios + ADMIN). Cada reserva
+ * o mensaje de cliente los necesita y cambian poco, así que se guardan por agencia durante
+ * {@code turismo.notifications.agency-recipients.ttl}. Las consultas concurrentes de la misma
+ * agencia comparten una sola carga y los errores no se guardan.
+ * <p>
+ * Escucha el mismo canal que la caché de membresías
+ * ({@code turismo.agencies.membership-cache.channel}): {@code agency:<id>} descarta esa
+ * agencia y {@code user:<id>} (alta, cambio o baja en {@code agency_users}, cambio de
+ * correo, o cambio de roles por el trigger de V22) descarta todas, porque un ADMIN está
+ * en la lista de todas las agencias. El TTL queda como respaldo por si se pierde un NOTIFY.
+ */
+@Slf4j
+@Component
+public class AgencyRecipientsCache implements DisposableBean {
+
+    private static final String USER_PREFIX = "user:";
+    private static final String AGENCY_PREFIX = "agency:";
+
+    private final GenerationalAsyncCache<Long, List<String>> cache;
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+    private volatile Disposable listener;
+
+    @Autowired
+    public AgencyRecipientsCache(
+            ConnectionFactory connectionFactory,
+            @Value("${turismo.agencies.membership-cache.channel:agency_membership_changes}") String channel,
+            @Value("${turismo.notifications.agency-recipients.ttl:1m}") Duration ttl,
+            @Value("${turismo.notifications.agency-recipients.max-size:1000}") long maxSize) {
+        this.connectionFactory = connectionFactory;
+        this.channel = PostgresChannels.channelName(channel, "destinatarios de agencia");
+        this.cache = new GenerationalAsyncCache<>(ttl, maxSize);
+    }
+
+    AgencyRecipientsCache(Duration ttl, long maxSize) {
+        this(null, "", ttl, maxSize);
+    }
+
+    public Mono<List<String>> get(Long agencyId, Function<Long, Mono<List<String>>> loader) {
+        return cache.get(agencyId, id -> loader.apply(id).map(List::copyOf));
+    }
+
+    /** Tras cambiar los usuarios de la agencia en esta réplica, sin esperar el NOTIFY. */
+    public void invalidate(Long agencyId) {
+        cache.invalidate(agencyId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateIf(recipients -> true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (channel.isEmpty() || listener != null) {
+            return;
+        }
+        listener = PostgresChannels.listen(connectionFactory, channel)
+                .subscribe(this::onChange);
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    void onChange(String payload) {
+        try {
+            if (payload.startsWith(USER_PREFIX)) {
+                invalidateAll();
+                return;
+            }
+            if (payload.startsWith(AGENCY_PREFIX)) {
+                invalidate(Long.valueOf(payload.substring(AGENCY_PREFIX.length())));
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // cae al aviso de abajo
+        }
+        log.warn("Notificación de destinatarios desconocida: {}", payload);
+    }
+}
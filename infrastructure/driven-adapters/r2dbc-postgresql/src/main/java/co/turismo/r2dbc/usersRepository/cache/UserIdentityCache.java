@@ -0,0 +1,108 @@
+package co.turismo.r2dbc.usersRepository.cache;
+
+import co.turismo.model.userIdentityPort.UserSummary;
+import co.turismo.r2dbc.helper.Emails;
+import co.turismo.r2dbc.helper.GenerationalAsyncCache;
+import co.turismo.r2dbc.helper.PostgresChannels;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Identidad (id + correo) por correo normalizado. Casi todas las operaciones autenticadas
+ * resuelven el correo del token a un id antes de tocar su propia tabla; con esto esa
+ * consulta se hace una vez por usuario cada {@code turismo.users.identity-cache.ttl}.
+ * <p>
+ * El id de un correo solo cambia si el usuario cambia de correo. Esa escritura envía el id
+ * del usuario por el canal {@code turismo.users.identity-cache.channel} (el NOTIFY va en el
+ * mismo UPDATE) y cada réplica, incluida la que escribió, descarta sus entradas; el TTL es
+ * el respaldo por si se pierde un NOTIFY mientras el canal reconecta. Los correos
+ * inexistentes y los errores no se guardan, así un registro nuevo se resuelve de inmediato.
+ */
+@Slf4j
+@Component
+public class UserIdentityCache implements DisposableBean {
+
+    private final GenerationalAsyncCache<String, UserSummary> cache;
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+    private volatile Disposable listener;
+
+    @Autowired
+    public UserIdentityCache(
+            ConnectionFactory connectionFactory,
+            @Value("${turismo.users.identity-cache.channel:user_identity_changes}") String channel,
+            @Value("${turismo.users.identity-cache.ttl:5m}") Duration ttl,
+            @Value("${turismo.users.identity-cache.max-size:10000}") long maxSize) {
+        this.connectionFactory = connectionFactory;
+        this.channel = PostgresChannels.channelName(channel, "identidad de usuarios");
+        this.cache = new GenerationalAsyncCache<>(ttl, maxSize);
+    }
+
+    UserIdentityCache(Duration ttl, long maxSize) {
+        this(null, "", ttl, maxSize);
+    }
+
+    /** Canal al que las escrituras envían el NOTIFY; vacío si está deshabilitado. */
+    public String channel() {
+        return channel;
+    }
+
+    /** El loader recibe el correo ya normalizado; vacío si no existe. */
+    public Mono<UserSummary> get(String email, Function<String, Mono<UserSummary>> loader) {
+        String key = Emails.normalize(email);
+        if (key == null) {
+            return Mono.empty();
+        }
+        return cache.get(key, loader);
+    }
+
+    public void invalidate(String email) {
+        String key = Emails.normalize(email);
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /** Para cambios por id en los que no se conoce el correo anterior. */
+    public void invalidateUser(Long userId) {
+        if (userId != null) {
+            cache.invalidateIf(u -> userId.equals(u.id()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (channel.isEmpty() || listener != null) {
+            return;
+        }
+        listener = PostgresChannels.listen(connectionFactory, channel)
+                .subscribe(this::onChange);
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    void onChange(String payload) {
+        try {
+            invalidateUser(Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("Notificación de identidad desconocida: {}", payload);
+        }
+    }
+}
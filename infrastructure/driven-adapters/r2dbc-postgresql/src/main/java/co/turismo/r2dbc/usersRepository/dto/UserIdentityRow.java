@@ -0,0 +1,9 @@
+package co.turismo.r2dbc.usersRepository.dto;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+/** Proyección mínima de {@code users} para resolver correo → id. */
+public record UserIdentityRow(
+        @Column("id") Long id,
+        @Column("email") String email
+) {}
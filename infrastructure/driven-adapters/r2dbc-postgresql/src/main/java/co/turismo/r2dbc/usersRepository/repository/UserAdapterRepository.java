@@ -2,6 +2,7 @@ package co.turismo.r2dbc.usersRepository.repository;
 
 import co.turismo.r2dbc.usersRepository.dto.RecoveryStatusRow;
 import co.turismo.r2dbc.usersRepository.dto.RecoveryTokenStatusRow;
+import co.turismo.r2dbc.usersRepository.dto.UserIdentityRow;
 import co.turismo.r2dbc.usersRepository.entity.UserData;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +17,10 @@ public interface UserAdapterRepository extends ReactiveCrudRepository<UserData,
     @Query("SELECT * FROM users WHERE lower(email)=lower(:email) LIMIT 1")
     Mono<UserData> findByEmail(@Param("email") String email);
 
+    /** Solo id y correo; con idx_users_lower_email es un index-only scan. */
+    @Query("SELECT id, email FROM users WHERE lower(email) = lower(:email) LIMIT 1")
+    Mono<UserIdentityRow> findIdentityByEmail(@Param("email") String email);
+
     @Query("""
         SELECT u.*
           FROM users u
@@ -33,6 +38,23 @@ public interface UserAdapterRepository extends ReactiveCrudRepository<UserData,
     """)
     Flux<UserData> findByRoleName(@Param("roleName") String roleName);
 
+    /** Correos de los usuarios de la agencia más los ADMIN, sin repetir (sin distinguir mayúsculas). */
+    @Query("""
+        SELECT DISTINCT ON (lower(u.email)) u.email
+          FROM users u
+         WHERE u.email IS NOT NULL
+           AND u.email <> ''
+           AND (
+                EXISTS (SELECT 1 FROM agency_users au
+                         WHERE au.user_id = u.id AND au.agency_id = :agencyId)
+             OR EXISTS (SELECT 1 FROM user_roles ur
+                          JOIN roles r ON r.id = ur.role_id
+                         WHERE ur.user_id = u.id AND upper(r.role_name) = 'ADMIN')
+           )
+         ORDER BY lower(u.email), u.email
+    """)
+    Flux<String> findAgencyNotificationRecipients(@Param("agencyId") Long agencyId);
+
     @Query("""
         SELECT r.role_name
           FROM users u
@@ -61,15 +83,36 @@ public interface UserAdapterRepository extends ReactiveCrudRepository<UserData,
             @Param("identificationNumber") String identificationNumber
     );
 
-    @Query("""
-        UPDATE users
-           SET email = :newEmail
-         WHERE id = :userId
-     RETURNING id, full_name, email, url_avatar, identification_type, identification_number,
-               otp_hash, otp_expires_at, otp_attempts, otp_max_attempts,
-               locked_until, last_login_at, created_at
-    """)
-    Mono<UserData> updateEmailById(@Param("userId") Long userId, @Param("newEmail") String newEmail);
+    /**
+     * Los NOTIFY a los canales de identidad y de membresías van en la misma sentencia; un
+     * canal vacío se omite.
+     */
+    @Query("""
+        WITH upd AS (
+            UPDATE users
+               SET email = :newEmail
+             WHERE id = :userId
+         RETURNING id, full_name, email, url_avatar, identification_type, identification_number,
+                   otp_hash, otp_expires_at, otp_attempts, otp_max_attempts,
+                   locked_until, last_login_at, created_at
+        )
+        SELECT upd.*
+        FROM upd
+        LEFT JOIN LATERAL (
+            SELECT pg_notify(:identityChannel, upd.id::text) WHERE :identityChannel <> ''
+        ) n ON TRUE
+        LEFT JOIN LATERAL (
+            SELECT pg_notify(:membershipChannel, 'user:' || upd.id) WHERE :membershipChannel <> ''
+        ) m ON TRUE
+    """)
+    Mono<UserData> updateEmailById(@Param("userId") Long userId,
+                                   @Param("newEmail") String newEmail,
+                                   @Param("identityChannel") String identityChannel,
+                                   @Param("membershipChannel") String membershipChannel);
+
+    /** NOTIFY suelto, para escrituras que no pasan por una consulta propia. */
+    @Query("SELECT pg_notify(:channel, :payload) WHERE :channel <> ''")
+    Mono<Void> notifyChannel(@Param("channel") String channel, @Param("payload") String payload);
 
     @Query("""
         UPDATE users
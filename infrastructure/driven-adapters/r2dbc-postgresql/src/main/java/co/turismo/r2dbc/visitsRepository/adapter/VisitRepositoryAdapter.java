@@ -1,17 +1,27 @@
 package co.turismo.r2dbc.visitsRepository.adapter;
 
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.visits.*;
 import co.turismo.model.visits.gateways.VisitGateway;
 import co.turismo.r2dbc.helper.ReactiveAdapterOperations;
+import co.turismo.r2dbc.visitsRepository.daily.VisitDailyCounter;
+import co.turismo.r2dbc.visitsRepository.dto.UserFavoritePlaceRow;
 import co.turismo.r2dbc.visitsRepository.entity.PlaceVisitData;
 import co.turismo.r2dbc.visitsRepository.repository.VisitRepository;
 import io.r2dbc.postgresql.codec.Json;
+import io.r2dbc.spi.Row;
 import org.reactivecommons.utils.ObjectMapper;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Adapter que implementa el Gateway de dominio usando R2DBC.
@@ -23,16 +33,143 @@ public class VisitRepositoryAdapter
         extends ReactiveAdapterOperations<PlaceVisit, PlaceVisitData, Long, VisitRepository>
         implements VisitGateway {
 
+    private final DatabaseClient db;
+    private final VisitDailyCounter dailyCounter;
+
     /**
      * En el scaffold, el constructor típico pasa:
      *  - repository
      *  - mapper
      *  - función de mapeo Data -> Domain
+     * Además recibe el DatabaseClient para las sentencias compuestas (check-in/confirmación)
+     * y el buffer write-behind de place_visit_daily.
      */
-    public VisitRepositoryAdapter(VisitRepository repository, ObjectMapper mapper) {
+    public VisitRepositoryAdapter(VisitRepository repository, ObjectMapper mapper, DatabaseClient db,
+                                  VisitDailyCounter dailyCounter) {
         super(repository, mapper, VisitRepositoryAdapter::toDomain);
+        this.db = db;
+        this.dailyCounter = dailyCounter;
     }
 
+    /*
+     * Check-in en una sola ida a la BD: regla de 24h, radio e inserción. El INSERT solo
+     * corre si el lugar está dentro del radio y no hay visita reciente; el SELECT final
+     * siempre devuelve una fila con el motivo.
+     */
+    private static final String CHECKIN_SQL = """
+        WITH dup AS (
+          SELECT 1
+            FROM place_visits
+           WHERE place_id = :placeId
+             AND status   = 'confirmed'
+             AND confirmed_at >= (now() - INTERVAL '24 hours')
+             AND (
+                   (:userId::bigint IS NOT NULL AND user_id = :userId::bigint)
+                OR (:userId::bigint IS NULL     AND device_id = :deviceId)
+             )
+           LIMIT 1
+        ),
+        dist AS (
+          SELECT CAST(ST_Distance(p.geom::geography, u.g) AS INTEGER) AS distance_m
+            FROM places p,
+                 (SELECT ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography AS g) u
+           WHERE p.id = :placeId
+             AND ST_DWithin(p.geom::geography, u.g, :radius)
+             AND NOT EXISTS (SELECT 1 FROM dup)
+        ),
+        ins AS (
+          INSERT INTO place_visits(
+             place_id, user_id, device_id,
+             started_at, status,
+             distance_m, accuracy_m, meta
+          )
+          SELECT :placeId, :userId::bigint, :deviceId,
+                 now(), 'pending',
+                 d.distance_m, :accuracyM::int, COALESCE(:meta::jsonb, '{}'::jsonb)
+            FROM dist d
+          RETURNING id, place_id, user_id, device_id, started_at, confirmed_at, status, distance_m, accuracy_m
+        )
+        SELECT CASE
+                 WHEN EXISTS (SELECT 1 FROM dup) THEN 'duplicate'
+                 WHEN i.id IS NULL               THEN 'out_of_range'
+                 ELSE 'ok'
+               END AS outcome,
+               i.*
+          FROM (SELECT 1) one
+          LEFT JOIN ins i ON TRUE
+    """;
+
+    /*
+     * Confirmación en una sola ida a la BD: valida la visita, la confirma y devuelve el
+     * resumen del lugar; el conteo diario va por VisitDailyCounter. Si otra petición la confirma
+     * entre la validación y el UPDATE, el guard de status deja upd vacío y se reporta
+     * already_managed.
+     */
+    private static final String CONFIRM_SQL = """
+        WITH v AS (
+          SELECT pv.id, pv.place_id, pv.user_id, pv.device_id, pv.status, pv.started_at
+            FROM place_visits pv
+           WHERE pv.id = :visitId
+        ),
+        chk AS (
+          SELECT v.id, v.place_id,
+                 CASE
+                   WHEN v.status <> 'pending' THEN 'already_managed'
+                   WHEN v.started_at IS NULL
+                     OR v.started_at > now() - (:minStaySeconds * INTERVAL '1 second') THEN 'min_stay'
+                   WHEN NOT EXISTS (
+                     SELECT 1
+                       FROM places p
+                      WHERE p.id = v.place_id
+                        AND ST_DWithin(p.geom::geography,
+                                       ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
+                                       :radius)
+                   ) THEN 'out_of_range'
+                   WHEN EXISTS (
+                     SELECT 1
+                       FROM place_visits o
+                      WHERE o.place_id = v.place_id
+                        AND o.status   = 'confirmed'
+                        AND o.confirmed_on_utc = (now() AT TIME ZONE 'UTC')::date
+                        AND (
+                              (v.user_id IS NOT NULL AND o.user_id = v.user_id)
+                           OR (v.user_id IS NULL     AND o.device_id = v.device_id)
+                        )
+                   ) THEN 'already_today'
+                   ELSE 'ok'
+                 END AS outcome
+            FROM v
+        ),
+        upd AS (
+          UPDATE place_visits pv
+             SET status = 'confirmed',
+                 confirmed_at = now(),
+                 confirmed_on_utc = (now() AT TIME ZONE 'UTC')::date,
+                 lat = :lat,
+                 lng = :lng,
+                 accuracy_m = :accuracyM::int
+            FROM chk
+           WHERE pv.id = chk.id
+             AND chk.outcome = 'ok'
+             AND pv.status = 'pending'
+          RETURNING pv.id, pv.place_id, pv.user_id, pv.device_id, pv.started_at,
+                    pv.confirmed_at, pv.status, pv.distance_m, pv.accuracy_m
+        )
+        SELECT CASE
+                 WHEN c.outcome = 'ok' AND u.id IS NULL THEN 'already_managed'
+                 ELSE c.outcome
+               END AS outcome,
+               u.id, u.place_id, u.user_id, u.device_id, u.started_at, u.confirmed_at,
+               u.status, u.distance_m, u.accuracy_m,
+               p.name, p.address, p.description, p.category_id,
+               ST_Y(p.geom::geometry) AS place_lat,
+               ST_X(p.geom::geometry) AS place_lng,
+               p.image_urls
+          FROM chk c
+          LEFT JOIN upd u    ON u.id = c.id
+          LEFT JOIN places p ON p.id = u.place_id
+    """;
+
     /* =======================
      *     Mapeadores
      * ======================= */
@@ -104,13 +241,109 @@ public class VisitRepositoryAdapter
 
     @Override
     public Mono<Void> upsertDaily(Long placeId) {
-        return repository.upsertDaily(placeId);
+        return Mono.fromRunnable(() -> dailyCounter.increment(placeId));
+    }
+
+    @Override
+    public Mono<VisitCheckin> checkin(Long placeId, Long userId, String deviceId,
+                                      double lat, double lng, int radius,
+                                      Integer accuracyM, String metaJson) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(CHECKIN_SQL)
+                .bind("placeId", placeId)
+                .bind("lat", lat)
+                .bind("lng", lng)
+                .bind("radius", radius);
+        spec = bindNullable(spec, "userId", userId, Long.class);
+        spec = bindNullable(spec, "deviceId", deviceId, String.class);
+        spec = bindNullable(spec, "accuracyM", accuracyM, Integer.class);
+        spec = bindNullable(spec, "meta", metaJson, String.class);
+        return spec
+                .map((row, metadata) -> {
+                    VisitOutcome outcome = VisitOutcome.valueOf(row.get("outcome", String.class));
+                    return new VisitCheckin(outcome, outcome == VisitOutcome.ok ? toVisit(row) : null);
+                })
+                .one();
+    }
+
+    @Override
+    public Mono<VisitConfirmation> confirm(Long visitId, double lat, double lng, Integer accuracyM,
+                                           int radius, int minStaySeconds) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(CONFIRM_SQL)
+                .bind("visitId", visitId)
+                .bind("lat", lat)
+                .bind("lng", lng)
+                .bind("radius", radius)
+                .bind("minStaySeconds", minStaySeconds);
+        spec = bindNullable(spec, "accuracyM", accuracyM, Integer.class);
+        return spec
+                .map((row, metadata) -> {
+                    VisitOutcome outcome = VisitOutcome.valueOf(row.get("outcome", String.class));
+                    if (outcome != VisitOutcome.ok) {
+                        return new VisitConfirmation(outcome, null, null);
+                    }
+                    PlaceVisit visit = toVisit(row);
+                    String[] images = row.get("image_urls", String[].class);
+                    PlaceBriefUC place = new PlaceBriefUC(
+                            visit.getPlaceId(),
+                            row.get("name", String.class),
+                            row.get("address", String.class),
+                            row.get("description", String.class),
+                            row.get("category_id", Integer.class),
+                            row.get("place_lat", Double.class),
+                            row.get("place_lng", Double.class),
+                            images != null ? Arrays.asList(images) : List.of()
+                    );
+                    return new VisitConfirmation(outcome, visit, place);
+                })
+                .one()
+                .doOnNext(result -> {
+                    if (result.outcome() == VisitOutcome.ok) {
+                        dailyCounter.increment(result.visit().getPlaceId());
+                    }
+                });
+    }
+
+    private static PlaceVisit toVisit(Row row) {
+        OffsetDateTime startedAt = row.get("started_at", OffsetDateTime.class);
+        OffsetDateTime confirmedAt = row.get("confirmed_at", OffsetDateTime.class);
+        return PlaceVisit.builder()
+                .id(row.get("id", Long.class))
+                .placeId(row.get("place_id", Long.class))
+                .userId(row.get("user_id", Long.class))
+                .deviceId(row.get("device_id", String.class))
+                .startedAt(startedAt != null ? startedAt.toInstant() : null)
+                .confirmedAt(confirmedAt != null ? confirmedAt.toInstant() : null)
+                .status(VisitStatus.valueOf(row.get("status", String.class)))
+                .distanceM(row.get("distance_m", Integer.class))
+                .accuracyM(row.get("accuracy_m", Integer.class))
+                .build();
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(
+            DatabaseClient.GenericExecuteSpec spec,
+            String name,
+            T value,
+            Class<?> type
+    ) {
+        return value == null
+                ? spec.bindNull(name, type)
+                : spec.bind(name, value);
     }
 
     @Override
     public Flux<TopPlace> topPlaces(LocalDate from, LocalDate to, int limit) {
-        return repository.topPlaces(from, to, limit)
-                .map(r -> new TopPlace(r.getPlaceId(), r.getName(), r.getVisits()));
+        Map<Long, Integer> pending = dailyCounter.pending(from, to);
+        if (pending.isEmpty()) {
+            return repository.topPlaces(from, to, limit)
+                    .map(r -> new TopPlace(r.getPlaceId(), r.getName(), r.getVisits()));
+        }
+        // Pide holgura para que los deltas sin persistir puedan reordenar el ranking;
+        // un lugar sin ninguna fila persistida en el rango aparece tras el siguiente flush.
+        return repository.topPlaces(from, to, limit + pending.size())
+                .map(r -> new TopPlace(r.getPlaceId(), r.getName(),
+                        r.getVisits() + pending.getOrDefault(r.getPlaceId(), 0)))
+                .sort(Comparator.comparingInt(TopPlace::visits).reversed())
+                .take(limit);
     }
 
     @Override
@@ -156,16 +389,26 @@ public class VisitRepositoryAdapter
     @Override
     public Flux<UserFavoritePlace> listFavoritesByUser(Long userId, int limit, int offset) {
         return repository.listFavoritesByUser(userId, limit, offset)
-                .map(r -> UserFavoritePlace.builder()
-                        .placeId(r.getId())
-                        .name(r.getName())
-                        .address(r.getAddress())
-                        .description(r.getDescription())
-                        .categoryId(r.getCategoryId())
-                        .lat(r.getLat())
-                        .lng(r.getLng())
-                        .imageUrls(r.getImageUrls() != null ? r.getImageUrls() : java.util.List.of())
-                        .favoritedAt(r.getFavoritedAt())
-                        .build());
+                .map(VisitRepositoryAdapter::toFavorite);
+    }
+
+    @Override
+    public Flux<UserFavoritePlace> listFavoritesByUserAfter(Long userId, PageCursor after, int limit) {
+        return repository.listFavoritesByUserAfter(userId, after.createdAtUtc(), after.longId(), limit)
+                .map(VisitRepositoryAdapter::toFavorite);
+    }
+
+    private static UserFavoritePlace toFavorite(UserFavoritePlaceRow r) {
+        return UserFavoritePlace.builder()
+                .placeId(r.getId())
+                .name(r.getName())
+                .address(r.getAddress())
+                .description(r.getDescription())
+                .categoryId(r.getCategoryId())
+                .lat(r.getLat())
+                .lng(r.getLng())
+                .imageUrls(r.getImageUrls() != null ? r.getImageUrls() : java.util.List.of())
+                .favoritedAt(r.getFavoritedAt())
+                .build();
     }
 }
@@ -0,0 +1,208 @@
+package co.turismo.r2dbc.visitsRepository.daily;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Buffer write-behind de los contadores de {@code place_visit_daily}. Cada visita
+ * confirmada suma en un {@link LongAdder} por (día, lugar) sin bloquear, y los deltas se
+ * escriben en un único upsert por lotes cada {@code flush-interval} o cada
+ * {@code flush-threshold} incrementos, lo que ocurra primero. Así un lugar popular ya no
+ * es una fila caliente con un lock por cada confirmación.
+ * <p>
+ * Cada contador solo crece; lo persistido se lleva aparte ({@code flushed}), por lo que un
+ * flush fallido no pierde nada y se reintenta en el siguiente. Al apagar se hace un flush
+ * final. Cota de durabilidad: si el proceso muere sin apagado ordenado se pierden como
+ * máximo los incrementos de un intervalo (o {@code flush-threshold} visitas); las visitas
+ * en {@code place_visits} no se pierden y permiten reconstruir el conteo.
+ */
+@Slf4j
+@Component
+public class VisitDailyCounter implements DisposableBean {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO place_visit_daily(day, place_id, visits)
+        SELECT t.day, t.place_id, t.visits
+          FROM unnest(:days::date[], :placeIds::bigint[], :visits::int[]) AS t(day, place_id, visits)
+        ON CONFLICT (day, place_id) DO UPDATE
+          SET visits = place_visit_daily.visits + EXCLUDED.visits
+    """;
+
+    private record Key(LocalDate day, long placeId) {}
+
+    record Delta(LocalDate day, long placeId, int visits) {}
+
+    private final Function<List<Delta>, Mono<Void>> writer;
+    private final Duration flushInterval;
+    private final long flushThreshold;
+    private final Clock clock;
+
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong sinceLastTrigger = new AtomicLong();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private volatile Disposable ticker;
+
+    @Autowired
+    public VisitDailyCounter(
+            DatabaseClient db,
+            @Value("${turismo.visits.daily.flush-interval:5s}") Duration flushInterval,
+            @Value("${turismo.visits.daily.flush-threshold:500}") long flushThreshold) {
+        this(deltas -> upsert(db, deltas), flushInterval, flushThreshold, Clock.systemDefaultZone());
+    }
+
+    VisitDailyCounter(Function<List<Delta>, Mono<Void>> writer, Duration flushInterval,
+                      long flushThreshold, Clock clock) {
+        this.writer = writer;
+        this.flushInterval = flushInterval;
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.clock = clock;
+    }
+
+    /** Suma una visita de hoy al lugar. No bloquea ni toca la BD. */
+    public void increment(long placeId) {
+        counters.computeIfAbsent(new Key(LocalDate.now(clock), placeId), k -> new Counter())
+                .total.increment();
+        if (sinceLastTrigger.incrementAndGet() % flushThreshold == 0) {
+            flush().subscribe();
+        }
+    }
+
+    /** Visitas aún no persistidas por lugar, sumadas en el rango de días (inclusive). */
+    public Map<Long, Integer> pending(LocalDate from, LocalDate to) {
+        Map<Long, Integer> result = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            if (key.day().isBefore(from) || key.day().isAfter(to)) {
+                return;
+            }
+            int delta = counter.unflushed();
+            if (delta > 0) {
+                result.merge(key.placeId(), delta, Integer::sum);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Escribe los deltas pendientes en un solo upsert. Si ya hay un flush en curso no
+     * hace nada; el siguiente tick recoge lo que falte.
+     */
+    public Mono<Void> flush() {
+        return Mono.defer(() -> {
+            if (!flushing.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            Map<Key, Integer> snapshot = new HashMap<>();
+            counters.forEach((key, counter) -> {
+                int delta = counter.unflushed();
+                if (delta > 0) {
+                    snapshot.put(key, delta);
+                }
+            });
+            if (snapshot.isEmpty()) {
+                evictIdle();
+                flushing.set(false);
+                return Mono.empty();
+            }
+            // Orden fijo de filas para que dos réplicas no se bloqueen en orden cruzado
+            List<Delta> deltas = snapshot.entrySet().stream()
+                    .map(e -> new Delta(e.getKey().day(), e.getKey().placeId(), e.getValue()))
+                    .sorted(Comparator.comparing(Delta::day).thenComparingLong(Delta::placeId))
+                    .toList();
+            return writer.apply(deltas)
+                    .doOnSuccess(v -> {
+                        snapshot.forEach((key, delta) -> counters.get(key).flushed += delta);
+                        evictIdle();
+                    })
+                    .doOnError(e -> log.warn("No se pudo persistir place_visit_daily ({} filas), se reintenta: {}",
+                            deltas.size(), e.toString()))
+                    .onErrorResume(e -> Mono.empty())
+                    .doFinally(s -> flushing.set(false));
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (ticker == null) {
+            ticker = Flux.interval(flushInterval)
+                    .concatMap(t -> flush())
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = ticker;
+        if (current != null) {
+            current.dispose();
+        }
+        // Espera un flush en curso antes del final para no saltarse deltas
+        for (int i = 0; i < 50 && flushing.get(); i++) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        try {
+            flush().block(Duration.ofSeconds(10));
+        } catch (RuntimeException e) {
+            log.warn("Flush final de place_visit_daily falló: {}", e.toString());
+        }
+    }
+
+    /** Descarta contadores de días anteriores a ayer que ya quedaron persistidos. */
+    private void evictIdle() {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(1);
+        counters.entrySet().removeIf(e -> e.getKey().day().isBefore(cutoff) && e.getValue().unflushed() == 0);
+    }
+
+    private static Mono<Void> upsert(DatabaseClient db, List<Delta> deltas) {
+        String[] days = new String[deltas.size()];
+        Long[] placeIds = new Long[deltas.size()];
+        Integer[] visits = new Integer[deltas.size()];
+        for (int i = 0; i < deltas.size(); i++) {
+            Delta d = deltas.get(i);
+            days[i] = d.day().toString();
+            placeIds[i] = d.placeId();
+            visits[i] = d.visits();
+        }
+        return db.sql(UPSERT_SQL)
+                .bind("days", days)
+                .bind("placeIds", placeIds)
+                .bind("visits", visits)
+                .then();
+    }
+
+    private static final class Counter {
+        final LongAdder total = new LongAdder();
+        /** Solo lo modifica el flush, que es exclusivo. */
+        volatile long flushed;
+
+        int unflushed() {
+            return (int) (total.sum() - flushed);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 
 public interface VisitRepository extends ReactiveCrudRepository<PlaceVisitData, Long>,
         ReactiveQueryByExampleExecutor<PlaceVisitData> {
@@ -106,14 +107,6 @@ public interface VisitRepository extends ReactiveCrudRepository<PlaceVisitData,
                                        @Param("userIdNullCheck") Long userIdForNullCheck,
                                        @Param("deviceIdMatch") String deviceId);
 
-    @Query("""
-        INSERT INTO place_visit_daily(day, place_id, visits)
-        VALUES (CURRENT_DATE, :placeId, 1)
-        ON CONFLICT (day, place_id) DO UPDATE
-          SET visits = place_visit_daily.visits + 1
-    """)
-    Mono<Void> upsertDaily(@Param("placeId") Long placeId);
-
     @Query("""
       SELECT p.id AS placeId,
              p.name AS name,
@@ -132,13 +125,11 @@ public interface VisitRepository extends ReactiveCrudRepository<PlaceVisitData,
     @Query("""
       SELECT p.id AS placeId,
              p.name AS name,
-             SUM(d.visits)::int AS visits
-        FROM place_visit_daily d
-        JOIN places p ON p.id = d.place_id
-        JOIN tour_package_places tpp ON tpp.place_id = p.id
-        JOIN tour_packages tp ON tp.id = tpp.package_id
-       WHERE tp.agency_id = :agencyId
-         AND d.day BETWEEN :from AND :to
+             SUM(r.visits)::int AS visits
+        FROM agency_place_visits_daily r
+        JOIN places p ON p.id = r.place_id
+       WHERE r.agency_id = :agencyId
+         AND r.day BETWEEN :from AND :to
        GROUP BY p.id, p.name
        ORDER BY visits DESC
        LIMIT :limit
@@ -231,12 +222,35 @@ public interface VisitRepository extends ReactiveCrudRepository<PlaceVisitData,
       FROM user_place_favorites f
       JOIN places p ON p.id = f.place_id
       WHERE f.user_id = :userId
-      ORDER BY f.created_at DESC
+      ORDER BY f.created_at DESC, f.place_id DESC
       LIMIT :limit OFFSET :offset
     """)
     Flux<UserFavoritePlaceRow> listFavoritesByUser(@Param("userId") Long userId,
                                                    @Param("limit") int limit,
                                                    @Param("offset") int offset);
 
+    @Query("""
+      SELECT
+          p.id,
+          p.name,
+          p.address,
+          p.description,
+          p.category_id,
+          ST_Y(p.geom::geometry) AS lat,
+          ST_X(p.geom::geometry) AS lng,
+          p.image_urls,
+          f.created_at AS favorited_at
+      FROM user_place_favorites f
+      JOIN places p ON p.id = f.place_id
+      WHERE f.user_id = :userId
+        AND (f.created_at, f.place_id) < (:afterCreatedAt, :afterPlaceId)
+      ORDER BY f.created_at DESC, f.place_id DESC
+      LIMIT :limit
+    """)
+    Flux<UserFavoritePlaceRow> listFavoritesByUserAfter(@Param("userId") Long userId,
+                                                        @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+                                                        @Param("afterPlaceId") Long afterPlaceId,
+                                                        @Param("limit") int limit);
+
 
 }
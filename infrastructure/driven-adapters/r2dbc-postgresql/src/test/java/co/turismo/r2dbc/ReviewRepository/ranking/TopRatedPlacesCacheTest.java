@@ -0,0 +1,98 @@
+package co.turismo.r2dbc.ReviewRepository.ranking;
+
+import co.turismo.model.reviews.TopRatedPlace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopRatedPlacesCacheTest {
+
+    private TopRatedPlacesCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private List<TopRatedPlace> rows;
+
+    private final IntFunction<Flux<TopRatedPlace>> loader = n -> {
+        loads.incrementAndGet();
+        return Flux.fromIterable(rows).take(n);
+    };
+
+    @BeforeEach
+    void setUp() {
+        cache = new TopRatedPlacesCache(true, 3, Duration.ofMinutes(5));
+        rows = List.of(place(1L, 4.8, 10), place(2L, 4.5, 20), place(3L, 4.0, 5), place(4L, 3.0, 2));
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromMemory() {
+        StepVerifier.create(cache.top(2, loader).map(TopRatedPlace::getId))
+                .expectNext(1L, 2L)
+                .verifyComplete();
+        StepVerifier.create(cache.top(3, loader).map(TopRatedPlace::getId))
+                .expectNext(1L, 2L, 3L)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void ratingChangeInsideTopShouldReorderWithoutReload() {
+        cache.top(3, loader).blockLast();
+
+        cache.onRatingChanged(2L, 4.9, 21L);
+
+        StepVerifier.create(cache.top(3, loader).map(TopRatedPlace::getId))
+                .expectNext(2L, 1L, 3L)
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void placeFromOutsideThatQualifiesShouldForceReload() {
+        cache.top(3, loader).blockLast();
+
+        cache.onRatingChanged(4L, 4.6, 3L);
+        rows = List.of(place(1L, 4.8, 10), place(4L, 4.6, 3), place(2L, 4.5, 20), place(3L, 4.0, 5));
+
+        StepVerifier.create(cache.top(3, loader).map(TopRatedPlace::getId))
+                .expectNext(1L, 4L, 2L)
+                .verifyComplete();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void placeFromOutsideBelowTheCutShouldNotReload() {
+        cache.top(3, loader).blockLast();
+
+        cache.onRatingChanged(4L, 3.5, 3L);
+        cache.top(3, loader).blockLast();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void lastPlaceDroppingShouldForceReload() {
+        cache.top(3, loader).blockLast();
+
+        cache.onRatingChanged(3L, 2.5, 6L);
+        cache.top(3, loader).blockLast();
+
+        assertEquals(2, loads.get());
+    }
+
+    private static TopRatedPlace place(Long id, double avg, long count) {
+        return TopRatedPlace.builder()
+                .id(id)
+                .name("Lugar " + id)
+                .avgRating(avg)
+                .reviewsCount(count)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package co.turismo.r2dbc.agency.cache;
+
+import co.turismo.r2dbc.agency.cache.AgencyMembershipCache.Membership;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AgencyMembershipCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AgencyMembershipCache cache = new AgencyMembershipCache(Duration.ofMinutes(1), 100);
+
+    private Function<String, Mono<Membership>> loader(Long userId, List<Long> agencyIds) {
+        return email -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new Membership(userId, agencyIds);
+        });
+    }
+
+    @Test
+    void shouldLoadOncePerNormalizedEmail() {
+        StepVerifier.create(cache.get("Staff@Agencia.com", loader(7L, List.of(2L))))
+                .expectNext(new Membership(7L, List.of(2L)))
+                .verifyComplete();
+        StepVerifier.create(cache.get("staff@agencia.com ", loader(7L, List.of(2L))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateUserShouldReloadEvenWithoutAgencies() {
+        StepVerifier.create(cache.get("staff@agencia.com", loader(7L, List.of())))
+                .expectNext(new Membership(7L, List.of()))
+                .verifyComplete();
+
+        cache.invalidateUser(7L);
+        StepVerifier.create(cache.get("staff@agencia.com", loader(7L, List.of(3L))))
+                .expectNext(new Membership(7L, List.of(3L)))
+                .verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateAgencyShouldOnlyDropItsMembers() {
+        StepVerifier.create(cache.get("a@agencia.com", loader(1L, List.of(2L, 4L)))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get("b@agencia.com", loader(2L, List.of(5L)))).expectNextCount(1).verifyComplete();
+
+        cache.invalidateAgency(4L);
+        StepVerifier.create(cache.get("a@agencia.com", loader(1L, List.of(2L)))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get("b@agencia.com", loader(2L, List.of(5L)))).expectNextCount(1).verifyComplete();
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void removalDuringLoadShouldNotKeepTheOldMembership() {
+        Sinks.One<Membership> gate = Sinks.one();
+        StepVerifier.create(cache.get("staff@agencia.com", email -> gate.asMono()))
+                .then(() -> {
+                    cache.invalidateUser(7L);
+                    gate.tryEmitValue(new Membership(7L, List.of(2L)));
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(cache.get("staff@agencia.com", loader(7L, List.of())))
+                .expectNext(new Membership(7L, List.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void notificationsFromOtherReplicasShouldInvalidateByUserOrAgency() {
+        StepVerifier.create(cache.get("a@agencia.com", loader(1L, List.of(2L)))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get("b@agencia.com", loader(2L, List.of(5L)))).expectNextCount(1).verifyComplete();
+
+        cache.onChange("user:1");
+        cache.onChange("agency:5");
+        cache.onChange("otra-cosa");
+        StepVerifier.create(cache.get("a@agencia.com", loader(1L, List.of()))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get("b@agencia.com", loader(2L, List.of()))).expectNextCount(1).verifyComplete();
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void unknownEmailAndErrorsShouldNotBeCached() {
+        StepVerifier.create(cache.get("nuevo@agencia.com", email -> Mono.empty())).verifyComplete();
+        StepVerifier.create(cache.get("nuevo@agencia.com", email -> Mono.error(new IllegalStateException("BD caída"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.get("nuevo@agencia.com", loader(9L, List.of(1L)))).expectNextCount(1).verifyComplete();
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,401 @@
+package co.turismo.r2dbc.analytics;
+
+import co.turismo.r2dbc.tourpackage.repository.TourPackageAdapterRepository;
+import co.turismo.r2dbc.visitsRepository.repository.VisitRepository;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.builder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * V16 (rollups del dashboard de agencias) contra Postgres real: las consultas de
+ * {@link TourPackageAdapterRepository} y {@link VisitRepository}, que suman rollup hasta el
+ * watermark y ventas en vivo después, deben dar lo mismo que la agregación completa sobre
+ * {@code tour_package_sales} antes, entre y después de cada {@code refresh_analytics_rollups()}.
+ */
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "RUN_POSTGRES_INTEGRATION", matches = "true")
+class AnalyticsRollupsPostgresIT {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withEnv("POSTGRES_HOST_AUTH_METHOD", "trust");
+
+    // Agregación completa previa a V16
+    private static final String FULL_TOP_SOLD = """
+            SELECT p.id AS package_id,
+                   COALESCE(SUM(s.quantity), 0)::int AS sold,
+                   COALESCE(SUM(s.total_amount), 0)::bigint AS revenue
+              FROM tour_package_sales s
+              JOIN tour_packages p ON p.id = s.package_id
+             WHERE p.agency_id = :agencyId
+               AND s.agency_id = :agencyId
+               AND s.sold_at::date BETWEEN :from AND :to
+             GROUP BY p.id
+            """;
+
+    private static final String FULL_SUMMARY = """
+            SELECT COALESCE(SUM(s.quantity), 0)::bigint AS total_sold,
+                   COALESCE(SUM(s.total_amount), 0)::bigint AS total_revenue
+              FROM tour_package_sales s
+             WHERE s.agency_id = :agencyId
+               AND s.sold_at::date BETWEEN :from AND :to
+            """;
+
+    private static final String FULL_TOP_PLACES = """
+            SELECT d.place_id AS placeId, SUM(d.visits)::int AS visits
+              FROM place_visit_daily d
+             WHERE d.place_id IN (
+                    SELECT tpp.place_id
+                      FROM tour_package_places tpp
+                      JOIN tour_packages tp ON tp.id = tpp.package_id
+                     WHERE tp.agency_id = :agencyId)
+               AND d.day BETWEEN :from AND :to
+             GROUP BY d.place_id
+            """;
+
+    private static ConnectionFactory connectionFactory;
+    private static DatabaseClient db;
+    private static AnalyticsRollupRefresher refresher;
+
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeAll
+    static void setUp() {
+        var options = builder()
+                .option(DRIVER, "postgresql")
+                .option(HOST, POSTGRES.getHost())
+                .option(PORT, POSTGRES.getFirstMappedPort())
+                .option(USER, POSTGRES.getUsername())
+                .option(PASSWORD, POSTGRES.getPassword())
+                .option(DATABASE, POSTGRES.getDatabaseName())
+                .build();
+        connectionFactory = io.r2dbc.spi.ConnectionFactories.get(options);
+        db = DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .build();
+        execute("""
+                CREATE TABLE places (
+                    id BIGINT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL
+                );
+                CREATE TABLE tour_packages (
+                    id BIGINT PRIMARY KEY,
+                    agency_id BIGINT,
+                    title VARCHAR(255) NOT NULL
+                );
+                CREATE TABLE tour_package_places (
+                    package_id BIGINT REFERENCES tour_packages(id) ON DELETE CASCADE,
+                    place_id BIGINT REFERENCES places(id) ON DELETE CASCADE,
+                    PRIMARY KEY (package_id, place_id)
+                );
+                CREATE TABLE tour_package_sales (
+                    id BIGSERIAL PRIMARY KEY,
+                    package_id BIGINT REFERENCES tour_packages(id) ON DELETE SET NULL,
+                    agency_id BIGINT,
+                    quantity INTEGER DEFAULT 1,
+                    total_amount BIGINT NOT NULL,
+                    sold_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP
+                );
+                CREATE TABLE place_visit_daily (
+                    day DATE NOT NULL,
+                    place_id BIGINT REFERENCES places(id),
+                    visits INTEGER DEFAULT 0,
+                    PRIMARY KEY (day, place_id)
+                );
+                """);
+        applyMigration("deployment/V16__analytics_rollups.sql");
+        refresher = new AnalyticsRollupRefresher(db, true, Duration.ofMinutes(5));
+    }
+
+    @BeforeEach
+    void reset() {
+        execute("""
+                TRUNCATE tour_package_sales, tour_package_places, place_visit_daily, tour_packages, places,
+                         agency_sales_daily, agency_place_visits_daily, analytics_rollup_state
+                """);
+        execute("""
+                INSERT INTO tour_packages (id, agency_id, title) VALUES
+                    (11, 1, 'Eje Cafetero'), (12, 1, 'Valle del Cocora'), (21, 2, 'Tatacoa');
+                INSERT INTO places (id, name) VALUES
+                    (101, 'Salento'), (102, 'Filandia'), (103, 'Desierto de la Tatacoa');
+                INSERT INTO tour_package_places (package_id, place_id) VALUES
+                    (11, 101), (11, 102), (12, 101), (21, 103), (21, 101);
+                """);
+        to = db.sql("SELECT current_date AS today")
+                .map((row, metadata) -> row.get("today", LocalDate.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+        from = to.minusDays(7);
+    }
+
+    @Test
+    void salesMatchTheFullAggregationBeforeAndAcrossRefreshes() {
+        sale(11, 1, 2, 200, "3 days");
+        sale(12, 1, 1, 150, "1 day");
+        sale(11, 1, 1, 100, "2 minutes");
+        sale(11, 1, 4, 400, "10 seconds");
+        sale(21, 2, 3, 900, "2 days");
+        sale(12, 1, 5, 500, "30 days");
+        // Sin watermark todo se suma en vivo
+        assertSalesMatchFullAggregation();
+
+        OffsetDateTime first = refresher.refresh().block(Duration.ofSeconds(10));
+        assertNotNull(first);
+        assertTrue(rollupRows() > 0);
+        assertSalesMatchFullAggregation();
+
+        // Después del watermark: solo en vivo, sin duplicar lo que ya está en el rollup
+        sale(12, 1, 2, 300, "0 seconds");
+        sale(21, 2, 1, 250, "0 seconds");
+        assertSalesMatchFullAggregation();
+
+        // Venta con fecha anterior al watermark: la recoge el recálculo del día previo
+        sale(11, 1, 7, 700, "1 day");
+        OffsetDateTime second = refresher.refresh().block(Duration.ofSeconds(10));
+        assertNotNull(second);
+        assertFalse(second.isBefore(first));
+        assertSalesMatchFullAggregation();
+    }
+
+    @Test
+    void salesOfDeletedPackagesStayInTheSummaryButNotInTheTopList() {
+        sale(11, 1, 2, 200, "2 days");
+        sale(12, 1, 1, 150, "2 days");
+        refresher.refresh().block(Duration.ofSeconds(10));
+
+        execute("DELETE FROM tour_packages WHERE id = 12");
+        refresher.refresh().block(Duration.ofSeconds(10));
+
+        assertSalesMatchFullAggregation();
+        assertEquals(List.of(3L, 350L), summary(1L));
+    }
+
+    @Test
+    void placeVisitsCountEachPlaceOncePerAgency() {
+        execute("""
+                INSERT INTO place_visit_daily (day, place_id, visits) VALUES
+                    (current_date - 1, 101, 10), (current_date - 2, 101, 5),
+                    (current_date - 1, 102, 3), (current_date - 1, 103, 8),
+                    (current_date - 20, 102, 40);
+                """);
+        refresher.refresh().block(Duration.ofSeconds(10));
+
+        // Salento está en dos paquetes de la agencia 1 y en uno de la 2
+        assertEquals(Map.of(101L, 15L, 102L, 3L), topPlaces(1L));
+        assertEquals(Map.of(101L, 15L, 103L, 8L), topPlaces(2L));
+        assertEquals(full(FULL_TOP_PLACES, 1L, "placeId"), topPlaces(1L));
+        assertEquals(full(FULL_TOP_PLACES, 2L, "placeId"), topPlaces(2L));
+
+        // El recálculo incremental retoma desde el día anterior al watermark
+        execute("UPDATE place_visit_daily SET visits = visits + 1 WHERE place_id = 101 AND day = current_date - 1");
+        refresher.refresh().block(Duration.ofSeconds(10));
+        assertEquals(Map.of(101L, 16L, 102L, 3L), topPlaces(1L));
+        assertEquals(full(FULL_TOP_PLACES, 1L, "placeId"), topPlaces(1L));
+    }
+
+    @Test
+    void refreshIsSkippedWhileAnotherRunHoldsTheLock() {
+        Connection holder = Mono.from(connectionFactory.create()).block(Duration.ofSeconds(10));
+        assertNotNull(holder);
+        try {
+            lock(holder, "pg_advisory_lock");
+            assertNull(refresher.refresh().block(Duration.ofSeconds(10)));
+            assertEquals(0L, count("SELECT COUNT(*) FROM analytics_rollup_state"));
+
+            lock(holder, "pg_advisory_unlock");
+            assertNotNull(refresher.refresh().block(Duration.ofSeconds(10)));
+            assertEquals(2L, count("SELECT COUNT(*) FROM analytics_rollup_state"));
+        } finally {
+            Mono.from(holder.close()).block(Duration.ofSeconds(10));
+        }
+    }
+
+    @Test
+    void startRefreshesRightAwayAndDestroyStopsTheTicker() throws InterruptedException {
+        AnalyticsRollupRefresher disabled = new AnalyticsRollupRefresher(db, false, Duration.ofMillis(100));
+        disabled.start();
+        Thread.sleep(300);
+        assertEquals(0L, count("SELECT COUNT(*) FROM analytics_rollup_state"));
+        disabled.destroy();
+
+        AnalyticsRollupRefresher scheduled = new AnalyticsRollupRefresher(db, true, Duration.ofMillis(100));
+        scheduled.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (count("SELECT COUNT(*) FROM analytics_rollup_state") == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(2L, count("SELECT COUNT(*) FROM analytics_rollup_state"));
+        } finally {
+            scheduled.destroy();
+        }
+
+        Thread.sleep(200);
+        execute("DELETE FROM analytics_rollup_state");
+        Thread.sleep(300);
+        assertEquals(0L, count("SELECT COUNT(*) FROM analytics_rollup_state"));
+    }
+
+    private void assertSalesMatchFullAggregation() {
+        for (long agencyId : new long[]{1L, 2L}) {
+            assertEquals(full(FULL_TOP_SOLD, agencyId, "package_id"), topSold(agencyId), "agencia " + agencyId);
+            List<Long> expected = db.sql(FULL_SUMMARY)
+                    .bind("agencyId", agencyId)
+                    .bind("from", from)
+                    .bind("to", to)
+                    .map((row, metadata) -> List.of(row.get("total_sold", Long.class),
+                            row.get("total_revenue", Long.class)))
+                    .one()
+                    .block(Duration.ofSeconds(10));
+            assertEquals(expected, summary(agencyId), "agencia " + agencyId);
+        }
+    }
+
+    private Map<Long, String> topSold(long agencyId) {
+        return db.sql(query(TourPackageAdapterRepository.class, "topSoldByAgency"))
+                .bind("agencyId", agencyId)
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", 100)
+                .map((row, metadata) -> Map.entry(row.get("package_id", Long.class),
+                        row.get("sold", Integer.class) + "/" + row.get("revenue", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, TreeMap::new)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private List<Long> summary(long agencyId) {
+        return db.sql(query(TourPackageAdapterRepository.class, "salesSummaryByAgency"))
+                .bind("agencyId", agencyId)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> List.of(row.get("total_sold", Long.class),
+                        row.get("total_revenue", Long.class)))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private Map<Long, Long> topPlaces(long agencyId) {
+        return db.sql(query(VisitRepository.class, "topPlacesByAgency"))
+                .bind("agencyId", agencyId)
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", 100)
+                .map((row, metadata) -> Map.entry(row.get("placeId", Long.class),
+                        row.get("visits", Integer.class).longValue()))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, TreeMap::new)
+                .block(Duration.ofSeconds(10));
+    }
+
+    // Misma agregación sin rollup; las filas se comparan con el mismo formato que la consulta real
+    private Map<Long, Object> full(String sql, long agencyId, String key) {
+        return db.sql(sql)
+                .bind("agencyId", agencyId)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> Map.<Long, Object>entry(row.get(key, Long.class),
+                        key.equals("package_id")
+                                ? row.get("sold", Integer.class) + "/" + row.get("revenue", Long.class)
+                                : row.get("visits", Integer.class).longValue()))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, TreeMap::new)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static String query(Class<?> repository, String method) {
+        Method found = Arrays.stream(repository.getMethods())
+                .filter(candidate -> candidate.getName().equals(method))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No existe " + repository.getSimpleName() + "." + method));
+        return found.getAnnotation(Query.class).value();
+    }
+
+    private static void sale(long packageId, long agencyId, int quantity, long amount, String ago) {
+        db.sql("""
+                        INSERT INTO tour_package_sales (package_id, agency_id, quantity, total_amount, sold_at)
+                        VALUES (:packageId, :agencyId, :quantity, :amount, now() - CAST(:ago AS INTERVAL))
+                        """)
+                .bind("packageId", packageId)
+                .bind("agencyId", agencyId)
+                .bind("quantity", quantity)
+                .bind("amount", amount)
+                .bind("ago", ago)
+                .fetch()
+                .rowsUpdated()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void lock(Connection connection, String function) {
+        Flux.from(connection.createStatement(
+                        "SELECT " + function + "(hashtext('refresh_analytics_rollups'))").execute())
+                .flatMap(Result::getRowsUpdated)
+                .blockLast(Duration.ofSeconds(10));
+    }
+
+    private static long rollupRows() {
+        return count("SELECT COUNT(*) FROM agency_sales_daily");
+    }
+
+    private static long count(String sql) {
+        return db.sql(sql)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    // Sin parámetros el driver usa el protocolo simple: admite el archivo completo, con $$ incluidos
+    private static void applyMigration(String relative) {
+        try {
+            Path root = Path.of("").toAbsolutePath();
+            while (root != null && !Files.exists(root.resolve(relative))) {
+                root = root.getParent();
+            }
+            if (root == null) {
+                throw new java.nio.file.NoSuchFileException(relative);
+            }
+            execute(Files.readString(root.resolve(relative)));
+        } catch (Exception error) {
+            throw new IllegalStateException("No se pudo aplicar " + relative, error);
+        }
+    }
+
+    private static void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().onErrorResume(error -> Mono.error(error)).block(Duration.ofSeconds(10));
+    }
+}
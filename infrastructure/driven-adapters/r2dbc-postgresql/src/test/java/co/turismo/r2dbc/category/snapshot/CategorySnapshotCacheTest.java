@@ -0,0 +1,101 @@
+package co.turismo.r2dbc.category.snapshot;
+
+import co.turismo.model.category.Category;
+import co.turismo.model.category.CategorySnapshot;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CategorySnapshotCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicReference<List<Category>> table = new AtomicReference<>(List.of(category(1L, "Parques")));
+
+    private final Supplier<Flux<Category>> loader = () -> Flux.defer(() -> {
+        loads.incrementAndGet();
+        return Flux.fromIterable(table.get());
+    });
+
+    private static Category category(Long id, String name) {
+        return Category.builder().id(id).slug(name.toLowerCase()).name(name).build();
+    }
+
+    @Test
+    void shouldServeFromMemoryUntilInvalidated() {
+        CategorySnapshotCache cache = new CategorySnapshotCache(Duration.ofMinutes(10));
+
+        CategorySnapshot first = cache.get(loader).block();
+        cache.get(loader).block();
+        assertEquals(1, loads.get());
+
+        table.set(List.of(category(1L, "Parques"), category(2L, "Aventura")));
+        cache.invalidate();
+        CategorySnapshot second = cache.get(loader).block();
+
+        assertEquals(2, loads.get());
+        assertEquals(2, second.categories().size());
+        assertEquals("Aventura", second.findById(2L).getName());
+        assertNotEquals(first.version(), second.version());
+    }
+
+    @Test
+    void versionShouldOnlyDependOnContent() {
+        CategorySnapshot a = CategorySnapshot.of(List.of(category(1L, "Parques")));
+        CategorySnapshot b = CategorySnapshot.of(List.of(category(1L, "Parques")));
+
+        assertEquals(a.version(), b.version());
+    }
+
+    @Test
+    void concurrentMissesShouldShareOneLoad() {
+        CategorySnapshotCache cache = new CategorySnapshotCache(Duration.ofMinutes(10));
+        Sinks.One<List<Category>> gate = Sinks.one();
+        Supplier<Flux<Category>> slow = () -> {
+            loads.incrementAndGet();
+            return gate.asMono().flatMapIterable(list -> list);
+        };
+
+        StepVerifier.create(Flux.merge(cache.get(slow), cache.get(slow)))
+                .then(() -> gate.tryEmitValue(table.get()))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidationDuringLoadShouldNotStoreStaleSnapshot() {
+        CategorySnapshotCache cache = new CategorySnapshotCache(Duration.ofMinutes(10));
+        Sinks.One<List<Category>> gate = Sinks.one();
+        Supplier<Flux<Category>> slow = () -> gate.asMono().flatMapIterable(list -> list);
+
+        StepVerifier.create(cache.get(slow))
+                .then(cache::invalidate)
+                .then(() -> gate.tryEmitValue(table.get()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        cache.get(loader).block();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void expiredSnapshotShouldReload() {
+        CategorySnapshotCache cache = new CategorySnapshotCache(Duration.ZERO);
+
+        cache.get(loader).block();
+        cache.get(loader).block();
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,74 @@
+package co.turismo.r2dbc.helper;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GenerationalAsyncCacheTest {
+
+    private final GenerationalAsyncCache<String, Long> cache = new GenerationalAsyncCache<>(Duration.ofMinutes(5), 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Function<String, Mono<Long>> loader(long value) {
+        return key -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+
+    @Test
+    void invalidateIfShouldDropMatchingValuesOnly() {
+        StepVerifier.create(cache.get("a", loader(1L))).expectNext(1L).verifyComplete();
+        StepVerifier.create(cache.get("b", loader(2L))).expectNext(2L).verifyComplete();
+
+        cache.invalidateIf(value -> value == 1L);
+
+        StepVerifier.create(cache.get("a", loader(3L))).expectNext(3L).verifyComplete();
+        StepVerifier.create(cache.get("b", loader(4L))).expectNext(2L).verifyComplete();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void loadInFlightDuringInvalidationShouldNotBeKept() {
+        Sinks.One<Long> gate = Sinks.one();
+        StepVerifier.create(cache.get("a", key -> gate.asMono()))
+                .then(() -> {
+                    cache.invalidateIf(value -> value == 1L);
+                    gate.tryEmitValue(1L);
+                })
+                .expectNext(1L)
+                .verifyComplete();
+
+        StepVerifier.create(cache.get("a", loader(5L))).expectNext(5L).verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void lookupAfterInvalidationShouldNotJoinOlderLoad() {
+        Sinks.One<Long> stale = Sinks.one();
+        cache.get("a", key -> stale.asMono()).subscribe();
+
+        cache.invalidate("a");
+
+        StepVerifier.create(cache.get("a", loader(7L))).expectNext(7L).verifyComplete();
+        stale.tryEmitValue(1L);
+        StepVerifier.create(cache.get("a", loader(8L))).expectNext(7L).verifyComplete();
+    }
+
+    @Test
+    void emptyAndErrorsShouldNotBeCached() {
+        StepVerifier.create(cache.get("a", key -> Mono.empty())).verifyComplete();
+        StepVerifier.create(cache.get("a", key -> Mono.error(new IllegalStateException("BD caída"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.get("a", loader(9L))).expectNext(9L).verifyComplete();
+    }
+}
@@ -0,0 +1,51 @@
+package co.turismo.r2dbc.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AppNotificationStreamLifecycleTest {
+
+    private SimpleMeterRegistry registry;
+    private AppNotificationRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        adapter = new AppNotificationRepositoryAdapter(null, new NotificationFanoutChannel(null, ""), registry);
+    }
+
+    @Test
+    void sinkShouldExistOnlyWhileSomeoneIsSubscribed() {
+        assertEquals(0, gauge("notifications.stream.sinks"));
+
+        Disposable first = adapter.streamByRecipientEmail("ana@example.com").subscribe();
+        Disposable second = adapter.streamByRecipientEmail("ana@example.com").subscribe();
+        assertEquals(1, gauge("notifications.stream.sinks"));
+        assertEquals(2, gauge("notifications.stream.subscribers"));
+
+        first.dispose();
+        assertEquals(1, gauge("notifications.stream.sinks"));
+
+        second.dispose();
+        assertEquals(0, gauge("notifications.stream.sinks"));
+        assertEquals(0, gauge("notifications.stream.subscribers"));
+    }
+
+    @Test
+    void resubscribingAfterLastCancelShouldCreateFreshSink() {
+        adapter.streamByRecipientEmail("ana@example.com").subscribe().dispose();
+
+        Disposable again = adapter.streamByRecipientEmail("ana@example.com").subscribe();
+
+        assertEquals(1, gauge("notifications.stream.sinks"));
+        again.dispose();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,47 @@
+package co.turismo.r2dbc.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NotificationFanoutChannelTest {
+
+    @Test
+    void parseShouldBuildFullNotification() {
+        NotificationFanoutChannel.Message message = NotificationFanoutChannel.parse("""
+                {"id": 12, "recipientEmail": "ana@example.com", "type": "RESERVATION_CREATED",
+                 "title": "Nueva reserva", "message": "Hola", "reservationId": "R-1",
+                 "agencyId": 3, "read": false, "createdAt": "2026-05-01T10:15:30.123456+00:00"}
+                """);
+
+        assertEquals(12L, message.id());
+        assertEquals("ana@example.com", message.recipientEmail());
+        assertEquals("Nueva reserva", message.notification().getTitle());
+        assertEquals(3L, message.notification().getAgencyId());
+        assertEquals(OffsetDateTime.parse("2026-05-01T10:15:30.123456Z"), message.notification().getCreatedAt());
+    }
+
+    @Test
+    void parseShouldKeepOnlyReferenceWhenPayloadWasTruncated() {
+        NotificationFanoutChannel.Message message = NotificationFanoutChannel.parse(
+                "{\"id\": 12, \"recipientEmail\": \"ana@example.com\"}");
+
+        assertEquals(12L, message.id());
+        assertNull(message.notification());
+    }
+
+    @Test
+    void parseShouldIgnoreInvalidPayloads() {
+        assertNull(NotificationFanoutChannel.parse("no-json"));
+        assertNull(NotificationFanoutChannel.parse("{\"recipientEmail\": \"ana@example.com\"}"));
+    }
+
+    @Test
+    void shouldRejectInvalidChannelNames() {
+        assertThrows(IllegalArgumentException.class, () -> new NotificationFanoutChannel(null, "canal; DROP"));
+    }
+}
@@ -0,0 +1,193 @@
+package co.turismo.r2dbc.notification.outbox;
+
+import co.turismo.model.notification.EmailMessage;
+import co.turismo.model.notification.OutboxEmail;
+import co.turismo.model.notification.gateways.EmailDeliveryGateway;
+import co.turismo.model.notification.gateways.EmailOutboxGateway;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailOutboxDispatcherTest {
+
+    /** Outbox en memoria: lo tomado no vuelve a salir hasta reprogramarse. */
+    private static final class InMemoryOutbox implements EmailOutboxGateway {
+        final Map<Long, OutboxEmail> pending = new ConcurrentHashMap<>();
+        final Set<Long> sent = ConcurrentHashMap.newKeySet();
+        final Set<Long> dead = ConcurrentHashMap.newKeySet();
+        final Map<Long, Duration> rescheduled = new ConcurrentHashMap<>();
+        final List<Duration> purges = new CopyOnWriteArrayList<>();
+        long finished;
+
+        void add(long id, int previousAttempts) {
+            pending.put(id, new OutboxEmail(id, new EmailMessage(id + "@x.co", "s" + id, "<p/>"), previousAttempts));
+        }
+
+        @Override
+        public Flux<OutboxEmail> claimBatch(int size, Duration lease) {
+            List<OutboxEmail> claimed = new ArrayList<>();
+            pending.keySet().stream().sorted().limit(size).forEach(id -> {
+                OutboxEmail e = pending.remove(id);
+                claimed.add(new OutboxEmail(e.id(), e.message(), e.attempts() + 1));
+            });
+            return Flux.fromIterable(claimed);
+        }
+
+        @Override
+        public Mono<Void> markSent(List<Long> ids) {
+            return Mono.fromRunnable(() -> sent.addAll(ids));
+        }
+
+        @Override
+        public Mono<Void> reschedule(Long id, Duration delay, String error) {
+            return Mono.fromRunnable(() -> rescheduled.put(id, delay));
+        }
+
+        @Override
+        public Mono<Void> markDead(Long id, String error) {
+            return Mono.fromRunnable(() -> dead.add(id));
+        }
+
+        @Override
+        public Mono<Long> purgeFinished(Duration retention, int limit) {
+            return Mono.fromSupplier(() -> {
+                purges.add(retention);
+                long deleted = Math.min(limit, finished);
+                finished -= deleted;
+                return deleted;
+            });
+        }
+    }
+
+    private final InMemoryOutbox outbox = new InMemoryOutbox();
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    private EmailOutboxDispatcher dispatcher(EmailDeliveryGateway delivery, int batchSize, int chunkSize) {
+        return new EmailOutboxDispatcher(outbox, delivery, true, Duration.ofSeconds(1),
+                batchSize, chunkSize, 2, 3, Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofMinutes(5),
+                Duration.ofDays(7), Duration.ofHours(1));
+    }
+
+    private EmailDeliveryGateway recording(Set<String> failingRecipients) {
+        return messages -> {
+            calls.add(messages.stream().map(EmailMessage::to).toList());
+            boolean fails = messages.stream().anyMatch(m -> failingRecipients.contains(m.to()));
+            return fails ? Mono.error(new IllegalStateException("Brevo error 400")) : Mono.empty();
+        };
+    }
+
+    @Test
+    void freshEmailsShouldBeSentInChunks() {
+        for (long id = 1; id <= 5; id++) {
+            outbox.add(id, 0);
+        }
+
+        StepVerifier.create(dispatcher(recording(Set.of()), 10, 2).dispatchOnce())
+                .expectNext(5)
+                .verifyComplete();
+
+        assertEquals(3, calls.size());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), outbox.sent);
+    }
+
+    @Test
+    void failedChunkShouldBeRescheduledWithBackoff() {
+        outbox.add(1, 0);
+        outbox.add(2, 0);
+
+        StepVerifier.create(dispatcher(recording(Set.of("2@x.co")), 10, 10).dispatchOnce())
+                .expectNext(2)
+                .verifyComplete();
+
+        assertTrue(outbox.sent.isEmpty());
+        assertEquals(Map.of(1L, Duration.ofSeconds(30), 2L, Duration.ofSeconds(30)), outbox.rescheduled);
+    }
+
+    @Test
+    void retriesShouldBeSentOneByOneSoAPoisonMessageDoesNotBlockOthers() {
+        outbox.add(1, 1);
+        outbox.add(2, 1);
+
+        StepVerifier.create(dispatcher(recording(Set.of("2@x.co")), 10, 10).dispatchOnce())
+                .expectNext(2)
+                .verifyComplete();
+
+        assertEquals(2, calls.size());
+        assertEquals(Set.of(1L), outbox.sent);
+        assertEquals(Map.of(2L, Duration.ofSeconds(60)), outbox.rescheduled);
+    }
+
+    @Test
+    void lastAttemptShouldMarkEmailDead() {
+        outbox.add(1, 2);
+
+        StepVerifier.create(dispatcher(recording(Set.of("1@x.co")), 10, 10).dispatchOnce())
+                .expectNext(1)
+                .verifyComplete();
+
+        assertEquals(Set.of(1L), outbox.dead);
+        assertTrue(outbox.rescheduled.isEmpty());
+    }
+
+    @Test
+    void hungDeliveryShouldTimeOutWellBeforeTheLeaseAndCountAsAFailedAttempt() {
+        outbox.add(1, 0);
+        outbox.add(2, 0);
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(outbox, messages -> Mono.never(), true,
+                Duration.ofSeconds(1), 10, 10, 2, 3, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofMillis(400), Duration.ofDays(7), Duration.ofHours(1));
+
+        StepVerifier.create(dispatcher.dispatchOnce())
+                .expectNext(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertTrue(outbox.sent.isEmpty());
+        assertEquals(Map.of(1L, Duration.ofSeconds(30), 2L, Duration.ofSeconds(30)), outbox.rescheduled);
+    }
+
+    @Test
+    void drainShouldKeepClaimingWhileBatchesAreFull() {
+        for (long id = 1; id <= 5; id++) {
+            outbox.add(id, 0);
+        }
+
+        StepVerifier.create(dispatcher(recording(Set.of()), 2, 2).drain()).verifyComplete();
+
+        assertEquals(5, outbox.sent.size());
+        assertTrue(outbox.pending.isEmpty());
+    }
+
+    @Test
+    void purgeShouldDeleteInBatchesUntilABatchIsNotFull() {
+        outbox.finished = 2L * EmailOutboxDispatcher.PURGE_BATCH + 5;
+
+        StepVerifier.create(dispatcher(recording(Set.of()), 10, 10).purge())
+                .expectNext(2L * EmailOutboxDispatcher.PURGE_BATCH + 5)
+                .verifyComplete();
+
+        assertEquals(0, outbox.finished);
+        assertEquals(List.of(Duration.ofDays(7), Duration.ofDays(7), Duration.ofDays(7)), outbox.purges);
+    }
+
+    @Test
+    void backoffShouldGrowExponentiallyUpToTheCap() {
+        EmailOutboxDispatcher dispatcher = dispatcher(recording(Set.of()), 10, 10);
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(20));
+    }
+}
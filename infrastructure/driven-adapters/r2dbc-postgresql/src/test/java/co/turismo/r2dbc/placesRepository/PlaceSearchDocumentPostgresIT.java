@@ -0,0 +1,200 @@
+package co.turismo.r2dbc.placesRepository;
+
+import co.turismo.r2dbc.placesRepository.repository.PlaceAdapterRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.builder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * V12 (documento de búsqueda mantenido por trigger) contra Postgres real, ejecutando las
+ * consultas TEXT y FULLTEXT tal como están en {@link PlaceAdapterRepository}.
+ */
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "RUN_POSTGRES_INTEGRATION", matches = "true")
+class PlaceSearchDocumentPostgresIT {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4-alpine").asCompatibleSubstituteFor("postgres"))
+            .withEnv("POSTGRES_HOST_AUTH_METHOD", "trust");
+
+    private static DatabaseClient db;
+
+    @BeforeAll
+    static void setUp() {
+        var options = builder()
+                .option(DRIVER, "postgresql")
+                .option(HOST, POSTGRES.getHost())
+                .option(PORT, POSTGRES.getFirstMappedPort())
+                .option(USER, POSTGRES.getUsername())
+                .option(PASSWORD, POSTGRES.getPassword())
+                .option(DATABASE, POSTGRES.getDatabaseName())
+                .build();
+        db = DatabaseClient.builder()
+                .connectionFactory(io.r2dbc.spi.ConnectionFactories.get(options))
+                .build();
+        execute("CREATE EXTENSION IF NOT EXISTS postgis");
+        execute("""
+                CREATE TABLE places (
+                    id BIGSERIAL PRIMARY KEY,
+                    owner_user_id BIGINT,
+                    name VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    category_id BIGINT,
+                    address TEXT,
+                    phone VARCHAR(50),
+                    website TEXT,
+                    image_urls TEXT[],
+                    model_3d_urls TEXT[],
+                    services TEXT[],
+                    is_verified BOOLEAN DEFAULT FALSE,
+                    is_active BOOLEAN DEFAULT TRUE,
+                    geom GEOMETRY(Point, 4326),
+                    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+        // Fila previa a la migración: el backfill de V12 debe indexarla
+        insertPlace("Hacienda Panaca Antigua", "Quimbaya, Quindío", "Parque temático", true);
+        applyMigration("deployment/V12__places_search_document.sql");
+    }
+
+    @Test
+    void backfillIndexesRowsThatExistedBeforeTheMigration() {
+        assertEquals(List.of("Hacienda Panaca Antigua"), fullText("panaca"));
+        assertEquals(List.of("Hacienda Panaca Antigua"), text("quindio"));
+    }
+
+    @Test
+    void fullTextMatchesAccentInsensitivePrefixesOfEveryTerm() {
+        insertPlace("Desierto de la Tatacoa", "Villavieja, Huila", "Bosque seco tropical", true);
+        insertPlace("Museo Arqueológico Regional", "Neiva", "Piezas de San Agustín", true);
+
+        assertEquals(List.of("Desierto de la Tatacoa"), fullText("desierto tata"));
+        assertEquals(List.of("Museo Arqueológico Regional"), fullText("ARQUEO"));
+        assertEquals(List.of("Museo Arqueológico Regional"), fullText("agustín piez"));
+        assertEquals(List.of(), fullText("desierto museo"));
+    }
+
+    @Test
+    void fullTextRanksNameMatchesAboveDescriptionMatches() {
+        insertPlace("Mirador del Valle", "Salento", "Vista a la cascada chorrerita", true);
+        insertPlace("Cascada Chorrerita", "Salento", "Sendero corto", true);
+
+        assertEquals(List.of("Cascada Chorrerita", "Mirador del Valle"), fullText("chorrerita"));
+    }
+
+    @Test
+    void textModeFindsSubstringsOfTheNormalizedDocument() {
+        insertPlace("Termales Santa Rosa", "Santa Rosa de Cabal", "Aguas termales", true);
+
+        assertEquals(List.of("Termales Santa Rosa"), text("ROSA DE CAB"));
+        assertEquals(List.of("Termales Santa Rosa"), text("rmales  santa"));
+    }
+
+    @Test
+    void triggerRefreshesTheDocumentWhenTheNameChanges() {
+        insertPlace("Laguna Guatavita", "Sesquilé", "Leyenda de El Dorado", true);
+
+        execute("UPDATE places SET name = 'Laguna Sagrada de Iguaque' WHERE name = 'Laguna Guatavita'");
+
+        assertEquals(List.of(), fullText("guatavita"));
+        assertEquals(List.of("Laguna Sagrada de Iguaque"), fullText("iguaque"));
+        assertEquals(List.of("Laguna Sagrada de Iguaque"), text("sesquile"));
+    }
+
+    @Test
+    void inactivePlacesAreNotReturned() {
+        insertPlace("Cañón del Chicamocha", "Santander", "Teleférico", false);
+
+        assertEquals(List.of(), fullText("chicamocha"));
+        assertEquals(List.of(), text("chicamocha"));
+    }
+
+    private static List<String> fullText(String q) {
+        return run("fullTextSearch", q);
+    }
+
+    private static List<String> text(String q) {
+        return run("search", q);
+    }
+
+    // Ejecuta la consulta de la anotación @Query, sin filtro de categoría ni cercanía
+    private static List<String> run(String method, String q) {
+        String sql;
+        try {
+            sql = PlaceAdapterRepository.class.getMethod(method, String.class, Long.class, boolean.class,
+                            Double.class, Double.class, Double.class, int.class, int.class)
+                    .getAnnotation(Query.class)
+                    .value();
+        } catch (NoSuchMethodException error) {
+            throw new IllegalStateException(error);
+        }
+        return db.sql(sql)
+                .bind("q", q)
+                .bindNull("categoryId", Long.class)
+                .bind("onlyNearby", false)
+                .bindNull("lat", Double.class)
+                .bindNull("lng", Double.class)
+                .bindNull("radiusMeters", Double.class)
+                .bind("limit", 10)
+                .bind("offset", 0)
+                .map((row, metadata) -> row.get("name", String.class))
+                .all()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void insertPlace(String name, String address, String description, boolean active) {
+        db.sql("""
+                        INSERT INTO places (name, address, description, is_active, geom)
+                        VALUES (:name, :address, :description, :active, ST_SetSRID(ST_MakePoint(-75.6, 4.5), 4326))
+                        """)
+                .bind("name", name)
+                .bind("address", address)
+                .bind("description", description)
+                .bind("active", active)
+                .fetch()
+                .rowsUpdated()
+                .block(Duration.ofSeconds(10));
+    }
+
+    // Sin parámetros el driver usa el protocolo simple: admite el archivo completo, con $$ incluidos
+    private static void applyMigration(String relative) {
+        try {
+            Path root = Path.of("").toAbsolutePath();
+            while (root != null && !Files.exists(root.resolve(relative))) {
+                root = root.getParent();
+            }
+            if (root == null) {
+                throw new java.nio.file.NoSuchFileException(relative);
+            }
+            execute(Files.readString(root.resolve(relative)));
+        } catch (Exception error) {
+            throw new IllegalStateException("No se pudo aplicar " + relative, error);
+        }
+    }
+
+    private static void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().onErrorResume(error -> Mono.error(error)).block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,107 @@
+package co.turismo.r2dbc.placesRepository.index;
+
+import co.turismo.model.place.Place;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceGeoIndexTest {
+
+    // Neiva, Huila
+    private static final double LAT = 2.9273;
+    private static final double LNG = -75.2819;
+
+    private PlaceGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PlaceGeoIndex(true, 0.05, Duration.ofMinutes(5));
+        index.beginLoad();
+        index.replaceAll(List.of(
+                place(1L, 10L, LAT + 0.001, LNG),
+                place(2L, 10L, LAT + 0.02, LNG),
+                place(3L, 20L, LAT + 0.005, LNG + 0.005),
+                place(4L, 10L, LAT + 1.0, LNG)));
+    }
+
+    @Test
+    void findNearbyShouldFilterByRadiusAndSortByDistance() {
+        List<Place> result = index.findNearby(LAT, LNG, 5_000, null, 10, 0);
+
+        assertEquals(List.of(1L, 3L, 2L), result.stream().map(Place::getId).toList());
+        assertTrue(result.get(0).getDistanceMeters() < result.get(1).getDistanceMeters());
+    }
+
+    @Test
+    void findNearbyShouldFilterByCategoryAndPaginate() {
+        List<Place> result = index.findNearby(LAT, LNG, 5_000, 10L, 1, 1);
+
+        assertEquals(List.of(2L), result.stream().map(Place::getId).toList());
+    }
+
+    @Test
+    void upsertShouldMovePlaceAndRemoveWhenInactive() {
+        index.upsert(place(4L, 10L, LAT, LNG + 0.001));
+        assertEquals(1L, index.findNearby(LAT, LNG, 500, 10L, 10, 0).stream()
+                .filter(p -> p.getId() == 4L).count());
+
+        Place inactive = place(4L, 10L, LAT, LNG + 0.001);
+        inactive.setIsActive(false);
+        index.upsert(inactive);
+        index.remove(1L);
+
+        assertTrue(index.findNearby(LAT, LNG, 500, 10L, 10, 0).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void writesDuringLoadShouldWinOverLoadedSnapshot() {
+        index.beginLoad();
+        index.upsert(place(5L, 10L, LAT, LNG));
+        index.remove(2L);
+        index.replaceAll(List.of(place(2L, 10L, LAT + 0.02, LNG)));
+
+        List<Long> ids = index.findNearby(LAT, LNG, 5_000, null, 10, 0).stream().map(Place::getId).toList();
+        assertEquals(List.of(5L), ids);
+    }
+
+    @Test
+    void ensureLoadedShouldInvokeLoaderOnlyOnceWithinRefreshInterval() {
+        PlaceGeoIndex lazy = new PlaceGeoIndex(true, 0.05, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(lazy.ensureLoaded(() -> {
+                    loads.incrementAndGet();
+                    return Flux.just(place(1L, 10L, LAT, LNG));
+                }).then(lazy.ensureLoaded(Flux::empty)))
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, lazy.size());
+    }
+
+    @Test
+    void distanceShouldMatchKnownValue() {
+        // ~1 grado de latitud
+        double meters = PlaceGeoIndex.distanceMeters(0, 0, 1, 0);
+        assertEquals(111_195, meters, 100);
+    }
+
+    private static Place place(Long id, Long categoryId, double lat, double lng) {
+        return Place.builder()
+                .id(id)
+                .categoryId(categoryId)
+                .lat(lat)
+                .lng(lng)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package co.turismo.r2dbc.ratelimit;
+
+import co.turismo.model.ratelimit.RateLimitLease;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.builder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "RUN_POSTGRES_INTEGRATION", matches = "true")
+class RateLimitBucketsPostgresIT {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withEnv("POSTGRES_HOST_AUTH_METHOD", "trust");
+
+    private static DatabaseClient db;
+    private static RateLimitLeaseRepositoryAdapter buckets;
+    private static RateLimitBucketPurger purger;
+
+    @BeforeAll
+    static void setUp() {
+        var options = builder()
+                .option(DRIVER, "postgresql")
+                .option(HOST, POSTGRES.getHost())
+                .option(PORT, POSTGRES.getFirstMappedPort())
+                .option(USER, POSTGRES.getUsername())
+                .option(PASSWORD, POSTGRES.getPassword())
+                .option(DATABASE, POSTGRES.getDatabaseName())
+                .build();
+        db = DatabaseClient.builder()
+                .connectionFactory(io.r2dbc.spi.ConnectionFactories.get(options))
+                .build();
+        applyMigration("deployment/V15__rate_limit_buckets.sql");
+        buckets = new RateLimitLeaseRepositoryAdapter(db);
+        purger = new RateLimitBucketPurger(db, Duration.ofHours(1), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void purgeDeletesOnlyIdleBucketsAndAPurgedKeyStartsFull() {
+        execute("TRUNCATE rate_limit_buckets");
+        acquire("rl:/api:10.0.0.1", 4);
+        acquire("rl:/api:10.0.0.2", 4);
+        execute("UPDATE rate_limit_buckets SET refilled_at = now() - INTERVAL '2 hours' WHERE bucket_key = 'rl:/api:10.0.0.1'");
+
+        assertEquals(1L, purger.purge().block(Duration.ofSeconds(10)));
+        assertEquals(1L, count());
+
+        RateLimitLease fresh = acquire("rl:/api:10.0.0.1", 1);
+        assertEquals(1, fresh.granted());
+        assertEquals(9, fresh.remaining());
+        assertEquals(0L, purger.purge().block(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void purgeKeepsDeletingWhileBatchesAreFull() {
+        execute("TRUNCATE rate_limit_buckets");
+        execute("""
+                INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at)
+                SELECT 'rl:/api:idle-' || i, 10, now() - INTERVAL '3 hours'
+                  FROM generate_series(1, 2500) AS i
+                """);
+
+        assertEquals(2500L, purger.purge().block(Duration.ofSeconds(10)));
+        assertEquals(0L, count());
+    }
+
+    private static RateLimitLease acquire(String key, long requested) {
+        RateLimitLease lease = buckets.acquire(key, 10, 10, Duration.ofMinutes(1), requested)
+                .block(Duration.ofSeconds(10));
+        assertNotNull(lease);
+        return lease;
+    }
+
+    private static long count() {
+        return db.sql("SELECT COUNT(*) FROM rate_limit_buckets")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    // Sin parámetros el driver usa el protocolo simple: admite el archivo completo, con $$ incluidos
+    private static void applyMigration(String relative) {
+        try {
+            Path root = Path.of("").toAbsolutePath();
+            while (root != null && !Files.exists(root.resolve(relative))) {
+                root = root.getParent();
+            }
+            if (root == null) {
+                throw new java.nio.file.NoSuchFileException(relative);
+            }
+            execute(Files.readString(root.resolve(relative)));
+        } catch (Exception error) {
+            throw new IllegalStateException("No se pudo aplicar " + relative, error);
+        }
+    }
+
+    private static void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().onErrorResume(error -> Mono.error(error)).block(Duration.ofSeconds(10));
+    }
+}
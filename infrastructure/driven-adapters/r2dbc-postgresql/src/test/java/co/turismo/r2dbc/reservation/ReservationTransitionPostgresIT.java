@@ -0,0 +1,318 @@
+package co.turismo.r2dbc.reservation;
+
+import co.turismo.model.reservation.ReservationMessage;
+import co.turismo.model.reservation.ReservationTransition;
+import co.turismo.model.reservation.ReservationTransitionResult;
+import co.turismo.model.reservation.ReservationTransitionResult.Outcome;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.builder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "RUN_POSTGRES_INTEGRATION", matches = "true")
+class ReservationTransitionPostgresIT {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withEnv("POSTGRES_HOST_AUTH_METHOD", "trust");
+
+    private static final long AGENCY_ID = 1L;
+    private static final long OTHER_AGENCY_ID = 2L;
+
+    private static DatabaseClient db;
+    private static ReservationRepositoryAdapter reservations;
+
+    @BeforeAll
+    static void setUp() {
+        var options = builder()
+                .option(DRIVER, "postgresql")
+                .option(HOST, POSTGRES.getHost())
+                .option(PORT, POSTGRES.getFirstMappedPort())
+                .option(USER, POSTGRES.getUsername())
+                .option(PASSWORD, POSTGRES.getPassword())
+                .option(DATABASE, POSTGRES.getDatabaseName())
+                .build();
+        db = DatabaseClient.builder()
+                .connectionFactory(io.r2dbc.spi.ConnectionFactories.get(options))
+                .build();
+        execute("""
+                CREATE TABLE reservations (
+                    id VARCHAR(80) PRIMARY KEY,
+                    user_email VARCHAR(255) NOT NULL,
+                    tour_package_id BIGINT,
+                    agency_id BIGINT,
+                    package_title VARCHAR(255),
+                    total_amount NUMERIC(12, 2),
+                    currency VARCHAR(3),
+                    start_date DATE,
+                    end_date DATE,
+                    status VARCHAR(30) NOT NULL,
+                    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+                )
+                """);
+        execute("""
+                CREATE TABLE reservation_details (
+                    reservation_id VARCHAR(80) PRIMARY KEY REFERENCES reservations(id) ON DELETE CASCADE,
+                    travelers INTEGER NOT NULL,
+                    customer_phone VARCHAR(30),
+                    contact_preference VARCHAR(30) NOT NULL,
+                    customer_message TEXT,
+                    consent_accepted BOOLEAN NOT NULL DEFAULT FALSE,
+                    consent_version VARCHAR(30),
+                    consent_accepted_at TIMESTAMPTZ,
+                    payment_provider VARCHAR(30),
+                    payment_status VARCHAR(30),
+                    payment_id VARCHAR(80),
+                    paid_at TIMESTAMPTZ,
+                    agency_notes TEXT,
+                    contacted_at TIMESTAMPTZ,
+                    confirmed_at TIMESTAMPTZ,
+                    cancelled_at TIMESTAMPTZ,
+                    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+                )
+                """);
+        execute("""
+                CREATE TABLE reservation_messages (
+                    id BIGSERIAL PRIMARY KEY,
+                    reservation_id VARCHAR(80) NOT NULL REFERENCES reservations(id) ON DELETE CASCADE,
+                    sender_email VARCHAR(255) NOT NULL,
+                    sender_type VARCHAR(20) NOT NULL,
+                    body TEXT NOT NULL,
+                    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+                )
+                """);
+        execute("""
+                CREATE TABLE payment_transactions (
+                    id BIGSERIAL PRIMARY KEY,
+                    reservation_id VARCHAR(80) NOT NULL REFERENCES reservations(id) ON DELETE CASCADE,
+                    provider VARCHAR(30) NOT NULL,
+                    reference VARCHAR(120) NOT NULL UNIQUE,
+                    amount_in_cents BIGINT NOT NULL,
+                    status VARCHAR(40) NOT NULL,
+                    expires_at TIMESTAMPTZ,
+                    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+                )
+                """);
+        reservations = new ReservationRepositoryAdapter(db);
+    }
+
+    @BeforeEach
+    void cleanUp() {
+        execute("TRUNCATE reservations CASCADE");
+    }
+
+    @Test
+    void appliesTransitionUpsertsDetailsAndInsertsStatusMessage() {
+        insertReservation("r-applied", AGENCY_ID, "requested");
+
+        ReservationTransitionResult result = transition(contact("r-applied", AGENCY_ID));
+
+        assertEquals(Outcome.APPLIED, result.outcome());
+        assertNotNull(result.reservation());
+        assertEquals("contacted", result.reservation().getStatus());
+        assertEquals("Te llamamos mañana", result.reservation().getAgencyNotes());
+        assertNotNull(result.reservation().getContactedAt());
+        assertEquals(2, result.reservation().getTravelers());
+        assertEquals("contacted", status("r-applied"));
+        assertEquals(1L, messageCount("r-applied"));
+    }
+
+    @Test
+    void rejectsTransitionFromStateNotAllowedWithoutWriting() {
+        insertReservation("r-invalid", AGENCY_ID, "cancelled");
+
+        ReservationTransitionResult result = transition(contact("r-invalid", AGENCY_ID));
+
+        assertEquals(Outcome.INVALID_TRANSITION, result.outcome());
+        assertNull(result.reservation());
+        assertEquals("cancelled", status("r-invalid"));
+        assertEquals("", agencyNotes("r-invalid"));
+        assertEquals(0L, messageCount("r-invalid"));
+    }
+
+    @Test
+    void rejectsCancellationWhenWompiPaymentIsPaid() {
+        insertReservation("r-paid", AGENCY_ID, "awaiting_payment");
+        insertPayment("r-paid", "paid", null);
+
+        ReservationTransitionResult result = transition(cancel("r-paid"));
+
+        assertEquals(Outcome.WOMPI_PAID, result.outcome());
+        assertEquals("awaiting_payment", status("r-paid"));
+        assertEquals(0L, messageCount("r-paid"));
+    }
+
+    @Test
+    void rejectsCancellationWhileWompiCheckoutIsInProgressButNotOnceExpired() {
+        insertReservation("r-checkout", AGENCY_ID, "awaiting_payment");
+        insertPayment("r-checkout", "checkout_created", OffsetDateTime.now().plusMinutes(30));
+        insertReservation("r-expired", AGENCY_ID, "awaiting_payment");
+        insertPayment("r-expired", "processing", OffsetDateTime.now().minusMinutes(30));
+
+        assertEquals(Outcome.WOMPI_IN_PROGRESS, transition(cancel("r-checkout")).outcome());
+        assertEquals("awaiting_payment", status("r-checkout"));
+        assertEquals(0L, messageCount("r-checkout"));
+
+        assertEquals(Outcome.APPLIED, transition(cancel("r-expired")).outcome());
+        assertEquals("cancelled", status("r-expired"));
+        assertEquals(1L, messageCount("r-expired"));
+    }
+
+    @Test
+    void reservationOfAnotherAgencyReturnsNoRow() {
+        insertReservation("r-other", OTHER_AGENCY_ID, "requested");
+
+        assertTrue(reservations.transition(contact("r-other", AGENCY_ID))
+                .blockOptional(Duration.ofSeconds(10))
+                .isEmpty());
+        assertEquals("requested", status("r-other"));
+        assertEquals(0L, messageCount("r-other"));
+
+        // ADMIN (sin agencia) sí puede
+        assertEquals(Outcome.APPLIED, transition(contact("r-other", null)).outcome());
+    }
+
+    @Test
+    void concurrentTransitionsAreSerializedByTheRowLock() {
+        insertReservation("r-race", AGENCY_ID, "requested");
+
+        List<Outcome> outcomes = Mono.zip(
+                        reservations.transition(contact("r-race", AGENCY_ID)),
+                        reservations.transition(contact("r-race", AGENCY_ID)))
+                .map(tuple -> List.of(tuple.getT1().outcome(), tuple.getT2().outcome()))
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(outcomes);
+        assertEquals(1, outcomes.stream().filter(Outcome.APPLIED::equals).count());
+        assertEquals(1, outcomes.stream().filter(Outcome.INVALID_TRANSITION::equals).count());
+        assertEquals("contacted", status("r-race"));
+        assertEquals(1L, messageCount("r-race"));
+    }
+
+    private static ReservationTransition contact(String reservationId, Long agencyId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return ReservationTransition.builder()
+                .reservationId(reservationId)
+                .agencyId(agencyId)
+                .status("contacted")
+                .allowedFrom(Set.of("requested"))
+                .checkWompi(false)
+                .now(now)
+                .agencyNotes("Te llamamos mañana")
+                .contactedAt(now)
+                .statusMessage(systemMessage(reservationId, "La agencia te contactó"))
+                .build();
+    }
+
+    private static ReservationTransition cancel(String reservationId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return ReservationTransition.builder()
+                .reservationId(reservationId)
+                .agencyId(AGENCY_ID)
+                .status("cancelled")
+                .allowedFrom(Set.of("requested", "contacted", "awaiting_payment"))
+                .checkWompi(true)
+                .now(now)
+                .cancelledAt(now)
+                .statusMessage(systemMessage(reservationId, "Reserva cancelada"))
+                .build();
+    }
+
+    private static ReservationMessage systemMessage(String reservationId, String body) {
+        return ReservationMessage.builder()
+                .reservationId(reservationId)
+                .senderEmail("system@turismo.test")
+                .senderType("SYSTEM")
+                .body(body)
+                .build();
+    }
+
+    private static ReservationTransitionResult transition(ReservationTransition transition) {
+        ReservationTransitionResult result = reservations.transition(transition).block(Duration.ofSeconds(10));
+        assertNotNull(result);
+        return result;
+    }
+
+    private static void insertReservation(String id, long agencyId, String status) {
+        db.sql("INSERT INTO reservations (id, user_email, agency_id, status) VALUES (:id, 'cliente@turismo.test', :agencyId, :status)")
+                .bind("id", id)
+                .bind("agencyId", agencyId)
+                .bind("status", status)
+                .fetch()
+                .rowsUpdated()
+                .block(Duration.ofSeconds(10));
+        db.sql("INSERT INTO reservation_details (reservation_id, travelers, contact_preference) VALUES (:id, 2, 'IN_APP')")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void insertPayment(String reservationId, String status, OffsetDateTime expiresAt) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql("""
+                        INSERT INTO payment_transactions (reservation_id, provider, reference, amount_in_cents, status, expires_at)
+                        VALUES (:reservationId, 'wompi', :reference, 100000, :status, :expiresAt)
+                        """)
+                .bind("reservationId", reservationId)
+                .bind("reference", reservationId + "-" + status)
+                .bind("status", status);
+        spec = expiresAt == null ? spec.bindNull("expiresAt", OffsetDateTime.class) : spec.bind("expiresAt", expiresAt);
+        spec.fetch().rowsUpdated().block(Duration.ofSeconds(10));
+    }
+
+    private static String status(String reservationId) {
+        return db.sql("SELECT status FROM reservations WHERE id = :id")
+                .bind("id", reservationId)
+                .map((row, metadata) -> row.get(0, String.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static long messageCount(String reservationId) {
+        return count("SELECT COUNT(*) FROM reservation_messages WHERE reservation_id = :id", reservationId);
+    }
+
+    private static String agencyNotes(String reservationId) {
+        return db.sql("SELECT COALESCE(agency_notes, '') FROM reservation_details WHERE reservation_id = :id")
+                .bind("id", reservationId)
+                .map((row, metadata) -> row.get(0, String.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static long count(String sql, String reservationId) {
+        return db.sql(sql)
+                .bind("id", reservationId)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().onErrorResume(error -> Mono.error(error)).block(Duration.ofSeconds(10));
+    }
+}
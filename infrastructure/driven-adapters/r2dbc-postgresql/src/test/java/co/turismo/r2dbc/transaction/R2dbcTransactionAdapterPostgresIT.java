@@ -0,0 +1,140 @@
+package co.turismo.r2dbc.transaction;
+
+import co.turismo.model.notification.EmailMessage;
+import co.turismo.r2dbc.notification.outbox.EmailOutboxRepositoryAdapter;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.builder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * El correo encolado en {@code email_outbox} y la escritura de negocio se confirman o se
+ * revierten juntos cuando van dentro de {@link R2dbcTransactionAdapter#inTransaction}.
+ */
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "RUN_POSTGRES_INTEGRATION", matches = "true")
+class R2dbcTransactionAdapterPostgresIT {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withEnv("POSTGRES_HOST_AUTH_METHOD", "trust");
+
+    private static DatabaseClient db;
+    private static R2dbcTransactionAdapter transactions;
+    private static EmailOutboxRepositoryAdapter outbox;
+
+    @BeforeAll
+    static void setUp() {
+        var options = builder()
+                .option(DRIVER, "postgresql")
+                .option(HOST, POSTGRES.getHost())
+                .option(PORT, POSTGRES.getFirstMappedPort())
+                .option(USER, POSTGRES.getUsername())
+                .option(PASSWORD, POSTGRES.getPassword())
+                .option(DATABASE, POSTGRES.getDatabaseName())
+                .build();
+        ConnectionFactory connectionFactory = io.r2dbc.spi.ConnectionFactories.get(options);
+        db = DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .build();
+        applyMigration("deployment/V18__email_outbox.sql");
+        applyMigration("deployment/V21__email_outbox_body_retention.sql");
+        execute("CREATE TABLE recovery_tokens (email VARCHAR(320) PRIMARY KEY, token_hash TEXT NOT NULL)");
+        transactions = new R2dbcTransactionAdapter(connectionFactory);
+        outbox = new EmailOutboxRepositoryAdapter(db);
+    }
+
+    @BeforeEach
+    void reset() {
+        execute("TRUNCATE email_outbox, recovery_tokens");
+    }
+
+    @Test
+    void emailAndBusinessWriteCommitTogether() {
+        transactions.inTransaction(saveToken("ana@example.com")
+                        .then(outbox.sendEmail(recoveryEmail("ana@example.com"))))
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(1L, count("SELECT COUNT(*) FROM recovery_tokens"));
+        assertEquals(1L, count("SELECT COUNT(*) FROM email_outbox WHERE status = 'pending'"));
+    }
+
+    @Test
+    void failedBusinessWriteDropsTheEnqueuedEmail() {
+        saveToken("ana@example.com").block(Duration.ofSeconds(10));
+
+        // La segunda inserción viola la PK después de encolar el correo
+        Mono<Void> work = transactions.inTransaction(outbox.sendEmail(recoveryEmail("ana@example.com"))
+                .then(saveToken("ana@example.com")));
+
+        assertThrows(RuntimeException.class, () -> work.block(Duration.ofSeconds(10)));
+        assertEquals(0L, count("SELECT COUNT(*) FROM email_outbox"));
+    }
+
+    @Test
+    void failedEnqueueRollsBackTheBusinessWrite() {
+        // El destinatario excede VARCHAR(320): el INSERT del outbox falla en la BD
+        Mono<Void> work = transactions.inTransaction(saveToken("ana@example.com")
+                .then(outbox.sendEmail(recoveryEmail("a".repeat(400) + "@example.com"))));
+
+        assertThrows(RuntimeException.class, () -> work.block(Duration.ofSeconds(10)));
+        assertEquals(0L, count("SELECT COUNT(*) FROM recovery_tokens"));
+        assertEquals(0L, count("SELECT COUNT(*) FROM email_outbox"));
+    }
+
+    private static Mono<Void> saveToken(String email) {
+        return db.sql("INSERT INTO recovery_tokens (email, token_hash) VALUES (:email, 'hash')")
+                .bind("email", email)
+                .then();
+    }
+
+    private static EmailMessage recoveryEmail(String to) {
+        return new EmailMessage(to, "Recupera tu cuenta", "<p>token</p>");
+    }
+
+    private static long count(String sql) {
+        return db.sql(sql)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+    }
+
+    // Sin parámetros el driver usa el protocolo simple: admite el archivo completo, con $$ incluidos
+    private static void applyMigration(String relative) {
+        try {
+            Path root = Path.of("").toAbsolutePath();
+            while (root != null && !Files.exists(root.resolve(relative))) {
+                root = root.getParent();
+            }
+            if (root == null) {
+                throw new java.nio.file.NoSuchFileException(relative);
+            }
+            execute(Files.readString(root.resolve(relative)));
+        } catch (Exception error) {
+            throw new IllegalStateException("No se pudo aplicar " + relative, error);
+        }
+    }
+
+    private static void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().onErrorResume(error -> Mono.error(error)).block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,219 @@
+package co.turismo.r2dbc.usersRepository.cache;
+
+import co.turismo.r2dbc.helper.PostgresChannels;
+import co.turismo.r2dbc.usersRepository.repository.UserAdapterRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.builder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * V22 (NOTIFY en cambios de {@code user_roles}) y {@link AgencyRecipientsCache} escuchando el
+ * canal de membresías contra Postgres real: otorgar o quitar ADMIN se ve en la lista de
+ * destinatarios sin esperar el TTL.
+ */
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "RUN_POSTGRES_INTEGRATION", matches = "true")
+class AgencyRecipientsCachePostgresIT {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withEnv("POSTGRES_HOST_AUTH_METHOD", "trust");
+
+    private static final String CHANNEL = "agency_membership_changes";
+
+    private static ConnectionFactory connectionFactory;
+    private static DatabaseClient db;
+
+    private final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void setUp() {
+        var options = builder()
+                .option(DRIVER, "postgresql")
+                .option(HOST, POSTGRES.getHost())
+                .option(PORT, POSTGRES.getFirstMappedPort())
+                .option(USER, POSTGRES.getUsername())
+                .option(PASSWORD, POSTGRES.getPassword())
+                .option(DATABASE, POSTGRES.getDatabaseName())
+                .build();
+        connectionFactory = io.r2dbc.spi.ConnectionFactories.get(options);
+        db = DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .build();
+        execute("""
+                CREATE TABLE users (
+                    id BIGINT PRIMARY KEY,
+                    email VARCHAR(255)
+                );
+                CREATE TABLE roles (
+                    id SERIAL PRIMARY KEY,
+                    role_name VARCHAR(50) UNIQUE NOT NULL
+                );
+                INSERT INTO roles (role_name) VALUES ('ADMIN'), ('OWNER'), ('VISITOR');
+                CREATE TABLE user_roles (
+                    id BIGSERIAL PRIMARY KEY,
+                    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+                    role_id INTEGER REFERENCES roles(id) ON DELETE CASCADE,
+                    UNIQUE(user_id, role_id)
+                );
+                CREATE TABLE agency_users (
+                    agency_id BIGINT NOT NULL,
+                    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+                    PRIMARY KEY (agency_id, user_id)
+                );
+                """);
+        applyMigration("deployment/V22__user_roles_membership_notify.sql");
+    }
+
+    @BeforeEach
+    void reset() {
+        execute("""
+                TRUNCATE agency_users, user_roles, users;
+                INSERT INTO users (id, email) VALUES
+                    (1, 'agencia@example.com'), (2, 'admin@example.com'), (3, 'nuevo-admin@example.com');
+                INSERT INTO agency_users (agency_id, user_id) VALUES (7, 1);
+                INSERT INTO user_roles (user_id, role_id) SELECT 2, id FROM roles WHERE role_name = 'ADMIN';
+                """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    @Test
+    void roleChangesNotifyTheAffectedUsers() {
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        subscriptions.add(PostgresChannels.listen(connectionFactory, CHANNEL).subscribe(payloads::add));
+        awaitTrue(() -> {
+            execute("SELECT pg_notify('" + CHANNEL + "', 'ping')");
+            return payloads.contains("ping");
+        });
+
+        execute("INSERT INTO user_roles (user_id, role_id) SELECT 3, id FROM roles WHERE role_name = 'ADMIN'");
+        execute("UPDATE user_roles SET user_id = 1 WHERE user_id = 3");
+        execute("DELETE FROM user_roles WHERE user_id = 1");
+        execute("DELETE FROM users WHERE id = 2");
+
+        awaitTrue(() -> roleChanges(payloads).size() >= 5);
+        assertEquals(List.of("user:3", "user:1", "user:3", "user:1", "user:2"), roleChanges(payloads));
+    }
+
+    @Test
+    void grantingAndRevokingAdminIsSeenWithoutWaitingForTheTtl() {
+        AgencyRecipientsCache cache = new AgencyRecipientsCache(connectionFactory, CHANNEL, Duration.ofHours(1), 100);
+        cache.start();
+        subscriptions.add(cache::destroy);
+        awaitListening(cache);
+
+        assertEquals(List.of("admin@example.com", "agencia@example.com"), recipients(cache, 7L));
+
+        execute("INSERT INTO user_roles (user_id, role_id) SELECT 3, id FROM roles WHERE role_name = 'ADMIN'");
+        awaitTrue(() -> recipients(cache, 7L).contains("nuevo-admin@example.com"));
+
+        execute("DELETE FROM user_roles WHERE user_id = 2");
+        awaitTrue(() -> !recipients(cache, 7L).contains("admin@example.com"));
+        assertEquals(List.of("agencia@example.com", "nuevo-admin@example.com"), recipients(cache, 7L));
+    }
+
+    private static List<String> roleChanges(List<String> payloads) {
+        return payloads.stream().filter(payload -> !payload.equals("ping")).toList();
+    }
+
+    // El LISTEN se registra en segundo plano: se prueba con una agencia ficticia hasta que
+    // un NOTIFY descarta su entrada
+    private static void awaitListening(AgencyRecipientsCache cache) {
+        AtomicInteger loads = new AtomicInteger();
+        awaitTrue(() -> {
+            cache.get(-1L, id -> Mono.fromSupplier(() -> List.of("probe-" + loads.incrementAndGet())))
+                    .block(Duration.ofSeconds(5));
+            int before = loads.get();
+            execute("SELECT pg_notify('" + CHANNEL + "', 'agency:-1')");
+            sleep(100);
+            cache.get(-1L, id -> Mono.fromSupplier(() -> List.of("probe-" + loads.incrementAndGet())))
+                    .block(Duration.ofSeconds(5));
+            return loads.get() > before;
+        });
+    }
+
+    private static List<String> recipients(AgencyRecipientsCache cache, long agencyId) {
+        String sql;
+        try {
+            sql = UserAdapterRepository.class.getMethod("findAgencyNotificationRecipients", Long.class)
+                    .getAnnotation(Query.class)
+                    .value();
+        } catch (NoSuchMethodException error) {
+            throw new IllegalStateException(error);
+        }
+        return cache.get(agencyId, id -> db.sql(sql)
+                        .bind("agencyId", id)
+                        .map((row, metadata) -> row.get("email", String.class))
+                        .all()
+                        .collectList())
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "La condición no se cumplió a tiempo");
+            sleep(50);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Sin parámetros el driver usa el protocolo simple: admite el archivo completo, con $$ incluidos
+    private static void applyMigration(String relative) {
+        try {
+            Path root = Path.of("").toAbsolutePath();
+            while (root != null && !Files.exists(root.resolve(relative))) {
+                root = root.getParent();
+            }
+            if (root == null) {
+                throw new java.nio.file.NoSuchFileException(relative);
+            }
+            execute(Files.readString(root.resolve(relative)));
+        } catch (Exception error) {
+            throw new IllegalStateException("No se pudo aplicar " + relative, error);
+        }
+    }
+
+    private static void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().onErrorResume(error -> Mono.error(error)).block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,111 @@
+package co.turismo.r2dbc.usersRepository.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AgencyRecipientsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AgencyRecipientsCache cache = new AgencyRecipientsCache(Duration.ofMinutes(1), 100);
+
+    private final Function<Long, Mono<List<String>>> loader = agencyId -> Mono.fromSupplier(() -> {
+        loads.incrementAndGet();
+        return List.of("agencia" + agencyId + "@example.com", "admin@example.com");
+    });
+
+    @Test
+    void shouldLoadOncePerAgencyUntilInvalidated() {
+        StepVerifier.create(cache.get(7L, loader)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get(7L, loader))
+                .expectNext(List.of("agencia7@example.com", "admin@example.com"))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+
+        cache.invalidate(7L);
+        StepVerifier.create(cache.get(7L, loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentLookupsShouldShareOneLoad() {
+        Sinks.One<List<String>> gate = Sinks.one();
+        Function<Long, Mono<List<String>>> slow = agencyId -> {
+            loads.incrementAndGet();
+            return gate.asMono();
+        };
+
+        StepVerifier.create(Flux.merge(cache.get(3L, slow), cache.get(3L, slow)))
+                .then(() -> gate.tryEmitValue(List.of("admin@example.com")))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoadShouldNotBeCached() {
+        StepVerifier.create(cache.get(5L, id -> Mono.error(new IllegalStateException("BD caída"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.get(5L, loader)).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void agencyNotificationShouldDropOnlyThatAgency() {
+        StepVerifier.create(cache.get(1L, loader)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get(2L, loader)).expectNextCount(1).verifyComplete();
+
+        cache.onChange("agency:1");
+        StepVerifier.create(cache.get(1L, loader)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get(2L, loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void userNotificationShouldDropEveryAgencyBecauseAdminsAreInAllOfThem() {
+        StepVerifier.create(cache.get(1L, loader)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get(2L, loader)).expectNextCount(1).verifyComplete();
+
+        cache.onChange("user:42");
+        cache.onChange("otra-cosa");
+        StepVerifier.create(cache.get(1L, loader)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.get(2L, loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void notificationShouldDropALoadStillInFlight() {
+        Sinks.One<List<String>> gate = Sinks.one();
+        Function<Long, Mono<List<String>>> slow = agencyId -> {
+            loads.incrementAndGet();
+            return gate.asMono();
+        };
+
+        StepVerifier.create(cache.get(9L, slow))
+                .then(() -> {
+                    cache.onChange("user:42");
+                    gate.tryEmitValue(List.of("admin-viejo@example.com"));
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(cache.get(9L, loader))
+                .expectNext(List.of("agencia9@example.com", "admin@example.com"))
+                .verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+}
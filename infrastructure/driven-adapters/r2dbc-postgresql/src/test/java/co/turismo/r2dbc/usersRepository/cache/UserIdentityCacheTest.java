@@ -0,0 +1,112 @@
+package co.turismo.r2dbc.usersRepository.cache;
+
+import co.turismo.model.userIdentityPort.UserSummary;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserIdentityCacheTest {
+
+    private final List<String> loads = new CopyOnWriteArrayList<>();
+    private final UserIdentityCache cache = new UserIdentityCache(Duration.ofMinutes(5), 100);
+
+    private final Function<String, Mono<UserSummary>> loader = email -> Mono.fromSupplier(() -> {
+        loads.add(email);
+        return new UserSummary(42L, email);
+    });
+
+    @Test
+    void shouldLoadOncePerNormalizedEmail() {
+        StepVerifier.create(cache.get("Ana@Example.com ", loader))
+                .expectNext(new UserSummary(42L, "ana@example.com"))
+                .verifyComplete();
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(List.of("ana@example.com"), loads);
+    }
+
+    @Test
+    void invalidateShouldForceReload() {
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        cache.invalidate("ANA@example.com");
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void invalidateUserShouldDropEntriesOfThatId() {
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        cache.invalidateUser(42L);
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void invalidateUserShouldDiscardLoadStillInFlight() {
+        Sinks.One<UserSummary> gate = Sinks.one();
+        StepVerifier.create(cache.get("ana@example.com", email -> gate.asMono()))
+                .then(() -> {
+                    cache.invalidateUser(42L);
+                    gate.tryEmitValue(new UserSummary(42L, "ana@example.com"));
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+        assertEquals(List.of("ana@example.com"), loads);
+    }
+
+    @Test
+    void notificationFromOtherReplicaShouldDropEntriesOfThatId() {
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        cache.onChange("42");
+        cache.onChange("no-es-un-id");
+        StepVerifier.create(cache.get("ana@example.com", loader)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void missingUserShouldNotBeCached() {
+        StepVerifier.create(cache.get("nuevo@example.com", email -> Mono.empty())).verifyComplete();
+
+        StepVerifier.create(cache.get("nuevo@example.com", loader)).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void concurrentLookupsShouldShareOneLoad() {
+        Sinks.One<UserSummary> gate = Sinks.one();
+        Function<String, Mono<UserSummary>> slow = email -> {
+            loads.add(email);
+            return gate.asMono();
+        };
+
+        StepVerifier.create(Flux.merge(cache.get("ana@example.com", slow), cache.get("ana@example.com", slow)))
+                .then(() -> gate.tryEmitValue(new UserSummary(42L, "ana@example.com")))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void blankEmailShouldBeEmptyWithoutLoading() {
+        StepVerifier.create(cache.get("  ", loader)).verifyComplete();
+
+        assertEquals(List.of(), loads);
+    }
+}
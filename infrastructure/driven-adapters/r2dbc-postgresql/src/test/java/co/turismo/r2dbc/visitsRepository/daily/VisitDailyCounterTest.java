@@ -0,0 +1,96 @@
+package co.turismo.r2dbc.visitsRepository.daily;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VisitDailyCounterTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-05-01T15:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate TODAY = LocalDate.of(2026, 5, 1);
+
+    private final List<List<VisitDailyCounter.Delta>> writes = new CopyOnWriteArrayList<>();
+
+    private VisitDailyCounter counter(long threshold, AtomicBoolean failing) {
+        return new VisitDailyCounter(deltas -> failing.get()
+                ? Mono.error(new IllegalStateException("BD caída"))
+                : Mono.fromRunnable(() -> writes.add(deltas)),
+                Duration.ofMinutes(1), threshold, CLOCK);
+    }
+
+    @Test
+    void flushShouldWriteOneBatchWithAggregatedDeltas() {
+        VisitDailyCounter counter = counter(1_000, new AtomicBoolean());
+        counter.increment(7L);
+        counter.increment(7L);
+        counter.increment(3L);
+
+        StepVerifier.create(counter.flush()).verifyComplete();
+
+        assertEquals(1, writes.size());
+        assertEquals(List.of(
+                new VisitDailyCounter.Delta(TODAY, 3L, 1),
+                new VisitDailyCounter.Delta(TODAY, 7L, 2)
+        ), writes.get(0));
+        assertTrue(counter.pending(TODAY, TODAY).isEmpty());
+    }
+
+    @Test
+    void failedFlushShouldKeepDeltasForNextAttempt() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        VisitDailyCounter counter = counter(1_000, failing);
+        counter.increment(7L);
+
+        StepVerifier.create(counter.flush()).verifyComplete();
+        assertEquals(Map.of(7L, 1), counter.pending(TODAY, TODAY));
+
+        failing.set(false);
+        counter.increment(7L);
+        StepVerifier.create(counter.flush()).verifyComplete();
+
+        assertEquals(List.of(new VisitDailyCounter.Delta(TODAY, 7L, 2)), writes.get(0));
+    }
+
+    @Test
+    void reachingThresholdShouldTriggerFlush() {
+        VisitDailyCounter counter = counter(2, new AtomicBoolean());
+        counter.increment(1L);
+        assertTrue(writes.isEmpty());
+
+        counter.increment(1L);
+
+        assertEquals(List.of(new VisitDailyCounter.Delta(TODAY, 1L, 2)), writes.get(0));
+    }
+
+    @Test
+    void pendingShouldOnlyIncludeDaysInRange() {
+        VisitDailyCounter counter = counter(1_000, new AtomicBoolean());
+        counter.increment(5L);
+
+        assertEquals(Map.of(5L, 1), counter.pending(TODAY.minusDays(7), TODAY));
+        assertTrue(counter.pending(TODAY.minusDays(7), TODAY.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void destroyShouldDrainPendingDeltas() {
+        VisitDailyCounter counter = counter(1_000, new AtomicBoolean());
+        counter.increment(9L);
+
+        counter.destroy();
+
+        assertEquals(List.of(new VisitDailyCounter.Delta(TODAY, 9L, 1)), writes.get(0));
+    }
+}
@@ -3,14 +3,22 @@ package co.turismo.s3;
 import co.turismo.model.sitemedia.gateways.SiteMediaStorageGateway;
 import co.turismo.model.sitemedia.SiteMediaAccess;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
@@ -18,11 +26,16 @@ import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class S3StorageAdapter implements SiteMediaStorageGateway {
     private static final String IMMUTABLE_MEDIA_CACHE = "public, max-age=31536000, immutable";
+    /** Tamaño de cada parte en subidas de longitud desconocida (S3 exige al menos 5 MiB). */
+    static final int PART_SIZE_BYTES = 8 * 1024 * 1024;
     private final S3AsyncClient client;
     private final S3Presigner presigner;
     private final S3Properties properties;
@@ -32,6 +45,9 @@ public class S3StorageAdapter implements SiteMediaStorageGateway {
         if (properties.bucket().isBlank()) {
             return Mono.error(new IllegalStateException("SITE_MEDIA_S3_BUCKET no está configurado"));
         }
+        if (contentLength < 0) {
+            return uploadMultipart(objectKey, contentType, content);
+        }
         PutObjectRequest request = PutObjectRequest.builder()
                 .bucket(properties.bucket())
                 .key(objectKey)
@@ -43,6 +59,33 @@ public class S3StorageAdapter implements SiteMediaStorageGateway {
                 .map(ignored -> objectKey);
     }
 
+    /**
+     * Sube por partes de {@link #PART_SIZE_BYTES} a medida que llega el contenido, sin
+     * materializar el archivo: en memoria hay como mucho unas pocas partes. Si todo cabe en
+     * una parte se hace un único PUT. Ante error o cancelación se aborta la subida para no
+     * dejar partes huérfanas.
+     */
+    private Mono<String> uploadMultipart(String objectKey, String contentType, Publisher<ByteBuffer> content) {
+        return Mono.defer(() -> {
+            MultipartUpload upload = new MultipartUpload(objectKey, contentType);
+            long[] filled = {0};
+            return Flux.from(content)
+                    .bufferUntil(buffer -> {
+                        filled[0] += buffer.remaining();
+                        if (filled[0] < PART_SIZE_BYTES) {
+                            return false;
+                        }
+                        filled[0] = 0;
+                        return true;
+                    })
+                    .concatMap(upload::offer, 1)
+                    .then(Mono.defer(upload::finish))
+                    .onErrorResume(error -> upload.abort().then(Mono.error(error)))
+                    .doOnCancel(() -> upload.abort().subscribe())
+                    .thenReturn(objectKey);
+        });
+    }
+
     @Override
     public Mono<Void> delete(String objectKey) {
         if (properties.bucket().isBlank()) {
@@ -77,4 +120,150 @@ public class S3StorageAdapter implements SiteMediaStorageGateway {
                     OffsetDateTime.now(ZoneOffset.UTC).plus(duration));
         });
     }
+
+    /**
+     * Estado de una subida por partes. Retiene la última parte recibida hasta saber si viene
+     * otra: así una subida de una sola parte termina en un PUT normal.
+     * <p>
+     * {@code abort()} puede llegar (por cancelación) mientras CreateMultipartUpload está en
+     * vuelo: queda anotado y el id se aborta en cuanto S3 lo devuelve.
+     */
+    private final class MultipartUpload {
+        private final String objectKey;
+        private final String contentType;
+        private final List<CompletedPart> completed = new ArrayList<>();
+        private List<ByteBuffer> pending;
+        private volatile String uploadId;
+        private boolean aborted;
+
+        private MultipartUpload(String objectKey, String contentType) {
+            this.objectKey = objectKey;
+            this.contentType = contentType;
+        }
+
+        Mono<Void> offer(List<ByteBuffer> part) {
+            if (isAborted()) {
+                return Mono.empty();
+            }
+            List<ByteBuffer> previous = pending;
+            pending = part;
+            if (previous == null) {
+                return Mono.empty();
+            }
+            return create().then(Mono.defer(() -> uploadPart(previous)));
+        }
+
+        Mono<Void> finish() {
+            List<ByteBuffer> last = pending;
+            pending = null;
+            if (isAborted()) {
+                return Mono.empty();
+            }
+            if (last == null) {
+                return Mono.error(new IllegalArgumentException("El archivo está vacío"));
+            }
+            if (uploadId == null) {
+                PutObjectRequest request = PutObjectRequest.builder()
+                        .bucket(properties.bucket())
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .cacheControl(IMMUTABLE_MEDIA_CACHE)
+                        .contentLength(length(last))
+                        .build();
+                return Mono.fromFuture(() -> client.putObject(request, body(last))).then();
+            }
+            return uploadPart(last).then(Mono.defer(() -> Mono.fromFuture(() -> client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(properties.bucket())
+                            .key(objectKey)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                            .build()))))
+                    .then();
+        }
+
+        Mono<Void> abort() {
+            String id;
+            synchronized (this) {
+                aborted = true;
+                id = uploadId;
+                uploadId = null;
+            }
+            return id == null ? Mono.empty() : abort(id);
+        }
+
+        private synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        // Si ya se abortó, el id recién creado se aborta en vez de guardarse
+        private void created(String id) {
+            synchronized (this) {
+                if (!aborted) {
+                    uploadId = id;
+                    return;
+                }
+            }
+            abort(id).subscribe();
+        }
+
+        private Mono<Void> abort(String id) {
+            return Mono.fromFuture(() -> client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                            .bucket(properties.bucket())
+                            .key(objectKey)
+                            .uploadId(id)
+                            .build()))
+                    .then()
+                    .onErrorResume(error -> {
+                        log.warn("No se pudo abortar la subida por partes key={}", objectKey);
+                        return Mono.empty();
+                    });
+        }
+
+        private Mono<Void> create() {
+            if (uploadId != null) {
+                return Mono.empty();
+            }
+            CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
+                    .bucket(properties.bucket())
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .cacheControl(IMMUTABLE_MEDIA_CACHE)
+                    .build();
+            // Sin cancelar el future: aunque el suscriptor se vaya, el id debe llegar a created()
+            return Mono.fromFuture(() -> client.createMultipartUpload(request)
+                            .thenAccept(response -> created(response.uploadId())), true)
+                    .then();
+        }
+
+        private Mono<Void> uploadPart(List<ByteBuffer> part) {
+            int partNumber = completed.size() + 1;
+            UploadPartRequest request = UploadPartRequest.builder()
+                    .bucket(properties.bucket())
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength(length(part))
+                    .build();
+            return Mono.fromFuture(() -> client.uploadPart(request, body(part)))
+                    .doOnNext(response -> completed.add(CompletedPart.builder()
+                            .partNumber(partNumber)
+                            .eTag(response.eTag())
+                            .build()))
+                    .then();
+        }
+
+        private static long length(List<ByteBuffer> part) {
+            long length = 0;
+            for (ByteBuffer buffer : part) {
+                length += buffer.remaining();
+            }
+            return length;
+        }
+
+        // Vistas por suscripción: un reintento del SDK vuelve a leer desde el inicio
+        private static AsyncRequestBody body(List<ByteBuffer> part) {
+            return AsyncRequestBody.fromPublisher(Flux.fromIterable(part).map(ByteBuffer::asReadOnlyBuffer));
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package co.turismo.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class S3StorageAdapterTest {
+    private static final int MIB = 1024 * 1024;
+    private static final String KEY = "sites/1/media/video.mp4";
+
+    @Mock
+    private S3AsyncClient client;
+    @Mock
+    private S3Presigner presigner;
+
+    private S3StorageAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new S3StorageAdapter(client, presigner, new S3Properties("media-bucket", "us-east-1"));
+    }
+
+    @Test
+    void unknownLengthShouldUploadSequentialPartsOfAtLeastFiveMiBAndComplete() {
+        stubCreate(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("up-1").build()));
+        stubUploadPart();
+        when(client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        StepVerifier.create(adapter.upload(KEY, "video/mp4", chunks(20), -1))
+                .expectNext(KEY)
+                .verifyComplete();
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(client, times(3)).uploadPart(parts.capture(), any(AsyncRequestBody.class));
+        assertEquals(List.of(1, 2, 3), parts.getAllValues().stream().map(UploadPartRequest::partNumber).toList());
+        assertEquals(List.of((long) S3StorageAdapter.PART_SIZE_BYTES, (long) S3StorageAdapter.PART_SIZE_BYTES, 4L * MIB),
+                parts.getAllValues().stream().map(UploadPartRequest::contentLength).toList());
+        parts.getAllValues().subList(0, 2).forEach(part -> assertTrue(part.contentLength() >= 5L * MIB));
+        parts.getAllValues().forEach(part -> assertEquals("up-1", part.uploadId()));
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(client).completeMultipartUpload(complete.capture());
+        assertEquals("up-1", complete.getValue().uploadId());
+        assertEquals(List.of(1, 2, 3), complete.getValue().multipartUpload().parts().stream()
+                .map(CompletedPart::partNumber).toList());
+        assertEquals(List.of("etag-1", "etag-2", "etag-3"), complete.getValue().multipartUpload().parts().stream()
+                .map(CompletedPart::eTag).toList());
+        verify(client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void contentThatFitsInOnePartShouldBeASinglePut() {
+        when(client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+
+        StepVerifier.create(adapter.upload(KEY, "video/mp4", chunks(3), -1))
+                .expectNext(KEY)
+                .verifyComplete();
+
+        ArgumentCaptor<PutObjectRequest> put = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(client).putObject(put.capture(), any(AsyncRequestBody.class));
+        assertEquals(3L * MIB, put.getValue().contentLength());
+        assertEquals("video/mp4", put.getValue().contentType());
+        verify(client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upstreamErrorShouldAbortTheMultipartUpload() {
+        stubCreate(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("up-1").build()));
+        stubUploadPart();
+        stubAbort();
+
+        StepVerifier.create(adapter.upload(KEY, "video/mp4",
+                        Flux.concat(chunks(17), Flux.error(new IllegalStateException("conexión cortada"))), -1))
+                .expectErrorMessage("conexión cortada")
+                .verify();
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abort = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(client).abortMultipartUpload(abort.capture());
+        assertEquals("up-1", abort.getValue().uploadId());
+        verify(client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void emptyStreamShouldFailWithoutCallingS3() {
+        StepVerifier.create(adapter.upload(KEY, "video/mp4", Flux.empty(), -1))
+                .expectErrorSatisfies(error -> {
+                    assertTrue(error instanceof IllegalArgumentException);
+                    assertEquals("El archivo está vacío", error.getMessage());
+                })
+                .verify();
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void cancelWhileCreatingShouldAbortOnceTheUploadIdArrives() {
+        CompletableFuture<CreateMultipartUploadResponse> creating = new CompletableFuture<>();
+        stubCreate(creating);
+        stubAbort();
+
+        Disposable subscription = adapter.upload(KEY, "video/mp4", Flux.concat(chunks(16), Flux.never()), -1)
+                .subscribe();
+        verify(client).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+
+        subscription.dispose();
+        verify(client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        creating.complete(CreateMultipartUploadResponse.builder().uploadId("up-late").build());
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abort = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(client).abortMultipartUpload(abort.capture());
+        assertEquals("up-late", abort.getValue().uploadId());
+        verify(client, never()).uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class));
+    }
+
+    private void stubCreate(CompletableFuture<CreateMultipartUploadResponse> response) {
+        when(client.createMultipartUpload(any(CreateMultipartUploadRequest.class))).thenReturn(response);
+    }
+
+    private void stubUploadPart() {
+        when(client.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(UploadPartResponse.builder()
+                        .eTag("etag-" + invocation.<UploadPartRequest>getArgument(0).partNumber())
+                        .build()));
+    }
+
+    private void stubAbort() {
+        when(client.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+    }
+
+    private static Flux<ByteBuffer> chunks(int mebibytes) {
+        return Flux.range(0, mebibytes).map(i -> ByteBuffer.allocate(MIB));
+    }
+}
@@ -0,0 +1,128 @@
+package co.turismo.api.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por request de resolver skip-paths y {@link RateLimitingFilter.PathConfig}:
+ * {@code legacy} reproduce la versión anterior (AntPathMatcher + PathConfig nuevo por
+ * request) y {@code compiled} usa las estructuras precompiladas del filtro.
+ * <p>
+ * JMH mide throughput máximo, no una tasa fija: a 10k req/s el costo del filtro es
+ * {@code 10_000 / ops por segundo} de un núcleo. Correr con {@code -prof gc} para
+ * comparar las asignaciones por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+
+    private static final String[] PATHS = {
+            "/api/places/search",
+            "/api/auth/login",
+            "/api/reservations/mine",
+            "/actuator/health",
+            "/api/notifications/stream"
+    };
+
+    private RateLimiterProperties props;
+    private RateLimitingFilter filter;
+    private PathContainer[] containers;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        props = new RateLimiterProperties();
+        props.setCapacity(600);
+        props.setRefillPerWindow(600);
+        Map<String, RateLimiterProperties.PathLimit> perPath = new LinkedHashMap<>();
+        perPath.put("/api/auth", limit(30));
+        perPath.put("/api/places", limit(1500));
+        props.setPerPath(perPath);
+        props.setSkipPaths(List.of("/actuator/health", "/favicon.ico", "/", "/v3/api-docs/**"));
+
+        filter = new RateLimitingFilter(props, (key, config) -> Mono.empty());
+        containers = new PathContainer[PATHS.length];
+        for (int i = 0; i < PATHS.length; i++) {
+            containers[i] = PathContainer.parsePath(PATHS[i]);
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        String path = PATHS[nextIndex()];
+        if (!legacyMustSkip(path)) {
+            RateLimitingFilter.PathConfig config = legacyResolve(path);
+            bh.consume(config.keyPrefix() + ":10.0.0.1");
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole bh) {
+        int i = nextIndex();
+        String path = PATHS[i];
+        if (!filter.mustSkip(path, containers[i])) {
+            RateLimitingFilter.PathConfig config = filter.resolvePathConfig(path);
+            bh.consume(config.keyPrefix() + ":10.0.0.1");
+        }
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1) % PATHS.length;
+        return i;
+    }
+
+    private boolean legacyMustSkip(String path) {
+        for (String pattern : props.getSkipPaths()) {
+            if (matcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RateLimitingFilter.PathConfig legacyResolve(String path) {
+        for (var entry : props.getPerPath().entrySet()) {
+            if (path.startsWith(entry.getKey())) {
+                var limit = entry.getValue();
+                long refill = limit.refillPerWindow > 0 ? limit.refillPerWindow : limit.capacity;
+                return new RateLimitingFilter.PathConfig(limit.capacity, Duration.ofSeconds(limit.windowSeconds),
+                        refill, "rl:" + entry.getKey(), entry.getKey());
+            }
+        }
+        long refill = props.getRefillPerWindow() > 0 ? props.getRefillPerWindow() : props.getCapacity();
+        return new RateLimitingFilter.PathConfig(props.getCapacity(), Duration.ofSeconds(props.getWindowSeconds()),
+                refill, "rl:default", "default");
+    }
+
+    private static RateLimiterProperties.PathLimit limit(long capacity) {
+        RateLimiterProperties.PathLimit limit = new RateLimiterProperties.PathLimit();
+        limit.capacity = capacity;
+        limit.refillPerWindow = capacity;
+        return limit;
+    }
+}
@@ -51,6 +51,7 @@ import co.turismo.api.dto.tourpackage.UpdatePackageBody;
 import co.turismo.api.dto.visit.CheckinRequest;
 import co.turismo.api.dto.visit.ConfirmRequest;
 import co.turismo.api.handler.*;
+import co.turismo.api.http.ResponseEnvelopeFilter;
 import co.turismo.model.feedback.Feedback;
 import co.turismo.model.place.Place;
 
@@ -302,7 +303,8 @@ public class RouterRest {
                         ops -> ops.operationId("siteMediaList")
                                 .summary("Listar contenido multimedia del sitio")
                                 .description("Endpoint público de lectura. Devuelve URLs prefirmadas temporales; la carga y eliminación permanecen protegidas.")
-                                .tag("Places"))
+                                .tag("Places")
+                                .parameter(queryParam("stream", false, "Si es true (o Accept: application/x-ndjson) responde NDJSON elemento a elemento, sin envelope", Boolean.class, "false")))
 
                 .DELETE(ConstantsEntryPoint.API_BASE_PATH + ConstantsEntryPoint.PLACES_MEDIA_ID_PATH,
                         siteMediaHandler::delete,
@@ -317,7 +319,7 @@ public class RouterRest {
                                 .description("Permite buscar lugares por texto, categoría y geolocalización en la región del Huila.")
                                 .tag("Places")
                                 // Parámetros principales
-                                .parameter(queryParam("mode", true, "Modo de búsqueda (ALL, NEARBY, TEXT)", PlaceSearchMode.class, "ALL"))
+                                .parameter(queryParam("mode", true, "Modo de búsqueda (ALL, NEARBY, TEXT, FULLTEXT)", PlaceSearchMode.class, "ALL"))
                                 .parameter(queryParam("q", false, "Texto de búsqueda (nombre, dirección o descripción)", String.class, null))
                                 .parameter(queryParam("categoryId", false, "ID de la categoría para filtrar", Long.class, null))
 
@@ -330,6 +332,8 @@ public class RouterRest {
                                 // Paginación
                                 .parameter(queryParam("page", false, "Número de página (0-N)", Integer.class, "0"))
                                 .parameter(queryParam("size", false, "Cantidad de resultados por página", Integer.class, "10"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave (solo mode=ALL); vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
+                                .parameter(queryParam("stream", false, "Si es true (o Accept: application/x-ndjson) responde NDJSON elemento a elemento, sin envelope", Boolean.class, "false"))
 
                                 .response(jsonResponse("200", "Búsqueda exitosa", ApiPlaceListResponse.class))
                                 .response(jsonResponse("400", "Parámetros inválidos", ApiErrorResponse.class))
@@ -341,6 +345,8 @@ public class RouterRest {
                                 .summary("Mis lugares (OWNER)")
                                 .tag("Places")
                                 .parameter(queryParam("offset", false, "Número de página (0-N)", Integer.class, "0"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave; vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
+                                .parameter(queryParam("stream", false, "Si es true (o Accept: application/x-ndjson) responde NDJSON elemento a elemento, sin envelope", Boolean.class, "false"))
                                 .parameter(queryParam("limit", false, "Cantidad de resultados por página", Integer.class, "10"))
                                 .response(jsonResponse("200", "Lugares del propietario autenticado", ApiPlaceListResponse.class))
                 )
@@ -642,6 +648,7 @@ public class RouterRest {
                                 .tag("Reservations")
                                 .parameter(queryParam("page", false, "Número de página (0-N)", Integer.class, "0"))
                                 .parameter(queryParam("size", false, "Cantidad de resultados por página", Integer.class, "20"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave; vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
                                 .response(jsonResponse("200", "Reservas del usuario", ReservationResponse.class))
                 )
 
@@ -684,6 +691,7 @@ public class RouterRest {
                                 .parameter(pathParam("reservationId", "Identificador de la reserva", String.class))
                                 .parameter(queryParam("page", false, "Número de página (0-N)", Integer.class, "0"))
                                 .parameter(queryParam("size", false, "Cantidad de mensajes por página", Integer.class, "50"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave; vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
                                 .response(jsonResponse("200", "Mensajes de la solicitud", ReservationMessageResponse.class))
                 )
 
@@ -744,6 +752,7 @@ public class RouterRest {
                                 .parameter(queryParam("status", false, "Estado de reserva", String.class, "requested"))
                                 .parameter(queryParam("page", false, "Número de página (0-N)", Integer.class, "0"))
                                 .parameter(queryParam("size", false, "Cantidad de resultados por página", Integer.class, "20"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave; vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
                                 .response(jsonResponse("200", "Reservas de la agencia", ReservationResponse.class))
                 )
 
@@ -776,6 +785,7 @@ public class RouterRest {
                                 .parameter(pathParam("reservationId", "Identificador de la reserva", String.class))
                                 .parameter(queryParam("page", false, "Número de página (0-N)", Integer.class, "0"))
                                 .parameter(queryParam("size", false, "Cantidad de mensajes por página", Integer.class, "50"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave; vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
                                 .response(jsonResponse("200", "Mensajes de la solicitud", ReservationMessageResponse.class))
                 )
 
@@ -860,6 +870,8 @@ public class RouterRest {
                                 .parameter(queryParam("unreadOnly", false, "Solo no leídas", Boolean.class, "false"))
                                 .parameter(queryParam("page", false, "Número de página (0-N)", Integer.class, "0"))
                                 .parameter(queryParam("size", false, "Cantidad de resultados por página", Integer.class, "30"))
+                                .parameter(queryParam("cursor", false, "Cursor de paginación por llave; vacío pide la primera página y la respuesta trae nextCursor", String.class, null))
+                                .parameter(queryParam("stream", false, "Si es true (o Accept: application/x-ndjson) responde NDJSON elemento a elemento, sin envelope", Boolean.class, "false"))
                                 .response(jsonResponse("200", "Notificaciones del usuario", NotificationResponse.class))
                 )
 
@@ -1105,7 +1117,8 @@ public class RouterRest {
                                 .response(apiErrorResponse("400", "Solicitud inválida"))
                 )
 
-                .build();
+                .build()
+                .filter(ResponseEnvelopeFilter.markEnveloped());
     }
 
     private static org.springdoc.core.fn.builders.parameter.Builder limitQueryParam() {
@@ -2,11 +2,11 @@ package co.turismo.api.config;
 
 import co.turismo.model.common.AppUrlConfig;
 import co.turismo.model.security.gateways.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.codec.binary.Base32;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.security.SecureRandom;
 import java.util.function.Supplier;
@@ -23,20 +23,13 @@ public class AuthenticationConfig {
         };
     }
 
-    @Bean
-    public PasswordHasher passwordHasher() {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        return new PasswordHasher() {
-            @Override
-            public String hash(String rawPassword) {
-                return encoder.encode(rawPassword);
-            }
-
-            @Override
-            public boolean matches(String rawPassword, String hash) {
-                return encoder.matches(rawPassword, hash);
-            }
-        };
+    @Bean(destroyMethod = "dispose")
+    public PasswordHasher passwordHasher(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.pool-size:0}") int poolSize,
+            @Value("${security.password.queue-capacity:32}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return new BCryptPasswordHasher(strength, poolSize, queueCapacity, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,109 @@
+package co.turismo.api.config;
+
+import co.turismo.model.error.ServiceUnavailableException;
+import co.turismo.model.security.gateways.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt fuera del event loop: hash y verificación corren en un scheduler acotado
+ * ({@code pool-size} hilos). Si ya hay {@code pool-size + queue-capacity} operaciones
+ * pendientes, se rechaza de inmediato con {@link ServiceUnavailableException} (503)
+ * en vez de encolar sin límite.
+ */
+public class BCryptPasswordHasher implements PasswordHasher {
+
+    private static final String REJECTED_MESSAGE = "Servicio de autenticación saturado, intenta de nuevo";
+
+    private final BCryptPasswordEncoder encoder;
+    private final Scheduler scheduler;
+    private final int maxPending;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer hashTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BCryptPasswordHasher(int strength, int poolSize, int queueCapacity, MeterRegistry registry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        int queue = Math.max(0, queueCapacity);
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.scheduler = Schedulers.newBoundedElastic(threads, Math.max(1, queue), "bcrypt");
+        this.maxPending = threads + queue;
+
+        this.hashTimer = Timer.builder("auth.password.duration")
+                .description("Duración de hash/verificación BCrypt")
+                .tag("operation", "hash")
+                .register(registry);
+        this.matchesTimer = Timer.builder("auth.password.duration")
+                .description("Duración de hash/verificación BCrypt")
+                .tag("operation", "matches")
+                .register(registry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Operaciones BCrypt rechazadas por saturación")
+                .register(registry);
+        Gauge.builder("auth.password.queue.depth", queued, AtomicInteger::get)
+                .description("Operaciones BCrypt esperando un hilo libre")
+                .register(registry);
+        Gauge.builder("auth.password.pending", pending, AtomicInteger::get)
+                .description("Operaciones BCrypt en cola o en ejecución")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<String> hash(String rawPassword) {
+        return run(hashTimer, () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public Mono<Boolean> matches(String rawPassword, String hash) {
+        return run(matchesTimer, () -> encoder.matches(rawPassword, hash));
+    }
+
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    private <T> Mono<T> run(Timer timer, Callable<T> task) {
+        return Mono.defer(() -> {
+            if (pending.incrementAndGet() > maxPending) {
+                pending.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new ServiceUnavailableException(REJECTED_MESSAGE));
+            }
+            queued.incrementAndGet();
+            AtomicBoolean dequeued = new AtomicBoolean();
+            return Mono.fromCallable(() -> {
+                        leaveQueue(dequeued);
+                        return timer.recordCallable(task);
+                    })
+                    .subscribeOn(scheduler)
+                    .onErrorMap(RejectedExecutionException.class, e -> {
+                        rejected.increment();
+                        return new ServiceUnavailableException(REJECTED_MESSAGE);
+                    })
+                    .doFinally(signal -> {
+                        leaveQueue(dequeued);
+                        pending.decrementAndGet();
+                    });
+        });
+    }
+
+    private void leaveQueue(AtomicBoolean dequeued) {
+        if (dequeued.compareAndSet(false, true)) {
+            queued.decrementAndGet();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package co.turismo.api.config;
 
+import co.turismo.model.ratelimit.gateways.RateLimitLeaseGateway;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -11,10 +12,17 @@ import org.springframework.core.annotation.Order;
 @EnableConfigurationProperties(RateLimiterProperties.class)
 public class RateLimiterConfig {
     @Bean
+    @ConditionalOnProperty(prefix = "turismo.rate-limiter", name = "store", havingValue = "local", matchIfMissing = true)
     public RateLimitStore rateLimitStore() {
         return new LocalRateLimitStore();
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "turismo.rate-limiter", name = "store", havingValue = "shared")
+    public RateLimitStore sharedRateLimitStore(RateLimitLeaseGateway gateway, RateLimiterProperties props) {
+        return new SharedRateLimitStore(gateway, props.getLeaseSize(), props.getLeaseTtl());
+    }
+
     @Bean
     @Order(Ordered.HIGHEST_PRECEDENCE + 10)
     @ConditionalOnProperty(prefix = "turismo.rate-limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +17,13 @@ public class RateLimiterProperties {
     private long capacity = 50;
     private long refillPerWindow = 50;
 
+    // "local" (por JVM) o "shared" (bucket en Postgres compartido entre réplicas)
+    private String store = "local";
+    // tokens que cada réplica toma del bucket compartido por round-trip
+    private long leaseSize = 5;
+    // vigencia local de los tokens tomados; los no usados se descartan
+    private Duration leaseTtl = Duration.ofSeconds(2);
+
     // límites por prefijo de ruta (ej: "/api/auth")
     private Map<String, PathLimit> perPath;
     // rutas a excluir
@@ -7,15 +7,22 @@ import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.util.AntPathMatcher;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Order(Ordered.HIGHEST_PRECEDENCE + 10)
@@ -23,11 +30,20 @@ public class RateLimitingFilter implements WebFilter {
 
     private final RateLimiterProperties props;
     private final RateLimitStore rateLimitStore;
-    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    // Compilado una vez al arrancar: el hot path no parsea patrones ni crea PathConfig
+    private final Set<String> skipExact;
+    private final List<PathPattern> skipPatterns;
+    private final List<PathConfig> perPath;
+    private final PathConfig defaultConfig;
 
     public RateLimitingFilter(RateLimiterProperties props, RateLimitStore rateLimitStore) {
         this.props = props;
         this.rateLimitStore = rateLimitStore;
+        this.skipExact = compileSkipExact(props.getSkipPaths());
+        this.skipPatterns = compileSkipPatterns(props.getSkipPaths());
+        this.perPath = compilePerPath(props.getPerPath());
+        this.defaultConfig = compileDefault(props);
     }
 
     @Override
@@ -41,8 +57,9 @@ public class RateLimitingFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        String path = exchange.getRequest().getPath().value();
-        if (mustSkip(path)) {
+        RequestPath requestPath = exchange.getRequest().getPath();
+        String path = requestPath.value();
+        if (mustSkip(path, requestPath)) {
             return chain.filter(exchange);
         }
 
@@ -87,37 +104,68 @@ public class RateLimitingFilter implements WebFilter {
         return response.writeWith(Mono.just(buffer));
     }
 
-    private boolean mustSkip(String path) {
-        if (props.getSkipPaths() == null || props.getSkipPaths().isEmpty()) {
-            return false;
+    boolean mustSkip(String path, PathContainer pathContainer) {
+        if (skipExact.contains(path)) {
+            return true;
         }
-        for (String pattern : props.getSkipPaths()) {
-            if (matcher.match(pattern, path)) {
+        for (PathPattern pattern : skipPatterns) {
+            if (pattern.matches(pathContainer)) {
                 return true;
             }
         }
         return false;
     }
 
-    private PathConfig resolvePathConfig(String path) {
-        Map<String, RateLimiterProperties.PathLimit> map = props.getPerPath();
-        if (map != null && !map.isEmpty()) {
-            for (var entry : map.entrySet()) {
-                String pathPrefix = entry.getKey();
-                if (path.startsWith(pathPrefix)) {
-                    var limit = entry.getValue();
-                    long refill = limit.refillPerWindow > 0 ? limit.refillPerWindow : limit.capacity;
-                    return new PathConfig(
-                            limit.capacity,
-                            Duration.ofSeconds(limit.windowSeconds),
-                            refill,
-                            "rl:" + pathPrefix,
-                            pathPrefix
-                    );
-                }
+    PathConfig resolvePathConfig(String path) {
+        for (PathConfig config : perPath) {
+            if (path.startsWith(config.path())) {
+                return config;
             }
         }
+        return defaultConfig;
+    }
+
+    private static Set<String> compileSkipExact(List<String> skipPaths) {
+        if (skipPaths == null) {
+            return Set.of();
+        }
+        return skipPaths.stream()
+                .filter(pattern -> !isPattern(pattern))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static List<PathPattern> compileSkipPatterns(List<String> skipPaths) {
+        if (skipPaths == null) {
+            return List.of();
+        }
+        return skipPaths.stream()
+                .filter(RateLimitingFilter::isPattern)
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
 
+    // Se conserva el orden de la configuración: gana el primer prefijo que coincide
+    private static List<PathConfig> compilePerPath(Map<String, RateLimiterProperties.PathLimit> map) {
+        if (map == null || map.isEmpty()) {
+            return List.of();
+        }
+        List<PathConfig> configs = new ArrayList<>(map.size());
+        for (var entry : map.entrySet()) {
+            String pathPrefix = entry.getKey();
+            var limit = entry.getValue();
+            long refill = limit.refillPerWindow > 0 ? limit.refillPerWindow : limit.capacity;
+            configs.add(new PathConfig(
+                    limit.capacity,
+                    Duration.ofSeconds(limit.windowSeconds),
+                    refill,
+                    "rl:" + pathPrefix,
+                    pathPrefix
+            ));
+        }
+        return List.copyOf(configs);
+    }
+
+    private static PathConfig compileDefault(RateLimiterProperties props) {
         long refill = props.getRefillPerWindow() > 0 ? props.getRefillPerWindow() : props.getCapacity();
         return new PathConfig(
                 props.getCapacity(),
@@ -128,6 +176,10 @@ public class RateLimitingFilter implements WebFilter {
         );
     }
 
+    private static boolean isPattern(String pattern) {
+        return pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0 || pattern.indexOf('{') >= 0;
+    }
+
     public record PathConfig(
             long capacity,
             Duration window,
@@ -0,0 +1,107 @@
+package co.turismo.api.config;
+
+import co.turismo.model.ratelimit.RateLimitLease;
+import co.turismo.model.ratelimit.gateways.RateLimitLeaseGateway;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit compartido entre réplicas. Los tokens viven en un bucket central
+ * ({@link RateLimitLeaseGateway}); cada nodo toma leases de {@code leaseSize} tokens y
+ * los gasta en memoria, por lo que solo uno de cada {@code leaseSize} requests hace
+ * un round-trip. Los tokens de un lease que no se usan en {@code leaseTtl} se descartan:
+ * el error siempre es hacia el lado restrictivo, nunca se supera el límite global.
+ * <p>
+ * Cuando el bucket central está vacío, el nodo rechaza localmente hasta el próximo
+ * token sin volver a consultarlo. Los requests que llegan mientras se pide un lease lo
+ * esperan; si ese lease no alcanza para todos, los que quedan esperan el siguiente. Solo
+ * se rechaza cuando el bucket central concede 0 tokens.
+ */
+public class SharedRateLimitStore implements RateLimitStore {
+
+    private final RateLimitLeaseGateway gateway;
+    private final long leaseSize;
+    private final long leaseTtlNanos;
+
+    private final Cache<String, Lease> leases = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    public SharedRateLimitStore(RateLimitLeaseGateway gateway, long leaseSize, Duration leaseTtl) {
+        this.gateway = gateway;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlNanos = leaseTtl.toNanos();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> consume(String key, RateLimitingFilter.PathConfig config) {
+        Lease lease = leases.get(key, ignored -> new Lease());
+        return consume(key, config, lease);
+    }
+
+    private Mono<RateLimitDecision> consume(String key, RateLimitingFilter.PathConfig config, Lease lease) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Mono<Void> refill;
+            synchronized (lease) {
+                if (lease.tokens > 0 && now - lease.expiresAt < 0) {
+                    lease.tokens--;
+                    return Mono.just(new RateLimitDecision(true, config.capacity(),
+                            lease.remaining + lease.tokens, lease.resetSeconds));
+                }
+                if (now - lease.deniedUntil < 0) {
+                    return Mono.just(new RateLimitDecision(false, config.capacity(), 0, lease.resetSeconds));
+                }
+                if (lease.inFlight == null) {
+                    lease.inFlight = acquire(key, config, lease);
+                }
+                refill = lease.inFlight;
+            }
+            return refill.then(consume(key, config, lease));
+        });
+    }
+
+    private Mono<Void> acquire(String key, RateLimitingFilter.PathConfig config, Lease lease) {
+        long requested = Math.min(leaseSize, config.capacity());
+        return gateway.acquire(key, config.capacity(), config.refill(), config.window(), requested)
+                // Sin fila no hay decisión: reintentar en bucle sería peor que el fallback del filtro
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("El bucket compartido no respondió para " + key)))
+                .doOnNext(granted -> apply(lease, granted))
+                .doFinally(signal -> {
+                    synchronized (lease) {
+                        lease.inFlight = null;
+                    }
+                })
+                .then()
+                .cache();
+    }
+
+    private void apply(Lease lease, RateLimitLease granted) {
+        long now = System.nanoTime();
+        synchronized (lease) {
+            long carried = now - lease.expiresAt < 0 ? lease.tokens : 0;
+            lease.tokens = carried + granted.granted();
+            lease.expiresAt = now + leaseTtlNanos;
+            lease.remaining = granted.remaining();
+            lease.resetSeconds = Math.max(1, granted.resetSeconds());
+            lease.deniedUntil = granted.granted() > 0
+                    ? now
+                    : now + TimeUnit.SECONDS.toNanos(lease.resetSeconds);
+        }
+    }
+
+    /** Estado local por llave; los instantes son de {@link System#nanoTime()}. */
+    private static final class Lease {
+        private long tokens;
+        private long expiresAt = System.nanoTime();
+        private long remaining;
+        private long resetSeconds = 1;
+        private long deniedUntil = expiresAt;
+        private Mono<Void> inFlight;
+    }
+}
@@ -11,10 +11,13 @@ public record ApiResponse<T>(
         @Schema(description = "Descripción corta del resultado", example = "OK")
         String message,
         @Schema(description = "Datos específicos de cada operación")
-        T data
+        T data,
+        @Schema(description = "Cursor opaco de la página siguiente (solo listados paginados por cursor; ausente en la última página)")
+        String nextCursor
 ) {
-    public static <T> ApiResponse<T> of(int status, String message, T data) { return new ApiResponse<>(status, message, data); }
+    public static <T> ApiResponse<T> of(int status, String message, T data) { return new ApiResponse<>(status, message, data, null); }
     public static <T> ApiResponse<T> ok(T data)      { return of(200, "OK", data); }
+    public static <T> ApiResponse<T> page(T data, String nextCursor) { return new ApiResponse<>(200, "OK", data, nextCursor); }
     public static <T> ApiResponse<T> created(T data) { return of(201, "Created", data); }
     public static ApiResponse<Void> error(int status, String message) { return of(status, message, null); }
 }
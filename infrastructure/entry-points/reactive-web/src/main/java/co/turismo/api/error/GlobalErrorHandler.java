@@ -3,6 +3,7 @@ package co.turismo.api.error;
 import co.turismo.api.dto.response.ApiResponse;
 import co.turismo.model.error.ConflictException;
 import co.turismo.model.error.NotFoundException;
+import co.turismo.model.error.ServiceUnavailableException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -49,6 +50,7 @@ public class GlobalErrorHandler implements ErrorWebExceptionHandler {
             Map.entry(DataIntegrityViolationException.class,     HttpStatus.CONFLICT),
             Map.entry(ConflictException.class,                   HttpStatus.CONFLICT),
             Map.entry(NotFoundException.class,                   HttpStatus.NOT_FOUND),
+            Map.entry(ServiceUnavailableException.class,         HttpStatus.SERVICE_UNAVAILABLE),
             Map.entry(NoSuchElementException.class,              HttpStatus.NOT_FOUND)
     );
 
@@ -3,9 +3,12 @@ package co.turismo.api.handler;
 import co.turismo.api.dto.notification.MarkAllNotificationsReadResponse;
 import co.turismo.api.dto.notification.NotificationResponse;
 import co.turismo.api.dto.response.ApiResponse;
+import co.turismo.api.http.PageCursors;
+import co.turismo.api.http.StreamingResponses;
 import co.turismo.api.mapper.AppNotificationMapper;
+import co.turismo.model.common.PageCursor;
 import co.turismo.usecase.notification.AppNotificationUseCase;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
@@ -15,22 +18,61 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Component
-@RequiredArgsConstructor
 public class AppNotificationHandler {
 
     private static final int DEFAULT_SIZE = 30;
     private static final int MAX_SIZE = 100;
+    private static final int MAX_STREAM_SIZE = 1000;
 
     private final AppNotificationUseCase appNotificationUseCase;
+    private final Duration heartbeatInterval;
+    private final Duration idleTimeout;
+
+    public AppNotificationHandler(
+            AppNotificationUseCase appNotificationUseCase,
+            @Value("${turismo.notifications.stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+            @Value("${turismo.notifications.stream.idle-timeout:30m}") Duration idleTimeout) {
+        this.appNotificationUseCase = appNotificationUseCase;
+        this.heartbeatInterval = heartbeatInterval;
+        this.idleTimeout = idleTimeout;
+    }
 
     public Mono<ServerResponse> listMine(ServerRequest request) {
-        int size = parseSize(request);
+        boolean streaming = StreamingResponses.requested(request);
+        int size = parseSize(request, streaming ? MAX_STREAM_SIZE : MAX_SIZE);
         int offset = parsePage(request) * size;
         boolean unreadOnly = request.queryParam("unreadOnly")
                 .map(Boolean::parseBoolean)
                 .orElse(false);
 
+        if (streaming) {
+            PageCursor after = PageCursors.from(request);
+            Flux<NotificationResponse> notifications = request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> after != null
+                            ? appNotificationUseCase.findMineAfter(auth.getName(), unreadOnly, after, size)
+                            : appNotificationUseCase.findMine(auth.getName(), unreadOnly, size, offset))
+                    .map(AppNotificationMapper::toNotificationResponse);
+            return StreamingResponses.ndjson(notifications, NotificationResponse.class);
+        }
+
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> appNotificationUseCase.findMineAfter(auth.getName(), unreadOnly, after, size))
+                    .collectList()
+                    .flatMap(list -> ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(ApiResponse.page(
+                                    list.stream().map(AppNotificationMapper::toNotificationResponse).toList(),
+                                    PageCursors.next(list, size,
+                                            notification -> PageCursor.of(notification.getCreatedAt(), notification.getId())))));
+        }
+
         return request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> appNotificationUseCase.findMine(auth.getName(), unreadOnly, size, offset))
@@ -41,15 +83,27 @@ public class AppNotificationHandler {
                         .bodyValue(ApiResponse.ok(list)));
     }
 
+    /**
+     * Stream SSE de notificaciones. Envía un comentario de heartbeat cada
+     * {@code heartbeat-interval} para que proxies y balanceadores no corten la conexión,
+     * y la cierra si pasa {@code idle-timeout} sin notificaciones (el cliente reconecta).
+     */
     public Mono<ServerResponse> streamMine(ServerRequest request) {
-        Flux<ServerSentEvent<NotificationResponse>> stream = request.principal()
+        Flux<ServerSentEvent<NotificationResponse>> notifications = request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> appNotificationUseCase.streamMine(auth.getName()))
                 .map(notification -> ServerSentEvent.<NotificationResponse>builder()
                         .event(notification.getType())
                         .id(String.valueOf(notification.getId()))
                         .data(AppNotificationMapper.toNotificationResponse(notification))
-                        .build());
+                        .build())
+                .timeout(idleTimeout, Flux.empty());
+
+        Flux<ServerSentEvent<NotificationResponse>> stream = notifications.publish(shared -> Flux.merge(
+                shared,
+                Flux.interval(heartbeatInterval)
+                        .map(tick -> ServerSentEvent.<NotificationResponse>builder().comment("heartbeat").build())
+                        .takeUntilOther(shared.then(Mono.just(Boolean.TRUE)))));
 
         return ServerResponse.ok()
                 .contentType(MediaType.TEXT_EVENT_STREAM)
@@ -85,10 +139,10 @@ public class AppNotificationHandler {
                 .orElse(0);
     }
 
-    private static int parseSize(ServerRequest request) {
+    private static int parseSize(ServerRequest request, int maxSize) {
         return request.queryParam("size")
                 .map(value -> parseInt(value, "size inválido"))
-                .map(value -> Math.min(MAX_SIZE, Math.max(1, value)))
+                .map(value -> Math.min(maxSize, Math.max(1, value)))
                 .orElse(DEFAULT_SIZE);
     }
 
@@ -6,6 +6,8 @@ import co.turismo.api.error.RequestValidator;
 import co.turismo.api.http.ClientIp;
 import co.turismo.api.mapper.AuthenticateMapper;
 import co.turismo.model.common.AppUrlConfig;
+import co.turismo.model.common.gateways.TransactionGateway;
+import co.turismo.model.error.ServiceUnavailableException;
 import co.turismo.model.notification.gateways.EmailGateway;
 import co.turismo.usecase.authenticate.AccountRecoveryUseCase;
 import co.turismo.usecase.authenticate.AuthenticateUseCase;
@@ -32,6 +34,7 @@ public class AuthenticateHandler {
     private final AccountRecoveryUseCase accountRecoveryUseCase;
     private final AppUrlConfig appUrlConfig;
     private final EmailGateway emailGateway;
+    private final TransactionGateway transactionGateway;
     private final RequestValidator requestValidator;
 
     public Mono<ServerResponse> totpSetup(ServerRequest request) {
@@ -89,6 +92,12 @@ public class AuthenticateHandler {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .bodyValue(ApiResponse.error(400, safeMessage(error, "Solicitud inválida")))
                 )
+                .onErrorResume(ServiceUnavailableException.class, error ->
+                        ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(ApiResponse.error(503, safeMessage(error, "Servicio no disponible")))
+                )
                 .onErrorResume(RuntimeException.class, error ->
                         ServerResponse.status(HttpStatus.UNAUTHORIZED)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -138,8 +147,9 @@ public class AuthenticateHandler {
                     String token = accountRecoveryUseCase.generateRecoveryToken();
                     String link = buildRecoveryLink(token);
 
-                    return emailGateway.sendEmail(AuthenticateMapper.toRecoveryEmail(email, link, token))
-                            .then(accountRecoveryUseCase.saveRecoveryToken(email, token))
+                    // El token y el correo que lo lleva se confirman juntos
+                    return transactionGateway.inTransaction(accountRecoveryUseCase.saveRecoveryToken(email, token)
+                                    .then(emailGateway.sendEmail(AuthenticateMapper.toRecoveryEmail(email, link, token))))
                             .thenReturn(AuthenticateMapper.toRecoveryPayload(link, token));
                 })
                 .flatMap(payload -> ServerResponse.ok()
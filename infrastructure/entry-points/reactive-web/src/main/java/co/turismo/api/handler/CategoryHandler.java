@@ -4,8 +4,11 @@ import co.turismo.api.dto.category.CreateCategoryBody;
 import co.turismo.api.dto.category.UpdateCategoryBody;
 import co.turismo.api.dto.response.ApiResponse;
 import co.turismo.api.mapper.CategoryMapper;
+import co.turismo.model.category.CategorySnapshot;
 import co.turismo.usecase.category.CategoryUseCase;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -15,25 +18,32 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
 
 @Component
 @RequiredArgsConstructor
 public class CategoryHandler {
 
+    /** El cliente puede reutilizar un minuto sin preguntar; después revalida con el ETag. */
+    private static final CacheControl CATEGORIES_CACHE = CacheControl.maxAge(Duration.ofMinutes(1))
+            .cachePublic()
+            .mustRevalidate();
+
     private final CategoryUseCase categoryUseCase;
 
     public Mono<ServerResponse> list(ServerRequest req) {
-        return categoryUseCase.findAll()
-                .collectList()
-                .flatMap(CategoryHandler::ok);
+        return categoryUseCase.snapshot()
+                .flatMap(snapshot -> cacheable(req, snapshot, snapshot.categories()));
     }
 
     public Mono<ServerResponse> findById(ServerRequest req) {
         Long id = parsePathId(req, "id");
 
-        return categoryUseCase.findById(id)
-                .switchIfEmpty(categoryNotFound())
-                .flatMap(CategoryHandler::ok);
+        return categoryUseCase.snapshot()
+                .flatMap(snapshot -> Mono.justOrEmpty(snapshot.findById(id))
+                        .switchIfEmpty(categoryNotFound())
+                        .flatMap(category -> cacheable(req, snapshot, category)));
     }
 
     public Mono<ServerResponse> create(ServerRequest req) {
@@ -101,6 +111,29 @@ public class CategoryHandler {
                 .bodyValue(ApiResponse.ok(body));
     }
 
+    /**
+     * Respuesta revalidable: ETag = versión del catálogo. Si el cliente ya la tiene
+     * ({@code If-None-Match}) se responde 304 sin cuerpo.
+     */
+    private static Mono<ServerResponse> cacheable(ServerRequest req, CategorySnapshot snapshot, Object body) {
+        String etag = "\"" + snapshot.version() + "\"";
+        boolean notModified = req.headers().header(HttpHeaders.IF_NONE_MATCH).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals(etag) || tag.equals("W/" + etag) || tag.equals("*"));
+        if (notModified) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CATEGORIES_CACHE)
+                    .build();
+        }
+        return ServerResponse.ok()
+                .eTag(etag)
+                .cacheControl(CATEGORIES_CACHE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.ok(body));
+    }
+
     private static Mono<ServerResponse> created(URI location, Object body) {
         return ServerResponse.created(location)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -6,7 +6,8 @@ import co.turismo.api.dto.email.RecoveryEmailResponse;
 import co.turismo.api.dto.response.ApiResponse;
 import co.turismo.api.mapper.DebugEmailMapper;
 import co.turismo.model.common.AppUrlConfig;
-import co.turismo.model.notification.gateways.EmailGateway;
+import co.turismo.model.notification.EmailMessage;
+import co.turismo.model.notification.gateways.EmailDeliveryGateway;
 import co.turismo.usecase.authenticate.AccountRecoveryUseCase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,12 +17,19 @@ import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+/**
+ * Endpoints para probar el proveedor de correo. Entregan directo con
+ * {@link EmailDeliveryGateway}, sin pasar por el outbox: la respuesta refleja si Brevo
+ * aceptó el envío y el contenido de prueba no queda guardado.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DebugEmailHandler {
 
-    private final EmailGateway emailGateway;
+    private final EmailDeliveryGateway emailDelivery;
     private final AccountRecoveryUseCase accountRecoveryUseCase;
     private final AppUrlConfig appUrlConfig;
 
@@ -29,7 +37,7 @@ public class DebugEmailHandler {
         return request.bodyToMono(DebugEmailRequest.class)
                 .flatMap(DebugEmailHandler::validateDebugEmailBody)
                 .map(DebugEmailMapper::toDebugEmailMessage)
-                .flatMap(emailGateway::sendEmail)
+                .flatMap(this::deliver)
                 .then(ok("Correo enviado"))
                 .onErrorResume(error -> handleError("Debug email error", error));
     }
@@ -42,7 +50,7 @@ public class DebugEmailHandler {
                     String token = accountRecoveryUseCase.generateRecoveryToken();
                     String link = buildRecoveryLink(token);
 
-                    return emailGateway.sendEmail(DebugEmailMapper.toRecoveryEmailMessage(email, link))
+                    return deliver(DebugEmailMapper.toRecoveryEmailMessage(email, link))
                             .then(accountRecoveryUseCase.saveRecoveryToken(email, token))
                             .then(ServerResponse.ok()
                                     .header("X-Recovery-Link", link)
@@ -58,7 +66,7 @@ public class DebugEmailHandler {
     public Mono<ServerResponse> sendSimpleTestEmail(ServerRequest request) {
         return requiredQueryParam(request, "to", "Falta parámetro 'to'")
                 .map(DebugEmailMapper::toSimpleTestEmailMessage)
-                .flatMap(emailGateway::sendEmail)
+                .flatMap(this::deliver)
                 .then(Mono.defer(() -> {
                     String to = request.queryParam("to")
                             .map(String::trim)
@@ -69,6 +77,10 @@ public class DebugEmailHandler {
                 .onErrorResume(error -> handleError("Debug simple email error", error));
     }
 
+    private Mono<Void> deliver(EmailMessage message) {
+        return emailDelivery.deliverBatch(List.of(message));
+    }
+
     private static Mono<DebugEmailRequest> validateDebugEmailBody(DebugEmailRequest body) {
         if (!hasText(body.email())) {
             return Mono.error(new IllegalArgumentException("Email requerido"));
@@ -5,8 +5,12 @@ import co.turismo.api.dto.place.PlaceCreateRequest;
 import co.turismo.api.dto.place.UpdateRequest;
 import co.turismo.api.dto.place.VerifyRequest;
 import co.turismo.api.dto.response.ApiResponse;
+import co.turismo.api.http.PageCursors;
+import co.turismo.api.http.StreamingResponses;
 import co.turismo.api.mapper.PlaceMapper;
+import co.turismo.model.common.PageCursor;
 import co.turismo.model.place.Place;
+import co.turismo.model.place.strategy.PlaceSearchMode;
 import co.turismo.usecase.place.PlaceUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,16 +20,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.nio.file.AccessDeniedException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class PlacesHandler {
 
     private static final int MAX_SIZE = 50;
+    // En streaming la página no se acumula en memoria, por eso admite páginas más anchas
+    private static final int MAX_STREAM_SIZE = 1000;
 
     private final PlaceUseCase placeUseCase;
 
@@ -64,10 +72,24 @@ public class PlacesHandler {
     }
 
     public Mono<ServerResponse> searchFilterPlace(ServerRequest request) {
-        return Mono.fromSupplier(() -> PlaceMapper.toSearchCriteria(request, MAX_SIZE))
-                .flatMapMany(placeUseCase::searchPlace)
-                .collectList()
-                .flatMap(PlacesHandler::ok)
+        boolean streaming = StreamingResponses.requested(request);
+        boolean keyset = PageCursors.requested(request);
+        return Mono.fromSupplier(() -> PlaceMapper.toSearchCriteria(request, streaming ? MAX_STREAM_SIZE : MAX_SIZE))
+                .flatMap(criteria -> {
+                    if (keyset) {
+                        // Los modos por relevancia o distancia no tienen una llave estable: siguen con page/size
+                        if (criteria.getMode() != PlaceSearchMode.ALL) {
+                            return Mono.error(new IllegalArgumentException("cursor solo se admite con mode=ALL"));
+                        }
+                        criteria.setAfter(PageCursors.from(request));
+                    }
+                    Flux<Place> places = placeUseCase.searchPlace(criteria);
+                    if (streaming) {
+                        return StreamingResponses.ndjson(places, Place.class);
+                    }
+                    return places.collectList()
+                            .flatMap(list -> keyset ? placesPage(list, criteria.getSize()) : ok(list));
+                })
                 .onErrorResume(IllegalArgumentException.class, PlacesHandler::badRequest);
     }
 
@@ -98,18 +120,24 @@ public class PlacesHandler {
     }
 
     public Mono<ServerResponse> myPlaces(ServerRequest req) {
+        boolean streaming = StreamingResponses.requested(req);
+        boolean keyset = PageCursors.requested(req);
         return Mono.fromSupplier(() -> new Pagination(
-                        parseLimit(req.queryParam("limit").orElse(null), 10),
+                        parseLimit(req.queryParam("limit").orElse(null), 10, streaming ? MAX_STREAM_SIZE : MAX_SIZE),
                         parseOffset(req.queryParam("offset").orElse(null), 0)
                 ))
-                .flatMapMany(pagination -> authenticatedEmail(req)
-                        .flatMapMany(email -> placeUseCase.findMine(
-                                email,
-                                pagination.limit(),
-                                pagination.offset()
-                        )))
-                .collectList()
-                .flatMap(PlacesHandler::ok)
+                .flatMap(pagination -> {
+                    PageCursor after = keyset ? PageCursors.from(req) : null;
+                    Flux<Place> places = authenticatedEmail(req)
+                            .flatMapMany(email -> keyset
+                                    ? placeUseCase.findMineAfter(email, after, pagination.limit())
+                                    : placeUseCase.findMine(email, pagination.limit(), pagination.offset()));
+                    if (streaming) {
+                        return StreamingResponses.ndjson(places, Place.class);
+                    }
+                    return places.collectList()
+                            .flatMap(list -> keyset ? placesPage(list, pagination.limit()) : ok(list));
+                })
                 .onErrorResume(IllegalArgumentException.class, PlacesHandler::badRequest);
     }
 
@@ -194,14 +222,14 @@ public class PlacesHandler {
                         ));
     }
 
-    private static int parseLimit(String value, int fallback) {
+    private static int parseLimit(String value, int fallback, int maxSize) {
         if (!hasText(value)) {
             return fallback;
         }
 
         try {
             int parsed = Integer.parseInt(value.trim());
-            return Math.min(MAX_SIZE, Math.max(1, parsed));
+            return Math.min(maxSize, Math.max(1, parsed));
         } catch (Exception error) {
             throw new IllegalArgumentException("limit inválido");
         }
@@ -225,6 +253,13 @@ public class PlacesHandler {
                 .bodyValue(ApiResponse.ok(body));
     }
 
+    private static Mono<ServerResponse> placesPage(List<Place> places, int limit) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.page(places, PageCursors.next(places, limit,
+                        place -> PageCursor.of(place.getCreatedAt(), place.getId()))));
+    }
+
     private static Mono<ServerResponse> created(URI location, Object body) {
         return ServerResponse.created(location)
                 .contentType(MediaType.APPLICATION_JSON)
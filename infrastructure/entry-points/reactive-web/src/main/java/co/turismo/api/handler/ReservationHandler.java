@@ -6,7 +6,10 @@ import co.turismo.api.dto.reservation.UpdateReservationBody;
 import co.turismo.api.dto.reservation.UpdateReservationStatusBody;
 import co.turismo.api.dto.response.ApiResponse;
 import co.turismo.api.error.RequestValidator;
+import co.turismo.api.http.PageCursors;
 import co.turismo.api.mapper.ReservationMapper;
+import co.turismo.model.common.PageCursor;
+import co.turismo.model.reservation.ReservationDraft;
 import co.turismo.model.reservation.ReservationStatusChange;
 import co.turismo.usecase.reservation.ReservationUseCase;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +21,7 @@ import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -45,6 +49,14 @@ public class ReservationHandler {
 
     public Mono<ServerResponse> myReservations(ServerRequest request) {
         int size = parseSize(request);
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> reservationUseCase.findMineAfter(auth.getName(), after, size))
+                    .collectList()
+                    .flatMap(list -> reservationPage(list, size));
+        }
         int offset = parsePage(request) * size;
 
         return request.principal()
@@ -103,6 +115,20 @@ public class ReservationHandler {
         Optional<String> status = request.queryParam("status")
                 .filter(value -> !value.isBlank());
 
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> reservationUseCase.findForMyAgencyAfter(
+                            auth.getName(),
+                            hasRole(auth, "ADMIN"),
+                            status.orElse(null),
+                            after,
+                            size))
+                    .collectList()
+                    .flatMap(list -> reservationPage(list, size));
+        }
+
         return request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> reservationUseCase.findForMyAgency(
@@ -125,6 +151,21 @@ public class ReservationHandler {
         Optional<String> status = request.queryParam("status")
                 .filter(value -> !value.isBlank());
 
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> reservationUseCase.findForAgencyAfter(
+                            auth.getName(),
+                            agencyId,
+                            hasRole(auth, "ADMIN"),
+                            status.orElse(null),
+                            after,
+                            size))
+                    .collectList()
+                    .flatMap(list -> reservationPage(list, size));
+        }
+
         return request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> reservationUseCase.findForAgency(
@@ -217,6 +258,15 @@ public class ReservationHandler {
                         .bodyValue(ApiResponse.ok(response)));
     }
 
+    private static Mono<ServerResponse> reservationPage(List<ReservationDraft> reservations, int size) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.page(
+                        reservations.stream().map(ReservationMapper::toResponse).toList(),
+                        PageCursors.next(reservations, size,
+                                reservation -> PageCursor.of(reservation.getCreatedAt(), reservation.getId()))));
+    }
+
     private static int parsePage(ServerRequest request) {
         return request.queryParam("page")
                 .map(value -> parseInt(value, "page inválido"))
@@ -3,7 +3,10 @@ package co.turismo.api.handler;
 import co.turismo.api.dto.reservationmessage.SendReservationMessageBody;
 import co.turismo.api.dto.response.ApiResponse;
 import co.turismo.api.error.RequestValidator;
+import co.turismo.api.http.PageCursors;
 import co.turismo.api.mapper.ReservationMessageMapper;
+import co.turismo.model.common.PageCursor;
+import co.turismo.model.reservation.ReservationMessage;
 import co.turismo.usecase.reservation.ReservationMessageUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -14,6 +17,8 @@ import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class ReservationMessageHandler {
@@ -29,6 +34,15 @@ public class ReservationMessageHandler {
         int size = parseSize(request);
         int offset = parsePage(request) * size;
 
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> reservationMessageUseCase.findForCustomerAfter(auth.getName(), reservationId, after, size))
+                    .collectList()
+                    .flatMap(list -> messagePage(list, size));
+        }
+
         return request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> reservationMessageUseCase.findForCustomer(auth.getName(), reservationId, size, offset))
@@ -61,6 +75,20 @@ public class ReservationMessageHandler {
         int size = parseSize(request);
         int offset = parsePage(request) * size;
 
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> reservationMessageUseCase.findForAgencyAfter(
+                            auth.getName(),
+                            hasRole(auth, "ADMIN"),
+                            reservationId,
+                            after,
+                            size))
+                    .collectList()
+                    .flatMap(list -> messagePage(list, size));
+        }
+
         return request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> reservationMessageUseCase.findForAgency(
@@ -82,6 +110,21 @@ public class ReservationMessageHandler {
         int size = parseSize(request);
         int offset = parsePage(request) * size;
 
+        if (PageCursors.requested(request)) {
+            PageCursor after = PageCursors.from(request);
+            return request.principal()
+                    .cast(Authentication.class)
+                    .flatMapMany(auth -> reservationMessageUseCase.findForAgencyAfter(
+                            auth.getName(),
+                            agencyId,
+                            hasRole(auth, "ADMIN"),
+                            reservationId,
+                            after,
+                            size))
+                    .collectList()
+                    .flatMap(list -> messagePage(list, size));
+        }
+
         return request.principal()
                 .cast(Authentication.class)
                 .flatMapMany(auth -> reservationMessageUseCase.findForAgency(
@@ -136,6 +179,15 @@ public class ReservationMessageHandler {
                         .bodyValue(ApiResponse.of(201, "Message sent", response)));
     }
 
+    private static Mono<ServerResponse> messagePage(List<ReservationMessage> messages, int size) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.page(
+                        messages.stream().map(ReservationMessageMapper::toResponse).toList(),
+                        PageCursors.next(messages, size,
+                                message -> PageCursor.of(message.getCreatedAt(), message.getId()))));
+    }
+
     private static int parsePage(ServerRequest request) {
         return request.queryParam("page")
                 .map(value -> parseInt(value, "page inválido"))
@@ -3,6 +3,8 @@ package co.turismo.api.handler;
 import co.turismo.api.dto.review.CreateReviewBody;
 import co.turismo.api.dto.review.RatingSummaryResponse;
 import co.turismo.api.dto.response.ApiResponse;
+import co.turismo.api.http.PageCursors;
+import co.turismo.model.common.PageCursor;
 import co.turismo.usecase.reviews.ReviewsUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
@@ -26,6 +28,15 @@ public class ReviewsHandler {
                 .map(Integer::parseInt)
                 .map(v -> Math.min(MAX_LIMIT, Math.max(1, v)))
                 .orElse(20);
+        if (PageCursors.requested(req)) {
+            PageCursor after = PageCursors.from(req);
+            return reviews.listAfter(placeId, after, limit)
+                    .collectList()
+                    .flatMap(list -> ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(ApiResponse.page(list, PageCursors.next(list, limit,
+                                    review -> PageCursor.of(review.getCreatedAt(), review.getId())))));
+        }
         int offset = req.queryParam("offset")
                 .map(Integer::parseInt)
                 .orElse(0);
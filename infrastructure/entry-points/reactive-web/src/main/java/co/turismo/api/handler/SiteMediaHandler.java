@@ -2,6 +2,7 @@ package co.turismo.api.handler;
 
 import co.turismo.api.dto.response.ApiResponse;
 import co.turismo.api.dto.sitemedia.SiteMediaResponse;
+import co.turismo.api.http.StreamingResponses;
 import co.turismo.usecase.sitemedia.SiteMediaUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -62,11 +63,14 @@ public class SiteMediaHandler {
     }
 
     public Mono<ServerResponse> list(ServerRequest request) {
-        return siteId(request)
+        Flux<SiteMediaResponse> media = siteId(request)
                 .flatMapMany(siteId -> useCase.findBySite(siteId)
-                        .flatMap(media -> useCase.presignedUrl(media)
-                                .map(access -> SiteMediaResponse.from(media, access))))
-                .collectList()
+                        .flatMap(item -> useCase.presignedUrl(item)
+                                .map(access -> SiteMediaResponse.from(item, access))));
+        if (StreamingResponses.requested(request)) {
+            return StreamingResponses.ndjson(media, SiteMediaResponse.class);
+        }
+        return media.collectList()
                 .flatMap(body -> ServerResponse.ok().bodyValue(ApiResponse.ok(body)));
     }
 
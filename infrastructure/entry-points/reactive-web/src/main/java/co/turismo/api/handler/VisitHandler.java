@@ -3,7 +3,9 @@ package co.turismo.api.handler;
 import co.turismo.api.dto.visit.*;
 import co.turismo.api.dto.common.SimpleMessageResponse;
 import co.turismo.api.http.HttpResponses;
+import co.turismo.api.http.PageCursors;
 import co.turismo.api.mapper.VisitMapper;
+import co.turismo.model.common.PageCursor;
 import co.turismo.usecase.visit.VisitsUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -107,6 +109,19 @@ public class VisitHandler {
         int limit = Math.min(MAX_LIMIT, Math.max(1, Integer.parseInt(req.queryParam("limit").orElse("20"))));
         int offset = Math.max(0, Integer.parseInt(req.queryParam("offset").orElse("0")));
 
+        if (PageCursors.requested(req)) {
+            PageCursor after = PageCursors.from(req);
+            return authenticatedEmail(req)
+                    .flatMapMany(email -> visitsUseCase.myFavoritesAfter(email, after, limit))
+                    .collectList()
+                    .flatMap(list -> HttpResponses.page(
+                            list.stream().map(VisitMapper::toFavoriteResponse).toList(),
+                            PageCursors.next(list, limit,
+                                    favorite -> PageCursor.of(favorite.getFavoritedAt(), favorite.getPlaceId()))))
+                    .onErrorResume(IllegalArgumentException.class,
+                            e -> HttpResponses.badRequest(e.getMessage()));
+        }
+
         return authenticatedEmail(req)
                 .flatMapMany(email -> visitsUseCase.myFavorites(email, limit, offset))
                 .map(VisitMapper::toFavoriteResponse)
@@ -16,6 +16,12 @@ public final class HttpResponses {
                 .bodyValue(ApiResponse.ok(body));
     }
 
+    public static <T> Mono<ServerResponse> page(T body, String nextCursor) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.page(body, nextCursor));
+    }
+
     public static <T> Mono<ServerResponse> created(String location, T body) {
         return ServerResponse.created(java.net.URI.create(location))
                 .contentType(MediaType.APPLICATION_JSON)
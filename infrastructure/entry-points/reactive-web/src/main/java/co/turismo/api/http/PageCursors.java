@@ -0,0 +1,63 @@
+package co.turismo.api.http;
+
+import co.turismo.model.common.PageCursor;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Codificación del cursor opaco de los listados paginados por llave.
+ * El parámetro {@code cursor} activa ese modo: vacío pide la primera página y
+ * cada respuesta trae {@code nextCursor} mientras queden filas.
+ */
+public final class PageCursors {
+
+    public static final String PARAM = "cursor";
+
+    private static final char SEPARATOR = '|';
+
+    private PageCursors() {}
+
+    /** true si el cliente pidió paginación por cursor (aunque sea vacío). */
+    public static boolean requested(ServerRequest request) {
+        return request.queryParam(PARAM).isPresent();
+    }
+
+    /** Cursor recibido o null para la primera página. */
+    public static PageCursor from(ServerRequest request) {
+        return request.queryParam(PARAM)
+                .filter(value -> !value.isBlank())
+                .map(PageCursors::decode)
+                .orElse(null);
+    }
+
+    public static String encode(PageCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = cursor.createdAt().toString() + SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new PageCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException error) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+    }
+
+    /** Cursor de la página siguiente; null si la página vino incompleta (no hay más filas). */
+    public static <T> String next(List<T> page, int limit, Function<T, PageCursor> key) {
+        if (page.isEmpty() || page.size() < limit) {
+            return null;
+        }
+        return encode(key.apply(page.get(page.size() - 1)));
+    }
+}
@@ -1,5 +1,6 @@
 package co.turismo.api.http;
 
+import co.turismo.api.dto.response.ApiResponse;
 import org.reactivestreams.Publisher;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -11,6 +12,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.EntityResponse;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -27,6 +31,12 @@ public class ResponseEnvelopeFilter implements WebFilter {
     private static final String HEADER_SKIP    = "X-Envelope-Skip";
     private static final String HEADER_DISABLE = "X-Envelope-Disable";
 
+    /** Atributo del exchange que indica que el cuerpo ya es un {@link ApiResponse}. */
+    public static final String ENVELOPED_ATTRIBUTE = ResponseEnvelopeFilter.class.getName() + ".ENVELOPED";
+
+    private static final byte[] NULL_DATA = "null".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "}".getBytes(StandardCharsets.UTF_8);
+
     // Rutas que NO deben tener envelope (incluyen endpoints de listados masivos)
     private static final List<String> EXCLUDED_PATHS = List.of(
             "/actuator",
@@ -79,39 +89,49 @@ public class ResponseEnvelopeFilter implements WebFilter {
                     return super.writeWith(body);
                 }
 
-                return DataBufferUtils.join(Flux.from(body))
-                        .flatMap(buf -> {
-                            try {
-                                byte[] bytes = new byte[buf.readableByteCount()];
-                                buf.read(bytes);
-                                String originalBody = new String(bytes, StandardCharsets.UTF_8);
-                                String trimmed = originalBody.trim();
-
-                                // Si ya está en formato {status,...,data:...} no lo tocamos
-                                if (alreadyEnveloped(trimmed)) {
-                                    getHeaders().remove("Content-Length");
-                                    return super.writeWith(Mono.just(bufferFactory.wrap(trimmed.getBytes(StandardCharsets.UTF_8))));
-                                }
-
-                                String message = defaultMessage(sc.value());
-                                String wrapped = "{\"status\":" + sc.value() +
-                                        ",\"message\":\"" + escapeJson(message) + "\"," +
-                                        "\"data\":" + (trimmed.isEmpty() ? "null" : trimmed) + "}";
-
-                                getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                                getHeaders().remove("Content-Length");
-                                DataBuffer out = bufferFactory.wrap(wrapped.getBytes(StandardCharsets.UTF_8));
-                                return super.writeWith(Mono.just(out));
-                            } finally {
-                                DataBufferUtils.release(buf);
-                            }
-                        });
+                // El handler ya respondió con ApiResponse: se escribe tal cual, sin leer el cuerpo
+                if (Boolean.TRUE.equals(exchange.getAttribute(ENVELOPED_ATTRIBUTE))) {
+                    return super.writeWith(body);
+                }
+
+                // Envelope como prefijo/sufijo alrededor de los buffers originales (sin copiar el cuerpo)
+                byte[] prefix = ("{\"status\":" + sc.value()
+                        + ",\"message\":\"" + escapeJson(defaultMessage(sc.value())) + "\""
+                        + ",\"data\":").getBytes(StandardCharsets.UTF_8);
+
+                Flux<DataBuffer> data = Flux.<DataBuffer>from(body)
+                        .filter(buf -> {
+                            if (buf.readableByteCount() > 0) return true;
+                            DataBufferUtils.release(buf);
+                            return false;
+                        })
+                        .switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.wrap(NULL_DATA)));
+
+                getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                getHeaders().remove("Content-Length");
+                return super.writeWith(Flux.concat(
+                        Mono.fromSupplier(() -> bufferFactory.wrap(prefix)),
+                        data,
+                        Mono.fromSupplier(() -> bufferFactory.wrap(SUFFIX))));
             }
         };
 
         return chain.filter(exchange.mutate().response(decorated).build());
     }
 
+    /**
+     * Filtro de handler que marca el exchange cuando la respuesta es un {@link ApiResponse},
+     * para que este filtro no vuelva a envolverla ni tenga que inspeccionar el cuerpo.
+     */
+    public static HandlerFilterFunction<ServerResponse, ServerResponse> markEnveloped() {
+        return (request, next) -> next.handle(request)
+                .doOnNext(response -> {
+                    if (response instanceof EntityResponse<?> entity && entity.entity() instanceof ApiResponse<?>) {
+                        request.exchange().getAttributes().put(ENVELOPED_ATTRIBUTE, Boolean.TRUE);
+                    }
+                });
+    }
+
     /**
      * Verifica si el path debe ser excluido del envelope
      */
@@ -128,10 +148,6 @@ public class ResponseEnvelopeFilter implements WebFilter {
                 || "true".equalsIgnoreCase(h.getFirst(HEADER_DISABLE));
     }
 
-    private static boolean alreadyEnveloped(String json) {
-        return json.startsWith("{") && json.contains("\"status\"") && json.contains("\"data\"");
-    }
-
     private static String defaultMessage(int status) {
         return switch (status) {
             case 200 -> "OK";
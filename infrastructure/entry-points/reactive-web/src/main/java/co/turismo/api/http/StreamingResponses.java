@@ -0,0 +1,33 @@
+package co.turismo.api.http;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Modo streaming opcional para listados grandes: cada elemento del {@link Flux} se
+ * serializa como una línea JSON (NDJSON) en cuanto llega de la BD, sin armar la
+ * página completa en memoria ni envolverla en {@code ApiResponse}.
+ * <p>
+ * Se activa con {@code Accept: application/x-ndjson} o con {@code ?stream=true}.
+ */
+public final class StreamingResponses {
+
+    public static final String PARAM = "stream";
+
+    private StreamingResponses() {}
+
+    public static boolean requested(ServerRequest request) {
+        boolean byAccept = request.headers().accept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return byAccept || request.queryParam(PARAM).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    public static <T> Mono<ServerResponse> ndjson(Flux<T> body, Class<T> elementType) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body, elementType);
+    }
+}
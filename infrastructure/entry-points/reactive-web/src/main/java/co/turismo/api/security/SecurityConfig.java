@@ -75,12 +75,14 @@ public class SecurityConfig {
                 "X-Requested-With",
                 "X-CSRF-Token",
                 "X-Event-Checksum",
-                "Cache-Control"
+                "Cache-Control",
+                "If-None-Match"
         ));
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
                 "Content-Type",
-                "X-Total-Count"
+                "X-Total-Count",
+                "ETag"
         ));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
@@ -0,0 +1,51 @@
+package co.turismo.api.config;
+
+import co.turismo.model.error.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class BCryptPasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BCryptPasswordHasher hasher = new BCryptPasswordHasher(4, 1, 0, registry);
+
+    @AfterEach
+    void tearDown() {
+        hasher.dispose();
+    }
+
+    @Test
+    void hashShouldRunOffCallerThreadAndMatch() {
+        String caller = Thread.currentThread().getName();
+
+        StepVerifier.create(hasher.hash("Password123")
+                        .doOnNext(hash -> assertNotEquals(caller, Thread.currentThread().getName()))
+                        .flatMap(hash -> hasher.matches("Password123", hash)))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(2, registry.get("auth.password.duration").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    void shouldRejectWithServiceUnavailableWhenSaturated() {
+        // Costo alto para que la primera operación siga ocupando el único hilo
+        BCryptPasswordHasher slow = new BCryptPasswordHasher(12, 1, 0, registry);
+        try {
+            StepVerifier.create(Flux.merge(slow.hash("Password123"), slow.hash("Password456")))
+                    .expectError(ServiceUnavailableException.class)
+                    .verify();
+        } finally {
+            slow.dispose();
+        }
+
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+    }
+}
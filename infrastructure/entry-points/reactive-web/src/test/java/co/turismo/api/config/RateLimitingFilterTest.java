@@ -0,0 +1,53 @@
+package co.turismo.api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitingFilterTest {
+
+    private final RateLimitingFilter filter = new RateLimitingFilter(properties(), (key, config) -> Mono.empty());
+
+    @Test
+    void shouldSkipExactAndPatternPaths() {
+        assertTrue(skip("/actuator/health"));
+        assertTrue(skip("/"));
+        assertTrue(skip("/v3/api-docs/swagger-config"));
+        assertFalse(skip("/api/places/search"));
+    }
+
+    @Test
+    void shouldReuseCompiledConfigPerPrefix() {
+        RateLimitingFilter.PathConfig auth = filter.resolvePathConfig("/api/auth/login");
+
+        assertEquals("rl:/api/auth", auth.keyPrefix());
+        assertEquals(30, auth.capacity());
+        assertSame(auth, filter.resolvePathConfig("/api/auth/refresh"));
+        assertEquals("rl:default", filter.resolvePathConfig("/api/reservations").keyPrefix());
+    }
+
+    private boolean skip(String path) {
+        return filter.mustSkip(path, PathContainer.parsePath(path));
+    }
+
+    private static RateLimiterProperties properties() {
+        RateLimiterProperties props = new RateLimiterProperties();
+        RateLimiterProperties.PathLimit auth = new RateLimiterProperties.PathLimit();
+        auth.capacity = 30;
+        auth.refillPerWindow = 30;
+        Map<String, RateLimiterProperties.PathLimit> perPath = new LinkedHashMap<>();
+        perPath.put("/api/auth", auth);
+        props.setPerPath(perPath);
+        props.setSkipPaths(List.of("/actuator/health", "/", "/v3/api-docs/**"));
+        return props;
+    }
+}
@@ -0,0 +1,82 @@
+package co.turismo.api.config;
+
+import co.turismo.model.ratelimit.RateLimitLease;
+import co.turismo.model.ratelimit.gateways.RateLimitLeaseGateway;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SharedRateLimitStoreTest {
+
+    private final RateLimitingFilter.PathConfig config =
+            new RateLimitingFilter.PathConfig(3, Duration.ofMinutes(1), 3, "rl:/api/auth", "/api/auth");
+
+    /** Bucket central en memoria, sin recarga, como stand-in de Postgres. */
+    private final AtomicLong bucket = new AtomicLong(3);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final RateLimitLeaseGateway gateway = (key, capacity, refill, window, requested) -> {
+        calls.incrementAndGet();
+        long granted = Math.min(requested, bucket.get());
+        long remaining = bucket.addAndGet(-granted);
+        return Mono.just(new RateLimitLease(granted, remaining, 20));
+    };
+
+    @Test
+    void shouldBatchTokensAndStopAtSharedLimit() {
+        SharedRateLimitStore store = new SharedRateLimitStore(gateway, 2, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(store.consume("rl:/api/auth:10.0.0.1", config))
+                    .expectNextMatches(RateLimitDecision::allowed)
+                    .verifyComplete();
+        }
+        StepVerifier.create(store.consume("rl:/api/auth:10.0.0.1", config))
+                .expectNextMatches(decision -> !decision.allowed() && decision.resetSeconds() == 20)
+                .verifyComplete();
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void shouldNotQueryBackendAgainWhileSharedBucketIsEmpty() {
+        bucket.set(0);
+        SharedRateLimitStore store = new SharedRateLimitStore(gateway, 2, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(store.consume("rl:/api/auth:10.0.0.1", config))
+                    .expectNextMatches(decision -> !decision.allowed())
+                    .verifyComplete();
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void concurrentRequestsBeyondOneLeaseShouldWaitForTheNextLeaseInsteadOfBeingDenied() {
+        RateLimitingFilter.PathConfig perIp =
+                new RateLimitingFilter.PathConfig(600, Duration.ofMinutes(1), 600, "rl:/api", "/api");
+        AtomicLong shared = new AtomicLong(600);
+        // Respuesta asíncrona: los 20 requests llegan mientras el primer lease está en vuelo
+        RateLimitLeaseGateway slow = (key, capacity, refill, window, requested) -> Mono.fromSupplier(() -> {
+            long granted = Math.min(requested, shared.get());
+            return new RateLimitLease(granted, shared.addAndGet(-granted), 1);
+        }).delaySubscription(Duration.ofMillis(5));
+        SharedRateLimitStore store = new SharedRateLimitStore(slow, 5, Duration.ofSeconds(30));
+
+        StepVerifier.create(Flux.range(0, 20)
+                        .flatMap(i -> store.consume("rl:/api:10.0.0.1", perIp))
+                        .filter(RateLimitDecision::allowed)
+                        .count())
+                .expectNext(20L)
+                .verifyComplete();
+
+        assertEquals(580, shared.get());
+    }
+}
@@ -0,0 +1,42 @@
+package co.turismo.api.http;
+
+import co.turismo.model.common.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorsTest {
+
+    @Test
+    void encodeAndDecodeShouldRoundTrip() {
+        PageCursor cursor = new PageCursor(Instant.parse("2026-05-01T10:15:30.123456Z"), "reserva|42");
+
+        assertEquals(cursor, PageCursors.decode(PageCursors.encode(cursor)));
+    }
+
+    @Test
+    void decodeShouldRejectTamperedValues() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursors.decode("no-es-un-cursor"));
+    }
+
+    @Test
+    void nextShouldBeNullWhenPageIsNotFull() {
+        List<Long> page = List.of(1L, 2L);
+
+        assertNull(PageCursors.next(page, 3, id -> new PageCursor(Instant.EPOCH, String.valueOf(id))));
+    }
+
+    @Test
+    void nextShouldPointToLastElementWhenPageIsFull() {
+        List<Long> page = List.of(1L, 2L, 3L);
+
+        String next = PageCursors.next(page, 3, id -> new PageCursor(Instant.EPOCH, String.valueOf(id)));
+
+        assertEquals("3", PageCursors.decode(next).id());
+    }
+}
@@ -0,0 +1,43 @@
+package co.turismo.api.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.List;
+
+class ResponseEnvelopeFilterTest {
+
+    private final WebTestClient client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                    .GET("/raw", request -> ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(List.of(1, 2, 3)))
+                    .GET("/wrapped", request -> HttpResponses.ok("hola"))
+                    .build()
+                    .filter(ResponseEnvelopeFilter.markEnveloped()))
+            .webFilter(new ResponseEnvelopeFilter())
+            .build();
+
+    @Test
+    void shouldWrapRawJsonBody() {
+        client.get().uri("/raw")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(200)
+                .jsonPath("$.data.length()").isEqualTo(3)
+                .jsonPath("$.data[0]").isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotWrapApiResponseTwice() {
+        client.get().uri("/wrapped")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data").isEqualTo("hola")
+                .jsonPath("$.data.data").doesNotExist();
+    }
+}
@@ -0,0 +1,52 @@
+package co.turismo.api.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+class StreamingResponsesTest {
+
+    record Item(int id) {}
+
+    private final WebTestClient client = WebTestClient.bindToRouterFunction(RouterFunctions.route(GET("/items"),
+                    request -> {
+                        Flux<Item> items = Flux.just(new Item(1), new Item(2));
+                        return StreamingResponses.requested(request)
+                                ? StreamingResponses.ndjson(items, Item.class)
+                                : items.collectList().flatMap(list -> ServerResponse.ok().bodyValue(list));
+                    }))
+            .build();
+
+    @Test
+    void shouldStreamNdjsonWhenAcceptHeaderAsksForIt() {
+        client.get().uri("/items")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Item.class)
+                .isEqualTo(List.of(new Item(1), new Item(2)));
+    }
+
+    @Test
+    void shouldStreamNdjsonWhenQueryFlagIsSet() {
+        client.get().uri("/items?stream=true")
+                .exchange()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void shouldKeepJsonArrayByDefault() {
+        client.get().uri("/items")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+}